@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-lobby and per-group token buckets that cap how many connections are routed
+ * to a backend per second.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the bucket's theoretical
+ * arrival time (the GCRA form of a token bucket), so taking a token is one
+ * compare-and-set with no locking. Plans for a player about to be connected take
+ * their token as they select; previews and other plans only look at the buckets.
+ * Rates are read from the active settings on every call, which lets reloads change
+ * limits without resetting buckets.
+ */
+public final class AdmissionLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TimeSource time;
+    private final ServerRegistry registry;
+    private final ServerSlots<AtomicLong> lobbyBuckets = new ServerSlots<>();
+    private final ConcurrentMap<String, AtomicLong> groupBuckets = new ConcurrentHashMap<>();
+    private final ServerSlots<AtomicLong> lobbySkips = new ServerSlots<>();
+    private final ConcurrentMap<String, AtomicLong> groupSkips = new ConcurrentHashMap<>();
+
+    public AdmissionLimiter() {
+        this(TimeSource.system());
+    }
+
+    AdmissionLimiter(TimeSource time) {
+        this(time, ServerRegistry.shared());
+    }
+
+    AdmissionLimiter(TimeSource time, ServerRegistry registry) {
+        this.time = time;
+        this.registry = registry;
+    }
+
+    /**
+     * Takes a token from {@code serverName}'s bucket with one compare-and-set. Returns
+     * {@code true} when the lobby may receive another connection; a refusal is counted as
+     * a throttled skip.
+     */
+    public boolean tryAcquireLobby(String serverName, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.lobbyPerSecond() <= 0) {
+            return true;
+        }
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return true;
+        }
+        AtomicLong bucket = lobbyBuckets.computeIfAbsent(id, ignored -> new AtomicLong(Long.MIN_VALUE));
+        if (tryAcquire(bucket, settings.lobbyPerSecond(), settings.lobbyBurst())) {
+            return true;
+        }
+        lobbySkips.computeIfAbsent(id, ignored -> new AtomicLong()).incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Takes a token from {@code group}'s bucket. Returns {@code true} when the group
+     * may receive another connection; a refusal is counted as a throttled skip.
+     */
+    public boolean tryAcquireGroup(String group, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.groupPerSecond() <= 0) {
+            return true;
+        }
+        String key = normalize(group);
+        AtomicLong bucket = groupBuckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        if (tryAcquire(bucket, settings.groupPerSecond(), settings.groupBurst())) {
+            return true;
+        }
+        groupSkips.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Takes a token from {@code serverName}'s bucket even if it is empty, for a player routed
+     * there because every option was throttled. The overdraft is kept, so the lobby's next
+     * tokens arrive that much later and the rate holds on average.
+     */
+    public void forceAcquireLobby(String serverName, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.lobbyPerSecond() <= 0) {
+            return;
+        }
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            forceAcquire(lobbyBuckets.computeIfAbsent(id, ignored -> new AtomicLong(Long.MIN_VALUE)), settings.lobbyPerSecond());
+        }
+    }
+
+    /**
+     * Takes a token from {@code group}'s bucket even if it is empty; see {@link #forceAcquireLobby}.
+     */
+    public void forceAcquireGroup(String group, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.groupPerSecond() <= 0) {
+            return;
+        }
+        AtomicLong bucket = groupBuckets.computeIfAbsent(normalize(group), k -> new AtomicLong(Long.MIN_VALUE));
+        forceAcquire(bucket, settings.groupPerSecond());
+    }
+
+    /**
+     * Whether {@code serverName}'s bucket has a token right now, for plans that will not
+     * connect anyone. Takes nothing and counts nothing.
+     */
+    public boolean hasLobbyToken(String serverName, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.lobbyPerSecond() <= 0) {
+            return true;
+        }
+        return hasToken(lobbyBuckets.get(registry.idOf(serverName)), settings.lobbyPerSecond(), settings.lobbyBurst());
+    }
+
+    /**
+     * Whether {@code group}'s bucket has a token right now. Takes nothing and counts nothing.
+     */
+    public boolean hasGroupToken(String group, Config.AdmissionSettings settings) {
+        if (settings == null || !settings.enabled() || settings.groupPerSecond() <= 0) {
+            return true;
+        }
+        return hasToken(groupBuckets.get(normalize(group)), settings.groupPerSecond(), settings.groupBurst());
+    }
+
+    public Map<String, Long> getLobbySkipCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            AtomicLong skips = lobbySkips.get(id);
+            if (skips != null) {
+                result.put(registry.name(id), skips.get());
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    public Map<String, Long> getGroupSkipCounts() {
+        return snapshot(groupSkips);
+    }
+
+    public void retainServers(Collection<String> serverNames) {
+        if (serverNames == null) {
+            lobbyBuckets.clear();
+            return;
+        }
+        Set<Integer> retained = new HashSet<>();
+        for (String serverName : serverNames) {
+            int id = registry.idOf(serverName);
+            if (id != ServerRegistry.UNKNOWN) {
+                retained.add(id);
+            }
+        }
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            if (!retained.contains(id)) {
+                lobbyBuckets.set(id, null);
+            }
+        }
+    }
+
+    public void clear() {
+        lobbyBuckets.clear();
+        groupBuckets.clear();
+        lobbySkips.clear();
+        groupSkips.clear();
+    }
+
+    private boolean tryAcquire(AtomicLong bucket, double perSecond, int burst) {
+        long now = time.nanoTime();
+        long interval = interval(perSecond);
+        long tolerance = interval * burst;
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            if (next - now > tolerance) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    private void forceAcquire(AtomicLong bucket, double perSecond) {
+        long now = time.nanoTime();
+        long interval = interval(perSecond);
+        bucket.getAndUpdate(arrival -> Math.max(arrival, now) + interval);
+    }
+
+    private boolean hasToken(AtomicLong bucket, double perSecond, int burst) {
+        if (bucket == null) {
+            return true;
+        }
+        long now = time.nanoTime();
+        long interval = interval(perSecond);
+        return Math.max(bucket.get(), now) + interval - now <= interval * burst;
+    }
+
+    private static long interval(double perSecond) {
+        return Math.max(1L, (long) (NANOS_PER_SECOND / perSecond));
+    }
+
+    private Map<String, Long> snapshot(ConcurrentMap<String, AtomicLong> counters) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return Map.copyOf(result);
+    }
+
+    private String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact player → lobby map behind {@link PlayerAffinityService}.
+ * <p>
+ * An open-addressing table with linear probing keeps each player in parallel
+ * primitive arrays: the two UUID longs, an int lobby ID from a small intern table,
+ * an int expiry tick and a flag byte, about 25 bytes a player before load factor.
+ * Expiry runs off a {@link TimingWheel} instead of full scans, and once the table
+ * holds {@code maxEntries} players a new one evicts the least recently set of a few
+ * sampled entries. Each player has at most one live wheel entry: a later expiry is
+ * picked up when that entry fires, and the wheel is rebuilt from the table once stale
+ * entries of removed players outnumber the live ones.
+ * <p>
+ * Large stores are split by UUID hash into up to {@value #MAX_SEGMENTS} segments,
+ * each with its own table, wheel, lock and share of {@code maxEntries}, so routing
+ * lookups for different players rarely wait on each other.
+ */
+final class AffinityStore {
+
+    static final int SAMPLE_SIZE = 8;
+
+    static final int MAX_SEGMENTS = 16;
+
+    /** Smallest share of {@code maxEntries} worth giving its own segment. */
+    private static final int MIN_SEGMENT_ENTRIES = 4096;
+    private static final int NO_SERVER = 0;
+    private static final int MIN_CAPACITY = 64;
+    private static final byte PREFERRED = 1;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    AffinityStore(int maxEntries, long startTick) {
+        int bounded = Math.max(1, maxEntries);
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, bounded / MIN_SEGMENT_ENTRIES)));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(bounded / count + (i < bounded % count ? 1 : 0), startTick);
+        }
+        // Segments take the top hash bits; each table indexes with the low ones
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * Sets the lobby of {@code playerId} until {@code expiresTick}. A player marked
+     * {@link #markPreferred preferred} and not yet expired at {@code nowTick} keeps
+     * their lobby once, with the new expiry.
+     */
+    void put(UUID playerId, String server, long nowTick, long expiresTick) {
+        segment(playerId).put(playerId, server, nowTick, expiresTick);
+    }
+
+    /**
+     * Lobby of {@code playerId}, or {@code null} if none is set or it expired before {@code nowTick}.
+     */
+    String get(UUID playerId, long nowTick) {
+        return segment(playerId).get(playerId, nowTick);
+    }
+
+    /**
+     * Keeps the current lobby of {@code playerId} through their next {@link #put}, if it is still {@code server}.
+     */
+    void markPreferred(UUID playerId, String server) {
+        segment(playerId).markPreferred(playerId, server);
+    }
+
+    void remove(UUID playerId) {
+        segment(playerId).remove(playerId);
+    }
+
+    /**
+     * Drops every player whose expiry passed before {@code nowTick}.
+     */
+    void expire(long nowTick) {
+        for (Segment segment : segments) {
+            segment.expire(nowTick);
+        }
+    }
+
+    /**
+     * Receives one stored player: the two UUID longs, their lobby and expiry tick.
+     */
+    interface Visitor {
+        void visit(long high, long low, String server, long expiresTick);
+    }
+
+    /**
+     * Receives one table slot changed since the last {@link #drainChanges}: its segment,
+     * that segment's table size, the slot index and the player now in it, or a
+     * {@code null} server once the slot is empty.
+     */
+    interface SlotVisitor {
+        void visit(int segment, int slots, int slot, long high, long low, String server, long expiresTick);
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Visits every slot changed since the previous call and clears its mark. A segment
+     * whose table was resized or cleared reports all of its slots.
+     */
+    void drainChanges(SlotVisitor visitor) {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].drainChanges(i, visitor);
+        }
+    }
+
+    Map<UUID, String> snapshot() {
+        Map<UUID, String> snapshot = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            segment.forEach((high, low, server, expiresTick) -> snapshot.put(new UUID(high, low), server));
+        }
+        return snapshot;
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Entries in the expiry wheels, including stale ones of removed players.
+     */
+    long pendingExpiries() {
+        long pending = 0;
+        for (Segment segment : segments) {
+            pending += segment.pendingExpiries();
+        }
+        return pending;
+    }
+
+    long evictions() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.evictions();
+        }
+        return evictions;
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segment(UUID playerId) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[hash(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits()) >>> segmentShift];
+    }
+
+    private static int tableSizeFor(int entries) {
+        long needed = (long) Math.ceil(entries / 0.75);
+        return (int) Math.min(1 << 30, Math.max(MIN_CAPACITY, Long.highestOneBit(needed - 1) << 1));
+    }
+
+    private static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static final class Segment {
+
+        private final int maxEntries;
+        private final int maxCapacity;
+        private final Map<String, Integer> serverIds = new HashMap<>();
+        private final List<String> serverNames = new ArrayList<>(List.of(""));
+        private final TimingWheel wheel;
+
+        private long[] highs;
+        private long[] lows;
+        private int[] servers;
+        private int[] expires;
+        private byte[] flags;
+        // Deadline of the player's live wheel entry, 0 if none
+        private int[] filed;
+        // One bit per slot written since the last drain
+        private long[] changed;
+        private int mask;
+        private int size;
+        private int hand;
+        private long evictions;
+
+        private Segment(int maxEntries, long startTick) {
+            this.maxEntries = Math.max(1, maxEntries);
+            this.maxCapacity = tableSizeFor(this.maxEntries);
+            this.wheel = new TimingWheel(startTick);
+            allocate(Math.min(MIN_CAPACITY, maxCapacity));
+        }
+
+        private synchronized void put(UUID playerId, String server, long nowTick, long expiresTick) {
+            long high = playerId.getMostSignificantBits();
+            long low = playerId.getLeastSignificantBits();
+            int slot = find(high, low);
+            if (slot < 0) {
+                if (size >= maxEntries) {
+                    evict();
+                } else if (size + 1 > (mask + 1) * 3L / 4 && mask + 1 < maxCapacity) {
+                    allocate((mask + 1) * 2);
+                }
+                slot = insertionSlot(high, low);
+                highs[slot] = high;
+                lows[slot] = low;
+                servers[slot] = serverId(server);
+                size++;
+            } else if ((flags[slot] & PREFERRED) == 0 || nowTick > expires[slot]) {
+                servers[slot] = serverId(server);
+            }
+            flags[slot] = 0;
+            expires[slot] = (int) expiresTick;
+            markChanged(slot);
+            // A later deadline is found when the filed one fires; only an earlier one needs a new entry
+            int deadline = (int) expiresTick + 1;
+            if (filed[slot] == 0 || deadline < filed[slot]) {
+                filed[slot] = deadline;
+                wheel.schedule(high, low, deadline);
+                if (wheel.pending() > 2L * Math.max(size, MIN_CAPACITY)) {
+                    refile();
+                }
+            }
+        }
+
+        private synchronized String get(UUID playerId, long nowTick) {
+            int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+            if (slot < 0) {
+                return null;
+            }
+            if (nowTick > expires[slot]) {
+                removeAt(slot);
+                return null;
+            }
+            return serverNames.get(servers[slot]);
+        }
+
+        private synchronized void markPreferred(UUID playerId, String server) {
+            int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+            if (slot >= 0 && serverNames.get(servers[slot]).equals(server)) {
+                flags[slot] |= PREFERRED;
+            }
+        }
+
+        private synchronized void remove(UUID playerId) {
+            int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+            if (slot >= 0) {
+                removeAt(slot);
+            }
+        }
+
+        private synchronized void expire(long nowTick) {
+            wheel.advance(nowTick, (high, low, deadline) -> {
+                int slot = find(high, low);
+                // Entries of removed players, or replaced by an earlier deadline, are stale
+                if (slot < 0 || filed[slot] != deadline) {
+                    return;
+                }
+                if (expires[slot] + 1L <= deadline) {
+                    removeAt(slot);
+                } else {
+                    filed[slot] = expires[slot] + 1;
+                    wheel.schedule(high, low, filed[slot]);
+                }
+            });
+        }
+
+        private synchronized void forEach(Visitor visitor) {
+            for (int slot = 0; slot <= mask; slot++) {
+                if (servers[slot] != NO_SERVER) {
+                    visitor.visit(highs[slot], lows[slot], serverNames.get(servers[slot]), expires[slot]);
+                }
+            }
+        }
+
+        private synchronized void drainChanges(int segment, SlotVisitor visitor) {
+            int slots = mask + 1;
+            for (int word = 0; word < changed.length; word++) {
+                long bits = changed[word];
+                changed[word] = 0L;
+                while (bits != 0L) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    String server = servers[slot] == NO_SERVER ? null : serverNames.get(servers[slot]);
+                    visitor.visit(segment, slots, slot, highs[slot], lows[slot], server, expires[slot]);
+                }
+            }
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long pendingExpiries() {
+            return wheel.pending();
+        }
+
+        private synchronized long evictions() {
+            return evictions;
+        }
+
+        private synchronized void clear() {
+            servers = null;
+            allocate(Math.min(MIN_CAPACITY, maxCapacity));
+            size = 0;
+            hand = 0;
+            wheel.clear();
+        }
+
+        /**
+         * Drops every stale wheel entry by filing each stored player again.
+         */
+        private void refile() {
+            wheel.clear();
+            for (int slot = 0; slot <= mask; slot++) {
+                if (servers[slot] != NO_SERVER) {
+                    filed[slot] = expires[slot] + 1;
+                    wheel.schedule(highs[slot], lows[slot], filed[slot]);
+                }
+            }
+        }
+
+        /**
+         * Removes the entry with the earliest expiry, i.e. the least recently set, among
+         * the next {@value #SAMPLE_SIZE} occupied slots after the clock hand.
+         */
+        private void evict() {
+            int victim = -1;
+            int sampled = 0;
+            for (int i = 0; i <= mask && sampled < SAMPLE_SIZE; i++) {
+                int slot = (hand + i) & mask;
+                if (servers[slot] != NO_SERVER) {
+                    sampled++;
+                    if (victim < 0 || expires[slot] < expires[victim]) {
+                        victim = slot;
+                    }
+                }
+            }
+            if (victim >= 0) {
+                hand = (victim + 1) & mask;
+                removeAt(victim);
+                evictions++;
+            }
+        }
+
+        private int find(long high, long low) {
+            int slot = hash(high, low) & mask;
+            while (servers[slot] != NO_SERVER) {
+                if (highs[slot] == high && lows[slot] == low) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insertionSlot(long high, long low) {
+            int slot = hash(high, low) & mask;
+            while (servers[slot] != NO_SERVER) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Backward-shift deletion: later entries of the probe run move up so lookups never
+         * stop early at the freed slot.
+         */
+        private void removeAt(int slot) {
+            int free = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (servers[next] == NO_SERVER) {
+                    break;
+                }
+                int home = hash(highs[next], lows[next]) & mask;
+                boolean stays = free <= next ? free < home && home <= next : free < home || home <= next;
+                if (!stays) {
+                    highs[free] = highs[next];
+                    lows[free] = lows[next];
+                    servers[free] = servers[next];
+                    expires[free] = expires[next];
+                    flags[free] = flags[next];
+                    filed[free] = filed[next];
+                    markChanged(free);
+                    free = next;
+                }
+            }
+            servers[free] = NO_SERVER;
+            flags[free] = 0;
+            filed[free] = 0;
+            markChanged(free);
+            size--;
+        }
+
+        private void markChanged(int slot) {
+            changed[slot >>> 6] |= 1L << slot;
+        }
+
+        private void allocate(int capacity) {
+            long[] oldHighs = highs;
+            long[] oldLows = lows;
+            int[] oldServers = servers;
+            int[] oldExpires = expires;
+            byte[] oldFlags = flags;
+            int[] oldFiled = filed;
+            highs = new long[capacity];
+            lows = new long[capacity];
+            servers = new int[capacity];
+            expires = new int[capacity];
+            flags = new byte[capacity];
+            filed = new int[capacity];
+            changed = new long[capacity >>> 6];
+            Arrays.fill(changed, -1L);
+            mask = capacity - 1;
+            if (oldServers == null) {
+                return;
+            }
+            for (int i = 0; i < oldServers.length; i++) {
+                if (oldServers[i] != NO_SERVER) {
+                    int slot = insertionSlot(oldHighs[i], oldLows[i]);
+                    highs[slot] = oldHighs[i];
+                    lows[slot] = oldLows[i];
+                    servers[slot] = oldServers[i];
+                    expires[slot] = oldExpires[i];
+                    flags[slot] = oldFlags[i];
+                    filed[slot] = oldFiled[i];
+                }
+            }
+        }
+
+        private int serverId(String server) {
+            Integer id = serverIds.get(server);
+            if (id == null) {
+                id = serverNames.size();
+                serverNames.add(server);
+                serverIds.put(server, id);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deterministic aperture (subset) selection for large lobby groups.
+ * <p>
+ * Each proxy works with a contiguous window of the configured lobby list. Window
+ * start offsets are spread evenly by proxy ordinal and shift by one slot every
+ * rotation period, so across {@code proxy_count} proxies the windows tile the
+ * whole group and every lobby still receives traffic over time. The window width
+ * grows while the lobbies inside it are busier than the configured target and
+ * shrinks again once they are comfortably below it.
+ */
+public final class ApertureSelector {
+
+    /** Window shrinks once the average lobby in it is below this fraction of the target. */
+    private static final double SHRINK_RATIO = 0.5;
+
+    private final TimeSource time;
+    private final ConcurrentMap<String, Integer> extraWidth = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> lastWidth = new ConcurrentHashMap<>();
+
+    public ApertureSelector() {
+        this(TimeSource.system());
+    }
+
+    ApertureSelector(TimeSource time) {
+        this.time = time;
+    }
+
+    /**
+     * Returns the window of {@code entries} this proxy should consider for {@code group}.
+     * The full list is returned when aperture is disabled or the group is already
+     * no larger than the minimum window.
+     */
+    public List<Config.LobbyEntry> window(String group, List<Config.LobbyEntry> entries, Config.ApertureSettings settings) {
+        int size = entries.size();
+        if (settings == null || !settings.enabled() || size == 0) {
+            return entries;
+        }
+        int width = Math.min(size, baseWidth(size, settings) + extraWidth.getOrDefault(normalize(group), 0));
+        lastWidth.put(normalize(group), width);
+        if (width >= size) {
+            return entries;
+        }
+        int offset = offset(size, settings);
+        List<Config.LobbyEntry> window = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            window.add(entries.get((offset + i) % size));
+        }
+        return window;
+    }
+
+    /**
+     * Adjusts the window width of {@code group} after a plan has inspected its window.
+     * An empty window immediately opens the aperture to the whole group; otherwise the
+     * width moves by one slot at a time between the low and high load watermarks.
+     */
+    void observe(String group, List<Config.LobbyEntry> window, int groupSize, OnlineCounts onlineServers,
+                        List<String> usableCandidates, Config.ApertureSettings settings) {
+        if (settings == null || !settings.enabled() || groupSize == 0) {
+            return;
+        }
+        String key = normalize(group);
+        int ceiling = Math.max(0, groupSize - baseWidth(groupSize, settings));
+        if (usableCandidates.isEmpty()) {
+            extraWidth.put(key, ceiling);
+            return;
+        }
+        long players = 0;
+        for (String candidate : usableCandidates) {
+            players += Math.max(0, onlineServers.count(candidate));
+        }
+        double average = (double) players / usableCandidates.size();
+        int unusable = window.size() - usableCandidates.size();
+        extraWidth.compute(key, (ignored, previous) -> {
+            int extra = previous == null ? 0 : previous;
+            if (average > settings.targetPlayersPerLobby() || unusable > extra) {
+                extra++;
+            } else if (average < settings.targetPlayersPerLobby() * SHRINK_RATIO && extra > unusable) {
+                extra--;
+            }
+            return Math.min(ceiling, extra);
+        });
+    }
+
+    /**
+     * Width last handed out for each group, for diagnostics and metrics.
+     */
+    public Map<String, Integer> widths() {
+        return Map.copyOf(lastWidth);
+    }
+
+    public void clear() {
+        extraWidth.clear();
+        lastWidth.clear();
+    }
+
+    private int baseWidth(int size, Config.ApertureSettings settings) {
+        int width = settings.minSize();
+        if (settings.proxyCount() > 1) {
+            // Windows must be at least size / proxies wide or the tiling leaves gaps.
+            width = Math.max(width, (size + settings.proxyCount() - 1) / settings.proxyCount());
+        }
+        return Math.min(size, width);
+    }
+
+    private int offset(int size, Config.ApertureSettings settings) {
+        long start = (long) settings.proxyOrdinal() * size / settings.proxyCount();
+        long rotation = settings.rotationSeconds() <= 0
+                ? 0L
+                : time.millis() / (settings.rotationSeconds() * 1000L);
+        return (int) ((start + rotation) % size);
+    }
+
+    private String normalize(String group) {
+        return group == null ? "" : group.toLowerCase(Locale.ROOT);
+    }
+}
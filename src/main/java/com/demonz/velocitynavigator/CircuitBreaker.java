@@ -15,71 +15,91 @@
  */
 package com.demonz.velocitynavigator;
 
-import java.time.Instant;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class CircuitBreaker {
 
     public enum State { CLOSED, OPEN, HALF_OPEN }
 
-    private record BreakerState(State state, int failureCount, Instant openSince, int halfOpenTests, int halfOpenSuccesses) {}
+    // openSince is monotonic nanos and only meaningful while not CLOSED
+    private record BreakerState(State state, int failureCount, long openSince, int halfOpenTests, int halfOpenSuccesses) {}
 
-    private final ConcurrentMap<String, BreakerState> states = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, java.util.concurrent.atomic.AtomicLong> tripCounts = new ConcurrentHashMap<>();
+    private static final BreakerState CLOSED_CLEAN = new BreakerState(State.CLOSED, 0, 0L, 0, 0);
+
+    private final ServerRegistry registry;
+    private final TimeSource time;
+    private final ServerSlots<BreakerState> states = new ServerSlots<>();
+    private final ServerSlots<AtomicLong> tripCounts = new ServerSlots<>();
     private final int failureThreshold;
     private final int cooldownSeconds;
     private final int halfOpenMaxTests;
+    private volatile SlowStartTracker slowStartTracker;
 
     public CircuitBreaker(int failureThreshold, int cooldownSeconds, int halfOpenMaxTests) {
+        this(failureThreshold, cooldownSeconds, halfOpenMaxTests, ServerRegistry.shared(), TimeSource.system());
+    }
+
+    CircuitBreaker(int failureThreshold, int cooldownSeconds, int halfOpenMaxTests, ServerRegistry registry, TimeSource time) {
         this.failureThreshold = Math.max(1, failureThreshold);
         this.cooldownSeconds = Math.max(1, cooldownSeconds);
         this.halfOpenMaxTests = Math.max(1, halfOpenMaxTests);
+        this.registry = registry;
+        this.time = time;
+    }
+
+    /**
+     * Starts a slow-start ramp for every server whose breaker closes after being open.
+     */
+    public void setSlowStartTracker(SlowStartTracker slowStartTracker) {
+        this.slowStartTracker = slowStartTracker;
     }
 
     /**
-     * Atomically checks availability and increments HALF_OPEN test counter.
-     * Uses compute() to prevent check-then-act race conditions under concurrent access.
+     * Atomically checks availability and increments the HALF_OPEN test counter.
+     * State changes are compare-and-set, so concurrent callers cannot both take the last test.
      */
     public boolean isAvailable(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        BreakerState state = states.get(normalizedServerName);
-        if (state == null) {
-            return true;
-        }
-        return switch (state.state) {
-            case CLOSED -> true;
-            case OPEN -> {
-                // Atomically transition OPEN → HALF_OPEN if cooldown has elapsed
-                AtomicBoolean available = new AtomicBoolean(false);
-                states.compute(normalizedServerName, (key, current) -> {
-                    if (current != null && current.state == State.OPEN
-                            && Instant.now().isAfter(current.openSince.plusSeconds(cooldownSeconds))) {
-                        available.set(true);
-                        return new BreakerState(State.HALF_OPEN, current.failureCount, current.openSince, 1, 0);
+        return isAvailable(registry.idOf(serverName));
+    }
+
+    /**
+     * {@link #isAvailable(String)} for the server with registry ID {@code id}.
+     */
+    public boolean isAvailable(int id) {
+        BreakerState current = states.get(id);
+        while (current != null) {
+            BreakerState next;
+            switch (current.state) {
+                case CLOSED -> {
+                    return true;
+                }
+                case OPEN -> {
+                    // Transition OPEN → HALF_OPEN once the cooldown has elapsed
+                    if (!cooldownElapsed(current)) {
+                        return false;
                     }
-                    return current;
-                });
-                yield available.get();
-            }
-            case HALF_OPEN -> {
-                // Atomically increment halfOpenTests — enforces the halfOpenMaxTests limit
-                AtomicBoolean available = new AtomicBoolean(false);
-                states.compute(normalizedServerName, (key, current) -> {
-                    if (current != null && current.state == State.HALF_OPEN
-                            && current.halfOpenTests < halfOpenMaxTests) {
-                        available.set(true);
-                        return new BreakerState(State.HALF_OPEN, current.failureCount,
-                                current.openSince, current.halfOpenTests + 1, current.halfOpenSuccesses);
+                    next = new BreakerState(State.HALF_OPEN, current.failureCount, current.openSince, 1, 0);
+                }
+                default -> {
+                    // Enforce the halfOpenMaxTests limit
+                    if (current.halfOpenTests >= halfOpenMaxTests) {
+                        return false;
                     }
-                    return current;
-                });
-                yield available.get();
+                    next = new BreakerState(State.HALF_OPEN, current.failureCount,
+                            current.openSince, current.halfOpenTests + 1, current.halfOpenSuccesses);
+                }
             }
-        };
+            if (states.compareAndSet(id, current, next)) {
+                return true;
+            }
+            current = states.get(id);
+        }
+        return true;
     }
 
     /**
@@ -87,86 +107,155 @@ public final class CircuitBreaker {
      * threshold represents consecutive failures.
      */
     public void recordSuccess(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        states.compute(normalizedServerName, (key, current) -> {
-            if (current == null) {
-                return null;
-            }
-            return switch (current.state) {
-                case CLOSED -> new BreakerState(State.CLOSED, 0, null, 0, 0);
+        int id = registry.idOf(serverName);
+        BreakerState current = states.get(id);
+        while (current != null) {
+            BreakerState next = switch (current.state) {
+                case CLOSED -> CLOSED_CLEAN;
                 case OPEN -> current;
                 case HALF_OPEN -> {
                     int successes = current.halfOpenSuccesses + 1;
                     if (successes >= halfOpenMaxTests) {
-                        yield new BreakerState(State.CLOSED, 0, null, 0, 0);
+                        yield CLOSED_CLEAN;
                     }
                     yield new BreakerState(State.HALF_OPEN, current.failureCount,
                             current.openSince, current.halfOpenTests, successes);
                 }
             };
-        });
+            if (next == current) {
+                return;
+            }
+            if (states.compareAndSet(id, current, next)) {
+                if (current.state == State.HALF_OPEN && next.state == State.CLOSED) {
+                    startRamp(serverName);
+                }
+                return;
+            }
+            current = states.get(id);
+        }
     }
 
     public void recordFailure(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        states.compute(normalizedServerName, (key, current) -> {
-            if (current == null) {
-                current = new BreakerState(State.CLOSED, 0, null, 0, 0);
-            }
-            return switch (current.state) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        while (true) {
+            BreakerState current = states.get(id);
+            BreakerState base = current == null ? CLOSED_CLEAN : current;
+            BreakerState next = switch (base.state) {
                 case CLOSED -> {
-                    int newCount = current.failureCount + 1;
-                    if (newCount >= failureThreshold) {
-                        tripCounts.computeIfAbsent(normalizedServerName, k -> new java.util.concurrent.atomic.AtomicLong(0)).incrementAndGet();
-                        yield new BreakerState(State.OPEN, newCount, Instant.now(), 0, 0);
-                    }
-                    yield new BreakerState(State.CLOSED, newCount, null, 0, 0);
-                }
-                case OPEN -> new BreakerState(State.OPEN, current.failureCount + 1, current.openSince, 0, 0);
-                case HALF_OPEN -> {
-                    tripCounts.computeIfAbsent(normalizedServerName, k -> new java.util.concurrent.atomic.AtomicLong(0)).incrementAndGet();
-                    yield new BreakerState(State.OPEN, current.failureCount + 1, Instant.now(), 0, 0);
+                    int newCount = base.failureCount + 1;
+                    yield newCount >= failureThreshold
+                            ? new BreakerState(State.OPEN, newCount, time.nanoTime(), 0, 0)
+                            : new BreakerState(State.CLOSED, newCount, 0L, 0, 0);
                 }
+                case OPEN -> new BreakerState(State.OPEN, base.failureCount + 1, base.openSince, 0, 0);
+                case HALF_OPEN -> new BreakerState(State.OPEN, base.failureCount + 1, time.nanoTime(), 0, 0);
             };
-        });
+            if (states.compareAndSet(id, current, next)) {
+                if (base.state != State.OPEN && next.state == State.OPEN) {
+                    tripCounts.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+                }
+                return;
+            }
+        }
     }
 
     /**
-     * Atomically transitions OPEN → HALF_OPEN if cooldown has elapsed.
-     * Uses compute() to prevent race conditions.
+     * Moves OPEN → HALF_OPEN if the cooldown has elapsed, then reports the current state.
      */
     public State getState(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        BreakerState state = states.get(normalizedServerName);
+        int id = registry.idOf(serverName);
+        BreakerState state = states.get(id);
         if (state == null) {
             return State.CLOSED;
         }
-        if (state.state == State.OPEN && Instant.now().isAfter(state.openSince.plusSeconds(cooldownSeconds))) {
-            states.compute(normalizedServerName, (key, current) -> {
-                if (current != null && current.state == State.OPEN
-                        && Instant.now().isAfter(current.openSince.plusSeconds(cooldownSeconds))) {
-                    return new BreakerState(State.HALF_OPEN, current.failureCount, current.openSince, 0, 0);
-                }
-                return current;
-            });
+        if (state.state == State.OPEN && cooldownElapsed(state)) {
+            // A failed exchange means another thread already moved the breaker on
+            states.compareAndSet(id, state, new BreakerState(State.HALF_OPEN, state.failureCount, state.openSince, 0, 0));
         }
-        // Read the current state after compute() to avoid returning a stale snapshot.
-        BreakerState current = states.get(normalizedServerName);
+        // Read the current state after the transition to avoid returning a stale snapshot.
+        BreakerState current = states.get(id);
         return current == null ? State.CLOSED : current.state;
     }
 
     public Map<String, Long> getTripCounts() {
         Map<String, Long> snapshot = new ConcurrentHashMap<>();
-        for (Map.Entry<String, java.util.concurrent.atomic.AtomicLong> entry : tripCounts.entrySet()) {
-            snapshot.put(entry.getKey(), entry.getValue().get());
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            AtomicLong trips = tripCounts.get(id);
+            if (trips != null) {
+                snapshot.put(registry.name(id), trips.get());
+            }
         }
         return snapshot;
     }
 
+    /**
+     * Persistable state of one server's breaker; {@code openSinceMillis} is epoch millis or 0.
+     */
+    public record SavedState(String server, State state, int failureCount, long openSinceMillis, long trips) {
+    }
+
+    public List<SavedState> export() {
+        List<SavedState> saved = new ArrayList<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            BreakerState state = states.get(id);
+            AtomicLong trips = tripCounts.get(id);
+            if (state == null && trips == null) {
+                continue;
+            }
+            saved.add(new SavedState(
+                    registry.name(id),
+                    state == null ? State.CLOSED : state.state,
+                    state == null ? 0 : state.failureCount,
+                    state == null || state.state == State.CLOSED ? 0L : toEpochMillis(state.openSince),
+                    trips == null ? 0L : trips.get()
+            ));
+        }
+        return saved;
+    }
+
+    /**
+     * Restores a saved breaker. Open and half-open breakers come back open since their
+     * original trip, so the cooldown keeps counting through the restart.
+     */
+    public void restore(SavedState saved, boolean keepFailureCount) {
+        int id = registry.idOf(saved.server());
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        if (saved.trips() > 0) {
+            tripCounts.computeIfAbsent(id, k -> new AtomicLong()).addAndGet(saved.trips());
+        }
+        if (saved.state() != State.CLOSED && saved.openSinceMillis() > 0) {
+            states.set(id, new BreakerState(State.OPEN, saved.failureCount(),
+                    fromEpochMillis(saved.openSinceMillis()), 0, 0));
+        } else if (keepFailureCount && saved.failureCount() > 0) {
+            states.set(id, new BreakerState(State.CLOSED, saved.failureCount(), 0L, 0, 0));
+        }
+    }
+
+    /**
+     * Closes the breaker, as after a successful test, without clearing its trip count.
+     */
+    public void close(String serverName) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        BreakerState current = states.get(id);
+        if (current != null && current.state != State.CLOSED && states.compareAndSet(id, current, null)) {
+            startRamp(serverName);
+        }
+    }
+
     public void reset(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        states.remove(normalizedServerName);
-        tripCounts.remove(normalizedServerName);
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            states.set(id, null);
+            tripCounts.set(id, null);
+        }
     }
 
     public void resetAll() {
@@ -174,7 +263,22 @@ public final class CircuitBreaker {
         tripCounts.clear();
     }
 
-    private String normalize(String serverName) {
-        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    private void startRamp(String serverName) {
+        SlowStartTracker tracker = slowStartTracker;
+        if (tracker != null) {
+            tracker.markStarted(serverName);
+        }
+    }
+
+    private boolean cooldownElapsed(BreakerState state) {
+        return time.nanoTime() - state.openSince > TimeUnit.SECONDS.toNanos(cooldownSeconds);
+    }
+
+    private long toEpochMillis(long nanos) {
+        return time.millis() - TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - nanos);
+    }
+
+    private long fromEpochMillis(long epochMillis) {
+        return time.nanoTime() - TimeUnit.MILLISECONDS.toNanos(time.millis() - epochMillis);
     }
 }
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares routing state with the other proxies of a network through a {@link GossipNode}.
+ * <p>
+ * Drains, circuit breakers and player affinities are last-writer-wins registers: a
+ * change on any proxy replaces the older value everywhere. Player counts are one
+ * register per proxy and lobby, republished every {@value #COUNT_REFRESH_MILLIS} ms and
+ * dropped when a proxy stops refreshing them; routed totals are one register per proxy
+ * and lobby that only grows. Drains and breakers are compared against the local
+ * services each round, so changes made from any command or API call are picked up;
+ * changes from peers are applied to the services directly and remembered so they are
+ * not sent back.
+ * <p>
+ * Each start picks a new replica id, {@code node_id} plus a random suffix, so a proxy
+ * that restarts never reuses the registers of its previous run.
+ */
+public final class ClusterSync implements Closeable {
+
+    static final long COUNT_REFRESH_MILLIS = 2_000L;
+    static final long COUNT_TTL_MILLIS = 3 * COUNT_REFRESH_MILLIS;
+    private static final long PURGE_INTERVAL_MILLIS = 1_000L;
+
+    private static final String DRAIN = "drain:";
+    private static final String BREAKER = "breaker:";
+    private static final String AFFINITY = "affinity:";
+    private static final String PLAYERS = "players:";
+    private static final String ROUTED = "routed:";
+    private static final String OPEN = "open:";
+    private static final String CLOSED = "closed";
+
+    private record Count(int players, long expiresAt) {
+    }
+
+    private final Config.ClusterSettings settings;
+    private final TimeSource time;
+    private final ReplicatedState state;
+    private final GossipNode node;
+    private final List<String> unresolvedPeers = new ArrayList<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Count>> remotePlayers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>> remoteRouted = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> localRouted = new ConcurrentHashMap<>();
+    private final Map<String, Integer> publishedPlayers = new HashMap<>();
+    private final Map<String, Long> publishedRouted = new HashMap<>();
+    private final Set<String> knownDrained = new HashSet<>();
+    private final Set<String> knownOpen = new HashSet<>();
+    private long lastCountRefresh = Long.MIN_VALUE / 2;
+    private long nextPurge;
+
+    public ClusterSync(Config.ClusterSettings settings) throws IOException {
+        this(settings, TimeSource.system());
+    }
+
+    ClusterSync(Config.ClusterSettings settings, TimeSource time) throws IOException {
+        this.settings = settings;
+        this.time = time;
+        String nodeId = settings.nodeId().isBlank() ? "proxy" : settings.nodeId().replace(':', '_');
+        this.state = new ReplicatedState(nodeId + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 16));
+        this.node = new GossipNode(
+                state,
+                new InetSocketAddress(settings.bindAddress(), settings.port()),
+                settings.secret().getBytes(StandardCharsets.UTF_8),
+                settings.maxPacketBytes(),
+                Math.max(250L, settings.gossipIntervalMillis() * 3L)
+        );
+        node.setPeers(resolvePeers(settings.peers()));
+    }
+
+    public Config.ClusterSettings settings() {
+        return settings;
+    }
+
+    public String replicaId() {
+        return state.replicaId();
+    }
+
+    /**
+     * Entries of {@code peers} that are not a reachable {@code host:port}.
+     */
+    public List<String> unresolvedPeers() {
+        return List.copyOf(unresolvedPeers);
+    }
+
+    /**
+     * One gossip round: applies what peers sent, publishes local changes, and sends deltas.
+     * The services may be {@code null} when the matching feature is disabled.
+     */
+    public synchronized void tick(DrainService drainService, CircuitBreaker circuitBreaker,
+                                  PlayerAffinityService affinityService, Map<String, Integer> localPlayers) throws IOException {
+        long now = time.millis();
+        for (ReplicatedState.Entry entry : node.receive(now)) {
+            apply(entry, drainService, circuitBreaker, affinityService, now);
+        }
+        publishDrains(drainService, now);
+        publishBreakers(circuitBreaker, now);
+        publishCounts(localPlayers, now);
+        if (now >= nextPurge) {
+            state.purge(now);
+            for (ConcurrentMap<String, Count> counts : remotePlayers.values()) {
+                counts.values().removeIf(count -> count.expiresAt <= now);
+            }
+            nextPurge = now + PURGE_INTERVAL_MILLIS;
+        }
+        node.send(settings.fanout(), now);
+    }
+
+    public void recordAffinity(UUID playerId, String serverName, long ttlMillis) {
+        if (playerId == null || serverName == null || serverName.isBlank()) {
+            return;
+        }
+        long now = time.millis();
+        state.write(AFFINITY + playerId, serverName, now + ttlMillis, now);
+    }
+
+    public void recordRouted(String serverName) {
+        localRouted.computeIfAbsent(normalize(serverName), key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Players other proxies currently report on {@code serverName}.
+     */
+    public int remotePlayers(String serverName) {
+        ConcurrentMap<String, Count> counts = remotePlayers.get(normalize(serverName));
+        if (counts == null) {
+            return 0;
+        }
+        long now = time.millis();
+        int total = 0;
+        for (Count count : counts.values()) {
+            if (count.expiresAt > now) {
+                total += count.players;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Players routed to each lobby by every proxy in the cluster since they started.
+     */
+    public Map<String, Long> routedTotals() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : localRouted.entrySet()) {
+            totals.merge(entry.getKey(), entry.getValue().get(), Long::sum);
+        }
+        for (Map.Entry<String, ConcurrentMap<String, Long>> entry : remoteRouted.entrySet()) {
+            for (long routed : entry.getValue().values()) {
+                totals.merge(entry.getKey(), routed, Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    public int knownPeers() {
+        return node.knownPeers();
+    }
+
+    public int stateSize() {
+        return state.size();
+    }
+
+    public long packetsSent() {
+        return node.packetsSent();
+    }
+
+    public long packetsReceived() {
+        return node.packetsReceived();
+    }
+
+    public long packetsRejected() {
+        return node.packetsRejected();
+    }
+
+    @Override
+    public void close() throws IOException {
+        node.close();
+    }
+
+    InetSocketAddress localAddress() throws IOException {
+        return node.localAddress();
+    }
+
+    void setPeers(Collection<InetSocketAddress> peers) {
+        node.setPeers(peers);
+    }
+
+    private void apply(ReplicatedState.Entry entry, DrainService drainService, CircuitBreaker circuitBreaker,
+                       PlayerAffinityService affinityService, long now) {
+        String key = entry.key();
+        try {
+            if (key.startsWith(DRAIN)) {
+                String server = key.substring(DRAIN.length());
+                boolean drained = "1".equals(entry.value());
+                if (drained) {
+                    knownDrained.add(server);
+                } else {
+                    knownDrained.remove(server);
+                }
+                if (drainService != null && drained != drainService.isDrained(server)) {
+                    if (drained) {
+                        drainService.drain(server);
+                    } else {
+                        drainService.undrain(server);
+                    }
+                }
+            } else if (key.startsWith(BREAKER)) {
+                String server = key.substring(BREAKER.length());
+                if (entry.value().startsWith(OPEN)) {
+                    knownOpen.add(server);
+                    long openSince = Long.parseLong(entry.value().substring(OPEN.length()));
+                    if (circuitBreaker != null) {
+                        circuitBreaker.restore(new CircuitBreaker.SavedState(server, CircuitBreaker.State.OPEN, 0, openSince, 0L), false);
+                    }
+                } else {
+                    knownOpen.remove(server);
+                    if (circuitBreaker != null) {
+                        circuitBreaker.close(server);
+                    }
+                }
+            } else if (key.startsWith(AFFINITY)) {
+                if (affinityService != null) {
+                    UUID playerId = UUID.fromString(key.substring(AFFINITY.length()));
+                    affinityService.restoreAffinity(playerId, entry.value(), entry.expiresAt() - now);
+                }
+            } else if (key.startsWith(PLAYERS)) {
+                int split = key.lastIndexOf(':');
+                remotePlayers.computeIfAbsent(key.substring(PLAYERS.length(), split), server -> new ConcurrentHashMap<>())
+                        .put(key.substring(split + 1), new Count(Integer.parseInt(entry.value()), entry.expiresAt()));
+            } else if (key.startsWith(ROUTED)) {
+                int split = key.lastIndexOf(':');
+                remoteRouted.computeIfAbsent(key.substring(ROUTED.length(), split), server -> new ConcurrentHashMap<>())
+                        .merge(key.substring(split + 1), Long.parseLong(entry.value()), Math::max);
+            }
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            // A value this version cannot read; newer entries for the key replace it
+        }
+    }
+
+    private void publishDrains(DrainService drainService, long now) {
+        if (drainService == null) {
+            return;
+        }
+        Set<String> drained = new HashSet<>();
+        for (String server : drainService.drainState().keySet()) {
+            drained.add(normalize(server));
+        }
+        for (String server : drained) {
+            if (knownDrained.add(server)) {
+                state.write(DRAIN + server, "1", 0L, now);
+            }
+        }
+        for (String server : new ArrayList<>(knownDrained)) {
+            if (!drained.contains(server)) {
+                knownDrained.remove(server);
+                state.write(DRAIN + server, "0", 0L, now);
+            }
+        }
+    }
+
+    private void publishBreakers(CircuitBreaker circuitBreaker, long now) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        Set<String> open = new HashSet<>();
+        for (CircuitBreaker.SavedState saved : circuitBreaker.export()) {
+            String server = normalize(saved.server());
+            if (saved.state() != CircuitBreaker.State.CLOSED) {
+                open.add(server);
+                if (knownOpen.add(server)) {
+                    state.write(BREAKER + server, OPEN + saved.openSinceMillis(), 0L, now);
+                }
+            }
+        }
+        for (String server : new ArrayList<>(knownOpen)) {
+            if (!open.contains(server)) {
+                knownOpen.remove(server);
+                state.write(BREAKER + server, CLOSED, 0L, now);
+            }
+        }
+    }
+
+    private void publishCounts(Map<String, Integer> localPlayers, long now) {
+        boolean refresh = now - lastCountRefresh >= COUNT_REFRESH_MILLIS;
+        if (refresh) {
+            lastCountRefresh = now;
+        }
+        String replica = state.replicaId();
+        for (Map.Entry<String, Integer> entry : localPlayers.entrySet()) {
+            String server = normalize(entry.getKey());
+            Integer players = entry.getValue();
+            if (refresh || !players.equals(publishedPlayers.get(server))) {
+                publishedPlayers.put(server, players);
+                state.write(PLAYERS + server + ":" + replica, String.valueOf(players), now + COUNT_TTL_MILLIS, now);
+            }
+        }
+        for (Map.Entry<String, AtomicLong> entry : localRouted.entrySet()) {
+            long routed = entry.getValue().get();
+            Long published = publishedRouted.put(entry.getKey(), routed);
+            if (published == null || published != routed) {
+                state.write(ROUTED + entry.getKey() + ":" + replica, String.valueOf(routed), 0L, now);
+            }
+        }
+    }
+
+    private List<InetSocketAddress> resolvePeers(List<String> peers) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String peer : peers) {
+            int split = peer.lastIndexOf(':');
+            try {
+                InetSocketAddress address = new InetSocketAddress(
+                        peer.substring(0, split).replace("[", "").replace("]", ""),
+                        Integer.parseInt(peer.substring(split + 1)));
+                if (address.isUnresolved()) {
+                    unresolvedPeers.add(peer);
+                } else {
+                    addresses.add(address);
+                }
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                unresolvedPeers.add(peer);
+            }
+        }
+        return addresses;
+    }
+
+    private static String normalize(String serverName) {
+        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    }
+}
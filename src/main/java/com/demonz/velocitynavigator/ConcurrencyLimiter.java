@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on in-flight connection attempts per backend (AIMD).
+ * <p>
+ * Every completed connect is compared against a slow-moving average of that
+ * backend's connect latency. Fast successes raise the limit by roughly one per
+ * limit's worth of completions; slow or failed attempts cut it by
+ * {@code backoffRatio}. Backends at their limit are deprioritised by the planner
+ * rather than refused, so the limit converges on what each lobby can actually absorb.
+ */
+public final class ConcurrencyLimiter {
+
+    /** Weight of a new sample in the long-term latency average. */
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final ServerRegistry registry;
+    private final ServerSlots<Backend> backends = new ServerSlots<>();
+
+    public ConcurrencyLimiter() {
+        this(ServerRegistry.shared());
+    }
+
+    ConcurrencyLimiter(ServerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Registers a connect attempt to {@code serverName}. Must be paired with
+     * {@link #release(String, long, boolean, Config.ConcurrencySettings)} or {@link #cancel(String)}.
+     */
+    public void acquire(String serverName, Config.ConcurrencySettings settings) {
+        if (settings == null || !settings.enabled()) {
+            return;
+        }
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            backends.computeIfAbsent(id, ignored -> new Backend(settings.initialLimit())).inFlight.incrementAndGet();
+        }
+    }
+
+    /**
+     * Completes an attempt started with {@link #acquire(String, Config.ConcurrencySettings)}
+     * and adjusts the backend's limit from its outcome and latency.
+     */
+    public void release(String serverName, long latencyMillis, boolean success, Config.ConcurrencySettings settings) {
+        Backend backend = backends.get(registry.idOf(serverName));
+        if (backend == null) {
+            return;
+        }
+        int inFlight = backend.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        if (settings == null || !settings.enabled()) {
+            return;
+        }
+        backend.update(Math.max(0L, latencyMillis), success, inFlight + 1, settings);
+    }
+
+    /**
+     * Withdraws an attempt that the proxy refused before it reached the backend.
+     * The backend's limit is left as it was.
+     */
+    public void cancel(String serverName) {
+        Backend backend = backends.get(registry.idOf(serverName));
+        if (backend != null) {
+            backend.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        }
+    }
+
+    public boolean isSaturated(String serverName, Config.ConcurrencySettings settings) {
+        if (settings == null || !settings.enabled()) {
+            return false;
+        }
+        Backend backend = backends.get(registry.idOf(serverName));
+        return backend != null && backend.inFlight.get() >= (int) backend.limit;
+    }
+
+    public int limit(String serverName, Config.ConcurrencySettings settings) {
+        Backend backend = backends.get(registry.idOf(serverName));
+        return backend == null ? settings.initialLimit() : (int) backend.limit;
+    }
+
+    public int inFlight(String serverName) {
+        Backend backend = backends.get(registry.idOf(serverName));
+        return backend == null ? 0 : backend.inFlight.get();
+    }
+
+    /**
+     * Current limit of every backend that has seen traffic, for diagnostics and metrics.
+     */
+    public Map<String, Integer> limits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            Backend backend = backends.get(id);
+            if (backend != null) {
+                limits.put(registry.name(id), (int) backend.limit);
+            }
+        }
+        return Map.copyOf(limits);
+    }
+
+    public void retainServers(Collection<String> serverNames) {
+        if (serverNames == null) {
+            backends.clear();
+            return;
+        }
+        Set<Integer> retained = new HashSet<>();
+        for (String serverName : serverNames) {
+            int id = registry.idOf(serverName);
+            if (id != ServerRegistry.UNKNOWN) {
+                retained.add(id);
+            }
+        }
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            if (!retained.contains(id)) {
+                backends.set(id, null);
+            }
+        }
+    }
+
+    public void clear() {
+        backends.clear();
+    }
+
+    private static final class Backend {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double limit;
+        private double averageLatency = -1.0;
+
+        private Backend(int initialLimit) {
+            this.limit = initialLimit;
+        }
+
+        private synchronized void update(long latencyMillis, boolean success, int inFlightAtCompletion,
+                                         Config.ConcurrencySettings settings) {
+            boolean slow = averageLatency >= 0 && latencyMillis > averageLatency * settings.latencyTolerance();
+            averageLatency = averageLatency < 0
+                    ? latencyMillis
+                    : averageLatency + LATENCY_SMOOTHING * (latencyMillis - averageLatency);
+
+            double next = limit;
+            if (!success || slow) {
+                next = limit * settings.backoffRatio();
+            } else if (inFlightAtCompletion * 2 >= limit) {
+                // Only grow while the limit is actually being used, or it drifts up unchecked
+                next = limit + 1.0 / limit;
+            }
+            limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+        }
+    }
+}
@@ -21,10 +21,31 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Predicate;
 
 public final class Config {
 
-    public static final int CURRENT_VERSION = 6;
+    public static final int CURRENT_VERSION = 7;
+
+    // Defaults of sections older configs and constructors leave out
+    private static final StartupSettings DEFAULT_STARTUP = new StartupSettings(true, "https://github.com/sdemonzdevelopment-spec/VelocityNavigator/wiki");
+    private static final LobbyFallbackSettings DEFAULT_LOBBY_FALLBACK = new LobbyFallbackSettings("disconnect", "<red>No lobby servers are currently available. Please try again later.</red>", "");
+    private static final BedrockSettings DEFAULT_BEDROCK = new BedrockSettings(false, true, true, true, true, "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient>", "<gray>Select a lobby server to connect:</gray>", "<white><bold>{server}</bold></white> <gray>({players} Players)</gray>");
+    private static final ApertureSettings DEFAULT_APERTURE = new ApertureSettings(false, 8, 50, 0, 1, 300);
+    private static final SlowStartSettings DEFAULT_SLOW_START = new SlowStartSettings(false, 60, 0.1, SlowStartCurve.LINEAR);
+    private static final AdmissionSettings DEFAULT_ADMISSION = new AdmissionSettings(false, 20.0, 20, 0.0, 50);
+    private static final ConcurrencySettings DEFAULT_CONCURRENCY = new ConcurrencySettings(false, 20, 2, 200, 2.0, 0.9);
+    private static final RetryBudgetSettings DEFAULT_RETRY_BUDGET = new RetryBudgetSettings(false, 10000, 20.0, 5, 10);
+    private static final EvacuationSettings DEFAULT_EVACUATION = new EvacuationSettings(false, 20.0, 10, 15, "<yellow><server> went down, moving you to <target>.</yellow>");
+    private static final DrainSettings DEFAULT_DRAIN = new DrainSettings(5, 1, 300, "<yellow><server> is restarting, moving you to <target>.</yellow>");
+    private static final RebalanceSettings DEFAULT_REBALANCE = new RebalanceSettings(false, 10, 0.25, 60, 5, 600);
+    private static final QueueSettings DEFAULT_QUEUE = new QueueSettings(false, 2, "", List.of(), "<yellow>All lobbies are full. You are <gold><position></gold> of <size> in the queue.</yellow>");
+    private static final ReservedCapacitySettings DEFAULT_RESERVED_CAPACITY = new ReservedCapacitySettings(false, 10.0, List.of("velocitynavigator.reserved.staff", "velocitynavigator.reserved.ranked"));
+    private static final StateSnapshotSettings DEFAULT_STATE_SNAPSHOT = new StateSnapshotSettings(false, 30, 300);
+    private static final HotReloadSettings DEFAULT_HOT_RELOAD = new HotReloadSettings(false, 1000);
+    private static final LobbyAttributeSettings DEFAULT_LOBBY_ATTRIBUTES = new LobbyAttributeSettings(false, Map.of());
+    private static final RegionalRoutingSettings DEFAULT_REGIONAL_ROUTING = new RegionalRoutingSettings(false, 0.8, 100, true);
+    private static final ClusterSettings DEFAULT_CLUSTER = new ClusterSettings(false, "", "0.0.0.0", 24454, List.of(), "", 100, 3, 1400);
 
     private final int configVersion;
     private final Commands commands;
@@ -42,6 +63,21 @@ public final class Config {
     private final StartupSettings startup;
     private final LobbyFallbackSettings lobbyFallback;
     private final BedrockSettings bedrock;
+    private final ApertureSettings aperture;
+    private final SlowStartSettings slowStart;
+    private final AdmissionSettings admission;
+    private final ConcurrencySettings concurrency;
+    private final RetryBudgetSettings retryBudget;
+    private final EvacuationSettings evacuation;
+    private final DrainSettings drain;
+    private final RebalanceSettings rebalance;
+    private final QueueSettings queue;
+    private final ReservedCapacitySettings reservedCapacity;
+    private final StateSnapshotSettings stateSnapshot;
+    private final HotReloadSettings hotReload;
+    private final LobbyAttributeSettings lobbyAttributes;
+    private final RegionalRoutingSettings regionalRouting;
+    private final ClusterSettings cluster;
 
     public Config(
             int configVersion,
@@ -72,9 +108,9 @@ public final class Config {
                 geoRouting,
                 notifyOnStartup,
                 notifyAdminsOnJoin,
-                new StartupSettings(true, "https://github.com/sdemonzdevelopment-spec/VelocityNavigator/wiki"),
-                new LobbyFallbackSettings("disconnect", "<red>No lobby servers are currently available. Please try again later.</red>", ""),
-                new BedrockSettings(false, true, true, true, true, "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient>", "<gray>Select a lobby server to connect:</gray>", "<white><bold>{server}</bold></white> <gray>({players} Players)</gray>")
+                DEFAULT_STARTUP,
+                DEFAULT_LOBBY_FALLBACK,
+                DEFAULT_BEDROCK
         );
     }
 
@@ -95,6 +131,74 @@ public final class Config {
             StartupSettings startup,
             LobbyFallbackSettings lobbyFallback,
             BedrockSettings bedrock
+    ) {
+        this(
+                configVersion,
+                commands,
+                routing,
+                healthChecks,
+                messages,
+                updateChecker,
+                metrics,
+                debug,
+                circuitBreaker,
+                degradation,
+                geoRouting,
+                notifyOnStartup,
+                notifyAdminsOnJoin,
+                startup,
+                lobbyFallback,
+                bedrock,
+                DEFAULT_APERTURE,
+                DEFAULT_SLOW_START,
+                DEFAULT_ADMISSION,
+                DEFAULT_CONCURRENCY,
+                DEFAULT_RETRY_BUDGET,
+                DEFAULT_EVACUATION,
+                DEFAULT_DRAIN,
+                DEFAULT_REBALANCE,
+                DEFAULT_QUEUE,
+                DEFAULT_RESERVED_CAPACITY,
+                DEFAULT_STATE_SNAPSHOT,
+                DEFAULT_HOT_RELOAD,
+                DEFAULT_LOBBY_ATTRIBUTES,
+                DEFAULT_REGIONAL_ROUTING,
+                DEFAULT_CLUSTER
+        );
+    }
+
+    public Config(
+            int configVersion,
+            Commands commands,
+            Routing routing,
+            HealthChecks healthChecks,
+            Messages messages,
+            UpdateCheckerSettings updateChecker,
+            MetricsSettings metrics,
+            DebugSettings debug,
+            CircuitBreakerSettings circuitBreaker,
+            DegradationSettings degradation,
+            GeoRoutingSettings geoRouting,
+            boolean notifyOnStartup,
+            boolean notifyAdminsOnJoin,
+            StartupSettings startup,
+            LobbyFallbackSettings lobbyFallback,
+            BedrockSettings bedrock,
+            ApertureSettings aperture,
+            SlowStartSettings slowStart,
+            AdmissionSettings admission,
+            ConcurrencySettings concurrency,
+            RetryBudgetSettings retryBudget,
+            EvacuationSettings evacuation,
+            DrainSettings drain,
+            RebalanceSettings rebalance,
+            QueueSettings queue,
+            ReservedCapacitySettings reservedCapacity,
+            StateSnapshotSettings stateSnapshot,
+            HotReloadSettings hotReload,
+            LobbyAttributeSettings lobbyAttributes,
+            RegionalRoutingSettings regionalRouting,
+            ClusterSettings cluster
     ) {
         this.configVersion = configVersion;
         this.commands = commands;
@@ -109,9 +213,58 @@ public final class Config {
         this.geoRouting = geoRouting;
         this.notifyOnStartup = notifyOnStartup;
         this.notifyAdminsOnJoin = notifyAdminsOnJoin;
-        this.startup = startup == null ? new StartupSettings(true, "https://github.com/sdemonzdevelopment-spec/VelocityNavigator/wiki") : startup;
-        this.lobbyFallback = lobbyFallback == null ? new LobbyFallbackSettings("disconnect", "<red>No lobby servers are currently available. Please try again later.</red>", "") : lobbyFallback;
-        this.bedrock = bedrock == null ? new BedrockSettings(false, true, true, true, true, "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient>", "<gray>Select a lobby server to connect:</gray>", "<white><bold>{server}</bold></white> <gray>({players} Players)</gray>") : bedrock;
+        this.startup = startup == null ? DEFAULT_STARTUP : startup;
+        this.lobbyFallback = lobbyFallback == null ? DEFAULT_LOBBY_FALLBACK : lobbyFallback;
+        this.bedrock = bedrock == null ? DEFAULT_BEDROCK : bedrock;
+        this.aperture = aperture == null ? DEFAULT_APERTURE : aperture;
+        this.slowStart = slowStart == null ? DEFAULT_SLOW_START : slowStart;
+        this.admission = admission == null ? DEFAULT_ADMISSION : admission;
+        this.concurrency = concurrency == null ? DEFAULT_CONCURRENCY : concurrency;
+        this.retryBudget = retryBudget == null ? DEFAULT_RETRY_BUDGET : retryBudget;
+        this.evacuation = evacuation == null ? DEFAULT_EVACUATION : evacuation;
+        this.drain = drain == null ? DEFAULT_DRAIN : drain;
+        this.rebalance = rebalance == null ? DEFAULT_REBALANCE : rebalance;
+        this.queue = queue == null ? DEFAULT_QUEUE : queue;
+        this.reservedCapacity = reservedCapacity == null ? DEFAULT_RESERVED_CAPACITY : reservedCapacity;
+        this.stateSnapshot = stateSnapshot == null ? DEFAULT_STATE_SNAPSHOT : stateSnapshot;
+        this.hotReload = hotReload == null ? DEFAULT_HOT_RELOAD : hotReload;
+        this.lobbyAttributes = lobbyAttributes == null ? DEFAULT_LOBBY_ATTRIBUTES : lobbyAttributes;
+        this.regionalRouting = regionalRouting == null ? DEFAULT_REGIONAL_ROUTING : regionalRouting;
+        this.cluster = cluster == null ? DEFAULT_CLUSTER : cluster;
+    }
+
+    private Config(Config base, Routing routing) {
+        this.configVersion = base.configVersion;
+        this.commands = base.commands;
+        this.routing = routing;
+        this.healthChecks = base.healthChecks;
+        this.messages = base.messages;
+        this.updateChecker = base.updateChecker;
+        this.metrics = base.metrics;
+        this.debug = base.debug;
+        this.circuitBreaker = base.circuitBreaker;
+        this.degradation = base.degradation;
+        this.geoRouting = base.geoRouting;
+        this.notifyOnStartup = base.notifyOnStartup;
+        this.notifyAdminsOnJoin = base.notifyAdminsOnJoin;
+        this.startup = base.startup;
+        this.lobbyFallback = base.lobbyFallback;
+        this.bedrock = base.bedrock;
+        this.aperture = base.aperture;
+        this.slowStart = base.slowStart;
+        this.admission = base.admission;
+        this.concurrency = base.concurrency;
+        this.retryBudget = base.retryBudget;
+        this.evacuation = base.evacuation;
+        this.drain = base.drain;
+        this.rebalance = base.rebalance;
+        this.queue = base.queue;
+        this.reservedCapacity = base.reservedCapacity;
+        this.stateSnapshot = base.stateSnapshot;
+        this.hotReload = base.hotReload;
+        this.lobbyAttributes = base.lobbyAttributes;
+        this.regionalRouting = base.regionalRouting;
+        this.cluster = base.cluster;
     }
 
     public static Config defaults() {
@@ -143,7 +296,7 @@ public final class Config {
                                 Map.of()
                         ),
                         2,
-                        new AffinitySettings(true, 0.7),
+                        new AffinitySettings(true, 0.7, 0.25, true, 250_000),
                         false,
                         "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient> <gray>(Hover to view status, click to connect)</gray>",
                         "  <gray>•</gray> <white><bold>{server}</bold></white> <gray>| Click to connect</gray>",
@@ -173,9 +326,24 @@ public final class Config {
                 new GeoRoutingSettings(false, ""),
                 true,
                 true,
-                new StartupSettings(true, "https://github.com/sdemonzdevelopment-spec/VelocityNavigator/wiki"),
-                new LobbyFallbackSettings("disconnect", "<red>No lobby servers are currently available. Please try again later.</red>", ""),
-                new BedrockSettings(false, true, true, true, true, "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient>", "<gray>Select a lobby server to connect:</gray>", "<white><bold>{server}</bold></white> <gray>({players} Players)</gray>")
+                DEFAULT_STARTUP,
+                DEFAULT_LOBBY_FALLBACK,
+                DEFAULT_BEDROCK,
+                DEFAULT_APERTURE,
+                DEFAULT_SLOW_START,
+                DEFAULT_ADMISSION,
+                DEFAULT_CONCURRENCY,
+                DEFAULT_RETRY_BUDGET,
+                DEFAULT_EVACUATION,
+                DEFAULT_DRAIN,
+                DEFAULT_REBALANCE,
+                DEFAULT_QUEUE,
+                DEFAULT_RESERVED_CAPACITY,
+                DEFAULT_STATE_SNAPSHOT,
+                DEFAULT_HOT_RELOAD,
+                DEFAULT_LOBBY_ATTRIBUTES,
+                DEFAULT_REGIONAL_ROUTING,
+                DEFAULT_CLUSTER
         );
     }
 
@@ -243,6 +411,86 @@ public final class Config {
         return bedrock;
     }
 
+    public ApertureSettings aperture() {
+        return aperture;
+    }
+
+    public SlowStartSettings slowStart() {
+        return slowStart;
+    }
+
+    public AdmissionSettings admission() {
+        return admission;
+    }
+
+    public ConcurrencySettings concurrency() {
+        return concurrency;
+    }
+
+    public RetryBudgetSettings retryBudget() {
+        return retryBudget;
+    }
+
+    public EvacuationSettings evacuation() {
+        return evacuation;
+    }
+
+    public DrainSettings drain() {
+        return drain;
+    }
+
+    public RebalanceSettings rebalance() {
+        return rebalance;
+    }
+
+    public QueueSettings queue() {
+        return queue;
+    }
+
+    public ReservedCapacitySettings reservedCapacity() {
+        return reservedCapacity;
+    }
+
+    public StateSnapshotSettings stateSnapshot() {
+        return stateSnapshot;
+    }
+
+    public HotReloadSettings hotReload() {
+        return hotReload;
+    }
+
+    public LobbyAttributeSettings lobbyAttributes() {
+        return lobbyAttributes;
+    }
+
+    public RegionalRoutingSettings regionalRouting() {
+        return regionalRouting;
+    }
+
+    public ClusterSettings cluster() {
+        return cluster;
+    }
+
+    /**
+     * This config with {@code groups} as its contextual groups, everything else shared.
+     */
+    public Config withGroups(Map<String, GroupConfig> groups) {
+        Contextual contextual = routing.contextual();
+        return new Config(this, new Routing(
+                routing.selectionMode(),
+                routing.cycleWhenPossible(),
+                routing.balanceInitialJoin(),
+                routing.defaultLobbies(),
+                new Contextual(contextual.enabled(), contextual.fallbackToDefault(), groups, contextual.sources(), contextual.fallbackChain()),
+                routing.maxRetries(),
+                routing.affinity(),
+                routing.useChatMenuForLobby(),
+                routing.chatMenuHeader(),
+                routing.chatMenuFormat(),
+                routing.chatMenuTooltip()
+        ));
+    }
+
     public enum SelectionMode {
         LEAST_PLAYERS,
         RANDOM,
@@ -296,6 +544,25 @@ public final class Config {
         }
     }
 
+    public enum SlowStartCurve {
+        LINEAR,
+        EXPONENTIAL;
+
+        public static SlowStartCurve fromString(String raw) {
+            if (raw == null || raw.isBlank()) {
+                return LINEAR;
+            }
+            return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+                case "exponential" -> EXPONENTIAL;
+                default -> LINEAR;
+            };
+        }
+
+        public String configValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
     public enum RemoteVersionType {
         RELEASE,
         BETA,
@@ -337,15 +604,65 @@ public final class Config {
             return currentPlayers >= maxPlayers;
         }
 
+        /**
+         * Whether a player allowed to fill {@code share} of {@code max_players} would find
+         * this lobby full; see {@link ReservedCapacitySettings#shareFor(int)}.
+         */
+        public boolean isFull(int currentPlayers, double share) {
+            if (maxPlayers == UNCAPPED) {
+                return false;
+            }
+            return currentPlayers >= (int) Math.floor(maxPlayers * share + 1e-9);
+        }
+
         public int effectiveWeight() {
             return weight;
         }
     }
 
-    public record GroupConfig(List<LobbyEntry> servers, SelectionMode mode) {
+    /**
+     * A lobby group. Besides its listed {@code servers}, a group may {@code match} registered
+     * servers by glob pattern and/or name {@code tags}; matched servers join the group with
+     * {@code maxPlayers} and {@code weight} while they stay registered. {@code attributes}
+     * apply to every lobby of the group; see {@link LobbyAttributeSettings}. A group with
+     * {@code children} is a parent: it routes through the child group with the least
+     * aggregate load instead of through servers of its own.
+     */
+    public record GroupConfig(
+            List<LobbyEntry> servers,
+            SelectionMode mode,
+            List<String> match,
+            List<String> tags,
+            int maxPlayers,
+            int weight,
+            Map<String, String> attributes,
+            List<String> children
+    ) {
+        public GroupConfig(List<LobbyEntry> servers, SelectionMode mode) {
+            this(servers, mode, List.of(), List.of(), LobbyEntry.UNCAPPED, LobbyEntry.DEFAULT_WEIGHT, Map.of(), List.of());
+        }
+
         public GroupConfig {
             servers = servers == null ? List.of() : List.copyOf(servers);
             // mode can be null — meaning "use global default"
+            match = lowerCaseNames(match);
+            tags = lowerCaseNames(tags);
+            maxPlayers = maxPlayers < 0 ? LobbyEntry.UNCAPPED : maxPlayers;
+            weight = weight <= 0 ? LobbyEntry.DEFAULT_WEIGHT : weight;
+            attributes = attributeMap(attributes);
+            children = lowerCaseNames(children);
+        }
+
+        public boolean dynamic() {
+            return !match.isEmpty() || !tags.isEmpty();
+        }
+
+        public boolean parent() {
+            return !children.isEmpty();
+        }
+
+        public GroupConfig withServers(List<LobbyEntry> members) {
+            return new GroupConfig(members, mode, match, tags, maxPlayers, weight, attributes, children);
         }
     }
 
@@ -411,7 +728,7 @@ public final class Config {
             defaultLobbies = immutableLobbyEntries(defaultLobbies);
             contextual = contextual == null ? new Contextual(false, true, Map.of(), Map.of(), Map.of()) : contextual;
             maxRetries = Math.max(0, maxRetries);
-            affinity = affinity == null ? new AffinitySettings(true, 0.7) : affinity;
+            affinity = affinity == null ? new AffinitySettings(true, 0.7, 0.25, true, 250_000) : affinity;
             chatMenuHeader = chatMenuHeader == null || chatMenuHeader.isBlank() ? "<gradient:#8EF7FF:#D9F7FF><bold>Lobby Selector</bold></gradient> <gray>(Hover to view status, click to connect)</gray>" : chatMenuHeader;
             chatMenuFormat = chatMenuFormat == null || chatMenuFormat.isBlank() ? "  <gray>•</gray> <white><bold>{server}</bold></white> <gray>| Click to connect</gray>" : chatMenuFormat;
             chatMenuTooltip = chatMenuTooltip == null || chatMenuTooltip.isBlank() ? "<white><bold>{server}</bold></white>\n<gray>Status:</gray> {status_color}{status}\n<gray>Players:</gray> <white>{players}/{max_players}</white>\n<gray>Ping:</gray> <white>{ping}ms</white>" : chatMenuTooltip;
@@ -555,9 +872,318 @@ public final class Config {
         }
     }
 
-    public record AffinitySettings(boolean enabled, double stickiness) {
+    public record AffinitySettings(boolean enabled, double stickiness, double loadMargin, boolean keepAsPreference, int maxEntries) {
         public AffinitySettings {
             stickiness = Math.max(0.0, Math.min(1.0, stickiness));
+            loadMargin = Math.max(0.0, Math.min(1.0, loadMargin));
+            maxEntries = Math.max(1_000, maxEntries);
+        }
+
+        public AffinitySettings(boolean enabled, double stickiness) {
+            this(enabled, stickiness, 0.25, true, 250_000);
+        }
+    }
+
+    /**
+     * Deterministic subset routing for very large lobby groups. {@code proxyOrdinal}
+     * is this proxy's zero-based index among {@code proxyCount} proxies sharing the
+     * same lobby lists.
+     */
+    public record ApertureSettings(
+            boolean enabled,
+            int minSize,
+            int targetPlayersPerLobby,
+            int proxyOrdinal,
+            int proxyCount,
+            int rotationSeconds
+    ) {
+        public ApertureSettings {
+            minSize = Math.max(1, minSize);
+            targetPlayersPerLobby = Math.max(1, targetPlayersPerLobby);
+            proxyCount = Math.max(1, proxyCount);
+            proxyOrdinal = Math.floorMod(proxyOrdinal, proxyCount);
+            rotationSeconds = Math.max(0, rotationSeconds);
+        }
+    }
+
+    /**
+     * Traffic ramp for lobbies that just registered or recovered. The ramp factor
+     * grows from {@code minFactor} to 1.0 over {@code durationSeconds}.
+     */
+    public record SlowStartSettings(boolean enabled, int durationSeconds, double minFactor, SlowStartCurve curve) {
+        public SlowStartSettings {
+            durationSeconds = Math.max(1, durationSeconds);
+            minFactor = Math.max(0.01, Math.min(1.0, minFactor));
+            curve = curve == null ? SlowStartCurve.LINEAR : curve;
+        }
+    }
+
+    /**
+     * Token-bucket caps on routed connections per second. A rate of 0 disables
+     * that level; {@code burst} is how many connections may arrive back to back.
+     */
+    public record AdmissionSettings(
+            boolean enabled,
+            double lobbyPerSecond,
+            int lobbyBurst,
+            double groupPerSecond,
+            int groupBurst
+    ) {
+        public AdmissionSettings {
+            lobbyPerSecond = Double.isFinite(lobbyPerSecond) ? Math.max(0.0, lobbyPerSecond) : 0.0;
+            lobbyBurst = Math.max(1, lobbyBurst);
+            groupPerSecond = Double.isFinite(groupPerSecond) ? Math.max(0.0, groupPerSecond) : 0.0;
+            groupBurst = Math.max(1, groupBurst);
+        }
+    }
+
+    /**
+     * Adaptive (AIMD) limit on in-flight connection attempts per backend. A connect
+     * slower than {@code latencyTolerance} times the backend's average, or a failed
+     * one, multiplies the limit by {@code backoffRatio}.
+     */
+    public record ConcurrencySettings(
+            boolean enabled,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double latencyTolerance,
+            double backoffRatio
+    ) {
+        public ConcurrencySettings {
+            minLimit = Math.max(1, minLimit);
+            maxLimit = Math.max(minLimit, maxLimit);
+            initialLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+            latencyTolerance = Double.isFinite(latencyTolerance) ? Math.max(1.0, latencyTolerance) : 2.0;
+            backoffRatio = Double.isFinite(backoffRatio) ? Math.max(0.1, Math.min(0.99, backoffRatio)) : 0.9;
+        }
+    }
+
+    /**
+     * Per-request deadline and proxy-wide retry budget. Retries within the last
+     * {@code windowSeconds} may not exceed {@code budgetPercent} of successful
+     * connects plus {@code minRetriesPerSecond} per second. A deadline of 0 disables it.
+     */
+    public record RetryBudgetSettings(
+            boolean enabled,
+            int deadlineMillis,
+            double budgetPercent,
+            int minRetriesPerSecond,
+            int windowSeconds
+    ) {
+        public RetryBudgetSettings {
+            deadlineMillis = Math.max(0, deadlineMillis);
+            budgetPercent = Double.isFinite(budgetPercent) ? Math.max(0.0, budgetPercent) : 20.0;
+            minRetriesPerSecond = Math.max(0, minRetriesPerSecond);
+            windowSeconds = Math.max(1, Math.min(RetryBudget.MAX_WINDOW_SECONDS, windowSeconds));
+        }
+    }
+
+    public record EvacuationSettings(
+            boolean enabled,
+            double perTargetPerSecond,
+            int maxDelaySeconds,
+            int reservationSeconds,
+            String message
+    ) {
+        public EvacuationSettings {
+            perTargetPerSecond = Double.isFinite(perTargetPerSecond) && perTargetPerSecond > 0.0 ? perTargetPerSecond : 20.0;
+            maxDelaySeconds = Math.max(0, maxDelaySeconds);
+            reservationSeconds = Math.max(1, reservationSeconds);
+            message = sanitizeText(message, "<yellow><server> went down, moving you to <target>.</yellow>");
+        }
+    }
+
+    public record DrainSettings(
+            int batchSize,
+            int batchIntervalSeconds,
+            int timeoutSeconds,
+            String message
+    ) {
+        public DrainSettings {
+            batchSize = Math.max(1, batchSize);
+            batchIntervalSeconds = Math.max(1, batchIntervalSeconds);
+            timeoutSeconds = Math.max(batchIntervalSeconds, timeoutSeconds);
+            message = sanitizeText(message, "<yellow><server> is restarting, moving you to <target>.</yellow>");
+        }
+    }
+
+    public record RebalanceSettings(
+            boolean enabled,
+            int intervalSeconds,
+            double threshold,
+            int idleSeconds,
+            int maxMovesPerCycle,
+            int playerCooldownSeconds
+    ) {
+        public RebalanceSettings {
+            intervalSeconds = Math.max(1, intervalSeconds);
+            threshold = Double.isFinite(threshold) ? Math.max(0.0, threshold) : 0.25;
+            idleSeconds = Math.max(0, idleSeconds);
+            maxMovesPerCycle = Math.max(0, maxMovesPerCycle);
+            playerCooldownSeconds = Math.max(0, playerCooldownSeconds);
+        }
+    }
+
+    public record QueueSettings(
+            boolean enabled,
+            int updateIntervalSeconds,
+            String holdingServer,
+            List<String> priorityPermissions,
+            String message
+    ) {
+        public QueueSettings {
+            updateIntervalSeconds = Math.max(1, updateIntervalSeconds);
+            holdingServer = holdingServer == null ? "" : holdingServer.trim();
+            List<String> permissions = new ArrayList<>();
+            if (priorityPermissions != null) {
+                for (String permission : priorityPermissions) {
+                    if (permission != null && !permission.isBlank()) {
+                        permissions.add(permission.trim());
+                    }
+                }
+            }
+            priorityPermissions = List.copyOf(permissions);
+            message = sanitizeText(message, "<yellow>All lobbies are full. You are <gold><position></gold> of <size> in the queue.</yellow>");
+        }
+
+        /**
+         * Queue lane for a player holding the given permissions: the index of the first
+         * priority permission they have, or the last lane if none.
+         */
+        public int laneFor(Predicate<String> hasPermission) {
+            for (int i = 0; i < priorityPermissions.size(); i++) {
+                if (hasPermission.test(priorityPermissions.get(i))) {
+                    return i;
+                }
+            }
+            return priorityPermissions.size();
+        }
+    }
+
+    public record ReservedCapacitySettings(boolean enabled, double reservedPercent, List<String> tierPermissions) {
+        public ReservedCapacitySettings {
+            reservedPercent = Math.max(0.0, Math.min(100.0, reservedPercent));
+            List<String> permissions = new ArrayList<>();
+            if (tierPermissions != null) {
+                for (String permission : tierPermissions) {
+                    if (permission != null && !permission.isBlank() && !permissions.contains(permission.trim())) {
+                        permissions.add(permission.trim());
+                    }
+                }
+            }
+            tierPermissions = List.copyOf(permissions);
+        }
+
+        /**
+         * Tier of a player holding the given permissions: the index of the first tier
+         * permission they have, or {@link #publicTier()} if none.
+         */
+        public int tierFor(Predicate<String> hasPermission) {
+            for (int i = 0; i < tierPermissions.size(); i++) {
+                if (hasPermission.test(tierPermissions.get(i))) {
+                    return i;
+                }
+            }
+            return publicTier();
+        }
+
+        public int publicTier() {
+            return tierPermissions.size();
+        }
+
+        /**
+         * Share of each capped lobby's {@code max_players} that {@code tier} may fill. The
+         * public tier stops short of the reserved slice; tier 0 may use all of it, and each
+         * tier in between gives up an equal step of it.
+         */
+        public double shareFor(int tier) {
+            if (!enabled || tierPermissions.isEmpty()) {
+                return 1.0;
+            }
+            int step = Math.max(0, Math.min(tier, publicTier()));
+            return 1.0 - reservedPercent / 100.0 * step / publicTier();
+        }
+    }
+
+    public record StateSnapshotSettings(boolean enabled, int flushIntervalSeconds, int maxAgeSeconds) {
+        public StateSnapshotSettings {
+            flushIntervalSeconds = Math.max(5, flushIntervalSeconds);
+            maxAgeSeconds = Math.max(0, maxAgeSeconds);
+        }
+    }
+
+    /**
+     * Attributes of lobbies, such as {@code region}, {@code min_protocol}, {@code max_protocol}
+     * and {@code bedrock}, matched against each player before selection. {@code servers} sets
+     * them per lobby and overrides the attributes of the lobby's groups.
+     */
+    public record LobbyAttributeSettings(boolean enabled, Map<String, Map<String, String>> servers) {
+        public static final String REGION = "region";
+        public static final String MIN_PROTOCOL = "min_protocol";
+        public static final String MAX_PROTOCOL = "max_protocol";
+        public static final String BEDROCK = "bedrock";
+
+        public LobbyAttributeSettings {
+            Map<String, Map<String, String>> cleaned = new LinkedHashMap<>();
+            if (servers != null) {
+                for (Map.Entry<String, Map<String, String>> entry : servers.entrySet()) {
+                    Map<String, String> attributes = attributeMap(entry.getValue());
+                    if (entry.getKey() != null && !entry.getKey().isBlank() && !attributes.isEmpty()) {
+                        cleaned.put(entry.getKey().trim().toLowerCase(Locale.ROOT), attributes);
+                    }
+                }
+            }
+            servers = Collections.unmodifiableMap(cleaned);
+        }
+    }
+
+    public record RegionalRoutingSettings(boolean enabled, double spillUtilization, int lobbyCapacity, boolean estimateFromPing) {
+        public RegionalRoutingSettings {
+            spillUtilization = Math.max(0.0, Math.min(1.0, spillUtilization));
+            lobbyCapacity = Math.max(1, lobbyCapacity);
+        }
+    }
+
+    /**
+     * Gossip between proxies of one network. {@code peers} are {@code host:port} addresses of
+     * the other proxies; packets are signed with {@code secret}, and each round sends at most
+     * {@code fanout} packets of up to {@code maxPacketBytes}.
+     */
+    public record ClusterSettings(
+            boolean enabled,
+            String nodeId,
+            String bindAddress,
+            int port,
+            List<String> peers,
+            String secret,
+            int gossipIntervalMillis,
+            int fanout,
+            int maxPacketBytes
+    ) {
+        public ClusterSettings {
+            nodeId = nodeId == null ? "" : nodeId.trim();
+            bindAddress = bindAddress == null || bindAddress.isBlank() ? "0.0.0.0" : bindAddress.trim();
+            port = Math.max(0, Math.min(65535, port));
+            List<String> addresses = new ArrayList<>();
+            if (peers != null) {
+                for (String peer : peers) {
+                    if (peer != null && !peer.isBlank()) {
+                        addresses.add(peer.trim());
+                    }
+                }
+            }
+            peers = List.copyOf(addresses);
+            secret = secret == null ? "" : secret.trim();
+            gossipIntervalMillis = Math.max(20, Math.min(5_000, gossipIntervalMillis));
+            fanout = Math.max(1, Math.min(16, fanout));
+            maxPacketBytes = Math.max(512, Math.min(60_000, maxPacketBytes));
+        }
+    }
+
+    public record HotReloadSettings(boolean enabled, int debounceMillis) {
+        public HotReloadSettings {
+            debounceMillis = Math.max(100, Math.min(60_000, debounceMillis));
         }
     }
 
@@ -648,6 +1274,37 @@ public final class Config {
         return Collections.unmodifiableList(cleaned);
     }
 
+    private static Map<String, String> attributeMap(Map<String, String> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> cleaned = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (entry.getKey() == null || entry.getKey().isBlank() || entry.getValue() == null || entry.getValue().isBlank()) {
+                continue;
+            }
+            cleaned.put(entry.getKey().trim().toLowerCase(Locale.ROOT), entry.getValue().trim().toLowerCase(Locale.ROOT));
+        }
+        return Collections.unmodifiableMap(cleaned);
+    }
+
+    private static List<String> lowerCaseNames(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return List.of();
+        }
+        List<String> cleaned = new ArrayList<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            if (!cleaned.contains(normalized)) {
+                cleaned.add(normalized);
+            }
+        }
+        return Collections.unmodifiableList(cleaned);
+    }
+
     private static List<LobbyEntry> immutableLobbyEntries(List<LobbyEntry> entries) {
         if (entries == null || entries.isEmpty()) {
             return List.of();
@@ -672,7 +1329,7 @@ public final class Config {
             }
             String key = entry.getKey().trim().toLowerCase(Locale.ROOT);
             GroupConfig value = entry.getValue();
-            if (value != null && !value.servers().isEmpty()) {
+            if (value != null && (!value.servers().isEmpty() || value.dynamic() || value.parent())) {
                 cleaned.put(key, value);
             }
         }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * What changed between two configs, so a reload can touch only the affected state.
+ * <p>
+ * Lobby names are lower-cased. A group counts as changed when its ordered list of
+ * lobby names differs; weight or cap changes keep its selection cursors. The
+ * default lobby list is reported as the group {@code default}.
+ */
+record ConfigDiff(
+        boolean initial,
+        Set<String> addedLobbies,
+        Set<String> removedLobbies,
+        Set<String> changedGroups,
+        boolean healthChecksChanged,
+        boolean commandsChanged,
+        boolean circuitBreakerChanged,
+        boolean reservedCapacityChanged,
+        boolean apertureChanged,
+        boolean prometheusChanged,
+        boolean updateCheckerChanged,
+        boolean geoRoutingChanged,
+        boolean regionalRoutingChanged
+) {
+
+    static final String DEFAULT_GROUP = "default";
+
+    ConfigDiff {
+        addedLobbies = Set.copyOf(addedLobbies);
+        removedLobbies = Set.copyOf(removedLobbies);
+        changedGroups = Set.copyOf(changedGroups);
+    }
+
+    /**
+     * Diff of a first load: everything counts as changed.
+     */
+    static ConfigDiff initial(Config current) {
+        Set<String> groups = new LinkedHashSet<>(current.routing().contextual().groups().keySet());
+        groups.add(DEFAULT_GROUP);
+        return new ConfigDiff(true, lobbyServers(current), Set.of(), groups,
+                true, true, true, true, true, true, true, true, true);
+    }
+
+    static ConfigDiff between(Config previous, Config current) {
+        if (previous == null) {
+            return initial(current);
+        }
+        Set<String> before = lobbyServers(previous);
+        Set<String> after = lobbyServers(current);
+        Set<String> added = new LinkedHashSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new LinkedHashSet<>(before);
+        removed.removeAll(after);
+
+        Set<String> changedGroups = new LinkedHashSet<>();
+        if (!names(previous.routing().defaultLobbies()).equals(names(current.routing().defaultLobbies()))) {
+            changedGroups.add(DEFAULT_GROUP);
+        }
+        Map<String, Config.GroupConfig> previousGroups = previous.routing().contextual().groups();
+        Map<String, Config.GroupConfig> currentGroups = current.routing().contextual().groups();
+        Set<String> groupNames = new LinkedHashSet<>(previousGroups.keySet());
+        groupNames.addAll(currentGroups.keySet());
+        for (String group : groupNames) {
+            Config.GroupConfig was = previousGroups.get(group);
+            Config.GroupConfig now = currentGroups.get(group);
+            if (was == null || now == null || !names(was.servers()).equals(names(now.servers()))) {
+                changedGroups.add(group);
+            }
+        }
+
+        return new ConfigDiff(
+                false,
+                added,
+                removed,
+                changedGroups,
+                !Objects.equals(previous.healthChecks(), current.healthChecks()),
+                !Objects.equals(previous.commands(), current.commands()),
+                !Objects.equals(previous.circuitBreaker(), current.circuitBreaker()),
+                !Objects.equals(previous.reservedCapacity(), current.reservedCapacity()),
+                !Objects.equals(previous.aperture(), current.aperture()),
+                !Objects.equals(previous.metrics().prometheus(), current.metrics().prometheus()),
+                !Objects.equals(previous.updateChecker(), current.updateChecker())
+                        || previous.notifyOnStartup() != current.notifyOnStartup(),
+                !Objects.equals(previous.geoRouting(), current.geoRouting()),
+                !Objects.equals(previous.regionalRouting(), current.regionalRouting())
+        );
+    }
+
+    boolean topologyChanged() {
+        return !changedGroups.isEmpty();
+    }
+
+    /**
+     * Lower-cased names of every lobby the config can route to, fallback server included.
+     */
+    static Set<String> lobbyServers(Config config) {
+        Set<String> names = new LinkedHashSet<>();
+        if (config == null || config.routing() == null) {
+            return names;
+        }
+        addNames(names, config.routing().defaultLobbies());
+        if (config.lobbyFallback() != null
+                && "fallback_server".equalsIgnoreCase(config.lobbyFallback().noServerStrategy())
+                && !config.lobbyFallback().fallbackServer().isBlank()) {
+            names.add(config.lobbyFallback().fallbackServer().toLowerCase(Locale.ROOT));
+        }
+        Config.Contextual contextual = config.routing().contextual();
+        if (contextual != null && contextual.groups() != null) {
+            for (Config.GroupConfig groupConfig : contextual.groups().values()) {
+                if (groupConfig != null) {
+                    addNames(names, groupConfig.servers());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void addNames(Set<String> names, List<Config.LobbyEntry> entries) {
+        if (entries == null) {
+            return;
+        }
+        for (Config.LobbyEntry entry : entries) {
+            if (entry != null && entry.server() != null && !entry.server().isBlank()) {
+                names.add(entry.server().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private static List<String> names(List<Config.LobbyEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (Config.LobbyEntry entry : entries) {
+            names.add(entry.server());
+        }
+        return names;
+    }
+}
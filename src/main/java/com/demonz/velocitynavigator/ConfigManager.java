@@ -34,6 +34,7 @@ public final class ConfigManager {
     private final Path dataDirectory;
     private final Path configPath;
     private final Logger logger;
+    private volatile long writtenChecksum;
 
     public ConfigManager(Path dataDirectory, Logger logger) {
         this.dataDirectory = Objects.requireNonNull(dataDirectory, "dataDirectory");
@@ -45,6 +46,13 @@ public final class ConfigManager {
         return configPath;
     }
 
+    /**
+     * Checksum of the last navigator.toml this manager wrote, or 0 if it wrote none.
+     */
+    long writtenChecksum() {
+        return writtenChecksum;
+    }
+
     public ConfigLoadResult load() throws IOException {
         Files.createDirectories(dataDirectory);
         if (!Files.exists(configPath)) {
@@ -80,6 +88,28 @@ public final class ConfigManager {
             );
         }
 
+        return load(toml);
+    }
+
+    /**
+     * Loads navigator.toml into a running proxy. Unlike {@link #load()}, a missing or
+     * unparsable file is an error and is left as it is, so the caller keeps its current
+     * config and a half-saved file is never replaced with defaults.
+     */
+    public ConfigLoadResult reload() throws IOException {
+        if (!Files.exists(configPath)) {
+            throw new IOException("navigator.toml does not exist: " + configPath);
+        }
+        Toml toml;
+        try {
+            toml = new Toml().read(configPath.toFile());
+        } catch (RuntimeException exception) {
+            throw new IOException("navigator.toml could not be parsed: " + exception.getMessage(), exception);
+        }
+        return load(toml);
+    }
+
+    private ConfigLoadResult load(Toml toml) throws IOException {
         ParseState state = new ParseState();
         int sourceVersion = readInt(toml, state, "config_version", 1, "config_version");
         boolean migrated = sourceVersion < Config.CURRENT_VERSION;
@@ -182,7 +212,10 @@ public final class ConfigManager {
 
         Config.AffinitySettings affinity = new Config.AffinitySettings(
                 readBoolean(toml, state, "routing.affinity.enabled", defaults.routing().affinity().enabled(), "routing.affinity.enabled"),
-                readDouble(toml, state, "routing.affinity.stickiness", defaults.routing().affinity().stickiness(), "routing.affinity.stickiness")
+                readDouble(toml, state, "routing.affinity.stickiness", defaults.routing().affinity().stickiness(), "routing.affinity.stickiness"),
+                readDouble(toml, state, "routing.affinity.load_margin", defaults.routing().affinity().loadMargin(), "routing.affinity.load_margin"),
+                readBoolean(toml, state, "routing.affinity.keep_as_preference", defaults.routing().affinity().keepAsPreference(), "routing.affinity.keep_as_preference"),
+                readInt(toml, state, "routing.affinity.max_entries", defaults.routing().affinity().maxEntries(), "routing.affinity.max_entries")
         );
 
         Config.Routing routing = new Config.Routing(
@@ -298,6 +331,127 @@ public final class ConfigManager {
                 readString(toml, state, "bedrock.gui_button_format", defaults.bedrock().guiButtonFormat(), "bedrock.gui_button_format")
         );
 
+        Config.ApertureSettings aperture = new Config.ApertureSettings(
+                readBoolean(toml, state, "aperture.enabled", defaults.aperture().enabled(), "aperture.enabled"),
+                readInt(toml, state, "aperture.min_size", defaults.aperture().minSize(), "aperture.min_size"),
+                readInt(toml, state, "aperture.target_players_per_lobby", defaults.aperture().targetPlayersPerLobby(), "aperture.target_players_per_lobby"),
+                readInt(toml, state, "aperture.proxy_ordinal", defaults.aperture().proxyOrdinal(), "aperture.proxy_ordinal"),
+                readInt(toml, state, "aperture.proxy_count", defaults.aperture().proxyCount(), "aperture.proxy_count"),
+                readInt(toml, state, "aperture.rotation_seconds", defaults.aperture().rotationSeconds(), "aperture.rotation_seconds")
+        );
+
+        Config.SlowStartSettings slowStart = new Config.SlowStartSettings(
+                readBoolean(toml, state, "slow_start.enabled", defaults.slowStart().enabled(), "slow_start.enabled"),
+                readInt(toml, state, "slow_start.duration_seconds", defaults.slowStart().durationSeconds(), "slow_start.duration_seconds"),
+                readDouble(toml, state, "slow_start.min_factor", defaults.slowStart().minFactor(), "slow_start.min_factor"),
+                Config.SlowStartCurve.fromString(readString(toml, state, "slow_start.curve", defaults.slowStart().curve().configValue(), "slow_start.curve"))
+        );
+
+        Config.AdmissionSettings admission = new Config.AdmissionSettings(
+                readBoolean(toml, state, "admission.enabled", defaults.admission().enabled(), "admission.enabled"),
+                readDouble(toml, state, "admission.lobby_per_second", defaults.admission().lobbyPerSecond(), "admission.lobby_per_second"),
+                readInt(toml, state, "admission.lobby_burst", defaults.admission().lobbyBurst(), "admission.lobby_burst"),
+                readDouble(toml, state, "admission.group_per_second", defaults.admission().groupPerSecond(), "admission.group_per_second"),
+                readInt(toml, state, "admission.group_burst", defaults.admission().groupBurst(), "admission.group_burst")
+        );
+
+        Config.ConcurrencySettings concurrency = new Config.ConcurrencySettings(
+                readBoolean(toml, state, "concurrency.enabled", defaults.concurrency().enabled(), "concurrency.enabled"),
+                readInt(toml, state, "concurrency.initial_limit", defaults.concurrency().initialLimit(), "concurrency.initial_limit"),
+                readInt(toml, state, "concurrency.min_limit", defaults.concurrency().minLimit(), "concurrency.min_limit"),
+                readInt(toml, state, "concurrency.max_limit", defaults.concurrency().maxLimit(), "concurrency.max_limit"),
+                readDouble(toml, state, "concurrency.latency_tolerance", defaults.concurrency().latencyTolerance(), "concurrency.latency_tolerance"),
+                readDouble(toml, state, "concurrency.backoff_ratio", defaults.concurrency().backoffRatio(), "concurrency.backoff_ratio")
+        );
+
+        Config.RetryBudgetSettings retryBudget = new Config.RetryBudgetSettings(
+                readBoolean(toml, state, "retry_budget.enabled", defaults.retryBudget().enabled(), "retry_budget.enabled"),
+                readInt(toml, state, "retry_budget.deadline_ms", defaults.retryBudget().deadlineMillis(), "retry_budget.deadline_ms"),
+                readDouble(toml, state, "retry_budget.budget_percent", defaults.retryBudget().budgetPercent(), "retry_budget.budget_percent"),
+                readInt(toml, state, "retry_budget.min_retries_per_second", defaults.retryBudget().minRetriesPerSecond(), "retry_budget.min_retries_per_second"),
+                readInt(toml, state, "retry_budget.window_seconds", defaults.retryBudget().windowSeconds(), "retry_budget.window_seconds")
+        );
+
+        Config.EvacuationSettings evacuation = new Config.EvacuationSettings(
+                readBoolean(toml, state, "evacuation.enabled", defaults.evacuation().enabled(), "evacuation.enabled"),
+                readDouble(toml, state, "evacuation.per_target_per_second", defaults.evacuation().perTargetPerSecond(), "evacuation.per_target_per_second"),
+                readInt(toml, state, "evacuation.max_delay_seconds", defaults.evacuation().maxDelaySeconds(), "evacuation.max_delay_seconds"),
+                readInt(toml, state, "evacuation.reservation_seconds", defaults.evacuation().reservationSeconds(), "evacuation.reservation_seconds"),
+                readString(toml, state, "evacuation.message", defaults.evacuation().message(), "evacuation.message")
+        );
+
+        Config.DrainSettings drain = new Config.DrainSettings(
+                readInt(toml, state, "drain.batch_size", defaults.drain().batchSize(), "drain.batch_size"),
+                readInt(toml, state, "drain.batch_interval_seconds", defaults.drain().batchIntervalSeconds(), "drain.batch_interval_seconds"),
+                readInt(toml, state, "drain.timeout_seconds", defaults.drain().timeoutSeconds(), "drain.timeout_seconds"),
+                readString(toml, state, "drain.message", defaults.drain().message(), "drain.message")
+        );
+
+        Config.RebalanceSettings rebalance = new Config.RebalanceSettings(
+                readBoolean(toml, state, "rebalance.enabled", defaults.rebalance().enabled(), "rebalance.enabled"),
+                readInt(toml, state, "rebalance.interval_seconds", defaults.rebalance().intervalSeconds(), "rebalance.interval_seconds"),
+                readDouble(toml, state, "rebalance.threshold", defaults.rebalance().threshold(), "rebalance.threshold"),
+                readInt(toml, state, "rebalance.idle_seconds", defaults.rebalance().idleSeconds(), "rebalance.idle_seconds"),
+                readInt(toml, state, "rebalance.max_moves_per_cycle", defaults.rebalance().maxMovesPerCycle(), "rebalance.max_moves_per_cycle"),
+                readInt(toml, state, "rebalance.player_cooldown_seconds", defaults.rebalance().playerCooldownSeconds(), "rebalance.player_cooldown_seconds")
+        );
+
+        Config.QueueSettings queue = new Config.QueueSettings(
+                readBoolean(toml, state, "queue.enabled", defaults.queue().enabled(), "queue.enabled"),
+                readInt(toml, state, "queue.update_interval_seconds", defaults.queue().updateIntervalSeconds(), "queue.update_interval_seconds"),
+                readString(toml, state, "queue.holding_server", defaults.queue().holdingServer(), "queue.holding_server"),
+                readStringList(toml, state, "queue.priority_permissions", defaults.queue().priorityPermissions(), "queue.priority_permissions"),
+                readString(toml, state, "queue.message", defaults.queue().message(), "queue.message")
+        );
+
+        Config.ReservedCapacitySettings reservedCapacity = new Config.ReservedCapacitySettings(
+                readBoolean(toml, state, "reserved_capacity.enabled", defaults.reservedCapacity().enabled(), "reserved_capacity.enabled"),
+                readDouble(toml, state, "reserved_capacity.reserved_percent", defaults.reservedCapacity().reservedPercent(), "reserved_capacity.reserved_percent"),
+                readStringList(toml, state, "reserved_capacity.tier_permissions", defaults.reservedCapacity().tierPermissions(), "reserved_capacity.tier_permissions")
+        );
+
+        Config.StateSnapshotSettings stateSnapshot = new Config.StateSnapshotSettings(
+                readBoolean(toml, state, "state_snapshot.enabled", defaults.stateSnapshot().enabled(), "state_snapshot.enabled"),
+                readInt(toml, state, "state_snapshot.flush_interval_seconds", defaults.stateSnapshot().flushIntervalSeconds(), "state_snapshot.flush_interval_seconds"),
+                readInt(toml, state, "state_snapshot.max_age_seconds", defaults.stateSnapshot().maxAgeSeconds(), "state_snapshot.max_age_seconds")
+        );
+
+        Config.HotReloadSettings hotReload = new Config.HotReloadSettings(
+                readBoolean(toml, state, "hot_reload.enabled", defaults.hotReload().enabled(), "hot_reload.enabled"),
+                readInt(toml, state, "hot_reload.debounce_millis", defaults.hotReload().debounceMillis(), "hot_reload.debounce_millis")
+        );
+
+        Map<String, Map<String, String>> serverAttributes = new LinkedHashMap<>();
+        if (rawValue(toml, "lobby_attributes.servers") instanceof Map<?, ?> rawServers) {
+            for (Map.Entry<?, ?> entry : rawServers.entrySet()) {
+                String label = "lobby_attributes.servers." + entry.getKey();
+                serverAttributes.put(String.valueOf(entry.getKey()), readAttributes(entry.getValue(), label, state));
+            }
+        }
+        Config.LobbyAttributeSettings lobbyAttributes = new Config.LobbyAttributeSettings(
+                readBoolean(toml, state, "lobby_attributes.enabled", defaults.lobbyAttributes().enabled(), "lobby_attributes.enabled"),
+                serverAttributes
+        );
+
+        Config.RegionalRoutingSettings regionalRouting = new Config.RegionalRoutingSettings(
+                readBoolean(toml, state, "regional_routing.enabled", defaults.regionalRouting().enabled(), "regional_routing.enabled"),
+                readDouble(toml, state, "regional_routing.spill_utilization", defaults.regionalRouting().spillUtilization(), "regional_routing.spill_utilization"),
+                readInt(toml, state, "regional_routing.lobby_capacity", defaults.regionalRouting().lobbyCapacity(), "regional_routing.lobby_capacity"),
+                readBoolean(toml, state, "regional_routing.estimate_from_ping", defaults.regionalRouting().estimateFromPing(), "regional_routing.estimate_from_ping")
+        );
+
+        Config.ClusterSettings cluster = new Config.ClusterSettings(
+                readBoolean(toml, state, "cluster.enabled", defaults.cluster().enabled(), "cluster.enabled"),
+                readString(toml, state, "cluster.node_id", defaults.cluster().nodeId(), "cluster.node_id"),
+                readString(toml, state, "cluster.bind_address", defaults.cluster().bindAddress(), "cluster.bind_address"),
+                readInt(toml, state, "cluster.port", defaults.cluster().port(), "cluster.port"),
+                readStringList(toml, state, "cluster.peers", defaults.cluster().peers(), "cluster.peers"),
+                readString(toml, state, "cluster.secret", defaults.cluster().secret(), "cluster.secret"),
+                readInt(toml, state, "cluster.gossip_interval_millis", defaults.cluster().gossipIntervalMillis(), "cluster.gossip_interval_millis"),
+                readInt(toml, state, "cluster.fanout", defaults.cluster().fanout(), "cluster.fanout"),
+                readInt(toml, state, "cluster.max_packet_bytes", defaults.cluster().maxPacketBytes(), "cluster.max_packet_bytes")
+        );
+
         return new Config(
                 Config.CURRENT_VERSION,
                 commands,
@@ -314,7 +468,22 @@ public final class ConfigManager {
                 notifyAdminsOnJoin,
                 startup,
                 lobbyFallback,
-                bedrock
+                bedrock,
+                aperture,
+                slowStart,
+                admission,
+                concurrency,
+                retryBudget,
+                evacuation,
+                drain,
+                rebalance,
+                queue,
+                reservedCapacity,
+                stateSnapshot,
+                hotReload,
+                lobbyAttributes,
+                regionalRouting,
+                cluster
         );
     }
 
@@ -423,8 +592,18 @@ public final class ConfigManager {
                         mode = Config.SelectionMode.fromString(modeStr);
                     }
 
-                    if (!entries.isEmpty()) {
-                        result.put(key, new Config.GroupConfig(entries, mode));
+                    // Dynamic membership: registered servers matching these globs/tags join the group
+                    List<String> match = readGroupStrings(groupMap.get("match"), label + "." + key + ".match", state);
+                    List<String> tags = readGroupStrings(groupMap.get("tags"), label + "." + key + ".tags", state);
+                    int maxPlayers = groupMap.get("max_players") instanceof Number n ? n.intValue() : Config.LobbyEntry.UNCAPPED;
+                    int weight = groupMap.get("weight") instanceof Number n ? n.intValue() : Config.LobbyEntry.DEFAULT_WEIGHT;
+
+                    Map<String, String> attributes = readAttributes(groupMap.get("attributes"), label + "." + key + ".attributes", state);
+                    List<String> children = readGroupStrings(groupMap.get("children"), label + "." + key + ".children", state);
+
+                    Config.GroupConfig groupConfig = new Config.GroupConfig(entries, mode, match, tags, maxPlayers, weight, attributes, children);
+                    if (!entries.isEmpty() || groupConfig.dynamic() || groupConfig.parent()) {
+                        result.put(key, groupConfig);
                     }
                     continue;
                 }
@@ -437,6 +616,46 @@ public final class ConfigManager {
         return Map.of();
     }
 
+    private Map<String, String> readAttributes(Object value, String label, ParseState state) {
+        if (value == null) {
+            return Map.of();
+        }
+        if (!(value instanceof Map<?, ?> rawMap)) {
+            state.warnings.add(label + " expected a table of attributes and was ignored.");
+            state.normalized = true;
+            return Map.of();
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
+            Object attribute = entry.getValue();
+            if (attribute instanceof String || attribute instanceof Number || attribute instanceof Boolean) {
+                attributes.put(String.valueOf(entry.getKey()), String.valueOf(attribute));
+            } else {
+                state.warnings.add(label + "." + entry.getKey() + " expected a string, number or boolean and was ignored.");
+                state.normalized = true;
+            }
+        }
+        return attributes;
+    }
+
+    private List<String> readGroupStrings(Object value, String label, ParseState state) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> rawList)) {
+            state.warnings.add(label + " expected a list of strings and was ignored.");
+            state.normalized = true;
+            return List.of();
+        }
+        List<String> values = new ArrayList<>();
+        for (Object item : rawList) {
+            if (item instanceof String text && !text.isBlank()) {
+                values.add(text.trim());
+            }
+        }
+        return values;
+    }
+
     private String readString(Toml toml, ParseState state, String label, String fallback, String... paths) {
         for (String path : paths) {
             Object value = rawValue(toml, path);
@@ -747,6 +966,16 @@ public final class ConfigManager {
         b.append("# 0.0 = never sticky, 1.0 = always sticky.\n");
         b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#affinity_stickiness\n");
         b.append("stickiness = ").append(config.routing().affinity().stickiness()).append("\n\n");
+        b.append("# Only stick while the last lobby's fill is at most this far above the emptiest candidate\n");
+        b.append("# (0.25 = 25 percentage points of max_players). 1.0 = ignore load.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#affinity_load_margin\n");
+        b.append("load_margin = ").append(config.routing().affinity().loadMargin()).append("\n\n");
+        b.append("# Keep the last lobby as the player's preference after spilling away from it while busy.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#affinity_keep_as_preference\n");
+        b.append("keep_as_preference = ").append(config.routing().affinity().keepAsPreference()).append("\n\n");
+        b.append("# Most players remembered at once; past this the least recently routed are forgotten first.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#affinity_max_entries\n");
+        b.append("max_entries = ").append(config.routing().affinity().maxEntries()).append("\n\n");
 
         // ── [routing.contextual] ────────────────────────────────────────────
         b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
@@ -773,10 +1002,49 @@ public final class ConfigManager {
         b.append("#   \"bedwars\"  = { servers = [\"bw-lobby-1\", \"bw-lobby-2\"], mode = \"round_robin\" }\n");
         b.append("#   \"skyblock\" = [\"sb-lobby-1\"]\n");
         b.append("#\n");
+        b.append("# A group can also take in registered servers by name, so autoscaled\n");
+        b.append("# lobbies join and leave it without a reload. \"match\" takes globs\n");
+        b.append("# (* and ?, a leading ! excludes); \"tags\" must all appear among the\n");
+        b.append("# name's parts split on - _ . (\"eu-lobby-7f3a\" has eu, lobby, 7f3a).\n");
+        b.append("# \"max_players\" and \"weight\" apply to every matched server.\n");
+        b.append("#   \"lobby\" = { match = [\"lobby-*\", \"!lobby-canary-*\"], max_players = 100 }\n");
+        b.append("#   \"eu\"    = { tags = [\"eu\", \"lobby\"], mode = \"least_players\" }\n");
+        b.append("#\n");
+        b.append("# A group with \"children\" routes through the child group with the\n");
+        b.append("# least players per unit of lobby weight; children can nest again.\n");
+        b.append("# If a child has no routable lobby, its siblings are tried, then the\n");
+        b.append("# parent's fallbacks.\n");
+        b.append("#   \"global\" = { children = [\"eu\", \"na\"] }\n");
+        b.append("#\n");
         b.append("# Wiki: ").append(wiki).append("/Contextual-Routing-Guide#groups\n");
         b.append("[routing.contextual.groups]\n");
         for (Map.Entry<String, Config.GroupConfig> entry : config.routing().contextual().groups().entrySet()) {
-            if (entry.getValue().mode() != null) {
+            Config.GroupConfig group = entry.getValue();
+            if (group.dynamic() || group.parent() || !group.attributes().isEmpty()) {
+                b.append(quoted(entry.getKey())).append(" = { servers = ").append(formatLobbyEntryList(group.servers()));
+                if (group.parent()) {
+                    b.append(", children = ").append(formatList(group.children()));
+                }
+                if (!group.match().isEmpty()) {
+                    b.append(", match = ").append(formatList(group.match()));
+                }
+                if (!group.tags().isEmpty()) {
+                    b.append(", tags = ").append(formatList(group.tags()));
+                }
+                if (group.maxPlayers() != Config.LobbyEntry.UNCAPPED) {
+                    b.append(", max_players = ").append(group.maxPlayers());
+                }
+                if (group.weight() != Config.LobbyEntry.DEFAULT_WEIGHT) {
+                    b.append(", weight = ").append(group.weight());
+                }
+                if (!group.attributes().isEmpty()) {
+                    b.append(", attributes = ").append(formatAttributes(group.attributes()));
+                }
+                if (group.mode() != null) {
+                    b.append(", mode = ").append(quoted(group.mode().configValue()));
+                }
+                b.append(" }\n");
+            } else if (entry.getValue().mode() != null) {
                 b.append(quoted(entry.getKey())).append(" = { servers = ").append(formatLobbyEntryList(entry.getValue().servers())).append(", mode = ").append(quoted(entry.getValue().mode().configValue())).append(" }\n");
             } else {
                 b.append(quoted(entry.getKey())).append(" = ").append(formatLobbyEntryList(entry.getValue().servers())).append("\n");
@@ -864,6 +1132,364 @@ public final class ConfigManager {
         b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#circuit_breaker_half_open_max_tests\n");
         b.append("half_open_max_tests = ").append(config.circuitBreaker().halfOpenMaxTests()).append("\n\n");
 
+        // ── [aperture] ──────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  APERTURE — Subset routing for very large lobby groups         │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Each proxy only considers (and health-checks) a rotating      │\n");
+        b.append("# │  window of every group, so routing cost stays flat as the      │\n");
+        b.append("# │  number of lobbies grows.                                       │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[aperture]\n\n");
+        b.append("# Enable aperture routing. Groups no larger than min_size are unaffected.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_enabled\n");
+        b.append("enabled = ").append(config.aperture().enabled()).append("\n\n");
+        b.append("# Smallest window of lobbies a proxy considers per group.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_min_size\n");
+        b.append("min_size = ").append(config.aperture().minSize()).append("\n\n");
+        b.append("# The window widens while its lobbies average more players than this,\n");
+        b.append("# and narrows again once they drop below half of it.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_target_players_per_lobby\n");
+        b.append("target_players_per_lobby = ").append(config.aperture().targetPlayersPerLobby()).append("\n\n");
+        b.append("# This proxy's index (0-based) among proxy_count proxies. Give every proxy\n");
+        b.append("# a different ordinal so their windows cover the whole group evenly.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_proxy_ordinal\n");
+        b.append("proxy_ordinal = ").append(config.aperture().proxyOrdinal()).append("\n\n");
+        b.append("# Total number of proxies sharing these lobby groups.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_proxy_count\n");
+        b.append("proxy_count = ").append(config.aperture().proxyCount()).append("\n\n");
+        b.append("# Shift every window by one lobby this often (seconds). 0 = never rotate.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#aperture_rotation_seconds\n");
+        b.append("rotation_seconds = ").append(config.aperture().rotationSeconds()).append("\n\n");
+
+        // ── [slow_start] ────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  SLOW START — Gentle traffic ramp for cold lobbies             │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  A lobby that just booted or recovered from an open circuit    │\n");
+        b.append("# │  receives a growing share of new players instead of all of     │\n");
+        b.append("# │  them, giving its JIT and chunk caches time to warm up.        │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[slow_start]\n\n");
+        b.append("# Enable slow-start ramping. Applies to every selection mode.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#slow_start_enabled\n");
+        b.append("enabled = ").append(config.slowStart().enabled()).append("\n\n");
+        b.append("# How long (seconds) a lobby takes to reach its full share of traffic.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#slow_start_duration_seconds\n");
+        b.append("duration_seconds = ").append(config.slowStart().durationSeconds()).append("\n\n");
+        b.append("# Share of normal traffic (0.01–1.0) a lobby gets at the start of its ramp.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#slow_start_min_factor\n");
+        b.append("min_factor = ").append(config.slowStart().minFactor()).append("\n\n");
+        b.append("# Ramp shape: \"linear\" (steady) or \"exponential\" (slow first, fast later).\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#slow_start_curve\n");
+        b.append("curve = ").append(quoted(config.slowStart().curve().configValue())).append("\n\n");
+
+        // ── [admission] ─────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  ADMISSION — Connection rate caps per lobby and per group       │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  During login storms a lobby that has used up its rate is       │\n");
+        b.append("# │  skipped in favour of the next candidate, spreading the excess  │\n");
+        b.append("# │  instead of hammering one backend. No player is refused.        │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[admission]\n\n");
+        b.append("# Enable per-lobby and per-group admission limits.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#admission_enabled\n");
+        b.append("enabled = ").append(config.admission().enabled()).append("\n\n");
+        b.append("# Connections per second routed to a single lobby. 0 = unlimited.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#admission_lobby_per_second\n");
+        b.append("lobby_per_second = ").append(config.admission().lobbyPerSecond()).append("\n\n");
+        b.append("# Connections a lobby may receive back to back before the rate applies.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#admission_lobby_burst\n");
+        b.append("lobby_burst = ").append(config.admission().lobbyBurst()).append("\n\n");
+        b.append("# Connections per second routed to one lobby group. Once exceeded, players\n");
+        b.append("# spill over to the group's fallback chain. 0 = unlimited.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#admission_group_per_second\n");
+        b.append("group_per_second = ").append(config.admission().groupPerSecond()).append("\n\n");
+        b.append("# Connections a group may receive back to back before the rate applies.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#admission_group_burst\n");
+        b.append("group_burst = ").append(config.admission().groupBurst()).append("\n\n");
+
+        // ── [concurrency] ───────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  CONCURRENCY — Adaptive in-flight connection limit per lobby    │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Learns how many simultaneous logins each lobby can handle from │\n");
+        b.append("# │  its connect latency. Lobbies at their limit are only chosen    │\n");
+        b.append("# │  when nothing else is available.                                │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[concurrency]\n\n");
+        b.append("# Enable adaptive concurrency limits.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#concurrency_enabled\n");
+        b.append("enabled = ").append(config.concurrency().enabled()).append("\n\n");
+        b.append("# Limit a lobby starts with before any connects have been observed.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#concurrency_initial_limit\n");
+        b.append("initial_limit = ").append(config.concurrency().initialLimit()).append("\n\n");
+        b.append("# Lowest and highest limit the algorithm may settle on.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#concurrency_min_limit\n");
+        b.append("min_limit = ").append(config.concurrency().minLimit()).append("\n");
+        b.append("max_limit = ").append(config.concurrency().maxLimit()).append("\n\n");
+        b.append("# A connect slower than this multiple of the lobby's average counts as overload.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#concurrency_latency_tolerance\n");
+        b.append("latency_tolerance = ").append(config.concurrency().latencyTolerance()).append("\n\n");
+        b.append("# Factor the limit is multiplied by on overload or a failed connect.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#concurrency_backoff_ratio\n");
+        b.append("backoff_ratio = ").append(config.concurrency().backoffRatio()).append("\n\n");
+
+        // ── [retry_budget] ──────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  RETRY BUDGET — Stop retry storms when a group degrades        │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Caps retries proxy-wide as a share of recent successful       │\n");
+        b.append("# │  connects and gives every /lobby request an overall deadline.  │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[retry_budget]\n\n");
+        b.append("# Enable the retry budget and request deadline.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#retry_budget_enabled\n");
+        b.append("enabled = ").append(config.retryBudget().enabled()).append("\n\n");
+        b.append("# No new retry is started once a request is older than this (ms). 0 = no deadline.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#retry_budget_deadline_ms\n");
+        b.append("deadline_ms = ").append(config.retryBudget().deadlineMillis()).append("\n\n");
+        b.append("# Retries allowed as a percentage of successful connects in the window.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#retry_budget_budget_percent\n");
+        b.append("budget_percent = ").append(config.retryBudget().budgetPercent()).append("\n\n");
+        b.append("# Retries per second that are always allowed, even with no recent successes.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#retry_budget_min_retries_per_second\n");
+        b.append("min_retries_per_second = ").append(config.retryBudget().minRetriesPerSecond()).append("\n\n");
+        b.append("# Length of the sliding window in seconds (1–60).\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#retry_budget_window_seconds\n");
+        b.append("window_seconds = ").append(config.retryBudget().windowSeconds()).append("\n\n");
+
+        // ── [evacuation] ────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  EVACUATION — Re-home players when a backend crashes           │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Players kicked by a failing server are spread over the lobby  │\n");
+        b.append("# │  group it maps to, paced so no single lobby is flooded.        │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[evacuation]\n\n");
+        b.append("# Redirect players kicked from a server instead of disconnecting them.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#evacuation_enabled\n");
+        b.append("enabled = ").append(config.evacuation().enabled()).append("\n\n");
+        b.append("# Evacuees each lobby accepts per second; the rest are held briefly.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#evacuation_per_target_per_second\n");
+        b.append("per_target_per_second = ").append(config.evacuation().perTargetPerSecond()).append("\n\n");
+        b.append("# Longest a player is held before trying a busier lobby instead.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#evacuation_max_delay_seconds\n");
+        b.append("max_delay_seconds = ").append(config.evacuation().maxDelaySeconds()).append("\n\n");
+        b.append("# How long an assigned slot counts against a lobby before its player count catches up.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#evacuation_reservation_seconds\n");
+        b.append("reservation_seconds = ").append(config.evacuation().reservationSeconds()).append("\n\n");
+        b.append("# Shown to evacuated players. Placeholders: <server> <target> <player>\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#evacuation_message\n");
+        b.append("message = ").append(quoted(config.evacuation().message())).append("\n\n");
+
+        // ── [drain] ─────────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  DRAIN — Move players off a lobby before a restart             │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Used by /vn drain <server> migrate. Players are moved to      │\n");
+        b.append("# │  other lobbies of the same group in small batches.             │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[drain]\n\n");
+        b.append("# Players moved per batch.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#drain_batch_size\n");
+        b.append("batch_size = ").append(config.drain().batchSize()).append("\n\n");
+        b.append("# Seconds between batches.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#drain_batch_interval_seconds\n");
+        b.append("batch_interval_seconds = ").append(config.drain().batchIntervalSeconds()).append("\n\n");
+        b.append("# After this many seconds all remaining players are moved at once.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#drain_timeout_seconds\n");
+        b.append("timeout_seconds = ").append(config.drain().timeoutSeconds()).append("\n\n");
+        b.append("# Shown to moved players. Placeholders: <server> <target> <player>\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#drain_message\n");
+        b.append("message = ").append(quoted(config.drain().message())).append("\n\n");
+
+        // ── [rebalance] ─────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  REBALANCE — Even out lobbies that drift apart                 │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Moves idle players from lobbies well above their group's      │\n");
+        b.append("# │  average to the emptiest ones, a few at a time.                │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[rebalance]\n\n");
+        b.append("# Enable the background rebalancer.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_enabled\n");
+        b.append("enabled = ").append(config.rebalance().enabled()).append("\n\n");
+        b.append("# Seconds between rebalancing passes.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_interval_seconds\n");
+        b.append("interval_seconds = ").append(config.rebalance().intervalSeconds()).append("\n\n");
+        b.append("# How far above the group average (0.25 = 25%) a lobby must be before players are moved.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_threshold\n");
+        b.append("threshold = ").append(config.rebalance().threshold()).append("\n\n");
+        b.append("# Only players without a server switch, chat or command for this long are moved.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_idle_seconds\n");
+        b.append("idle_seconds = ").append(config.rebalance().idleSeconds()).append("\n\n");
+        b.append("# Most players moved per group per pass.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_max_moves_per_cycle\n");
+        b.append("max_moves_per_cycle = ").append(config.rebalance().maxMovesPerCycle()).append("\n\n");
+        b.append("# A moved player is not moved again for this many seconds.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#rebalance_player_cooldown_seconds\n");
+        b.append("player_cooldown_seconds = ").append(config.rebalance().playerCooldownSeconds()).append("\n\n");
+
+        // ── [queue] ─────────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  QUEUE — Wait in line when every lobby is full                 │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Instead of failing, /lobby puts players in a first-come,      │\n");
+        b.append("# │  first-served queue for their lobby group.                     │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[queue]\n\n");
+        b.append("# Queue players when all lobbies in their group are at max_players.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#queue_enabled\n");
+        b.append("enabled = ").append(config.queue().enabled()).append("\n\n");
+        b.append("# Seconds between admission passes and queue position updates.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#queue_update_interval_seconds\n");
+        b.append("update_interval_seconds = ").append(config.queue().updateIntervalSeconds()).append("\n\n");
+        b.append("# Server that joining players wait on while queued (e.g. a limbo server). Empty = joining players are not queued.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#queue_holding_server\n");
+        b.append("holding_server = ").append(quoted(config.queue().holdingServer())).append("\n\n");
+        b.append("# Permissions for priority lanes, highest first. Players without any wait in the last lane.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#queue_priority_permissions\n");
+        b.append("priority_permissions = ").append(formatList(config.queue().priorityPermissions())).append("\n\n");
+        b.append("# Action bar shown to queued players. Placeholders: <position> <size> <group> <player>\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#queue_message\n");
+        b.append("message = ").append(quoted(config.queue().message())).append("\n\n");
+
+        // ── [reserved_capacity] ─────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  RESERVED CAPACITY — Headroom for ranked and staff players      │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  The top slice of every capped lobby is kept for players        │\n");
+        b.append("# │  holding a tier permission, so public joins fill up first.      │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[reserved_capacity]\n\n");
+        b.append("# Enable reserved capacity headroom.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#reserved_capacity_enabled\n");
+        b.append("enabled = ").append(config.reservedCapacity().enabled()).append("\n\n");
+        b.append("# Percent of each lobby's max_players that players without a tier permission cannot fill.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#reserved_capacity_reserved_percent\n");
+        b.append("reserved_percent = ").append(config.reservedCapacity().reservedPercent()).append("\n\n");
+        b.append("# Tier permissions, highest first. The first tier may use the whole reserved slice; each later tier a smaller part of it.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#reserved_capacity_tier_permissions\n");
+        b.append("tier_permissions = ").append(formatList(config.reservedCapacity().tierPermissions())).append("\n\n");
+
+        // ── [state_snapshot] ────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  STATE SNAPSHOT — Warm restarts                                 │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Affinities, circuit breakers, load averages and routing        │\n");
+        b.append("# │  counters survive a proxy restart.                              │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[state_snapshot]\n\n");
+        b.append("# Save routing state to state.bin and restore it on startup.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#state_snapshot_enabled\n");
+        b.append("enabled = ").append(config.stateSnapshot().enabled()).append("\n\n");
+        b.append("# Seconds between incremental flushes of the snapshot file.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#state_snapshot_flush_interval_seconds\n");
+        b.append("flush_interval_seconds = ").append(config.stateSnapshot().flushIntervalSeconds()).append("\n\n");
+        b.append("# Restored load averages and ping latencies lose half their difference from the server average every this many seconds of snapshot age. Affinities keep their own expiry.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#state_snapshot_max_age_seconds\n");
+        b.append("max_age_seconds = ").append(config.stateSnapshot().maxAgeSeconds()).append("\n\n");
+
+        // ── [hot_reload] ────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  HOT RELOAD — Apply edits without /vn reload                    │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Watches navigator.toml and reloads it shortly after it is      │\n");
+        b.append("# │  saved. A file that fails to parse keeps the running config.    │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[hot_reload]\n\n");
+        b.append("# Reload automatically when navigator.toml changes on disk.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#hot_reload_enabled\n");
+        b.append("enabled = ").append(config.hotReload().enabled()).append("\n\n");
+        b.append("# Quiet period after the last change before reloading (100-60000).\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#hot_reload_debounce_millis\n");
+        b.append("debounce_millis = ").append(config.hotReload().debounceMillis()).append("\n\n");
+
+        // ── [lobby_attributes] ──────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  LOBBY ATTRIBUTES — Match players to compatible lobbies         │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Region, protocol range and Bedrock support per lobby. Players  │\n");
+        b.append("# │  only go to lobbies whose attributes they satisfy.              │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[lobby_attributes]\n\n");
+        b.append("# Filter candidate lobbies by their attributes before selection.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#lobby_attributes_enabled\n");
+        b.append("enabled = ").append(config.lobbyAttributes().enabled()).append("\n\n");
+        b.append("# Attributes per lobby. Groups can also set attributes = { ... } for\n");
+        b.append("# all of their lobbies; values here win. Known attributes:\n");
+        b.append("#   min_protocol / max_protocol — protocol numbers the lobby accepts\n");
+        b.append("#   bedrock = false             — keep Bedrock players away\n");
+        b.append("#   region                      — preferred for players in that country\n");
+        b.append("#                                 or continent code (\"eu\", \"de\")\n");
+        b.append("# Example:\n");
+        b.append("#   \"legacy-lobby\" = { max_protocol = 47, bedrock = false }\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#lobby_attributes_servers\n");
+        b.append("[lobby_attributes.servers]\n");
+        for (Map.Entry<String, Map<String, String>> entry : config.lobbyAttributes().servers().entrySet()) {
+            b.append(quoted(entry.getKey())).append(" = ").append(formatAttributes(entry.getValue())).append("\n");
+        }
+        b.append("\n");
+
+        // ── [regional_routing] ──────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  REGIONAL ROUTING — Keep players in lobbies near them           │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Players go to lobbies whose region attribute matches their     │\n");
+        b.append("# │  location, and spill to other regions only when those are busy. │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[regional_routing]\n\n");
+        b.append("# Prefer lobbies in the player's region. Regions come from the 'region'\n");
+        b.append("# attribute of [lobby_attributes] or group attributes.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#regional_routing_enabled\n");
+        b.append("enabled = ").append(config.regionalRouting().enabled()).append("\n\n");
+        b.append("# Share of the region's lobby capacity in use (0.0-1.0) above which\n");
+        b.append("# players are also sent to lobbies in other regions.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#regional_routing_spill_utilization\n");
+        b.append("spill_utilization = ").append(config.regionalRouting().spillUtilization()).append("\n\n");
+        b.append("# Capacity assumed for lobbies without max_players.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#regional_routing_lobby_capacity\n");
+        b.append("lobby_capacity = ").append(config.regionalRouting().lobbyCapacity()).append("\n\n");
+        b.append("# Without a geo database, guess the region by comparing the player's ping\n");
+        b.append("# with the proxy's ping to each region's lobbies.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#regional_routing_estimate_from_ping\n");
+        b.append("estimate_from_ping = ").append(config.regionalRouting().estimateFromPing()).append("\n\n");
+
+        // ── [cluster] ───────────────────────────────────────────────────────
+        b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
+        b.append("# │  CLUSTER — Share routing state between proxies                  │\n");
+        b.append("# │                                                                 │\n");
+        b.append("# │  Proxies gossip drains, breakers, affinities and player counts  │\n");
+        b.append("# │  so every proxy routes with the same view of the network.       │\n");
+        b.append("# └─────────────────────────────────────────────────────────────────┘\n");
+        b.append("[cluster]\n\n");
+        b.append("# Exchange state with the proxies listed in peers.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_enabled\n");
+        b.append("enabled = ").append(config.cluster().enabled()).append("\n\n");
+        b.append("# Name of this proxy in the cluster. Blank picks a random one at startup.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_node_id\n");
+        b.append("node_id = ").append(quoted(config.cluster().nodeId())).append("\n\n");
+        b.append("# Address and UDP port this proxy listens on for gossip.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_bind_address\n");
+        b.append("bind_address = ").append(quoted(config.cluster().bindAddress())).append("\n");
+        b.append("port = ").append(config.cluster().port()).append("\n\n");
+        b.append("# The other proxies, as \"host:port\". Listing this proxy itself is harmless.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_peers\n");
+        b.append("peers = ").append(formatList(config.cluster().peers())).append("\n\n");
+        b.append("# Shared secret that signs every packet. Required; must match on all proxies.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_secret\n");
+        b.append("secret = ").append(quoted(config.cluster().secret())).append("\n\n");
+        b.append("# Milliseconds between gossip rounds.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_gossip_interval_millis\n");
+        b.append("gossip_interval_millis = ").append(config.cluster().gossipIntervalMillis()).append("\n\n");
+        b.append("# Most peers sent to in one round, and the largest packet in bytes.\n");
+        b.append("# Together they bound gossip traffic per round.\n");
+        b.append("# Wiki: ").append(wiki).append("/Configuration-Guide#cluster_fanout\n");
+        b.append("fanout = ").append(config.cluster().fanout()).append("\n");
+        b.append("max_packet_bytes = ").append(config.cluster().maxPacketBytes()).append("\n\n");
+
         // ── [messages] ──────────────────────────────────────────────────────
         b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
         b.append("# │  MESSAGES — All player-facing text (MiniMessage format)         │\n");
@@ -975,14 +1601,14 @@ public final class ConfigManager {
 
         // ── [geo_routing] ───────────────────────────────────────────────────
         b.append("# ┌─────────────────────────────────────────────────────────────────┐\n");
-        b.append("# │  GEO ROUTING — Location-based server selection (experimental)   │\n");
+        b.append("# │  GEO ROUTING — Location-based server selection                  │\n");
         b.append("# └─────────────────────────────────────────────────────────────────┘\n");
         b.append("[geo_routing]\n\n");
         b.append("# Enable geographic IP-based routing using MaxMind GeoLite2.\n");
-        b.append("# This feature is experimental and may not affect routing in this build.\n");
+        b.append("# Player country and continent codes are matched against lobby 'region' attributes.\n");
         b.append("# Wiki: ").append(wiki).append("/GeoIP-Database-Setup\n");
         b.append("enabled = ").append(config.geoRouting().enabled()).append("\n\n");
-        b.append("# Absolute path to the GeoLite2-Country.mmdb or GeoLite2-City.mmdb file.\n");
+        b.append("# Path to the GeoLite2-Country.mmdb or GeoLite2-City.mmdb file, relative to the plugin folder.\n");
         b.append("# Wiki: ").append(wiki).append("/GeoIP-Database-Setup#database_path\n");
         b.append("database_path = ").append(quoted(config.geoRouting().databasePath())).append("\n\n");
 
@@ -1006,8 +1632,10 @@ public final class ConfigManager {
         b.append("# ║                 VelocityNavigator/issues                        ║\n");
         b.append("# ╚══════════════════════════════════════════════════════════════════╝\n");
 
+        String content = b.toString();
+        writtenChecksum = ConfigWatcher.checksum(content.getBytes(java.nio.charset.StandardCharsets.UTF_8));
         java.nio.file.Path tempPath = configPath.resolveSibling(configPath.getFileName() + ".tmp");
-        Files.writeString(tempPath, b.toString());
+        Files.writeString(tempPath, content);
         try {
             Files.move(tempPath, configPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
         } catch (java.io.IOException e) {
@@ -1045,6 +1673,19 @@ public final class ConfigManager {
         return "[" + String.join(", ", items) + "]";
     }
 
+    private String formatAttributes(Map<String, String> attributes) {
+        StringBuilder b = new StringBuilder("{ ");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (!first) {
+                b.append(", ");
+            }
+            b.append(quoted(entry.getKey())).append(" = ").append(quoted(entry.getValue()));
+            first = false;
+        }
+        return b.append(" }").toString();
+    }
+
     private String formatList(List<String> values) {
         if (values == null || values.isEmpty()) {
             return "[]";
@@ -54,6 +54,32 @@ public final class ConfigValidator {
         List<String> formattingOptions = List.of("auto", "minimessage", "legacy");
         validateKey(toml, "messages.formatting", formattingOptions, warnings);
 
+        // 6. Validate slow_start.curve
+        List<String> curves = List.of("linear", "exponential");
+        validateKey(toml, "slow_start.curve", curves, warnings);
+
+        // 7. Validate nested group children
+        if (config != null) {
+            warnings.addAll(GroupHierarchy.validate(config));
+        }
+
+        // 8. Regional routing needs lobbies with a region
+        if (config != null && config.regionalRouting().enabled()
+                && LobbyAttributeIndex.attributesOf(config).values().stream()
+                .noneMatch(attributes -> attributes.containsKey(Config.LobbyAttributeSettings.REGION))) {
+            warnings.add("regional_routing is enabled, but no lobby has a 'region' attribute.");
+        }
+
+        // 9. Cluster sync signs every packet, so it needs a secret and someone to talk to
+        if (config != null && config.cluster().enabled()) {
+            if (config.cluster().secret().isBlank()) {
+                warnings.add("cluster is enabled, but cluster.secret is empty; cluster sync will not start.");
+            }
+            if (config.cluster().peers().isEmpty()) {
+                warnings.add("cluster is enabled, but cluster.peers is empty.");
+            }
+        }
+
         return warnings;
     }
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Notices edits to navigator.toml so they can be applied without {@code /vn reload}.
+ * <p>
+ * A {@link WatchService} on the data directory is drained by {@link #poll(long)}.
+ * Editors often save in several writes, so a change is only reported once the file
+ * has been quiet for the debounce period. Saves that leave the content unchanged,
+ * and the normalized file the plugin writes itself, are ignored by checksum.
+ */
+final class ConfigWatcher implements Closeable {
+
+    private final Path configPath;
+    private final LongSupplier writtenChecksum;
+    private final TimeSource time;
+    private final WatchService watchService;
+    private long lastChangeMillis = -1L;
+    private long appliedChecksum;
+
+    ConfigWatcher(Path configPath, LongSupplier writtenChecksum, TimeSource time) throws IOException {
+        this.configPath = configPath;
+        this.writtenChecksum = writtenChecksum;
+        this.time = time;
+        this.watchService = configPath.getFileSystem().newWatchService();
+        // Atomic saves replace the file, so watch the directory rather than the file
+        configPath.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.appliedChecksum = checksum(configPath);
+    }
+
+    /**
+     * Drains file events and returns {@code true} once navigator.toml has changed and
+     * stayed untouched for {@code debounceMillis}. Each change is reported once.
+     */
+    synchronized boolean poll(long debounceMillis) {
+        if (!changePending() || time.millis() - lastChangeMillis < debounceMillis) {
+            return false;
+        }
+        lastChangeMillis = -1L;
+        long current = checksum(configPath);
+        if (current == appliedChecksum || current == writtenChecksum.getAsLong()) {
+            return false;
+        }
+        appliedChecksum = current;
+        return true;
+    }
+
+    /**
+     * Drains file events and reports whether a change is waiting out its debounce period.
+     */
+    synchronized boolean changePending() {
+        try {
+            WatchKey key;
+            while ((key = watchService.poll()) != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || configPath.getFileName().equals(event.context())) {
+                        lastChangeMillis = time.millis();
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException exception) {
+            return false;
+        }
+        return lastChangeMillis >= 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static long checksum(Path path) {
+        try {
+            return checksum(Files.readAllBytes(path));
+        } catch (IOException exception) {
+            // Mid-save or deleted; the next event retries
+            return -1L;
+        }
+    }
+}
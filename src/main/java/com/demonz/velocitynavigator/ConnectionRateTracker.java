@@ -15,14 +15,11 @@
  */
 package com.demonz.velocitynavigator;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.Collection;
-import java.util.Locale;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 
 public final class ConnectionRateTracker {
 
@@ -30,30 +27,45 @@ public final class ConnectionRateTracker {
 
     private final int windowSeconds;
     private final int maxEntriesPerServer;
-    private final ConcurrentMap<String, ConcurrentLinkedDeque<Instant>> connectionTimes = new ConcurrentHashMap<>();
+    private final ServerRegistry registry;
+    private final TimeSource time;
+    private final ServerSlots<ConcurrentLinkedDeque<Long>> connectionTimes = new ServerSlots<>();
 
     public ConnectionRateTracker(int windowSeconds) {
         this(windowSeconds, DEFAULT_MAX_ENTRIES_PER_SERVER);
     }
 
     ConnectionRateTracker(int windowSeconds, int maxEntriesPerServer) {
+        this(windowSeconds, maxEntriesPerServer, ServerRegistry.shared(), TimeSource.system());
+    }
+
+    ConnectionRateTracker(int windowSeconds, int maxEntriesPerServer, ServerRegistry registry, TimeSource time) {
         this.windowSeconds = Math.max(1, windowSeconds);
         this.maxEntriesPerServer = Math.max(1, maxEntriesPerServer);
+        this.registry = registry;
+        this.time = time;
     }
 
     public void recordConnection(String serverName) {
-        String normalizedServerName = normalize(serverName);
-        if (normalizedServerName.isBlank()) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
             return;
         }
-        ConcurrentLinkedDeque<Instant> times = connectionTimes.computeIfAbsent(normalizedServerName, k -> new ConcurrentLinkedDeque<>());
-        times.addLast(Instant.now());
+        ConcurrentLinkedDeque<Long> times = connectionTimes.computeIfAbsent(id, ignored -> new ConcurrentLinkedDeque<>());
+        times.addLast(time.nanoTime());
         purgeOld(times);
         trimToLimit(times);
     }
 
     public double getRatePerSecond(String serverName) {
-        ConcurrentLinkedDeque<Instant> times = connectionTimes.get(normalize(serverName));
+        return getRatePerSecond(registry.idOf(serverName));
+    }
+
+    /**
+     * Connection rate of the server with registry ID {@code id}.
+     */
+    public double getRatePerSecond(int id) {
+        ConcurrentLinkedDeque<Long> times = connectionTimes.get(id);
         if (times == null || times.isEmpty()) {
             return 0.0;
         }
@@ -62,16 +74,16 @@ public final class ConnectionRateTracker {
         if (count <= 1) {
             return 0.0;
         }
-        Instant oldest = times.peekFirst();
+        Long oldest = times.peekFirst();
         if (oldest == null) {
             return 0.0;
         }
-        double spanSeconds = Duration.between(oldest, Instant.now()).toMillis() / 1000.0;
+        double spanSeconds = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - oldest) / 1000.0;
         return spanSeconds > 0 ? count / spanSeconds : 0.0;
     }
 
     public int getConnectionCount(String serverName) {
-        ConcurrentLinkedDeque<Instant> times = connectionTimes.get(normalize(serverName));
+        ConcurrentLinkedDeque<Long> times = connectionTimes.get(registry.idOf(serverName));
         if (times == null) {
             return 0;
         }
@@ -80,7 +92,10 @@ public final class ConnectionRateTracker {
     }
 
     public void remove(String serverName) {
-        connectionTimes.remove(normalize(serverName));
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            connectionTimes.set(id, null);
+        }
     }
 
     public void retainServers(Collection<String> serverNames) {
@@ -88,22 +103,29 @@ public final class ConnectionRateTracker {
             clear();
             return;
         }
-        java.util.Set<String> retained = new java.util.HashSet<>();
+        Set<Integer> retained = new HashSet<>();
         for (String serverName : serverNames) {
-            String normalized = normalize(serverName);
-            if (!normalized.isBlank()) {
-                retained.add(normalized);
+            int id = registry.idOf(serverName);
+            if (id != ServerRegistry.UNKNOWN) {
+                retained.add(id);
+            }
+        }
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            if (!retained.contains(id)) {
+                connectionTimes.set(id, null);
             }
         }
-        connectionTimes.keySet().removeIf(key -> !retained.contains(key));
     }
 
     public void purge() {
-        for (Map.Entry<String, ConcurrentLinkedDeque<Instant>> entry : connectionTimes.entrySet()) {
-            ConcurrentLinkedDeque<Instant> times = entry.getValue();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            ConcurrentLinkedDeque<Long> times = connectionTimes.get(id);
+            if (times == null) {
+                continue;
+            }
             purgeOld(times);
             if (times.isEmpty()) {
-                connectionTimes.remove(entry.getKey(), times);
+                connectionTimes.compareAndSet(id, times, null);
             }
         }
     }
@@ -112,11 +134,11 @@ public final class ConnectionRateTracker {
         connectionTimes.clear();
     }
 
-    private void purgeOld(ConcurrentLinkedDeque<Instant> times) {
-        Instant cutoff = Instant.now().minusSeconds(windowSeconds);
+    private void purgeOld(ConcurrentLinkedDeque<Long> times) {
+        long cutoff = time.nanoTime() - TimeUnit.SECONDS.toNanos(windowSeconds);
         while (!times.isEmpty()) {
-            Instant oldest = times.peekFirst();
-            if (oldest != null && oldest.isBefore(cutoff)) {
+            Long oldest = times.peekFirst();
+            if (oldest != null && oldest - cutoff < 0) {
                 times.pollFirst();
             } else {
                 break;
@@ -124,13 +146,9 @@ public final class ConnectionRateTracker {
         }
     }
 
-    private void trimToLimit(ConcurrentLinkedDeque<Instant> times) {
+    private void trimToLimit(ConcurrentLinkedDeque<Long> times) {
         while (times.size() > maxEntriesPerServer) {
             times.pollFirst();
         }
     }
-
-    private String normalize(String serverName) {
-        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
-    }
 }
@@ -15,6 +15,7 @@
  */
 package com.demonz.velocitynavigator;
 
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.Component;
@@ -28,9 +29,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 final class ConnectionWorkflow {
 
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+
     private ConnectionWorkflow() {
     }
 
@@ -49,41 +54,62 @@ final class ConnectionWorkflow {
         );
     }
 
-    static void connectWithRetry(VelocityNavigator plugin, Player player, Config config, RegisteredServer target,
-                                 RouteDecision decision, String initialReason) {
-        connectWithRetry(plugin, player, config, target, decision, 0, new HashSet<>(), initialReason);
+    /**
+     * Connects {@code player} to {@code target}, failing over to the decision's other candidates.
+     * The returned future completes with {@code true} once the player is on a lobby and with
+     * {@code false} when every attempt has been given up on.
+     */
+    static CompletableFuture<Boolean> connectWithRetry(VelocityNavigator plugin, Player player, Config config,
+                                                       RegisteredServer target, RouteDecision decision, String initialReason) {
+        Config.RetryBudgetSettings budget = config.retryBudget();
+        long deadline = budget.enabled() && budget.deadlineMillis() > 0
+                ? plugin.timeSource().nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.deadlineMillis())
+                : NO_DEADLINE;
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        connectWithRetry(plugin, player, config, target, decision, 0, new HashSet<>(), initialReason, deadline, outcome);
+        return outcome;
     }
 
     private static void connectWithRetry(VelocityNavigator plugin, Player player, Config config, RegisteredServer target,
-                                         RouteDecision decision, int attempt, Set<String> triedServers, String initialReason) {
+                                         RouteDecision decision, int attempt, Set<String> triedServers, String initialReason,
+                                         long deadline, CompletableFuture<Boolean> outcome) {
         int maxRetries = config.routing().maxRetries();
-        triedServers.add(target.getServerInfo().getName().toLowerCase(Locale.ROOT));
+        String targetName = target.getServerInfo().getName();
+        triedServers.add(targetName.toLowerCase(Locale.ROOT));
+        ConcurrencyLimiter concurrencyLimiter = plugin.concurrencyLimiter();
+        TimeSource time = plugin.timeSource();
 
-        player.createConnectionRequest(target).connect().thenAccept(result -> {
+        connect(plugin, player, config, target).thenAccept(result -> {
             if (result.isSuccessful()) {
-                String reason = attempt > 0 ? "retry" : initialReason;
-                String targetName = target.getServerInfo().getName();
-                plugin.routingStats().recordRedirect(reason, targetName);
-                if (plugin.rateTracker() != null) {
-                    plugin.rateTracker().recordConnection(targetName);
-                }
-                if (plugin.affinityService() != null) {
-                    plugin.affinityService().setAffinity(affinityUuid(player, plugin, config), targetName);
-                }
+                recordRouted(plugin, player, config, targetName, attempt > 0 ? "retry" : initialReason);
+                outcome.complete(true);
                 return;
             }
 
-            if (attempt < maxRetries) {
-                String nextServer = pickNextCandidate(decision, triedServers);
+            // Velocity allows one connection in flight per player; a retry would be refused the same way
+            boolean retryable = result.getStatus() != ConnectionRequestBuilder.Status.CONNECTION_IN_PROGRESS;
+            if (retryable && attempt < maxRetries) {
+                String nextServer = pickNextCandidate(decision, triedServers, concurrencyLimiter, config);
                 if (nextServer != null) {
                     Optional<RegisteredServer> nextTarget = plugin.server().getServer(nextServer);
                     if (nextTarget.isPresent()) {
+                        if (deadline != NO_DEADLINE && time.nanoTime() - deadline >= 0) {
+                            plugin.retryBudget().recordDeadlineExceeded();
+                            failFast(plugin, player, config, decision, "Connection deadline exceeded.");
+                            outcome.complete(false);
+                            return;
+                        }
+                        if (!plugin.retryBudget().tryAcquireRetry(config.retryBudget())) {
+                            failFast(plugin, player, config, decision, "Retry budget exhausted.");
+                            outcome.complete(false);
+                            return;
+                        }
                         player.sendMessage(MessageFormatter.render(config.messages().retrying(),
                                 Map.of("attempt", String.valueOf(attempt + 1),
                                         "max", String.valueOf(maxRetries),
                                         "player", player.getUsername(),
                                         "server", nextServer), player));
-                        connectWithRetry(plugin, player, config, nextTarget.get(), decision, attempt + 1, triedServers, initialReason);
+                        connectWithRetry(plugin, player, config, nextTarget.get(), decision, attempt + 1, triedServers, initialReason, deadline, outcome);
                         return;
                     }
                 }
@@ -97,14 +123,102 @@ final class ConnectionWorkflow {
             } else {
                 player.sendMessage(Component.text("Failed to connect after " + (attempt + 1) + " attempt(s).", NamedTextColor.RED));
             }
+            outcome.complete(false);
         }).exceptionally(throwable -> {
             plugin.cooldowns().clear(player.getUniqueId());
             player.sendMessage(Component.text("An error occurred while connecting to the lobby.", NamedTextColor.RED));
             plugin.logger().error("[VelocityNavigator] connectWithRetry failed for {}", player.getUsername(), throwable);
+            outcome.complete(false);
             return null;
         });
     }
 
+    /**
+     * Moves {@code player} to {@code target} in the background, for the rebalancer: one
+     * attempt with the same concurrency and routing bookkeeping as a lobby connect, but no
+     * failover and nothing shown to the player. Completes with whether the move succeeded.
+     */
+    static CompletableFuture<Boolean> connectQuietly(VelocityNavigator plugin, Player player, Config config,
+                                                     RegisteredServer target, String reason) {
+        String targetName = target.getServerInfo().getName();
+        return connect(plugin, player, config, target).handle((result, throwable) -> {
+            if (result == null || !result.isSuccessful()) {
+                return false;
+            }
+            recordRouted(plugin, player, config, targetName, reason);
+            return true;
+        });
+    }
+
+    /**
+     * One connection attempt, holding a concurrency slot on {@code target} until it completes.
+     */
+    private static CompletableFuture<ConnectionRequestBuilder.Result> connect(VelocityNavigator plugin, Player player,
+                                                                              Config config, RegisteredServer target) {
+        String targetName = target.getServerInfo().getName();
+        ConcurrencyLimiter concurrencyLimiter = plugin.concurrencyLimiter();
+        concurrencyLimiter.acquire(targetName, config.concurrency());
+        TimeSource time = plugin.timeSource();
+        long startedAt = time.nanoTime();
+
+        CompletableFuture<ConnectionRequestBuilder.Result> connection = player.createConnectionRequest(target).connect();
+        connection.whenComplete((result, throwable) -> {
+            if (result != null && !reachedBackend(result)) {
+                // Refused by the proxy itself, so it says nothing about the lobby
+                concurrencyLimiter.cancel(targetName);
+                return;
+            }
+            boolean successful = result != null && result.isSuccessful();
+            concurrencyLimiter.release(targetName, TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - startedAt), successful, config.concurrency());
+            if (successful) {
+                plugin.retryBudget().recordSuccess();
+            }
+        });
+        return connection;
+    }
+
+    /**
+     * Counts a player who reached {@code targetName} and remembers it as their affinity,
+     * locally and across the cluster.
+     */
+    private static void recordRouted(VelocityNavigator plugin, Player player, Config config, String targetName, String reason) {
+        plugin.routingStats().recordRedirect(reason, targetName);
+        if (plugin.rateTracker() != null) {
+            plugin.rateTracker().recordConnection(targetName);
+        }
+        ClusterSync clusterSync = plugin.clusterSync();
+        if (clusterSync != null) {
+            clusterSync.recordRouted(targetName);
+        }
+        if (plugin.affinityService() != null) {
+            UUID affinityId = affinityUuid(player, plugin, config);
+            plugin.affinityService().setAffinity(affinityId, targetName);
+            if (clusterSync != null) {
+                clusterSync.recordAffinity(affinityId, targetName, plugin.affinityService().ttlMillis());
+            }
+        }
+    }
+
+    /**
+     * Gives up without retrying, showing the same message as when no lobby is available.
+     */
+    private static void failFast(VelocityNavigator plugin, Player player, Config config, RouteDecision decision, String reason) {
+        plugin.cooldowns().clear(player.getUniqueId());
+        String message = config.messages().noLobbyFound();
+        if (config.lobbyFallback() != null && "disconnect".equalsIgnoreCase(config.lobbyFallback().noServerStrategy())) {
+            message = config.lobbyFallback().noServerMessage();
+        }
+        player.sendMessage(MessageFormatter.render(
+                message,
+                Map.of(
+                        "reason", reason,
+                        "mode", decision.selectionMode().configValue(),
+                        "player", player.getUsername()
+                ),
+                player
+        ));
+    }
+
     private static List<String> orderedWithTargetFirst(List<String> candidates, String targetServer) {
         List<String> ordered = new ArrayList<>();
         ordered.add(targetServer);
@@ -118,19 +232,37 @@ final class ConnectionWorkflow {
         return ordered;
     }
 
-    private static String pickNextCandidate(RouteDecision decision, Set<String> triedServers) {
+    private static String pickNextCandidate(RouteDecision decision, Set<String> triedServers,
+                                            ConcurrencyLimiter concurrencyLimiter, Config config) {
         List<String> candidates = decision.orderedCandidates();
         if (candidates == null || candidates.isEmpty()) {
             return null;
         }
 
+        // Prefer the first untried lobby with concurrency headroom, else the first untried one
+        String saturated = null;
         for (String candidate : candidates) {
             if (!triedServers.contains(candidate.toLowerCase(Locale.ROOT))) {
-                return candidate;
+                if (!concurrencyLimiter.isSaturated(candidate, config.concurrency())) {
+                    return candidate;
+                }
+                if (saturated == null) {
+                    saturated = candidate;
+                }
             }
         }
 
-        return null;
+        return saturated;
+    }
+
+    /**
+     * Whether the attempt got past the proxy's own checks and was sent to the backend.
+     */
+    private static boolean reachedBackend(ConnectionRequestBuilder.Result result) {
+        return switch (result.getStatus()) {
+            case ALREADY_CONNECTED, CONNECTION_IN_PROGRESS, CONNECTION_CANCELLED -> false;
+            default -> true;
+        };
     }
 
     private static UUID affinityUuid(Player player, VelocityNavigator plugin, Config config) {
@@ -16,39 +16,37 @@
 package com.demonz.velocitynavigator;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.OptionalLong;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 public final class CooldownService {
 
-    private final ConcurrentMap<UUID, Instant> cooldowns = new ConcurrentHashMap<>();
+    private final ExpiryEngine.TtlMap<Boolean> cooldowns;
+
+    public CooldownService() {
+        this(new ExpiryEngine());
+    }
+
+    public CooldownService(ExpiryEngine expiryEngine) {
+        this.cooldowns = expiryEngine.register("cooldown");
+    }
 
     public OptionalLong secondsRemaining(UUID playerId) {
-        Instant expiresAt = cooldowns.get(playerId);
-        if (expiresAt == null) {
+        OptionalLong remaining = cooldowns.remainingMillis(playerId);
+        if (remaining.isEmpty()) {
             return OptionalLong.empty();
         }
-        Instant now = Instant.now();
-        if (!now.isBefore(expiresAt)) {
-            cooldowns.remove(playerId, expiresAt);
-            return OptionalLong.empty();
-        }
-        long seconds = Duration.between(now, expiresAt).toSeconds() + 1;
-        return OptionalLong.of(seconds);
+        return OptionalLong.of(remaining.getAsLong() / 1000L + 1);
     }
 
     public void apply(UUID playerId, int seconds) {
         if (seconds <= 0) {
             return;
         }
-        cooldowns.put(playerId, Instant.now().plusSeconds(seconds));
+        cooldowns.put(playerId, Boolean.TRUE, Duration.ofSeconds(seconds));
     }
 
     public void clear(UUID playerId) {
         cooldowns.remove(playerId);
     }
 }
-
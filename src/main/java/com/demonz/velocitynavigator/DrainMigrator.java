@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves players off a drained server in small batches.
+ * <p>
+ * Every {@code batch_interval_seconds} up to {@code batch_size} players are routed to
+ * other lobbies of the drained server's own group, counting the players already sent
+ * in the batch against each target's capacity. When no target has room the batch
+ * stops early and resumes on the next tick. Once {@code timeout_seconds} pass, every
+ * remaining player that fits somewhere is moved at once; if some fit nowhere, the
+ * operator who started the drain is told how many are left and the migration stops.
+ */
+final class DrainMigrator {
+
+    private final VelocityNavigator plugin;
+    private final RoutePlanner routePlanner;
+    private final ConcurrentMap<String, ScheduledTask> tasks = new ConcurrentHashMap<>();
+    private final Set<UUID> moving = ConcurrentHashMap.newKeySet();
+
+    DrainMigrator(VelocityNavigator plugin, RoutePlanner routePlanner) {
+        this.plugin = plugin;
+        this.routePlanner = routePlanner;
+    }
+
+    /**
+     * Drains {@code server} and starts moving its players, reporting the outcome to
+     * {@code operator}. Returns the number of players to move.
+     */
+    int start(RegisteredServer server, Config config, CommandSource operator) {
+        String name = server.getServerInfo().getName();
+        cancel(name);
+        int players = server.getPlayersConnected().size();
+        plugin.drainService().startMigration(name, players, config.drain().timeoutSeconds());
+        int interval = config.drain().batchIntervalSeconds();
+        tasks.put(normalize(name), plugin.server().getScheduler()
+                .buildTask(plugin, () -> step(server, operator))
+                .repeat(interval, TimeUnit.SECONDS)
+                .schedule());
+        return players;
+    }
+
+    void cancel(String serverName) {
+        ScheduledTask task = tasks.remove(normalize(serverName));
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    void cancelAll() {
+        for (String serverName : List.copyOf(tasks.keySet())) {
+            cancel(serverName);
+        }
+    }
+
+    private void step(RegisteredServer server, CommandSource operator) {
+        Config config = plugin.config();
+        String name = server.getServerInfo().getName();
+        DrainService drainService = plugin.drainService();
+        if (config == null || !drainService.isMigrating(name)) {
+            // Undrained or cleared by a reload
+            cancel(name);
+            return;
+        }
+        if (server.getPlayersConnected().isEmpty()) {
+            drainService.finishMigration(name);
+            cancel(name);
+            plugin.logger().info("[VelocityNavigator] Drain migration of {} complete.", name);
+            operator.sendMessage(Component.text("Drain migration of '" + name + "' complete.", NamedTextColor.GREEN));
+            return;
+        }
+
+        boolean timedOut = drainService.isMigrationExpired(name);
+        List<Player> remaining = new ArrayList<>();
+        for (Player player : server.getPlayersConnected()) {
+            if (!moving.contains(player.getUniqueId())) {
+                remaining.add(player);
+            }
+        }
+        int limit = timedOut ? remaining.size() : config.drain().batchSize();
+        String group = groupOf(name, config);
+        Map<String, Integer> online = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : plugin.routeableServers(config).entrySet()) {
+            online.put(normalize(entry.getKey()), entry.getValue());
+        }
+
+        int sent = 0;
+        int unplaced = 0;
+        for (Player player : remaining) {
+            if (sent >= limit) {
+                break;
+            }
+            RouteDecision decision = routePlanner.planForGroup(group, name, config, online, player.getUniqueId());
+            Optional<RegisteredServer> target = decision.hasSelection() && !decision.selectedServer().equalsIgnoreCase(name)
+                    ? plugin.server().getServer(decision.selectedServer())
+                    : Optional.empty();
+            if (target.isEmpty()) {
+                if (!timedOut) {
+                    // Every other lobby is full; try again next tick
+                    break;
+                }
+                // Past the deadline the rest still get a chance, since a later player may fit where this one did not
+                unplaced++;
+                continue;
+            }
+            online.merge(normalize(decision.selectedServer()), 1, Integer::sum);
+            move(player, name, target.get(), config);
+            sent++;
+        }
+
+        // With everyone placed, the next tick finishes once they have left; failed moves are retried until then
+        if (timedOut && unplaced > 0) {
+            drainService.finishMigration(name);
+            cancel(name);
+            plugin.logger().warn("[VelocityNavigator] Drain migration of {} timed out; moved {} player(s) at once, {} could not be placed and remain on it.",
+                    name, sent, unplaced);
+            operator.sendMessage(Component.text("Drain migration of '" + name + "' timed out: " + unplaced
+                    + " player(s) could not be placed and remain on it. The server stays drained.", NamedTextColor.RED));
+        }
+    }
+
+    private void move(Player player, String source, RegisteredServer target, Config config) {
+        UUID playerId = player.getUniqueId();
+        String targetName = target.getServerInfo().getName();
+        moving.add(playerId);
+        player.createConnectionRequest(target).connect().whenComplete((result, throwable) -> {
+            moving.remove(playerId);
+            if (result != null && result.isSuccessful()) {
+                plugin.drainService().recordMigrated(source);
+                plugin.routingStats().recordRedirect("drain", targetName);
+                player.sendMessage(MessageFormatter.render(config.drain().message(),
+                        Map.of("server", source, "target", targetName, "player", player.getUsername()), player));
+            } else {
+                plugin.drainService().recordMigrationFailed(source);
+            }
+        });
+    }
+
+    /**
+     * The contextual group that lists {@code serverName} as one of its lobbies, or {@code "default"}.
+     */
+    static String groupOf(String serverName, Config config) {
+        Config.Contextual contextual = config.routing().contextual();
+        if (contextual.enabled()) {
+            for (Map.Entry<String, Config.GroupConfig> group : contextual.groups().entrySet()) {
+                if (group.getValue() == null) {
+                    continue;
+                }
+                for (Config.LobbyEntry entry : group.getValue().servers()) {
+                    if (entry.server().equalsIgnoreCase(serverName)) {
+                        return group.getKey();
+                    }
+                }
+            }
+        }
+        return "default";
+    }
+
+    private static String normalize(String serverName) {
+        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -15,40 +15,175 @@
  */
 package com.demonz.velocitynavigator;
 
-import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class DrainService {
 
-    private final ConcurrentMap<String, Boolean> drainState = new ConcurrentHashMap<>();
-
     /**
-     * Checks if a server is drained. Uses single atomic get() instead of
-     * containsKey()+get() to prevent NPE from concurrent undrain operations.
+     * Snapshot of a drain that is actively moving players off its server.
      */
+    public record MigrationProgress(String server, int initialPlayers, int moved, int failed,
+                                    long startedAtMillis, long deadlineMillis) {
+
+        public long remainingMillis(long nowMillis) {
+            return Math.max(0L, deadlineMillis - nowMillis);
+        }
+    }
+
+    private final TimeSource time;
+    private final ServerRegistry registry;
+    private final ServerSlots<Boolean> drainState = new ServerSlots<>();
+    private final ServerSlots<Migration> migrations = new ServerSlots<>();
+
+    public DrainService() {
+        this(TimeSource.system());
+    }
+
+    DrainService(TimeSource time) {
+        this(time, ServerRegistry.shared());
+    }
+
+    DrainService(TimeSource time, ServerRegistry registry) {
+        this.time = time;
+        this.registry = registry;
+    }
+
     public boolean isDrained(String serverName) {
-        Boolean state = drainState.get(normalize(serverName));
-        return state != null && state;
+        return isDrained(registry.idOf(serverName));
     }
 
-    public void drain(String serverName) {
-        drainState.put(normalize(serverName), Boolean.TRUE);
+    /**
+     * Whether the server with registry ID {@code id} is drained.
+     */
+    public boolean isDrained(int id) {
+        return drainState.get(id) != null;
+    }
+
+    /**
+     * Drains {@code serverName}. Returns {@code false}, changing nothing, if the proxy
+     * does not know the server.
+     */
+    public boolean drain(String serverName) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return false;
+        }
+        drainState.set(id, Boolean.TRUE);
+        return true;
     }
 
     public void undrain(String serverName) {
-        drainState.remove(normalize(serverName));
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            drainState.set(id, null);
+            migrations.set(id, null);
+        }
+    }
+
+    /**
+     * Drains {@code serverName} and starts tracking the migration of its
+     * {@code initialPlayers} current players, which must finish within {@code timeoutSeconds}.
+     */
+    public void startMigration(String serverName, int initialPlayers, int timeoutSeconds) {
+        if (!drain(serverName)) {
+            return;
+        }
+        long now = time.millis();
+        migrations.set(registry.idOf(serverName), new Migration(Math.max(0, initialPlayers), now, now + timeoutSeconds * 1000L));
+    }
+
+    public boolean isMigrating(String serverName) {
+        return migrations.get(registry.idOf(serverName)) != null;
+    }
+
+    public void recordMigrated(String serverName) {
+        Migration migration = migrations.get(registry.idOf(serverName));
+        if (migration != null) {
+            migration.moved.incrementAndGet();
+        }
+    }
+
+    public void recordMigrationFailed(String serverName) {
+        Migration migration = migrations.get(registry.idOf(serverName));
+        if (migration != null) {
+            migration.failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * True once a migration has run past its deadline and should fall back to a hard evacuation.
+     */
+    public boolean isMigrationExpired(String serverName) {
+        Migration migration = migrations.get(registry.idOf(serverName));
+        return migration != null && time.millis() >= migration.deadlineMillis;
+    }
+
+    /**
+     * Stops tracking the migration; the server stays drained until it is undrained.
+     */
+    public void finishMigration(String serverName) {
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            migrations.set(id, null);
+        }
+    }
+
+    public Optional<MigrationProgress> migration(String serverName) {
+        int id = registry.idOf(serverName);
+        Migration migration = migrations.get(id);
+        return migration == null ? Optional.empty() : Optional.of(migration.progress(registry.name(id)));
+    }
+
+    public Map<String, MigrationProgress> migrations() {
+        Map<String, MigrationProgress> progress = new LinkedHashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            Migration migration = migrations.get(id);
+            if (migration != null) {
+                progress.put(registry.name(id), migration.progress(registry.name(id)));
+            }
+        }
+        return Map.copyOf(progress);
+    }
+
+    public long nowMillis() {
+        return time.millis();
     }
 
     public ConcurrentMap<String, Boolean> drainState() {
-        return new ConcurrentHashMap<>(drainState);
+        ConcurrentMap<String, Boolean> drained = new ConcurrentHashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            if (drainState.get(id) != null) {
+                drained.put(registry.name(id), Boolean.TRUE);
+            }
+        }
+        return drained;
     }
 
     public void clear() {
         drainState.clear();
+        migrations.clear();
     }
 
-    private String normalize(String serverName) {
-        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    private static final class Migration {
+        private final int initialPlayers;
+        private final long startedAtMillis;
+        private final long deadlineMillis;
+        private final AtomicInteger moved = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private Migration(int initialPlayers, long startedAtMillis, long deadlineMillis) {
+            this.initialPlayers = initialPlayers;
+            this.startedAtMillis = startedAtMillis;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        private MigrationProgress progress(String server) {
+            return new MigrationProgress(server, initialPlayers, moved.get(), failed.get(), startedAtMillis, deadlineMillis);
+        }
     }
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the members of pattern- and tag-based lobby groups.
+ * <p>
+ * A group with {@code match} globs or {@code tags} takes in every registered server
+ * whose name matches. Rules are compiled once per config; each registration or
+ * unregistration is tested against the rules alone, and only the groups it changes
+ * are rebuilt. The result is published as a {@link Config} whose group lists include
+ * the current members, so routing reads plain lists and never matches patterns.
+ * <p>
+ * Tags are the segments of a server name split on {@code -}, {@code _} and {@code .};
+ * {@code eu-lobby-7f3a} carries the tags {@code eu}, {@code lobby} and {@code 7f3a}.
+ */
+public final class DynamicGroupIndex {
+
+    private static final Pattern TAG_SEPARATOR = Pattern.compile("[-_.]+");
+
+    private final Map<String, Rule> rules = new LinkedHashMap<>();
+    private final Map<String, TreeMap<String, Config.LobbyEntry>> members = new HashMap<>();
+    private final Map<String, Set<String>> groupsByServer = new HashMap<>();
+    private final Map<String, Config.GroupConfig> effectiveGroups = new LinkedHashMap<>();
+    private Config base;
+    private Config effective;
+
+    /**
+     * Compiles the dynamic groups of {@code config}, matches {@code registeredServers}
+     * against them and returns the config with their members filled in.
+     */
+    public synchronized Config configure(Config config, Collection<String> registeredServers) {
+        base = config;
+        rules.clear();
+        members.clear();
+        groupsByServer.clear();
+        for (Map.Entry<String, Config.GroupConfig> entry : config.routing().contextual().groups().entrySet()) {
+            if (entry.getValue().dynamic()) {
+                rules.put(entry.getKey(), new Rule(entry.getValue()));
+                members.put(entry.getKey(), new TreeMap<>());
+            }
+        }
+        if (rules.isEmpty()) {
+            effectiveGroups.clear();
+            effective = config;
+            return effective;
+        }
+        for (String server : registeredServers) {
+            match(normalize(server));
+        }
+        effectiveGroups.clear();
+        for (Map.Entry<String, Config.GroupConfig> entry : config.routing().contextual().groups().entrySet()) {
+            effectiveGroups.put(entry.getKey(), merge(entry.getKey(), entry.getValue()));
+        }
+        effective = config.withGroups(effectiveGroups);
+        return effective;
+    }
+
+    /**
+     * Adds a newly registered server to the groups it matches. Returns the config to
+     * route with, which is the previous one when no group changed.
+     */
+    public synchronized Config register(String serverName) {
+        if (effective == null || rules.isEmpty()) {
+            return effective;
+        }
+        String server = normalize(serverName);
+        if (groupsByServer.containsKey(server)) {
+            return effective;
+        }
+        return publish(match(server));
+    }
+
+    /**
+     * Removes an unregistered server from every group it had joined.
+     */
+    public synchronized Config unregister(String serverName) {
+        if (effective == null || rules.isEmpty()) {
+            return effective;
+        }
+        String server = normalize(serverName);
+        Set<String> groups = groupsByServer.remove(server);
+        if (groups == null) {
+            return effective;
+        }
+        for (String group : groups) {
+            members.get(group).remove(server);
+        }
+        return publish(groups);
+    }
+
+    /**
+     * Dynamic groups {@code serverName} is currently a member of.
+     */
+    public synchronized Set<String> groupsOf(String serverName) {
+        Set<String> groups = groupsByServer.get(normalize(serverName));
+        return groups == null ? Set.of() : Set.copyOf(groups);
+    }
+
+    /**
+     * Members matched into each dynamic group, by group name.
+     */
+    public synchronized Map<String, Integer> memberCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String group : rules.keySet()) {
+            counts.put(group, members.get(group).size());
+        }
+        return counts;
+    }
+
+    public synchronized void clear() {
+        rules.clear();
+        members.clear();
+        groupsByServer.clear();
+        effectiveGroups.clear();
+        base = null;
+        effective = null;
+    }
+
+    static Set<String> tagsOf(String serverName) {
+        Set<String> tags = new HashSet<>();
+        for (String segment : TAG_SEPARATOR.split(normalize(serverName))) {
+            if (!segment.isEmpty()) {
+                tags.add(segment);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Compiles a glob where {@code *} matches any run of characters and {@code ?} one character.
+     */
+    static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private Set<String> match(String server) {
+        Set<String> joined = new LinkedHashSet<>();
+        Set<String> tags = null;
+        for (Map.Entry<String, Rule> entry : rules.entrySet()) {
+            Rule rule = entry.getValue();
+            if (!rule.tags.isEmpty() && tags == null) {
+                tags = tagsOf(server);
+            }
+            if (rule.matches(server, tags)) {
+                members.get(entry.getKey()).put(server, new Config.LobbyEntry(server, rule.maxPlayers, rule.weight));
+                joined.add(entry.getKey());
+            }
+        }
+        if (!joined.isEmpty()) {
+            groupsByServer.put(server, joined);
+        }
+        return joined;
+    }
+
+    private Config publish(Set<String> changedGroups) {
+        if (changedGroups.isEmpty()) {
+            return effective;
+        }
+        Map<String, Config.GroupConfig> baseGroups = base.routing().contextual().groups();
+        for (String group : changedGroups) {
+            effectiveGroups.put(group, merge(group, baseGroups.get(group)));
+        }
+        effective = base.withGroups(effectiveGroups);
+        return effective;
+    }
+
+    /**
+     * The group's listed servers followed by its matched members; a listed server keeps its own limits.
+     */
+    private Config.GroupConfig merge(String group, Config.GroupConfig groupConfig) {
+        TreeMap<String, Config.LobbyEntry> matched = members.get(group);
+        if (matched == null || matched.isEmpty()) {
+            return groupConfig;
+        }
+        List<Config.LobbyEntry> merged = new ArrayList<>(groupConfig.servers().size() + matched.size());
+        Set<String> listed = new HashSet<>();
+        for (Config.LobbyEntry entry : groupConfig.servers()) {
+            merged.add(entry);
+            listed.add(entry.server());
+        }
+        for (Config.LobbyEntry entry : matched.values()) {
+            if (!listed.contains(entry.server())) {
+                merged.add(entry);
+            }
+        }
+        return groupConfig.withServers(merged);
+    }
+
+    private static String normalize(String serverName) {
+        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Compiled {@code match} globs and {@code tags} of one group. Globs starting with
+     * {@code !} exclude servers that another glob matched.
+     */
+    private static final class Rule {
+        private final List<Pattern> include = new ArrayList<>();
+        private final List<Pattern> exclude = new ArrayList<>();
+        private final List<String> tags;
+        private final int maxPlayers;
+        private final int weight;
+
+        private Rule(Config.GroupConfig groupConfig) {
+            for (String glob : groupConfig.match()) {
+                if (glob.startsWith("!")) {
+                    exclude.add(compileGlob(glob.substring(1)));
+                } else {
+                    include.add(compileGlob(glob));
+                }
+            }
+            this.tags = groupConfig.tags();
+            this.maxPlayers = groupConfig.maxPlayers();
+            this.weight = groupConfig.weight();
+        }
+
+        private boolean matches(String server, Set<String> serverTags) {
+            if (server.isEmpty() || (include.isEmpty() && tags.isEmpty())) {
+                return false;
+            }
+            if (!include.isEmpty() && include.stream().noneMatch(pattern -> pattern.matcher(server).matches())) {
+                return false;
+            }
+            if (exclude.stream().anyMatch(pattern -> pattern.matcher(server).matches())) {
+                return false;
+            }
+            return tags.isEmpty() || serverTags.containsAll(tags);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Places players kicked from a crashed backend.
+ * <p>
+ * The first kick from a server opens a wave: one {@link RoutePlanner} pass, using
+ * the crashed server as the source so its contextual group mapping applies, fixes
+ * the candidate lobbies and their player counts. Every following kick from the same
+ * server is assigned from that snapshot to the least loaded lobby, counting players
+ * already reserved by this or other waves and skipping lobbies at {@code max_players}.
+ * Each lobby accepts evacuees at a fixed rate; players beyond it are given a delay
+ * or moved to the next lobby, so a crash does not cascade into the next server.
+ */
+public final class EvacuationService {
+
+    /** A wave ends once its source has not kicked anyone for this long. */
+    static final long WAVE_IDLE_MILLIS = 5_000L;
+
+    /**
+     * Target lobby for one evacuee and how long to hold the player before sending them.
+     */
+    public record Assignment(String server, long delayMillis) {
+    }
+
+    private record Reservation(int server, long expiresAt) {
+    }
+
+    private final TimeSource time;
+    private final ServerRegistry registry;
+    private final RoutePlanner routePlanner;
+    private final ServerSlots<Wave> waves = new ServerSlots<>();
+    private final ConcurrentMap<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ServerSlots<AtomicInteger> reserved = new ServerSlots<>();
+    private final ServerSlots<AtomicLong> nextSlot = new ServerSlots<>();
+    private final AtomicLong evacuated = new AtomicLong();
+
+    public EvacuationService(RoutePlanner routePlanner) {
+        this(routePlanner, TimeSource.system());
+    }
+
+    EvacuationService(RoutePlanner routePlanner, TimeSource time) {
+        this(routePlanner, time, ServerRegistry.shared());
+    }
+
+    EvacuationService(RoutePlanner routePlanner, TimeSource time, ServerRegistry registry) {
+        this.routePlanner = Objects.requireNonNull(routePlanner, "routePlanner");
+        this.time = time;
+        this.registry = registry;
+    }
+
+    /**
+     * Picks a lobby for {@code playerId}, who was just kicked from {@code sourceServer}.
+     * Returns empty when evacuation is disabled or no lobby in the group is routable.
+     */
+    public Optional<Assignment> assign(UUID playerId, String sourceServer, Config config, Map<String, Integer> onlineServers) {
+        Config.EvacuationSettings settings = config.evacuation();
+        if (!settings.enabled()) {
+            return Optional.empty();
+        }
+        long now = nowMillis();
+        purgeExpired(now);
+        int source = registry.idOf(sourceServer);
+        if (source == ServerRegistry.UNKNOWN) {
+            return Optional.empty();
+        }
+        Wave wave = currentWave(source, sourceServer, config, onlineServers, now);
+        if (wave.targets.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Assignment assignment;
+        synchronized (wave) {
+            wave.lastKickAt = now;
+            assignment = pick(wave, settings, now);
+        }
+        if (assignment == null) {
+            return Optional.empty();
+        }
+        reserve(playerId, assignment.server(), now + settings.reservationSeconds() * 1000L);
+        evacuated.incrementAndGet();
+        return Optional.of(assignment);
+    }
+
+    /**
+     * Players currently reserved on {@code serverName} by evacuations that have not settled yet.
+     */
+    public int reservedOn(String serverName) {
+        return reservedOn(registry.idOf(serverName));
+    }
+
+    public long evacuatedCount() {
+        return evacuated.get();
+    }
+
+    public int activeWaves() {
+        long now = nowMillis();
+        int active = 0;
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            Wave wave = waves.get(id);
+            if (wave != null && now - wave.lastKickAt < WAVE_IDLE_MILLIS) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public void purge() {
+        purgeExpired(nowMillis());
+    }
+
+    public void clear() {
+        waves.clear();
+        reservations.clear();
+        reserved.clear();
+        nextSlot.clear();
+    }
+
+    /**
+     * The open wave of {@code source}, or a new one if its last wave went idle.
+     */
+    private Wave currentWave(int source, String sourceServer, Config config, Map<String, Integer> onlineServers, long now) {
+        while (true) {
+            Wave existing = waves.get(source);
+            if (existing != null && now - existing.lastKickAt < WAVE_IDLE_MILLIS) {
+                return existing;
+            }
+            Wave opened = openWave(source, sourceServer, config, onlineServers);
+            if (waves.compareAndSet(source, existing, opened)) {
+                return opened;
+            }
+        }
+    }
+
+    private Wave openWave(int source, String sourceServer, Config config, Map<String, Integer> onlineServers) {
+        // The crashed server may still be cached as online
+        Map<String, Integer> online = new HashMap<>(onlineServers);
+        online.keySet().removeIf(name -> registry.idOf(name) == source);
+        OnlineCounts counts = OnlineCounts.of(online, registry);
+
+        RouteDecision decision = routePlanner.plan(sourceServer, config, online);
+        List<String> names = decision.orderedCandidates() == null ? List.of() : decision.orderedCandidates();
+        if (names.isEmpty() && decision.hasSelection()) {
+            names = List.of(decision.selectedServer());
+        }
+        Map<Integer, Config.LobbyEntry> entries = groupEntries(decision.usedGroup(), config);
+        Map<Integer, Target> targets = new LinkedHashMap<>();
+        for (String name : names) {
+            int id = registry.idOf(name);
+            if (id == ServerRegistry.UNKNOWN || id == source) {
+                continue;
+            }
+            Config.LobbyEntry entry = entries.get(id);
+            targets.put(id, new Target(
+                    id,
+                    name,
+                    Math.max(0, counts.count(id, name)),
+                    entry == null ? Config.LobbyEntry.UNCAPPED : entry.maxPlayers(),
+                    entry == null ? Config.LobbyEntry.DEFAULT_WEIGHT : entry.effectiveWeight()
+            ));
+        }
+        return new Wave(List.copyOf(targets.values()));
+    }
+
+    /**
+     * Least loaded lobby that has room and can take another evacuee within the
+     * allowed delay; if every lobby is paced beyond it, the one free soonest.
+     */
+    private Assignment pick(Wave wave, Config.EvacuationSettings settings, long now) {
+        long interval = (long) Math.ceil(1000.0 / settings.perTargetPerSecond());
+        long maxDelay = settings.maxDelaySeconds() * 1000L;
+        Target best = null;
+        double bestLoad = Double.MAX_VALUE;
+        Target soonest = null;
+        long soonestDelay = Long.MAX_VALUE;
+        for (Target target : wave.targets) {
+            int load = target.basePlayers + reservedOn(target.id);
+            if (target.maxPlayers != Config.LobbyEntry.UNCAPPED && load >= target.maxPlayers) {
+                continue;
+            }
+            long delay = Math.max(0L, slot(target.id).get() - now);
+            if (delay < soonestDelay) {
+                soonest = target;
+                soonestDelay = delay;
+            }
+            double weighted = (double) load / target.weight;
+            if (delay <= maxDelay && weighted < bestLoad) {
+                best = target;
+                bestLoad = weighted;
+            }
+        }
+        Target chosen = best != null ? best : soonest;
+        if (chosen == null) {
+            return null;
+        }
+        long start = slot(chosen.id).getAndUpdate(next -> Math.max(next, now) + interval);
+        return new Assignment(chosen.name, Math.max(0L, start - now));
+    }
+
+    private int reservedOn(int id) {
+        AtomicInteger count = reserved.get(id);
+        return count == null ? 0 : count.get();
+    }
+
+    private void reserve(UUID playerId, String server, long expiresAt) {
+        int id = registry.idOf(server);
+        reserved.computeIfAbsent(id, ignored -> new AtomicInteger()).incrementAndGet();
+        Reservation previous = reservations.put(playerId, new Reservation(id, expiresAt));
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        for (Map.Entry<UUID, Reservation> entry : reservations.entrySet()) {
+            if (entry.getValue().expiresAt() <= now && reservations.remove(entry.getKey(), entry.getValue())) {
+                release(entry.getValue());
+            }
+        }
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            Wave wave = waves.get(id);
+            if (wave != null && now - wave.lastKickAt >= WAVE_IDLE_MILLIS) {
+                waves.compareAndSet(id, wave, null);
+            }
+        }
+    }
+
+    private void release(Reservation reservation) {
+        AtomicInteger count = reserved.get(reservation.server());
+        if (count != null) {
+            count.updateAndGet(current -> Math.max(0, current - 1));
+        }
+    }
+
+    private AtomicLong slot(int id) {
+        return nextSlot.computeIfAbsent(id, ignored -> new AtomicLong());
+    }
+
+    private Map<Integer, Config.LobbyEntry> groupEntries(String group, Config config) {
+        List<Config.LobbyEntry> entries = config.routing().defaultLobbies();
+        Config.GroupConfig groupConfig = config.routing().contextual().groups().get(group);
+        if (groupConfig != null && !"default".equalsIgnoreCase(group)) {
+            entries = groupConfig.servers();
+        }
+        Map<Integer, Config.LobbyEntry> byId = new HashMap<>();
+        for (Config.LobbyEntry entry : entries) {
+            int id = registry.idOf(entry.server());
+            if (id != ServerRegistry.UNKNOWN) {
+                byId.put(id, entry);
+            }
+        }
+        return byId;
+    }
+
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(time.nanoTime());
+    }
+
+    private record Target(int id, String name, int basePlayers, int maxPlayers, int weight) {
+    }
+
+    private static final class Wave {
+        private final List<Target> targets;
+        private volatile long lastKickAt = Long.MIN_VALUE / 2;
+
+        private Wave(List<Target> targets) {
+            this.targets = new ArrayList<>(targets);
+        }
+    }
+}
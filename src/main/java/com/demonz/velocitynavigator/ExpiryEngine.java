@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Shared expiry for per-player state with a time to live, such as command cooldowns
+ * and menu tokens.
+ * <p>
+ * Each kind of state is a {@link TtlMap} registered under a name. Entries are filed
+ * in a {@link TimingWheel} of one-second ticks, and a single scheduler task calls
+ * {@link #tick()} to drop every entry whose time is up, so maps no longer grow with
+ * every player who ever used a feature. Reads still check expiry themselves, so the
+ * tick only bounds memory, not correctness. Insert, removal and expiry are O(1).
+ */
+public final class ExpiryEngine {
+
+    static final long TICK_MILLIS = 1_000L;
+
+    private final TimeSource time;
+    private final long origin;
+    private final Map<String, TtlMap<?>> kinds = new LinkedHashMap<>();
+
+    public ExpiryEngine() {
+        this(TimeSource.system());
+    }
+
+    ExpiryEngine(TimeSource time) {
+        this.time = time;
+        this.origin = time.coarseMillis();
+    }
+
+    /**
+     * Creates the map for one kind of state; {@code kind} labels its live-entry gauge.
+     */
+    public synchronized <V> TtlMap<V> register(String kind) {
+        if (kinds.containsKey(kind)) {
+            throw new IllegalArgumentException("Expiry kind already registered: " + kind);
+        }
+        TtlMap<V> map = new TtlMap<>(this);
+        kinds.put(kind, map);
+        return map;
+    }
+
+    /**
+     * Drops every entry of every kind whose time to live has passed.
+     */
+    public void tick() {
+        long now = time.coarseMillis();
+        long tick = tickOf(now);
+        for (TtlMap<?> map : snapshot().values()) {
+            map.expire(tick, now);
+        }
+    }
+
+    /**
+     * Live entries per kind, expired ones not yet ticked away included.
+     */
+    public Map<String, Integer> liveEntries() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        snapshot().forEach((kind, map) -> counts.put(kind, map.size()));
+        return counts;
+    }
+
+    private synchronized Map<String, TtlMap<?>> snapshot() {
+        return new LinkedHashMap<>(kinds);
+    }
+
+    private long tickOf(long millis) {
+        return Math.floorDiv(millis - origin, TICK_MILLIS);
+    }
+
+    /**
+     * Player-keyed map whose entries disappear once their time to live has passed.
+     */
+    public static final class TtlMap<V> {
+
+        private record Timed<V>(V value, long expiresAtMillis) {
+        }
+
+        private final ExpiryEngine engine;
+        private final ConcurrentMap<UUID, Timed<V>> entries = new ConcurrentHashMap<>();
+        private final TimingWheel wheel;
+
+        private TtlMap(ExpiryEngine engine) {
+            this.engine = engine;
+            this.wheel = new TimingWheel(engine.tickOf(engine.time.coarseMillis()));
+        }
+
+        public void put(UUID key, V value, Duration ttl) {
+            long expiresAt = engine.time.coarseMillis() + Math.max(0L, ttl.toMillis());
+            entries.put(key, new Timed<>(value, expiresAt));
+            // Filed for the first tick at or after the expiry
+            long deadline = Math.floorDiv(expiresAt - engine.origin + TICK_MILLIS - 1, TICK_MILLIS);
+            synchronized (wheel) {
+                wheel.schedule(key.getMostSignificantBits(), key.getLeastSignificantBits(), deadline);
+            }
+        }
+
+        /**
+         * Value of {@code key}, or {@code null} if it is absent or expired.
+         */
+        public V get(UUID key) {
+            Timed<V> timed = live(key, engine.time.coarseMillis());
+            return timed == null ? null : timed.value();
+        }
+
+        /**
+         * Milliseconds until {@code key} expires, or empty if it is absent or expired.
+         */
+        public OptionalLong remainingMillis(UUID key) {
+            long now = engine.time.coarseMillis();
+            Timed<V> timed = live(key, now);
+            return timed == null ? OptionalLong.empty() : OptionalLong.of(timed.expiresAtMillis() - now);
+        }
+
+        public void remove(UUID key) {
+            entries.remove(key);
+        }
+
+        /**
+         * Atomically removes {@code key} if it is live and its value passes {@code condition}.
+         * Expired entries are removed too, but do not count.
+         */
+        public boolean removeIf(UUID key, Predicate<V> condition) {
+            long now = engine.time.coarseMillis();
+            boolean[] removed = new boolean[1];
+            entries.computeIfPresent(key, (id, timed) -> {
+                if (now >= timed.expiresAtMillis()) {
+                    return null;
+                }
+                if (!condition.test(timed.value())) {
+                    return timed;
+                }
+                removed[0] = true;
+                return null;
+            });
+            return removed[0];
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        public void clear() {
+            entries.clear();
+            synchronized (wheel) {
+                wheel.clear();
+            }
+        }
+
+        private Timed<V> live(UUID key, long now) {
+            Timed<V> timed = entries.get(key);
+            if (timed == null) {
+                return null;
+            }
+            if (now >= timed.expiresAtMillis()) {
+                entries.remove(key, timed);
+                return null;
+            }
+            return timed;
+        }
+
+        private void expire(long tick, long now) {
+            synchronized (wheel) {
+                wheel.advance(tick, (high, low, deadline) -> {
+                    UUID key = new UUID(high, low);
+                    Timed<V> timed = entries.get(key);
+                    // Entries put again since this deadline was filed expire later
+                    if (timed != null && now >= timed.expiresAtMillis()) {
+                        entries.remove(key, timed);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -15,53 +15,195 @@
  */
 package com.demonz.velocitynavigator;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Stub implementation for geo-based routing.
- * Actual GeoLite2 integration requires the MaxMind library which should be a separate download.
- * This service works without the database by falling back gracefully.
+ * Country and continent of a player's address, read from a MaxMind GeoLite2 or GeoIP2
+ * database.
+ * <p>
+ * The database is memory-mapped by {@link MaxMindDatabase}, so no external library or heap
+ * copy is needed. Results are cached per IPv4 /24 or IPv6 /48 in a fixed-size table that
+ * new prefixes overwrite; a result is only cached when the database stores it for the whole
+ * prefix, so a smaller network never answers for its neighbours. Without a readable
+ * database every lookup is empty.
  */
 public final class GeoRoutingService {
 
+    static final int CACHE_SIZE = 4_096;
+
+    /** MaxMind publishes weekly; a database older than this is reported as outdated. */
+    static final long OUTDATED_AFTER_SECONDS = 30L * 24 * 60 * 60;
+
+    /**
+     * Codes stored for an address; either may be {@code null}.
+     */
+    public record Location(String country, String continent) {
+        static final Location EMPTY = new Location(null, null);
+    }
+
+    private record Cached(long prefix, Location location) {
+    }
+
     private final boolean enabled;
     private final String databasePath;
+    private final Path file;
+    private final FileTime modified;
+    private final MaxMindDatabase database;
+    private final String loadError;
+    private final AtomicReferenceArray<Cached> cache = new AtomicReferenceArray<>(CACHE_SIZE);
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
 
     public GeoRoutingService(boolean enabled, String databasePath) {
+        this(enabled, databasePath, Path.of(""));
+    }
+
+    /**
+     * Opens {@code databasePath}, resolved against {@code baseDirectory} when relative.
+     */
+    public GeoRoutingService(boolean enabled, String databasePath, Path baseDirectory) {
         this.enabled = enabled;
         this.databasePath = databasePath;
+        Path resolved = null;
+        FileTime openedAt = null;
+        MaxMindDatabase opened = null;
+        String error = null;
+        if (enabled && databasePath != null && !databasePath.isBlank()) {
+            resolved = baseDirectory.resolve(databasePath);
+            try {
+                openedAt = Files.getLastModifiedTime(resolved);
+                opened = MaxMindDatabase.open(resolved);
+            } catch (IOException | RuntimeException e) {
+                error = "Could not read " + resolved + ": " + e.getMessage();
+            }
+        } else if (enabled) {
+            error = "geo_routing.database_path is empty.";
+        }
+        this.file = resolved;
+        this.modified = openedAt;
+        this.database = opened;
+        this.loadError = error;
     }
 
     /**
      * Look up the country code for a given IP address.
-     * Returns Optional.empty() in this stub implementation.
      */
     public Optional<String> lookupCountry(InetAddress address) {
-        if (!enabled || databasePath == null || databasePath.isBlank()) {
-            return Optional.empty();
-        }
-        // Stub: actual GeoLite2 integration would go here
-        return Optional.empty();
+        return Optional.ofNullable(lookup(address).country());
     }
 
     /**
      * Look up the continent code for a given IP address.
-     * Returns Optional.empty() in this stub implementation.
      */
     public Optional<String> lookupContinent(InetAddress address) {
-        if (!enabled || databasePath == null || databasePath.isBlank()) {
-            return Optional.empty();
+        return Optional.ofNullable(lookup(address).continent());
+    }
+
+    /**
+     * Country and continent of {@code address}, from the cache when its prefix was seen before.
+     */
+    public Location lookup(InetAddress address) {
+        MaxMindDatabase db = database;
+        if (db == null || address == null) {
+            return Location.EMPTY;
+        }
+        lookups.incrementAndGet();
+        byte[] bytes = address.getAddress();
+        long prefix = prefixOf(bytes);
+        int slot = slot(prefix);
+        Cached cached = cache.get(slot);
+        if (cached != null && cached.prefix() == prefix) {
+            cacheHits.incrementAndGet();
+            return cached.location();
         }
-        // Stub: actual GeoLite2 integration would go here
-        return Optional.empty();
+
+        MaxMindDatabase.Result result = db.lookup(bytes);
+        if (result == null) {
+            return Location.EMPTY;
+        }
+        Location location = result.country() == null && result.continent() == null
+                ? Location.EMPTY
+                : new Location(result.country(), result.continent());
+        if (result.prefixLength() <= (bytes.length == 4 ? 24 : 48)) {
+            cache.set(slot, new Cached(prefix, location));
+        }
+        return location;
     }
 
     public boolean isEnabled() {
         return enabled;
     }
 
+    /**
+     * Whether a database was opened and lookups can return codes.
+     */
+    public boolean isAvailable() {
+        return database != null;
+    }
+
+    /**
+     * Why the configured database could not be used, or {@code null}.
+     */
+    public String loadError() {
+        return loadError;
+    }
+
+    /**
+     * Whether the database file was replaced since it was opened, e.g. by a weekly update.
+     */
+    public boolean isStale() {
+        if (file == null || modified == null) {
+            return false;
+        }
+        try {
+            return !Files.getLastModifiedTime(file).equals(modified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     public String databasePath() {
         return databasePath;
     }
+
+    /**
+     * Whether the database was built more than {@link #OUTDATED_AFTER_SECONDS} before {@code nowMillis}.
+     */
+    public boolean isOutdated(long nowMillis) {
+        MaxMindDatabase db = database;
+        return db != null && db.buildEpoch() > 0 && nowMillis / 1000L - db.buildEpoch() > OUTDATED_AFTER_SECONDS;
+    }
+
+    public long lookupCount() {
+        return lookups.get();
+    }
+
+    public long cacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * The /24 of an IPv4 address or the /48 of an IPv6 address; IPv4 keys have bit 48 set
+     * so they never equal an IPv6 key.
+     */
+    private static long prefixOf(byte[] address) {
+        long prefix = 0;
+        int length = address.length == 4 ? 3 : 6;
+        for (int i = 0; i < length; i++) {
+            prefix = (prefix << 8) | (address[i] & 0xFF);
+        }
+        return address.length == 4 ? prefix | (1L << 48) : prefix;
+    }
+
+    private static int slot(long prefix) {
+        long mixed = prefix * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 52) & (CACHE_SIZE - 1);
+    }
 }
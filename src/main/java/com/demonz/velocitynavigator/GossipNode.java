@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exchanges {@link ReplicatedState} deltas with peer proxies over UDP.
+ * <p>
+ * Each peer has an acknowledged sequence; a round sends up to {@code fanout} peers that
+ * are behind the entries changed since, in one packet of at most {@code maxPacketBytes},
+ * and the peer answers with an acknowledgement. Unacknowledged deltas are sent again
+ * after {@code retryMillis}. A peer that restarts shows up under a new replica id and is
+ * sent everything again. Packets end with an HMAC-SHA256 of their contents under the
+ * shared secret; anything that fails the check is dropped. Merging is idempotent, so
+ * duplicated or replayed packets change nothing.
+ * <p>
+ * The channel is non-blocking; the caller drives {@link #receive} and {@link #send}.
+ */
+final class GossipNode implements Closeable {
+
+    private static final int MAGIC = 0x564E4731;
+    private static final byte DELTA = 1;
+    private static final byte ACK = 2;
+    private static final int MAC_BYTES = 32;
+    private static final int MAX_DATAGRAM = 65_507;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final ReplicatedState state;
+    private final DatagramChannel channel;
+    private final Mac mac;
+    private final int maxPacketBytes;
+    private final long retryMillis;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(MAX_DATAGRAM);
+    private final Map<InetSocketAddress, Peer> peers = new LinkedHashMap<>();
+    private final AtomicLong packetsSent = new AtomicLong();
+    private final AtomicLong packetsReceived = new AtomicLong();
+    private final AtomicLong packetsRejected = new AtomicLong();
+    private int cursor;
+
+    GossipNode(ReplicatedState state, InetSocketAddress bindAddress, byte[] secret, int maxPacketBytes, long retryMillis)
+            throws IOException {
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("cluster secret must not be empty");
+        }
+        this.state = state;
+        this.maxPacketBytes = maxPacketBytes;
+        this.retryMillis = retryMillis;
+        try {
+            this.mac = Mac.getInstance(MAC_ALGORITHM);
+            this.mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is unavailable", e);
+        }
+        this.channel = DatagramChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.bind(bindAddress);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    InetSocketAddress localAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /**
+     * Replaces the peer list, keeping the progress of peers that stay.
+     */
+    synchronized void setPeers(Collection<InetSocketAddress> addresses) {
+        Map<InetSocketAddress, Peer> next = new LinkedHashMap<>();
+        for (InetSocketAddress address : addresses) {
+            Peer existing = peers.get(address);
+            next.put(address, existing != null ? existing : new Peer(address));
+        }
+        peers.clear();
+        peers.putAll(next);
+        cursor = 0;
+    }
+
+    /**
+     * Reads every pending packet, answers deltas, and returns the entries that won a merge.
+     */
+    synchronized List<ReplicatedState.Entry> receive(long nowMillis) throws IOException {
+        List<ReplicatedState.Entry> merged = new ArrayList<>();
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) {
+                return merged;
+            }
+            receiveBuffer.flip();
+            byte[] packet = new byte[receiveBuffer.remaining()];
+            receiveBuffer.get(packet);
+            try {
+                if (!handle((InetSocketAddress) from, packet, nowMillis, merged)) {
+                    packetsRejected.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // Truncated or malformed despite a valid signature
+                packetsRejected.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Sends pending deltas to up to {@code fanout} peers, starting one peer further along
+     * each round. Returns the number of packets sent.
+     */
+    synchronized int send(int fanout, long nowMillis) throws IOException {
+        List<Peer> ordered = new ArrayList<>(peers.values());
+        if (ordered.isEmpty()) {
+            return 0;
+        }
+        long last = state.lastSeq();
+        int overhead = 4 + 1 + 2 + ReplicatedState.utfLength(state.replicaId()) + 8 + 2 + MAC_BYTES;
+        int sent = 0;
+        for (int i = 0; i < ordered.size() && sent < fanout; i++) {
+            Peer peer = ordered.get((cursor + i) % ordered.size());
+            if (peer.self) {
+                continue;
+            }
+            boolean inFlight = peer.sentUpTo > peer.acked && nowMillis - peer.sentAt < retryMillis;
+            long after = inFlight ? peer.sentUpTo : peer.acked;
+            if (after >= last) {
+                continue;
+            }
+            ReplicatedState.Delta delta = state.deltaSince(after, maxPacketBytes - overhead, peer.replicaId);
+            write(peer.address, DELTA, delta.upTo(), delta.entries());
+            peer.sentUpTo = delta.upTo();
+            peer.sentAt = nowMillis;
+            sent++;
+        }
+        cursor = (cursor + 1) % ordered.size();
+        return sent;
+    }
+
+    /**
+     * Peers that have answered under a replica id other than this one.
+     */
+    synchronized int knownPeers() {
+        int known = 0;
+        for (Peer peer : peers.values()) {
+            if (!peer.self && peer.replicaId != null) {
+                known++;
+            }
+        }
+        return known;
+    }
+
+    long packetsSent() {
+        return packetsSent.get();
+    }
+
+    long packetsReceived() {
+        return packetsReceived.get();
+    }
+
+    long packetsRejected() {
+        return packetsRejected.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean handle(InetSocketAddress from, byte[] packet, long nowMillis, List<ReplicatedState.Entry> merged)
+            throws IOException {
+        int bodyLength = packet.length - MAC_BYTES;
+        if (bodyLength < 4 + 1 + 2 + 8) {
+            return false;
+        }
+        mac.update(packet, 0, bodyLength);
+        if (!MessageDigest.isEqual(mac.doFinal(), Arrays.copyOfRange(packet, bodyLength, packet.length))) {
+            return false;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet, 0, bodyLength));
+        if (in.readInt() != MAGIC) {
+            return false;
+        }
+        byte type = in.readByte();
+        String sender = in.readUTF();
+        long upTo = in.readLong();
+        Peer peer = peers.get(from);
+        if (sender.equals(state.replicaId())) {
+            // A peer entry that points back at this proxy
+            if (peer != null) {
+                peer.self = true;
+            }
+            return true;
+        }
+        if (peer != null && !sender.equals(peer.replicaId)) {
+            if (peer.replicaId != null) {
+                // The peer restarted and lost everything it acknowledged
+                peer.acked = 0L;
+                peer.sentUpTo = 0L;
+            }
+            peer.replicaId = sender;
+        }
+        packetsReceived.incrementAndGet();
+        if (type == ACK) {
+            if (peer != null && upTo <= peer.sentUpTo) {
+                peer.acked = Math.max(peer.acked, upTo);
+            }
+            return true;
+        }
+        if (type != DELTA) {
+            return false;
+        }
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            ReplicatedState.Entry entry = new ReplicatedState.Entry(in.readUTF(), in.readUTF(), in.readLong(), in.readUTF(), in.readLong());
+            if (state.merge(entry, nowMillis)) {
+                merged.add(entry);
+            }
+        }
+        write(from, ACK, upTo, List.of());
+        return true;
+    }
+
+    private void write(InetSocketAddress address, byte type, long upTo, List<ReplicatedState.Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(type);
+        out.writeUTF(state.replicaId());
+        out.writeLong(upTo);
+        if (type == DELTA) {
+            out.writeShort(entries.size());
+            for (ReplicatedState.Entry entry : entries) {
+                out.writeUTF(entry.key());
+                out.writeUTF(entry.value());
+                out.writeLong(entry.version());
+                out.writeUTF(entry.origin());
+                out.writeLong(entry.expiresAt());
+            }
+        }
+        out.flush();
+        byte[] body = bytes.toByteArray();
+        mac.update(body);
+        ByteBuffer packet = ByteBuffer.allocate(body.length + MAC_BYTES);
+        packet.put(body).put(mac.doFinal()).flip();
+        channel.send(packet, address);
+        packetsSent.incrementAndGet();
+    }
+
+    private static final class Peer {
+        private final InetSocketAddress address;
+        private String replicaId;
+        private boolean self;
+        private long acked;
+        private long sentUpTo;
+        private long sentAt;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parent and child lobby groups, and the load of each child.
+ * <p>
+ * The tree is resolved once per config: every parent's children, and every group's
+ * fallback order — its own {@code fallback_chain}, then its siblings, then its parent's
+ * fallbacks — so a plan never walks the hierarchy to find where to fail over. Player
+ * counts reported per server are added as deltas to the totals of each child group
+ * holding that server, so ordering a parent's children by load reads one counter per
+ * child instead of summing its lobbies on every plan.
+ */
+public final class GroupHierarchy {
+
+    private final ServerRegistry registry;
+    private final ServerSlots<Member> members = new ServerSlots<>();
+    private volatile Tree tree;
+
+    public GroupHierarchy() {
+        this(ServerRegistry.shared());
+    }
+
+    GroupHierarchy(ServerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * The tree of {@code config}, resolved the first time that config is seen.
+     */
+    public Tree tree(Config config) {
+        Tree current = tree;
+        if (current != null && current.config == config) {
+            return current;
+        }
+        synchronized (this) {
+            current = tree;
+            if (current == null || current.config != config) {
+                current = build(config, current);
+                tree = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Records the current player count of {@code serverName}.
+     */
+    public void update(String serverName, int players) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        Member member = members.computeIfAbsent(id, ignored -> new Member());
+        synchronized (member) {
+            int delta = players - member.players;
+            member.players = players;
+            if (delta != 0) {
+                for (Aggregate aggregate : member.groups) {
+                    aggregate.players.addAndGet(delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Problems with the {@code children} of the groups in {@code config}, one line each.
+     */
+    static List<String> validate(Config config) {
+        List<String> warnings = new ArrayList<>();
+        Map<String, Config.GroupConfig> groups = config.routing().contextual().groups();
+        for (Map.Entry<String, Config.GroupConfig> entry : groups.entrySet()) {
+            Config.GroupConfig group = entry.getValue();
+            if (!group.parent()) {
+                continue;
+            }
+            if (!group.servers().isEmpty() || group.dynamic()) {
+                warnings.add("routing.contextual.groups." + entry.getKey() + " has children, so its own servers are ignored.");
+            }
+            for (String child : group.children()) {
+                if (!groups.containsKey(child)) {
+                    warnings.add("routing.contextual.groups." + entry.getKey() + " lists unknown child group '" + child + "'.");
+                } else if (child.equals(entry.getKey()) || reaches(groups, child, entry.getKey(), new HashSet<>())) {
+                    warnings.add("routing.contextual.groups." + entry.getKey() + " child '" + child + "' would form a cycle and was ignored.");
+                }
+            }
+        }
+        return warnings;
+    }
+
+    private Tree build(Config config, Tree previous) {
+        Config.Contextual contextual = config.routing().contextual();
+        Map<String, Config.GroupConfig> groups = contextual.groups();
+
+        Map<String, List<String>> children = new HashMap<>();
+        Map<String, String> parents = new HashMap<>();
+        for (Map.Entry<String, Config.GroupConfig> entry : groups.entrySet()) {
+            List<String> valid = new ArrayList<>();
+            for (String child : entry.getValue().children()) {
+                if (groups.containsKey(child) && !child.equals(entry.getKey())
+                        && !reaches(groups, child, entry.getKey(), new HashSet<>())) {
+                    valid.add(child);
+                    parents.putIfAbsent(child, entry.getKey());
+                }
+            }
+            if (!valid.isEmpty()) {
+                children.put(entry.getKey(), List.copyOf(valid));
+            }
+        }
+
+        Map<String, List<String>> fallbacks = new HashMap<>();
+        for (String group : groups.keySet()) {
+            fallbacks.put(group, List.copyOf(resolveFallbacks(group, contextual, children, parents)));
+        }
+
+        // Every child group, with the weight of the lobbies below it
+        Map<String, Aggregate> aggregates = new HashMap<>();
+        Map<Integer, List<Aggregate>> groupsById = new HashMap<>();
+        for (String child : parents.keySet()) {
+            Map<String, Config.LobbyEntry> lobbies = new LinkedHashMap<>();
+            collectLobbies(child, groups, children, lobbies, new HashSet<>());
+            long weight = 0;
+            for (Config.LobbyEntry entry : lobbies.values()) {
+                weight += entry.effectiveWeight();
+                int id = registry.intern(entry.server());
+                if (id != ServerRegistry.UNKNOWN) {
+                    groupsById.computeIfAbsent(id, ignored -> new ArrayList<>());
+                }
+            }
+            Aggregate aggregate = new Aggregate(weight);
+            aggregates.put(child, aggregate);
+            for (Config.LobbyEntry entry : lobbies.values()) {
+                List<Aggregate> memberOf = groupsById.get(registry.idOf(entry.server()));
+                if (memberOf != null) {
+                    memberOf.add(aggregate);
+                }
+            }
+        }
+
+        // Move each server's count from the old totals to the new ones
+        Set<Integer> attached = new HashSet<>(groupsById.keySet());
+        if (previous != null) {
+            attached.addAll(previous.attached);
+        }
+        for (int id : attached) {
+            Member member = members.computeIfAbsent(id, ignored -> new Member());
+            synchronized (member) {
+                member.groups = List.copyOf(groupsById.getOrDefault(id, List.of()));
+                for (Aggregate aggregate : member.groups) {
+                    aggregate.players.addAndGet(member.players);
+                }
+            }
+        }
+        return new Tree(config, children, fallbacks, aggregates, groupsById.keySet());
+    }
+
+    /**
+     * The group's own fallback chain, its siblings, then its parent's fallbacks; never the
+     * group itself or a group above it, which would lead back into it.
+     */
+    private static Set<String> resolveFallbacks(String group, Config.Contextual contextual,
+                                                Map<String, List<String>> children, Map<String, String> parents) {
+        Set<String> excluded = new HashSet<>();
+        Set<String> order = new LinkedHashSet<>();
+        for (String current = group; current != null && excluded.add(current); current = parents.get(current)) {
+            order.addAll(contextual.fallbackChain().getOrDefault(current, List.of()));
+            String parent = parents.get(current);
+            if (parent != null) {
+                order.addAll(children.get(parent));
+            }
+        }
+        order.removeAll(excluded);
+        return order;
+    }
+
+    private static void collectLobbies(String group, Map<String, Config.GroupConfig> groups, Map<String, List<String>> children,
+                                       Map<String, Config.LobbyEntry> lobbies, Set<String> visited) {
+        if (!visited.add(group)) {
+            return;
+        }
+        List<String> below = children.get(group);
+        if (below == null) {
+            for (Config.LobbyEntry entry : groups.get(group).servers()) {
+                lobbies.putIfAbsent(entry.server(), entry);
+            }
+            return;
+        }
+        for (String child : below) {
+            collectLobbies(child, groups, children, lobbies, visited);
+        }
+    }
+
+    /**
+     * Whether {@code target} is {@code from} or below it through {@code children} lists.
+     */
+    private static boolean reaches(Map<String, Config.GroupConfig> groups, String from, String target, Set<String> visited) {
+        if (from.equals(target)) {
+            return true;
+        }
+        Config.GroupConfig group = groups.get(from);
+        if (group == null || !visited.add(from)) {
+            return false;
+        }
+        for (String child : group.children()) {
+            if (reaches(groups, child, target, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The resolved hierarchy of one config.
+     */
+    public static final class Tree {
+        private final Config config;
+        private final Map<String, List<String>> children;
+        private final Map<String, List<String>> fallbacks;
+        private final Map<String, Aggregate> aggregates;
+        private final Set<Integer> attached;
+
+        private Tree(Config config, Map<String, List<String>> children, Map<String, List<String>> fallbacks,
+                     Map<String, Aggregate> aggregates, Set<Integer> attached) {
+            this.config = config;
+            this.children = children;
+            this.fallbacks = fallbacks;
+            this.aggregates = aggregates;
+            this.attached = Set.copyOf(attached);
+        }
+
+        public boolean isParent(String group) {
+            return children.containsKey(group);
+        }
+
+        public List<String> children(String group) {
+            return children.getOrDefault(group, List.of());
+        }
+
+        /**
+         * Groups to try, in order, when {@code group} has no routable lobby.
+         */
+        public List<String> fallbacks(String group) {
+            List<String> resolved = fallbacks.get(group);
+            return resolved != null ? resolved : config.routing().contextual().fallbackChain().getOrDefault(group, List.of());
+        }
+
+        /**
+         * Players per unit of lobby weight below {@code group}; groups without lobbies sort last.
+         */
+        public double load(String group) {
+            Aggregate aggregate = aggregates.get(group);
+            if (aggregate == null || aggregate.weight == 0) {
+                return Double.MAX_VALUE;
+            }
+            return (double) aggregate.players.get() / aggregate.weight;
+        }
+
+        public long players(String group) {
+            Aggregate aggregate = aggregates.get(group);
+            return aggregate == null ? 0 : aggregate.players.get();
+        }
+
+        /**
+         * Children of {@code group}, least loaded first; ties keep their configured order.
+         */
+        public List<String> childrenByLoad(String group) {
+            List<String> ordered = new ArrayList<>(children(group));
+            ordered.sort(Comparator.comparingDouble(this::load));
+            return ordered;
+        }
+    }
+
+    private static final class Aggregate {
+        private final AtomicLong players = new AtomicLong();
+        private final long weight;
+
+        private Aggregate(long weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Member {
+        private int players;
+        private List<Aggregate> groups = List.of();
+    }
+}
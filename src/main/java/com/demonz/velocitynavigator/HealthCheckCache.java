@@ -19,12 +19,28 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Last health check result of each server.
+ * <p>
+ * Entries are stamped with the monotonic clock, so freshness is unaffected by wall-clock
+ * jumps; {@link #checkedAt} converts a stamp to an {@link Instant} for display only.
+ */
 public final class HealthCheckCache {
 
     private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TimeSource time;
+
+    public HealthCheckCache() {
+        this(TimeSource.system());
+    }
 
-    public Entry getIfFresh(String key, Instant now, Duration ttl) {
+    HealthCheckCache(TimeSource time) {
+        this.time = time;
+    }
+
+    public Entry getIfFresh(String key, Duration ttl) {
         Entry entry = entries.get(key);
         if (entry == null) {
             return null;
@@ -32,15 +48,20 @@ public final class HealthCheckCache {
         if (ttl.isZero() || ttl.isNegative()) {
             return null;
         }
-        if (entry.checkedAt().plus(ttl).isBefore(now)) {
+        if (time.nanoTime() - entry.checkedAtNanos() > ttl.toNanos()) {
             entries.remove(key, entry);
             return null;
         }
         return entry;
     }
 
-    public void put(String key, boolean online, Instant checkedAt) {
-        entries.put(key, new Entry(online, checkedAt));
+    /**
+     * Records a check of {@code key} that finished now.
+     */
+    public Entry put(String key, boolean online) {
+        Entry entry = new Entry(online, time.nanoTime());
+        entries.put(key, entry);
+        return entry;
     }
 
     /**
@@ -51,14 +72,23 @@ public final class HealthCheckCache {
     }
 
     /**
-     * Purge entries whose checkedAt is before the cutoff time.
+     * Wall-clock time at which {@code entry} was checked.
+     */
+    public Instant checkedAt(Entry entry) {
+        long ageMillis = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - entry.checkedAtNanos());
+        return Instant.ofEpochMilli(time.millis() - ageMillis);
+    }
+
+    /**
+     * Purge entries checked longer than {@code ttl} ago.
      */
     public void purgeExpired(Duration ttl) {
         if (ttl == null || ttl.isZero() || ttl.isNegative()) {
             return;
         }
-        Instant cutoff = Instant.now().minus(ttl);
-        entries.entrySet().removeIf(entry -> entry.getValue().checkedAt().isBefore(cutoff));
+        long now = time.nanoTime();
+        long maxAge = ttl.toNanos();
+        entries.values().removeIf(entry -> now - entry.checkedAtNanos() > maxAge);
     }
 
     public void clear() {
@@ -69,6 +99,6 @@ public final class HealthCheckCache {
         return entries;
     }
 
-    public record Entry(boolean online, Instant checkedAt) {
+    public record Entry(boolean online, long checkedAtNanos) {
     }
 }
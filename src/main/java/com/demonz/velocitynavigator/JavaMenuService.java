@@ -98,13 +98,7 @@ public final class JavaMenuService {
             }
             String maxPlayersText = maxConfig == -1 ? "-" : String.valueOf(maxConfig);
 
-            long latencyVal = -1L;
-            if (plugin.healthService() != null) {
-                Long l = plugin.healthService().getLatencies().get(lobbyLower);
-                if (l != null) {
-                    latencyVal = l;
-                }
-            }
+            long latencyVal = plugin.healthService() == null ? -1L : plugin.healthService().latency(serverName);
             String latencyText = latencyVal < 0 ? "?" : String.valueOf(latencyVal);
 
             // Format line text
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plans background moves that even out player counts inside a lobby group.
+ * <p>
+ * Utilization is players per unit of weight. A lobby turns hot once it exceeds the
+ * group mean by {@code threshold} and stays hot until it is back at the mean; only
+ * hot lobbies give up players, and targets are filled no higher than the mean, so a
+ * move can never make its target the next hot lobby. Only players with no recent
+ * activity are moved, and a moved player is left alone for {@code player_cooldown_seconds}.
+ */
+public final class LoadRebalancer {
+
+    /**
+     * Move {@code count} idle players from {@code source} to {@code target}.
+     */
+    public record Move(String source, String target, int count) {
+    }
+
+    private final TimeSource time;
+    private final ConcurrentMap<UUID, Long> lastActivity = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Long> lastMoved = new ConcurrentHashMap<>();
+    private final Set<String> hot = ConcurrentHashMap.newKeySet();
+    private final AtomicLong moved = new AtomicLong();
+
+    public LoadRebalancer() {
+        this(TimeSource.system());
+    }
+
+    LoadRebalancer(TimeSource time) {
+        this.time = time;
+    }
+
+    /**
+     * Records that a player switched server, chatted or ran a command.
+     */
+    public void recordActivity(UUID playerId) {
+        lastActivity.put(playerId, time.coarseMillis());
+    }
+
+    public void recordMoved(UUID playerId) {
+        long now = time.coarseMillis();
+        lastMoved.put(playerId, now);
+        lastActivity.put(playerId, now);
+        moved.incrementAndGet();
+    }
+
+    public void forget(UUID playerId) {
+        lastActivity.remove(playerId);
+        lastMoved.remove(playerId);
+    }
+
+    /**
+     * True when the player has been inactive for {@code idle_seconds} and was not moved recently.
+     * Players never seen by the proxy since startup are not considered idle.
+     */
+    public boolean isIdle(UUID playerId, Config.RebalanceSettings settings) {
+        Long activity = lastActivity.get(playerId);
+        if (activity == null) {
+            return false;
+        }
+        long now = time.coarseMillis();
+        Long movedAt = lastMoved.get(playerId);
+        if (movedAt != null && now - movedAt < settings.playerCooldownSeconds() * 1000L) {
+            return false;
+        }
+        return now - activity >= settings.idleSeconds() * 1000L;
+    }
+
+    /**
+     * Plans moves for one group.
+     *
+     * @param players   player count of every online lobby in the group
+     * @param weights   weight of each lobby; missing entries count as the default weight
+     * @param routable  lobbies that may receive players (not full, drained or circuit-open)
+     * @return moves to perform this cycle, at most {@code max_moves_per_cycle} players in total
+     */
+    public List<Move> plan(Map<String, Integer> players, Map<String, Integer> weights,
+                           Collection<String> routable, Config.RebalanceSettings settings) {
+        if (!settings.enabled() || players.size() < 2) {
+            return List.of();
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, Integer> lobbyWeights = new HashMap<>();
+        long totalPlayers = 0;
+        long totalWeight = 0;
+        for (Map.Entry<String, Integer> entry : players.entrySet()) {
+            String key = normalize(entry.getKey());
+            int weight = Math.max(1, weights.getOrDefault(entry.getKey(), Config.LobbyEntry.DEFAULT_WEIGHT));
+            counts.put(key, Math.max(0, entry.getValue()));
+            lobbyWeights.put(key, weight);
+            totalPlayers += Math.max(0, entry.getValue());
+            totalWeight += weight;
+        }
+        double mean = (double) totalPlayers / totalWeight;
+
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            String key = entry.getKey();
+            int weight = lobbyWeights.get(key);
+            double utilization = (double) entry.getValue() / weight;
+            if (utilization > mean * (1.0 + settings.threshold()) && entry.getValue() - mean * weight >= 1.0) {
+                hot.add(key);
+            } else if (utilization <= mean) {
+                hot.remove(key);
+            }
+        }
+
+        Set<String> targets = new HashSet<>();
+        for (String name : routable) {
+            String key = normalize(name);
+            if (counts.containsKey(key) && !hot.contains(key)) {
+                targets.add(key);
+            }
+        }
+        List<String> sources = new ArrayList<>();
+        for (String key : counts.keySet()) {
+            if (hot.contains(key)) {
+                sources.add(key);
+            }
+        }
+        sources.sort(Comparator.comparingDouble((String key) -> counts.get(key) - mean * lobbyWeights.get(key)).reversed());
+
+        Map<String, Map<String, Integer>> planned = new LinkedHashMap<>();
+        int budget = settings.maxMovesPerCycle();
+        for (String source : sources) {
+            while (budget > 0 && counts.get(source) - mean * lobbyWeights.get(source) >= 1.0) {
+                String target = null;
+                double lowest = Double.MAX_VALUE;
+                for (String candidate : targets) {
+                    int weight = lobbyWeights.get(candidate);
+                    double utilization = (double) counts.get(candidate) / weight;
+                    if (mean * weight - counts.get(candidate) >= 1.0 && utilization < lowest) {
+                        target = candidate;
+                        lowest = utilization;
+                    }
+                }
+                if (target == null) {
+                    break;
+                }
+                counts.merge(source, -1, Integer::sum);
+                counts.merge(target, 1, Integer::sum);
+                planned.computeIfAbsent(source, k -> new LinkedHashMap<>()).merge(target, 1, Integer::sum);
+                budget--;
+            }
+        }
+
+        List<Move> moves = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> source : planned.entrySet()) {
+            for (Map.Entry<String, Integer> target : source.getValue().entrySet()) {
+                moves.add(new Move(source.getKey(), target.getKey(), target.getValue()));
+            }
+        }
+        return moves;
+    }
+
+    public boolean isHot(String serverName) {
+        return hot.contains(normalize(serverName));
+    }
+
+    public long movedCount() {
+        return moved.get();
+    }
+
+    public void clear() {
+        lastActivity.clear();
+        lastMoved.clear();
+        hot.clear();
+    }
+
+    private String normalize(String serverName) {
+        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Matches players against lobby attributes through bitsets over server IDs.
+ * <p>
+ * For each config, every lobby's attributes (its groups' attributes overridden by
+ * {@code [lobby_attributes.servers]}) are folded into one bitset per attribute value,
+ * and protocol bounds into prefix/suffix bitsets over the sorted bounds, so the lobbies
+ * a protocol version excludes are a binary search away. A player's traits are resolved
+ * once per session, like {@link ReservedCapacity} tiers; the bitsets excluding a given
+ * combination of traits are OR-ed once and cached, so a plan tests each candidate with
+ * a single bit lookup. {@code region} is a preference rather than a requirement: it
+ * only narrows candidates when some lobby in the player's region can take them.
+ */
+public final class LobbyAttributeIndex {
+
+    /**
+     * What a player brings to the match: protocol number ({@code -1} if unknown),
+     * whether they play through Geyser, and their country/continent codes.
+     */
+    public record Traits(int protocol, boolean bedrock, Set<String> regions) {
+        public Traits {
+            Set<String> cleaned = new LinkedHashSet<>();
+            if (regions != null) {
+                for (String region : regions) {
+                    if (region != null && !region.isBlank()) {
+                        cleaned.add(region.trim().toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            regions = Set.copyOf(cleaned);
+        }
+    }
+
+    private final ServerRegistry registry;
+    private final ConcurrentMap<UUID, Traits> traits = new ConcurrentHashMap<>();
+    private volatile Index index;
+
+    public LobbyAttributeIndex() {
+        this(ServerRegistry.shared());
+    }
+
+    LobbyAttributeIndex(ServerRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void resolve(UUID playerId, Traits playerTraits) {
+        traits.put(playerId, playerTraits);
+    }
+
+    public void forget(UUID playerId) {
+        if (playerId != null) {
+            traits.remove(playerId);
+        }
+    }
+
+    public void clear() {
+        traits.clear();
+    }
+
+    public int trackedPlayers() {
+        return traits.size();
+    }
+
+    /**
+     * Constraint for {@code playerId} under {@code config}; {@link Constraint#NONE} when
+     * attributes are disabled or the player's traits are unknown.
+     */
+    public Constraint constraintFor(UUID playerId, Config config) {
+        if (playerId == null || !config.lobbyAttributes().enabled()) {
+            return Constraint.NONE;
+        }
+        Traits playerTraits = traits.get(playerId);
+        if (playerTraits == null) {
+            return Constraint.NONE;
+        }
+        return index(config).constraint(playerTraits);
+    }
+
+    /**
+     * Lobbies whose attribute {@code key} is {@code value}, e.g. every lobby with {@code mode = "duels"}.
+     */
+    public Set<String> lobbiesWith(String key, String value, Config config) {
+        Map<String, BitSet> values = index(config).byValue.get(key.toLowerCase(Locale.ROOT));
+        BitSet ids = values == null ? null : values.get(value.toLowerCase(Locale.ROOT));
+        Set<String> names = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().forEach(id -> names.add(registry.name(id)));
+        }
+        return names;
+    }
+
+    /**
+     * Effective attributes of each lobby in {@code config}: the attributes of every group it
+     * is in, in group order, then its own entry in {@code [lobby_attributes.servers]}.
+     */
+    static Map<String, Map<String, String>> attributesOf(Config config) {
+        Map<String, Map<String, String>> attributes = new LinkedHashMap<>();
+        for (Config.GroupConfig group : config.routing().contextual().groups().values()) {
+            if (group.attributes().isEmpty()) {
+                continue;
+            }
+            for (Config.LobbyEntry entry : group.servers()) {
+                attributes.computeIfAbsent(entry.server(), name -> new HashMap<>()).putAll(group.attributes());
+            }
+        }
+        for (Map.Entry<String, Map<String, String>> entry : config.lobbyAttributes().servers().entrySet()) {
+            attributes.computeIfAbsent(entry.getKey(), name -> new HashMap<>()).putAll(entry.getValue());
+        }
+        return attributes;
+    }
+
+    private Index index(Config config) {
+        Index current = index;
+        if (current == null || current.config != config) {
+            current = new Index(config, registry);
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Servers one player may not use, and those in their region.
+     */
+    public static final class Constraint {
+        public static final Constraint NONE = new Constraint(null, new BitSet(), null);
+
+        private final ServerRegistry registry;
+        private final BitSet excluded;
+        private final BitSet preferred;
+
+        private Constraint(ServerRegistry registry, BitSet excluded, BitSet preferred) {
+            this.registry = registry;
+            this.excluded = excluded;
+            this.preferred = preferred;
+        }
+
+        public boolean allows(String serverName) {
+            if (excluded.isEmpty()) {
+                return true;
+            }
+            int id = registry.idOf(serverName);
+            return id == ServerRegistry.UNKNOWN || !excluded.get(id);
+        }
+
+        public boolean hasPreference() {
+            return preferred != null;
+        }
+
+        public boolean prefers(String serverName) {
+            if (preferred == null) {
+                return true;
+            }
+            int id = registry.idOf(serverName);
+            return id != ServerRegistry.UNKNOWN && preferred.get(id);
+        }
+    }
+
+    private static final class Index {
+        private final Config config;
+        private final ServerRegistry registry;
+        private final Map<String, Map<String, BitSet>> byValue = new HashMap<>();
+        private final BitSet notBedrock = new BitSet();
+        // Servers whose min_protocol is minBounds[i] or higher
+        private final int[] minBounds;
+        private final BitSet[] minAtOrAbove;
+        // Servers whose max_protocol is maxBounds[i - 1] or lower
+        private final int[] maxBounds;
+        private final BitSet[] maxBelow;
+        private final ConcurrentMap<Traits, Constraint> constraints = new ConcurrentHashMap<>();
+
+        private Index(Config config, ServerRegistry registry) {
+            this.config = config;
+            this.registry = registry;
+            TreeMap<Integer, BitSet> byMin = new TreeMap<>();
+            TreeMap<Integer, BitSet> byMax = new TreeMap<>();
+            for (Map.Entry<String, Map<String, String>> server : attributesOf(config).entrySet()) {
+                int id = registry.intern(server.getKey());
+                if (id == ServerRegistry.UNKNOWN) {
+                    continue;
+                }
+                for (Map.Entry<String, String> attribute : server.getValue().entrySet()) {
+                    byValue.computeIfAbsent(attribute.getKey(), key -> new HashMap<>())
+                            .computeIfAbsent(attribute.getValue(), value -> new BitSet()).set(id);
+                    switch (attribute.getKey()) {
+                        case Config.LobbyAttributeSettings.MIN_PROTOCOL -> addBound(byMin, attribute.getValue(), id);
+                        case Config.LobbyAttributeSettings.MAX_PROTOCOL -> addBound(byMax, attribute.getValue(), id);
+                        case Config.LobbyAttributeSettings.BEDROCK -> {
+                            if ("false".equals(attribute.getValue())) {
+                                notBedrock.set(id);
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                }
+            }
+
+            minBounds = byMin.keySet().stream().mapToInt(Integer::intValue).toArray();
+            minAtOrAbove = new BitSet[minBounds.length + 1];
+            minAtOrAbove[minBounds.length] = new BitSet();
+            for (int i = minBounds.length - 1; i >= 0; i--) {
+                minAtOrAbove[i] = (BitSet) minAtOrAbove[i + 1].clone();
+                minAtOrAbove[i].or(byMin.get(minBounds[i]));
+            }
+
+            maxBounds = byMax.keySet().stream().mapToInt(Integer::intValue).toArray();
+            maxBelow = new BitSet[maxBounds.length + 1];
+            maxBelow[0] = new BitSet();
+            for (int i = 0; i < maxBounds.length; i++) {
+                maxBelow[i + 1] = (BitSet) maxBelow[i].clone();
+                maxBelow[i + 1].or(byMax.get(maxBounds[i]));
+            }
+        }
+
+        private Constraint constraint(Traits playerTraits) {
+            return constraints.computeIfAbsent(playerTraits, this::build);
+        }
+
+        private Constraint build(Traits playerTraits) {
+            BitSet excluded = new BitSet();
+            int protocol = playerTraits.protocol();
+            if (protocol >= 0) {
+                // Lobbies needing a newer protocol, then those capped below this one
+                excluded.or(minAtOrAbove[insertionPoint(minBounds, protocol + 1)]);
+                excluded.or(maxBelow[insertionPoint(maxBounds, protocol)]);
+            }
+            if (playerTraits.bedrock()) {
+                excluded.or(notBedrock);
+            }
+
+            BitSet preferred = null;
+            Map<String, BitSet> regions = byValue.get(Config.LobbyAttributeSettings.REGION);
+            if (regions != null) {
+                for (String region : playerTraits.regions()) {
+                    BitSet ids = regions.get(region);
+                    if (ids != null) {
+                        if (preferred == null) {
+                            preferred = new BitSet();
+                        }
+                        preferred.or(ids);
+                    }
+                }
+            }
+            return new Constraint(registry, excluded, preferred);
+        }
+
+        /**
+         * Number of {@code bounds} lower than {@code value}.
+         */
+        private static int insertionPoint(int[] bounds, int value) {
+            int index = Arrays.binarySearch(bounds, value);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private static void addBound(TreeMap<Integer, BitSet> bounds, String value, int id) {
+            try {
+                bounds.computeIfAbsent(Integer.parseInt(value), bound -> new BitSet()).set(id);
+            } catch (NumberFormatException ignored) {
+                // Not a protocol number; kept only as a plain attribute value
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
 public final class LobbyCommand implements SimpleCommand {
 
@@ -75,8 +76,11 @@ public final class LobbyCommand implements SimpleCommand {
         // If routing fails, the cooldown is cleared so the player is not penalized.
         plugin.cooldowns().apply(player.getUniqueId(), config.commands().cooldownSeconds());
 
-        plugin.previewRoute(player)
-                .thenAccept(decision -> handleDecision(player, config, decision, args))
+        // Menus only show the route; a direct connect takes its admission tokens while planning
+        CompletableFuture<RouteDecision> route = showsMenu(player, config, args)
+                ? plugin.previewRoute(player)
+                : plugin.routePlayer(player);
+        route.thenAccept(decision -> handleDecision(player, config, decision, args))
                 .exceptionally(throwable -> {
                     plugin.cooldowns().clear(player.getUniqueId());
                     player.sendMessage(Component.text("VelocityNavigator could not resolve a lobby right now.", NamedTextColor.RED));
@@ -128,23 +132,35 @@ public final class LobbyCommand implements SimpleCommand {
                 });
     }
 
+    private boolean showsBedrockForm(Player player, Config config) {
+        return plugin.bedrockHandler() != null && plugin.bedrockHandler().isBedrockPlayer(player, config)
+                && config.bedrock().useGuiForLobby() && FloodgateIntegration.isAvailable();
+    }
+
+    private boolean showsMenu(Player player, Config config, String[] args) {
+        boolean forceMenu = args.length >= 1 && "menu".equalsIgnoreCase(args[0]);
+        return showsBedrockForm(player, config) || forceMenu || config.routing().useChatMenuForLobby();
+    }
+
     private void handleDecision(Player player, Config config, RouteDecision decision, String[] args) {
         // Show Bedrock Cumulus GUI if applicable
-        if (plugin.bedrockHandler() != null && plugin.bedrockHandler().isBedrockPlayer(player, config)) {
-            if (config.bedrock().useGuiForLobby() && FloodgateIntegration.isAvailable()) {
-                BedrockFormService.showLobbySelectionForm(player, plugin, decision);
-                return;
-            }
+        if (showsBedrockForm(player, config)) {
+            BedrockFormService.showLobbySelectionForm(player, plugin, decision);
+            return;
         }
 
         // Show Java Interactive Chat Menu if applicable
-        boolean forceMenu = args.length >= 1 && "menu".equalsIgnoreCase(args[0]);
-        if (forceMenu || config.routing().useChatMenuForLobby()) {
+        if (showsMenu(player, config, args)) {
             JavaMenuService.showLobbyMenu(player, plugin, decision);
             return;
         }
 
         if (!decision.hasSelection()) {
+            // Every lobby in the group is full: wait in line rather than retrying into it
+            if (plugin.lobbyQueueService() != null && plugin.lobbyQueueService().tryEnqueue(player, decision, config)) {
+                return;
+            }
+
             // Graceful degradation
             if (config.degradation().enabled()) {
                 Config.SelectionMode degradationMode = Config.SelectionMode.fromString(config.degradation().mode());
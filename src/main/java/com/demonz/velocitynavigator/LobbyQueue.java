@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-group FIFO of players waiting for a full lobby group to free up.
+ * <p>
+ * Each group has one FIFO lane per priority level; lane 0 is admitted first. Joining,
+ * leaving and admitting are O(1) per player. Positions are recomputed for every
+ * queued player in one pass by {@link #refreshPositions()}, which the position
+ * broadcaster calls on a timer, and looked up in O(1) in between.
+ */
+public final class LobbyQueue {
+
+    /**
+     * A player's place in a group queue as of the last refresh, 1-based.
+     */
+    public record Position(String group, int position, int size) {
+    }
+
+    private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, String> queuedGroup = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Position> positions = new ConcurrentHashMap<>();
+    private final AtomicLong admitted = new AtomicLong();
+
+    /**
+     * Adds a player to the back of {@code lane} in {@code group}'s queue, or leaves them in
+     * place if already queued for that group. Returns their position.
+     */
+    public Position enqueue(UUID playerId, String group, int lane) {
+        String key = normalize(group);
+        String previous = queuedGroup.put(playerId, key);
+        if (previous != null && !previous.equals(key)) {
+            remove(previous, playerId);
+        }
+        Group queue = groups.computeIfAbsent(key, k -> new Group());
+        synchronized (queue) {
+            if (previous == null || !previous.equals(key)) {
+                queue.lane(Math.max(0, lane)).put(playerId, Boolean.TRUE);
+                queue.size++;
+                // Exact for a new arrival: everyone else in its lane and the lanes ahead is in front
+                int ahead = 0;
+                for (int i = 0; i <= Math.max(0, lane) && i < queue.lanes.size(); i++) {
+                    ahead += queue.lanes.get(i).size();
+                }
+                positions.put(playerId, new Position(key, ahead, queue.size));
+            }
+        }
+        return positions.get(playerId);
+    }
+
+    public void remove(UUID playerId) {
+        String group = queuedGroup.remove(playerId);
+        if (group != null) {
+            remove(group, playerId);
+        }
+    }
+
+    public boolean isQueued(UUID playerId) {
+        return queuedGroup.containsKey(playerId);
+    }
+
+    public Optional<Position> position(UUID playerId) {
+        return Optional.ofNullable(positions.get(playerId));
+    }
+
+    /**
+     * Removes and returns up to {@code count} players from the front of {@code group}'s queue.
+     */
+    public List<UUID> poll(String group, int count) {
+        Group queue = groups.get(normalize(group));
+        List<UUID> polled = new ArrayList<>();
+        if (queue == null || count <= 0) {
+            return polled;
+        }
+        synchronized (queue) {
+            for (Map<UUID, Boolean> lane : queue.lanes) {
+                Iterator<UUID> iterator = lane.keySet().iterator();
+                while (polled.size() < count && iterator.hasNext()) {
+                    UUID playerId = iterator.next();
+                    iterator.remove();
+                    queue.size--;
+                    polled.add(playerId);
+                }
+            }
+        }
+        for (UUID playerId : polled) {
+            queuedGroup.remove(playerId);
+            positions.remove(playerId);
+        }
+        admitted.addAndGet(polled.size());
+        return polled;
+    }
+
+    /**
+     * Puts a player taken by {@link #poll(String, int)} back at the front of {@code lane} after
+     * their admission fell through, so they keep their turn. They no longer count as admitted.
+     * A player who has queued again in the meantime keeps that place instead.
+     */
+    public Position requeue(UUID playerId, String group, int lane) {
+        String key = normalize(group);
+        if (queuedGroup.putIfAbsent(playerId, key) != null) {
+            return positions.get(playerId);
+        }
+        Group queue = groups.computeIfAbsent(key, k -> new Group());
+        synchronized (queue) {
+            LinkedHashMap<UUID, Boolean> target = queue.lane(Math.max(0, lane));
+            LinkedHashMap<UUID, Boolean> behind = new LinkedHashMap<>(target);
+            target.clear();
+            target.put(playerId, Boolean.TRUE);
+            target.putAll(behind);
+            queue.size++;
+            int ahead = 1;
+            for (int i = 0; i < Math.max(0, lane) && i < queue.lanes.size(); i++) {
+                ahead += queue.lanes.get(i).size();
+            }
+            positions.put(playerId, new Position(key, ahead, queue.size));
+        }
+        admitted.decrementAndGet();
+        return positions.get(playerId);
+    }
+
+    /**
+     * Recomputes every queued player's position in one pass and returns the result.
+     */
+    public Map<UUID, Position> refreshPositions() {
+        Map<UUID, Position> refreshed = new LinkedHashMap<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            Group queue = entry.getValue();
+            synchronized (queue) {
+                int position = 0;
+                for (Map<UUID, Boolean> lane : queue.lanes) {
+                    for (UUID playerId : lane.keySet()) {
+                        refreshed.put(playerId, new Position(entry.getKey(), ++position, queue.size));
+                    }
+                }
+            }
+        }
+        positions.putAll(refreshed);
+        positions.keySet().retainAll(refreshed.keySet());
+        return refreshed;
+    }
+
+    public int size(String group) {
+        Group queue = groups.get(normalize(group));
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.size;
+        }
+    }
+
+    /**
+     * Groups that currently have players waiting.
+     */
+    public Set<String> waitingGroups() {
+        Set<String> waiting = new HashSet<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            if (size(entry.getKey()) > 0) {
+                waiting.add(entry.getKey());
+            }
+        }
+        return waiting;
+    }
+
+    public long admittedCount() {
+        return admitted.get();
+    }
+
+    public void clear() {
+        groups.clear();
+        queuedGroup.clear();
+        positions.clear();
+    }
+
+    private void remove(String group, UUID playerId) {
+        positions.remove(playerId);
+        Group queue = groups.get(group);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            for (Map<UUID, Boolean> lane : queue.lanes) {
+                if (lane.remove(playerId) != null) {
+                    queue.size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    private String normalize(String group) {
+        return group == null ? "" : group.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Group {
+        private final List<LinkedHashMap<UUID, Boolean>> lanes = new ArrayList<>();
+        private int size;
+
+        private LinkedHashMap<UUID, Boolean> lane(int index) {
+            while (lanes.size() <= index) {
+                lanes.add(new LinkedHashMap<>());
+            }
+            return lanes.get(index);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the lobby queue: puts players in line when their group is full, admits them
+ * as lobbies free up and shows everyone their position.
+ * <p>
+ * Admission counts players from the proxy's live connections rather than the health
+ * cache, which can be several seconds old, and runs on a timer as well as whenever a
+ * player leaves a server.
+ */
+final class LobbyQueueService {
+
+    private final VelocityNavigator plugin;
+    private final RoutePlanner routePlanner;
+    private final LobbyQueue queue = new LobbyQueue();
+    private ScheduledTask task;
+
+    LobbyQueueService(VelocityNavigator plugin, RoutePlanner routePlanner) {
+        this.plugin = plugin;
+        this.routePlanner = routePlanner;
+    }
+
+    LobbyQueue queue() {
+        return queue;
+    }
+
+    /**
+     * Queues {@code player} if {@code decision} failed because its group is at capacity.
+     * Returns {@code false} when the queue is disabled or the failure has another cause.
+     */
+    boolean tryEnqueue(Player player, RouteDecision decision, Config config) {
+        Config.QueueSettings settings = config.queue();
+        if (!settings.enabled()) {
+            return false;
+        }
+        String group = decision.requestedGroup();
+        if (!routePlanner.isAtCapacity(group, config, liveCounts(config))) {
+            return false;
+        }
+        LobbyQueue.Position position = queue.enqueue(player.getUniqueId(), group, settings.laneFor(player::hasPermission));
+        player.sendMessage(render(settings, position, player));
+        return true;
+    }
+
+    void reschedule(Config config) {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (!config.queue().enabled()) {
+            queue.clear();
+            return;
+        }
+        int interval = config.queue().updateIntervalSeconds();
+        task = plugin.server().getScheduler()
+                .buildTask(plugin, this::tick)
+                .delay(interval, TimeUnit.SECONDS)
+                .repeat(interval, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * A player left a server; if anyone is waiting, try to admit them right away.
+     */
+    void onCapacityFreed() {
+        if (!queue.waitingGroups().isEmpty()) {
+            plugin.server().getScheduler().buildTask(plugin, this::admitWaiting).schedule();
+        }
+    }
+
+    void forget(UUID playerId) {
+        queue.remove(playerId);
+    }
+
+    private void tick() {
+        admitWaiting();
+        Config config = plugin.config();
+        if (config == null) {
+            return;
+        }
+        // One pass renders every queued player's position
+        for (Map.Entry<UUID, LobbyQueue.Position> entry : queue.refreshPositions().entrySet()) {
+            Optional<Player> player = plugin.server().getPlayer(entry.getKey());
+            if (player.isEmpty() || !player.get().isActive()) {
+                queue.remove(entry.getKey());
+                continue;
+            }
+            player.get().sendActionBar(render(config.queue(), entry.getValue(), player.get()));
+        }
+    }
+
+    private synchronized void admitWaiting() {
+        Config config = plugin.config();
+        if (config == null || !config.queue().enabled()) {
+            return;
+        }
+        Map<String, Integer> counts = liveCounts(config);
+        for (String group : queue.waitingGroups()) {
+            int free = routePlanner.freeSlots(group, config, counts);
+            if (free <= 0) {
+                continue;
+            }
+            List<UUID> polled = queue.poll(group, free);
+            for (int i = 0; i < polled.size(); i++) {
+                Optional<Player> player = plugin.server().getPlayer(polled.get(i));
+                if (player.isEmpty() || !player.get().isActive()) {
+                    continue;
+                }
+                if (!admit(player.get(), group, config, counts)) {
+                    // Capacity vanished between counting and planning; everyone not yet admitted keeps their turn
+                    List<UUID> remaining = polled.subList(i, polled.size());
+                    for (int j = remaining.size() - 1; j >= 0; j--) {
+                        plugin.server().getPlayer(remaining.get(j)).ifPresent(waiting -> requeue(waiting, group, config));
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans and starts {@code player}'s connection. Returns {@code false}, leaving the player
+     * out of the queue, when the group has no lobby for them after all.
+     */
+    private boolean admit(Player player, String group, Config config, Map<String, Integer> counts) {
+        String source = player.getCurrentServer().map(current -> current.getServerInfo().getName()).orElse("");
+        RouteDecision decision = routePlanner.planConnectionForGroup(group, source, config, counts, player.getUniqueId());
+        Optional<RegisteredServer> target = decision.hasSelection()
+                ? plugin.server().getServer(decision.selectedServer())
+                : Optional.empty();
+        if (target.isEmpty()) {
+            return false;
+        }
+        counts.merge(decision.selectedServer().toLowerCase(Locale.ROOT), 1, Integer::sum);
+        player.sendMessage(MessageFormatter.render(config.messages().connecting(),
+                Map.of("server", decision.selectedServer(), "player", player.getUsername()), player));
+        ConnectionWorkflow.connectWithRetry(plugin, player, config, target.get(), decision, "queue")
+                .thenAccept(connected -> {
+                    if (!connected) {
+                        requeue(player, group, config);
+                    }
+                });
+        return true;
+    }
+
+    /**
+     * Returns a player whose admission fell through to the front of their lane.
+     */
+    private void requeue(Player player, String group, Config config) {
+        if (!player.isActive() || !config.queue().enabled()) {
+            return;
+        }
+        LobbyQueue.Position position = queue.requeue(player.getUniqueId(), group, config.queue().laneFor(player::hasPermission));
+        player.sendMessage(render(config.queue(), position, player));
+    }
+
+    /**
+     * Player counts of online lobbies, taken from the proxy's own connections.
+     */
+    private Map<String, Integer> liveCounts(Config config) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String name : plugin.routeableServers(config).keySet()) {
+            int players = plugin.server().getServer(name)
+                    .map(server -> server.getPlayersConnected().size())
+                    .orElse(0);
+            counts.put(name.toLowerCase(Locale.ROOT), players);
+        }
+        return counts;
+    }
+
+    private Component render(Config.QueueSettings settings, LobbyQueue.Position position, Player player) {
+        return MessageFormatter.render(settings.message(), Map.of(
+                "position", String.valueOf(position.position()),
+                "size", String.valueOf(position.size()),
+                "group", position.group(),
+                "player", player.getUsername()
+        ), player);
+    }
+}
@@ -35,10 +35,15 @@ public final class LobbyRouter {
     }
 
     public CompletableFuture<RouteDecision> preview(Player player, Config config) {
-        String sourceServer = player.getCurrentServer()
-                .map(current -> current.getServerInfo().getName())
-                .orElse("");
-        return preview(sourceServer, config, player.getUniqueId());
+        return plan(sourceOf(player), config, player.getUniqueId(), false);
+    }
+
+    /**
+     * Plans the route of a player who will be connected to the result, taking admission
+     * tokens for the lobby and group it selects.
+     */
+    public CompletableFuture<RouteDecision> route(Player player, Config config) {
+        return plan(sourceOf(player), config, player.getUniqueId(), true);
     }
 
     public CompletableFuture<RouteDecision> preview(String sourceServer, Config config) {
@@ -46,9 +51,38 @@ public final class LobbyRouter {
     }
 
     public CompletableFuture<RouteDecision> preview(String sourceServer, Config config, UUID playerId) {
+        return plan(sourceServer, config, playerId, false);
+    }
+
+    private CompletableFuture<RouteDecision> plan(String sourceServer, Config config, UUID playerId, boolean connecting) {
         Set<String> targets = routePlanner.inspectionTargets(sourceServer, config);
         return healthService.inspectServers(targets, config.healthChecks())
-                .thenApply(statuses -> routePlanner.plan(sourceServer, config, onlinePlayers(statuses), playerId));
+                .thenCompose(statuses -> {
+                    RouteDecision decision = plan(sourceServer, config, onlinePlayers(statuses), playerId, connecting);
+                    if (decision.hasSelection()) {
+                        return CompletableFuture.completedFuture(decision);
+                    }
+                    // An empty aperture window opens up to the whole group; inspect the
+                    // newly visible lobbies once before giving up.
+                    Set<String> widened = routePlanner.inspectionTargets(sourceServer, config);
+                    if (targets.containsAll(widened)) {
+                        return CompletableFuture.completedFuture(decision);
+                    }
+                    return healthService.inspectServers(widened, config.healthChecks())
+                            .thenApply(retried -> plan(sourceServer, config, onlinePlayers(retried), playerId, connecting));
+                });
+    }
+
+    private RouteDecision plan(String sourceServer, Config config, Map<String, Integer> online, UUID playerId, boolean connecting) {
+        return connecting
+                ? routePlanner.planConnection(sourceServer, config, online, playerId)
+                : routePlanner.plan(sourceServer, config, online, playerId);
+    }
+
+    private static String sourceOf(Player player) {
+        return player.getCurrentServer()
+                .map(current -> current.getServerInfo().getName())
+                .orElse("");
     }
 
     private Map<String, Integer> onlinePlayers(Map<String, ServerHealthService.ServerStatus> statuses) {
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a MaxMind DB ({@code .mmdb}) file.
+ * <p>
+ * The file is memory-mapped once and never copied onto the heap. A lookup walks the
+ * binary search tree bit by bit straight on the mapped buffer, then decodes only the
+ * country and continent codes of the record it lands on, skipping every other field.
+ * Absolute reads leave the buffer's position alone, so lookups need no locking.
+ */
+final class MaxMindDatabase {
+
+    private static final byte[] METADATA_MARKER = {
+            (byte) 0xAB, (byte) 0xCD, (byte) 0xEF, 'M', 'a', 'x', 'M', 'i', 'n', 'd', '.', 'c', 'o', 'm'
+    };
+    private static final int METADATA_SEARCH_BYTES = 128 * 1024;
+    private static final int DATA_SEPARATOR_BYTES = 16;
+
+    private static final int POINTER = 1;
+    private static final int STRING = 2;
+    private static final int MAP = 7;
+    private static final int ARRAY = 11;
+    private static final int BOOLEAN = 14;
+
+    private static final byte[] COUNTRY = key("country");
+    private static final byte[] REGISTERED_COUNTRY = key("registered_country");
+    private static final byte[] ISO_CODE = key("iso_code");
+    private static final byte[] CONTINENT = key("continent");
+    private static final byte[] CODE = key("code");
+
+    /**
+     * Codes stored for one network, and the prefix length of that network.
+     */
+    record Result(String country, String continent, int prefixLength) {
+    }
+
+    private final ByteBuffer buffer;
+    private final int nodeCount;
+    private final int recordSize;
+    private final int nodeBytes;
+    private final int ipVersion;
+    private final long buildEpoch;
+    private final int treeSize;
+    private final int ipv4Start;
+
+    private MaxMindDatabase(ByteBuffer buffer, int nodeCount, int recordSize, int ipVersion, long buildEpoch) throws IOException {
+        this.buffer = buffer;
+        this.nodeCount = nodeCount;
+        this.recordSize = recordSize;
+        this.nodeBytes = recordSize / 4;
+        this.ipVersion = ipVersion;
+        this.buildEpoch = buildEpoch;
+        this.treeSize = nodeCount * nodeBytes;
+        if ((long) treeSize + DATA_SEPARATOR_BYTES > buffer.capacity()) {
+            throw new IOException("Search tree is larger than the file");
+        }
+        // IPv4 addresses live under ::/96 of an IPv6 tree
+        int node = 0;
+        if (ipVersion == 6) {
+            for (int i = 0; i < 96 && node < nodeCount; i++) {
+                node = record(node, 0);
+            }
+        }
+        this.ipv4Start = node;
+    }
+
+    static MaxMindDatabase open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Database is larger than 2 GiB");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int metadata = findMetadata(buffer);
+        if (metadata < 0) {
+            throw new IOException("No MaxMind DB metadata found; is this an .mmdb file?");
+        }
+        Decoder decoder = new Decoder(buffer, metadata);
+        long major = decoder.unsigned(decoder.find(metadata, key("binary_format_major_version")));
+        long nodeCount = decoder.unsigned(decoder.find(metadata, key("node_count")));
+        long recordSize = decoder.unsigned(decoder.find(metadata, key("record_size")));
+        long ipVersion = decoder.unsigned(decoder.find(metadata, key("ip_version")));
+        long buildEpoch = decoder.unsigned(decoder.find(metadata, key("build_epoch")));
+        if (major != 2) {
+            throw new IOException("Unsupported MaxMind DB format version " + major);
+        }
+        if (recordSize != 24 && recordSize != 28 && recordSize != 32) {
+            throw new IOException("Unsupported record size " + recordSize);
+        }
+        if (ipVersion != 4 && ipVersion != 6) {
+            throw new IOException("Unsupported IP version " + ipVersion);
+        }
+        if (nodeCount <= 0 || nodeCount * (recordSize / 4) > buffer.capacity()) {
+            throw new IOException("Invalid node count " + nodeCount);
+        }
+        return new MaxMindDatabase(buffer, (int) nodeCount, (int) recordSize, (int) ipVersion, buildEpoch);
+    }
+
+    int ipVersion() {
+        return ipVersion;
+    }
+
+    /**
+     * Seconds since the epoch when the database was built, or -1 if it does not say.
+     */
+    long buildEpoch() {
+        return buildEpoch;
+    }
+
+    /**
+     * Codes for {@code address} (4 or 16 bytes); both are {@code null} when no network in the
+     * database contains it. The prefix length counts bits of {@code address} itself. Returns
+     * {@code null} if the address does not fit the database or the tree is corrupt.
+     */
+    Result lookup(byte[] address) {
+        int bits = address.length * 8;
+        int node;
+        if (address.length == 4) {
+            node = ipv4Start;
+        } else if (ipVersion == 6) {
+            node = 0;
+        } else {
+            return null;
+        }
+
+        int depth = 0;
+        while (depth < bits && node < nodeCount) {
+            int bit = (address[depth >> 3] >>> (7 - (depth & 7))) & 1;
+            node = record(node, bit);
+            depth++;
+        }
+        if (node == nodeCount) {
+            return new Result(null, null, depth);
+        }
+        if (node < nodeCount) {
+            return null;
+        }
+
+        int dataStart = treeSize + DATA_SEPARATOR_BYTES;
+        int offset = treeSize + (node - nodeCount);
+        if (offset < dataStart || offset >= buffer.capacity()) {
+            return null;
+        }
+        Decoder decoder = new Decoder(buffer, dataStart);
+        int country = decoder.find(offset, COUNTRY);
+        if (country < 0) {
+            country = decoder.find(offset, REGISTERED_COUNTRY);
+        }
+        int continent = decoder.find(offset, CONTINENT);
+        return new Result(
+                country < 0 ? null : decoder.string(decoder.find(country, ISO_CODE)),
+                continent < 0 ? null : decoder.string(decoder.find(continent, CODE)),
+                depth
+        );
+    }
+
+    private int record(int node, int bit) {
+        int offset = node * nodeBytes;
+        switch (recordSize) {
+            case 24:
+                return u24(offset + bit * 3);
+            case 28:
+                int middle = u8(offset + 3);
+                return bit == 0
+                        ? ((middle & 0xF0) << 20) | u24(offset)
+                        : ((middle & 0x0F) << 24) | u24(offset + 4);
+            default:
+                return buffer.getInt(offset + bit * 4);
+        }
+    }
+
+    private int u8(int offset) {
+        return buffer.get(offset) & 0xFF;
+    }
+
+    private int u24(int offset) {
+        return (u8(offset) << 16) | (u8(offset + 1) << 8) | u8(offset + 2);
+    }
+
+    private static int findMetadata(ByteBuffer buffer) {
+        int limit = Math.max(0, buffer.capacity() - METADATA_SEARCH_BYTES);
+        outer:
+        for (int start = buffer.capacity() - METADATA_MARKER.length; start >= limit; start--) {
+            for (int i = 0; i < METADATA_MARKER.length; i++) {
+                if (buffer.get(start + i) != METADATA_MARKER[i]) {
+                    continue outer;
+                }
+            }
+            return start + METADATA_MARKER.length;
+        }
+        return -1;
+    }
+
+    private static byte[] key(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Walks values of one data section. Pointers are relative to {@code base}.
+     */
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private final int base;
+        private int type;
+        private int size;
+
+        private Decoder(ByteBuffer buffer, int base) {
+            this.buffer = buffer;
+            this.base = base;
+        }
+
+        /**
+         * Reads the control bytes at {@code offset}, following a pointer, into {@link #type}
+         * and {@link #size}. Returns where the value's payload starts.
+         */
+        private int header(int offset) {
+            int control = u8(offset++);
+            int kind = control >>> 5;
+            if (kind == POINTER) {
+                return header(base + pointer(control, offset));
+            }
+            if (kind == 0) {
+                kind = 7 + u8(offset++);
+            }
+            int length = control & 0x1F;
+            if (length == 29) {
+                length = 29 + u8(offset++);
+            } else if (length == 30) {
+                length = 285 + ((u8(offset) << 8) | u8(offset + 1));
+                offset += 2;
+            } else if (length == 31) {
+                length = 65_821 + ((u8(offset) << 16) | (u8(offset + 1) << 8) | u8(offset + 2));
+                offset += 3;
+            }
+            type = kind;
+            size = length;
+            return offset;
+        }
+
+        private int pointer(int control, int offset) {
+            int high = control & 0x07;
+            switch ((control >>> 3) & 0x03) {
+                case 0:
+                    return (high << 8) | u8(offset);
+                case 1:
+                    return ((high << 16) | (u8(offset) << 8) | u8(offset + 1)) + 2_048;
+                case 2:
+                    return ((high << 24) | (u8(offset) << 16) | (u8(offset + 1) << 8) | u8(offset + 2)) + 526_336;
+                default:
+                    return buffer.getInt(offset);
+            }
+        }
+
+        /**
+         * Offset just past the value at {@code offset}; a pointer spans only its own bytes.
+         */
+        private int skip(int offset) {
+            int control = u8(offset);
+            if (control >>> 5 == POINTER) {
+                return offset + 2 + ((control >>> 3) & 0x03);
+            }
+            int payload = header(offset);
+            int kind = type;
+            int length = size;
+            if (kind == MAP) {
+                for (int i = 0; i < length; i++) {
+                    payload = skip(skip(payload));
+                }
+                return payload;
+            }
+            if (kind == ARRAY) {
+                for (int i = 0; i < length; i++) {
+                    payload = skip(payload);
+                }
+                return payload;
+            }
+            return kind == BOOLEAN ? payload : payload + length;
+        }
+
+        /**
+         * Offset of the value stored under {@code key} in the map at {@code offset}, or -1.
+         */
+        private int find(int offset, byte[] key) {
+            if (offset < 0) {
+                return -1;
+            }
+            int cursor = header(offset);
+            if (type != MAP) {
+                return -1;
+            }
+            int entries = size;
+            for (int i = 0; i < entries; i++) {
+                int keyStart = header(cursor);
+                boolean matches = type == STRING && size == key.length && bytesEqual(keyStart, key);
+                cursor = skip(cursor);
+                if (matches) {
+                    return cursor;
+                }
+                cursor = skip(cursor);
+            }
+            return -1;
+        }
+
+        private String string(int offset) {
+            if (offset < 0) {
+                return null;
+            }
+            int payload = header(offset);
+            if (type != STRING) {
+                return null;
+            }
+            byte[] bytes = new byte[size];
+            buffer.get(payload, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Value of the unsigned or signed integer at {@code offset}, or -1.
+         */
+        private long unsigned(int offset) {
+            if (offset < 0) {
+                return -1;
+            }
+            int payload = header(offset);
+            if ((type != 5 && type != 6 && type != 8 && type != 9) || size > 8) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = 0; i < size; i++) {
+                value = (value << 8) | u8(payload + i);
+            }
+            return value;
+        }
+
+        private boolean bytesEqual(int offset, byte[] key) {
+            for (int i = 0; i < key.length; i++) {
+                if (buffer.get(offset + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int u8(int offset) {
+            return buffer.get(offset) & 0xFF;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.demonz.velocitynavigator;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
@@ -26,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public final class NavigatorAdminCommand implements SimpleCommand {
@@ -109,6 +111,9 @@ public final class NavigatorAdminCommand implements SimpleCommand {
         }
 
         if ("drain".equalsIgnoreCase(args[0])) {
+            if (args.length == 3 && !"status".equalsIgnoreCase(args[1])) {
+                return "migrate".startsWith(args[2].toLowerCase(Locale.ROOT)) ? List.of("migrate") : List.of();
+            }
             if (args.length == 2) {
                 String partial = args[1].toLowerCase(Locale.ROOT);
                 List<String> options = new ArrayList<>(DRAIN_SUBCOMMANDS);
@@ -149,13 +154,14 @@ public final class NavigatorAdminCommand implements SimpleCommand {
     }
 
     private void reload(CommandSource source) {
-        try {
-            plugin.reloadConfiguration();
-            source.sendMessage(MessageFormatter.render(plugin.config().messages().reloadSuccess()));
-        } catch (IOException exception) {
+        plugin.reloadConfigurationAsync().whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                source.sendMessage(MessageFormatter.render(plugin.config().messages().reloadSuccess()));
+                return;
+            }
             source.sendMessage(MessageFormatter.render(plugin.config().messages().reloadFailed()));
-            plugin.logger().error("VelocityNavigator reload failed.", exception);
-        }
+            plugin.logger().error("VelocityNavigator reload failed.", throwable.getCause() == null ? throwable : throwable.getCause());
+        });
     }
 
     private void updateCheck(CommandSource source) {
@@ -204,7 +210,7 @@ public final class NavigatorAdminCommand implements SimpleCommand {
 
     private void drain(CommandSource source, String[] arguments) {
         if (arguments.length < 2) {
-            source.sendMessage(Component.text("Usage: /vn drain <server> | /vn undrain <server> | /vn drain status", NamedTextColor.YELLOW));
+            source.sendMessage(Component.text("Usage: /vn drain <server> [migrate] | /vn undrain <server> | /vn drain status", NamedTextColor.YELLOW));
             return;
         }
 
@@ -224,7 +230,7 @@ public final class NavigatorAdminCommand implements SimpleCommand {
                 source.sendMessage(MessageFormatter.render("<gradient:#8EF7FF:#D9F7FF><bold>Drained Servers</bold></gradient>"));
                 for (Map.Entry<String, Boolean> entry : state.entrySet()) {
                     if (entry.getValue()) {
-                        source.sendMessage(Component.text("  - " + entry.getKey(), NamedTextColor.RED));
+                        source.sendMessage(Component.text("  - " + entry.getKey() + migrationSummary(entry.getKey()), NamedTextColor.RED));
                     }
                 }
             }
@@ -237,6 +243,7 @@ public final class NavigatorAdminCommand implements SimpleCommand {
                 return;
             }
             String serverName = arguments[2];
+            stopMigration(serverName);
             plugin.drainService().undrain(serverName.toLowerCase(Locale.ROOT));
             source.sendMessage(Component.text("Server '" + serverName + "' is no longer drained.", NamedTextColor.GREEN));
             return;
@@ -244,7 +251,14 @@ public final class NavigatorAdminCommand implements SimpleCommand {
 
         // Default: drain the server (also handles servers named "status"/"undrain")
         String serverName = arguments[1];
-        plugin.drainService().drain(serverName.toLowerCase(Locale.ROOT));
+        if (arguments.length >= 3 && "migrate".equalsIgnoreCase(arguments[2])) {
+            migrate(source, serverName);
+            return;
+        }
+        if (!plugin.drainService().drain(serverName.toLowerCase(Locale.ROOT))) {
+            source.sendMessage(Component.text("Unknown server '" + serverName + "'.", NamedTextColor.RED));
+            return;
+        }
         source.sendMessage(Component.text("Server '" + serverName + "' is now drained. No players will be routed to it.", NamedTextColor.YELLOW));
     }
 
@@ -254,10 +268,37 @@ public final class NavigatorAdminCommand implements SimpleCommand {
             return;
         }
         String serverName = arguments[1];
+        stopMigration(serverName);
         plugin.drainService().undrain(serverName.toLowerCase(Locale.ROOT));
         source.sendMessage(Component.text("Server '" + serverName + "' is no longer drained.", NamedTextColor.GREEN));
     }
 
+    private void migrate(CommandSource source, String serverName) {
+        Config config = plugin.config();
+        Optional<RegisteredServer> server = plugin.server().getServer(serverName);
+        if (server.isEmpty() || config == null || plugin.drainMigrator() == null) {
+            source.sendMessage(Component.text("Unknown server '" + serverName + "'.", NamedTextColor.RED));
+            return;
+        }
+        int players = plugin.drainMigrator().start(server.get(), config, source);
+        source.sendMessage(Component.text("Server '" + serverName + "' is now drained. Moving " + players + " player(s) in batches of "
+                + config.drain().batchSize() + " every " + config.drain().batchIntervalSeconds() + "s.", NamedTextColor.YELLOW));
+    }
+
+    private void stopMigration(String serverName) {
+        if (plugin.drainMigrator() != null) {
+            plugin.drainMigrator().cancel(serverName);
+        }
+    }
+
+    private String migrationSummary(String serverName) {
+        return plugin.drainService().migration(serverName)
+                .map(progress -> " (migrating: " + progress.moved() + "/" + progress.initialPlayers() + " moved, "
+                        + progress.failed() + " failed, "
+                        + progress.remainingMillis(plugin.drainService().nowMillis()) / 1000L + "s left)")
+                .orElse("");
+    }
+
     private void setup(CommandSource source, String[] arguments) {
         if (arguments.length < 2) {
             source.sendMessage(Component.text("Usage: /velocitynavigator setup grafana", NamedTextColor.YELLOW));
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Player counts of the online servers for one plan, indexed by {@link ServerRegistry} ID.
+ * <p>
+ * Built once from the proxy's name-keyed counts, so the planner's per-lobby checks are
+ * array reads instead of lower-casing and hashing every name. Servers that were never
+ * interned can still be routed to and are kept by lower-cased name.
+ */
+final class OnlineCounts {
+
+    private static final int OFFLINE = -1;
+
+    private final ServerRegistry registry;
+    private final int[] counts;
+    private final Map<String, Integer> unregistered;
+
+    private OnlineCounts(ServerRegistry registry, int[] counts, Map<String, Integer> unregistered) {
+        this.registry = registry;
+        this.counts = counts;
+        this.unregistered = unregistered;
+    }
+
+    static OnlineCounts of(Map<String, Integer> onlineServers) {
+        return of(onlineServers, ServerRegistry.shared());
+    }
+
+    static OnlineCounts of(Map<String, Integer> onlineServers, ServerRegistry registry) {
+        int[] counts = new int[registry.size()];
+        Arrays.fill(counts, OFFLINE);
+        Map<String, Integer> unregistered = Map.of();
+        if (onlineServers != null) {
+            for (Map.Entry<String, Integer> entry : onlineServers.entrySet()) {
+                int id = registry.idOf(entry.getKey());
+                int count = entry.getValue() == null ? 0 : Math.max(0, entry.getValue());
+                if (id != ServerRegistry.UNKNOWN && id < counts.length) {
+                    counts[id] = count;
+                } else {
+                    if (unregistered.isEmpty()) {
+                        unregistered = new HashMap<>();
+                    }
+                    unregistered.put(ServerRegistry.normalize(entry.getKey()), count);
+                }
+            }
+        }
+        return new OnlineCounts(registry, counts, unregistered);
+    }
+
+    ServerRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Players on the server with {@code id}, spelled {@code serverName}, or {@code -1}
+     * if it is offline.
+     */
+    int count(int id, String serverName) {
+        if (id >= 0 && id < counts.length) {
+            return counts[id];
+        }
+        if (unregistered.isEmpty()) {
+            return OFFLINE;
+        }
+        Integer count = unregistered.get(ServerRegistry.normalize(serverName));
+        return count == null ? OFFLINE : count;
+    }
+
+    /**
+     * Players on {@code serverName}, or {@code -1} if it is offline.
+     */
+    int count(String serverName) {
+        return count(registry.idOf(serverName), serverName);
+    }
+
+    boolean isOnline(String serverName) {
+        return count(serverName) >= 0;
+    }
+}
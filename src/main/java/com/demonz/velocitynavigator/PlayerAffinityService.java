@@ -16,52 +16,88 @@
 package com.demonz.velocitynavigator;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Remembers each player's last lobby for a while so the planner can send them back.
+ * <p>
+ * Entries live in an {@link AffinityStore}, bounded to {@code maxEntries} players and
+ * expired in coarse ticks of up to a second. The service survives config reloads;
+ * only its stickiness is updated in place.
+ */
 public final class PlayerAffinityService {
 
+    static final int DEFAULT_MAX_ENTRIES = 250_000;
+
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
 
-    private final ConcurrentMap<UUID, AffinityEntry> affinityMap = new ConcurrentHashMap<>();
-    private final double stickiness;
-    private final Duration ttl;
+    private final AtomicLong spills = new AtomicLong();
+    private final TimeSource time;
+    private final long origin;
+    private final long tickMillis;
+    private final long ttlTicks;
+    private final int maxEntries;
+    private final AffinityStore store;
+    private volatile double stickiness;
 
     public PlayerAffinityService(double stickiness) {
-        this(stickiness, DEFAULT_TTL);
+        this(stickiness, DEFAULT_MAX_ENTRIES);
+    }
+
+    public PlayerAffinityService(double stickiness, int maxEntries) {
+        this(stickiness, DEFAULT_TTL, maxEntries, TimeSource.system());
     }
 
     PlayerAffinityService(double stickiness, Duration ttl) {
+        this(stickiness, ttl, DEFAULT_MAX_ENTRIES, TimeSource.system());
+    }
+
+    PlayerAffinityService(double stickiness, Duration ttl, int maxEntries, TimeSource time) {
+        setStickiness(stickiness);
+        Duration effectiveTtl = ttl == null || ttl.isNegative() || ttl.isZero() ? DEFAULT_TTL : ttl;
+        this.time = time;
+        this.origin = time.coarseMillis();
+        // About sixty ticks per TTL, at most one a second
+        this.tickMillis = Math.max(1L, Math.min(1000L, effectiveTtl.toMillis() / 60));
+        this.ttlTicks = Math.max(1L, (effectiveTtl.toMillis() + tickMillis - 1) / tickMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.store = new AffinityStore(this.maxEntries, 0L);
+    }
+
+    public void setStickiness(double stickiness) {
         this.stickiness = Math.max(0.0, Math.min(1.0, stickiness));
-        this.ttl = ttl == null || ttl.isNegative() || ttl.isZero() ? DEFAULT_TTL : ttl;
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * How long a new affinity lasts.
+     */
+    public long ttlMillis() {
+        return ttlTicks * tickMillis;
     }
 
     public void setAffinity(UUID playerId, String serverName) {
         if (playerId == null || serverName == null || serverName.isBlank()) {
             return;
         }
-        affinityMap.put(playerId, new AffinityEntry(serverName, Instant.now()));
+        long now = currentTick();
+        // A player who spilled away from a busy lobby keeps it as their preference
+        store.put(playerId, serverName, now, now + ttlTicks);
     }
 
     public Optional<String> getAffinity(UUID playerId) {
-        AffinityEntry entry = affinityMap.get(playerId);
-        if (entry == null) {
-            return Optional.empty();
-        }
-        if (isExpired(entry, Instant.now())) {
-            affinityMap.remove(playerId, entry);
-            return Optional.empty();
-        }
-        return Optional.of(entry.serverName());
+        return Optional.ofNullable(store.get(playerId, currentTick()));
     }
 
     public void removeAffinity(UUID playerId) {
-        affinityMap.remove(playerId);
+        store.remove(playerId);
     }
 
     /**
@@ -69,53 +105,107 @@ public final class PlayerAffinityService {
      * Returns the affinity server name if the player should stick, empty otherwise.
      */
     public Optional<String> shouldStick(UUID playerId, java.util.List<String> candidates) {
-        AffinityEntry entry = affinityMap.get(playerId);
-        if (entry == null) {
-            return Optional.empty();
-        }
-        if (isExpired(entry, Instant.now())) {
-            affinityMap.remove(playerId, entry);
+        return shouldStick(playerId, candidates, Map.of(), 1.0, false);
+    }
+
+    /**
+     * Load-aware variant of {@link #shouldStick(UUID, java.util.List)}: the player only
+     * sticks while the affinity lobby's utilization is at most {@code loadMargin} above
+     * the least utilized candidate. Otherwise they spill to normal selection, and with
+     * {@code keepAsPreference} their affinity survives the connect to the spill lobby.
+     */
+    public Optional<String> shouldStick(UUID playerId, java.util.List<String> candidates,
+                                        Map<String, Double> utilization, double loadMargin, boolean keepAsPreference) {
+        String affinity = store.get(playerId, currentTick());
+        if (affinity == null || !candidates.contains(affinity)) {
             return Optional.empty();
         }
-        String affinity = entry.serverName();
-        if (!candidates.contains(affinity)) {
+        if (stickiness < 1.0 && ThreadLocalRandom.current().nextDouble() >= stickiness) {
             return Optional.empty();
         }
-        if (stickiness >= 1.0) {
-            return Optional.of(affinity);
-        }
-        if (ThreadLocalRandom.current().nextDouble() < stickiness) {
-            return Optional.of(affinity);
+        Double own = utilization.get(affinity);
+        if (own != null) {
+            double best = own;
+            for (String candidate : candidates) {
+                best = Math.min(best, utilization.getOrDefault(candidate, own));
+            }
+            if (own - best > loadMargin) {
+                spills.incrementAndGet();
+                if (keepAsPreference) {
+                    store.markPreferred(playerId, affinity);
+                }
+                return Optional.empty();
+            }
         }
-        return Optional.empty();
+        return Optional.of(affinity);
+    }
+
+    /**
+     * Times a player would have stuck to their affinity lobby but was spilled because it was too busy.
+     */
+    public long spillCount() {
+        return spills.get();
     }
 
     public Map<UUID, String> getAll() {
         purgeExpired();
-        Map<UUID, String> snapshot = new java.util.LinkedHashMap<>();
-        for (Map.Entry<UUID, AffinityEntry> entry : affinityMap.entrySet()) {
-            snapshot.put(entry.getKey(), entry.getValue().serverName());
+        return Map.copyOf(store.snapshot());
+    }
+
+    /**
+     * Receives one affinity table slot changed since the last drain, with the absolute
+     * expiry of the player in it, or a {@code null} server once the slot is empty.
+     */
+    public interface SlotVisitor {
+        void visit(int segment, int slots, int slot, long mostSigBits, long leastSigBits,
+                   String serverName, long expiresAtMillis);
+    }
+
+    public int segmentCount() {
+        return store.segmentCount();
+    }
+
+    /**
+     * Visits the table slots changed since the previous call, for snapshots that rewrite
+     * only those; expiries are given relative to {@code nowMillis}.
+     */
+    public void drainChanges(long nowMillis, SlotVisitor visitor) {
+        long now = currentTick();
+        store.drainChanges((segment, slots, slot, high, low, server, expiresTick) ->
+                visitor.visit(segment, slots, slot, high, low, server, nowMillis + (expiresTick - now + 1) * tickMillis));
+    }
+
+    /**
+     * Restores an affinity that expires in {@code remainingMillis} rather than a full TTL.
+     */
+    public void restoreAffinity(UUID playerId, String serverName, long remainingMillis) {
+        if (playerId == null || serverName == null || serverName.isBlank() || remainingMillis <= 0) {
+            return;
         }
-        return Map.copyOf(snapshot);
+        long now = currentTick();
+        store.put(playerId, serverName, now, now + Math.min(ttlTicks, remainingMillis / tickMillis));
     }
 
     public void purgeExpired() {
-        Instant now = Instant.now();
-        for (Map.Entry<UUID, AffinityEntry> entry : affinityMap.entrySet()) {
-            if (isExpired(entry.getValue(), now)) {
-                affinityMap.remove(entry.getKey(), entry.getValue());
-            }
-        }
+        store.expire(currentTick());
     }
 
-    public void clear() {
-        affinityMap.clear();
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Players dropped to stay within {@code max_entries}.
+     */
+    public long evictionCount() {
+        return store.evictions();
     }
 
-    private boolean isExpired(AffinityEntry entry, Instant now) {
-        return entry.updatedAt().plus(ttl).isBefore(now);
+    public void clear() {
+        store.clear();
     }
 
-    private record AffinityEntry(String serverName, Instant updatedAt) {
+    private long currentTick() {
+        return Math.max(0L, time.coarseMillis() - origin) / tickMillis;
     }
 }
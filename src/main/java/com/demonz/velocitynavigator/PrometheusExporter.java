@@ -28,8 +28,8 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -110,14 +110,18 @@ public final class PrometheusExporter {
             sb.append("# HELP velocitynavigator_server_players Number of players currently connected to the server\n");
             sb.append("# TYPE velocitynavigator_server_players gauge\n");
 
+            ServerRegistry registry = ServerRegistry.shared();
             Set<String> trackedServers = trackedServers(config);
-            Set<String> trackedServerKeys = new LinkedHashSet<>();
+            BitSet trackedIds = new BitSet();
             for (String trackedServer : trackedServers) {
-                trackedServerKeys.add(trackedServer.toLowerCase(Locale.ROOT));
+                int id = registry.idOf(trackedServer);
+                if (id != ServerRegistry.UNKNOWN) {
+                    trackedIds.set(id);
+                }
             }
-            Map<String, Integer> cachedOnlineServers = plugin.healthService() == null
+            OnlineCounts cachedOnlineServers = OnlineCounts.of(plugin.healthService() == null
                     ? Map.of()
-                    : plugin.healthService().getCachedOnlineServers();
+                    : plugin.healthService().getCachedOnlineServers(), registry);
             boolean healthFilteringDisabled = plugin.healthService() == null
                     || config == null
                     || !config.healthChecks().enabled();
@@ -125,11 +129,11 @@ public final class PrometheusExporter {
             for (RegisteredServer regServer : proxy.getAllServers()) {
                 String name = regServer.getServerInfo().getName();
                 String label = "{server=\"" + escapeLabelValue(name) + "\"}";
-                String lowerName = name.toLowerCase(Locale.ROOT);
+                int id = registry.idOf(name);
                 int players = regServer.getPlayersConnected().size();
-                boolean tracked = trackedServerKeys.contains(lowerName);
+                boolean tracked = id != ServerRegistry.UNKNOWN && trackedIds.get(id);
                 if (tracked) {
-                    boolean online = shouldReportServerOnline(healthFilteringDisabled, true, cachedOnlineServers.containsKey(lowerName));
+                    boolean online = shouldReportServerOnline(healthFilteringDisabled, true, cachedOnlineServers.count(id, name) >= 0);
                     sb.append("velocitynavigator_server_online").append(label).append(" ").append(online ? "1.0" : "0.0").append("\n");
                 }
                 sb.append("velocitynavigator_server_players").append(label).append(" ").append(players).append(".0\n");
@@ -145,22 +149,24 @@ public final class PrometheusExporter {
             sb.append("# HELP velocitynavigator_server_drained Whether the lobby server is drained (1 = drained, 0 = active)\n");
             sb.append("# TYPE velocitynavigator_server_drained gauge\n");
 
+            sb.append("# HELP velocitynavigator_server_slow_start_factor Share of normal traffic the lobby currently receives while warming up (1 = fully warm)\n");
+            sb.append("# TYPE velocitynavigator_server_slow_start_factor gauge\n");
+
             sb.append("# HELP velocitynavigator_routed_connections_total Total connection attempts routed through the plugin per server\n");
             sb.append("# TYPE velocitynavigator_routed_connections_total counter\n");
 
-            Map<String, Long> latencies = plugin.getHealthCheckLatencies();
             Map<String, Long> distribution = plugin.routingStats().getCumulativeDistribution();
-            Map<String, CircuitBreaker.State> cbStatuses = plugin.getCircuitBreakerStatuses();
+            ServerHealthService healthService = plugin.healthService();
+            CircuitBreaker circuitBreaker = plugin.circuitBreaker();
 
             for (String serverName : trackedServers) {
                 String label = "{server=\"" + escapeLabelValue(serverName) + "\"}";
-                String lowerName = serverName.toLowerCase(Locale.ROOT);
+                int id = registry.idOf(serverName);
 
-                long latency = latencies.getOrDefault(lowerName, -1L);
+                long latency = healthService == null ? -1L : healthService.latency(id);
                 sb.append("velocitynavigator_server_latency_ms").append(label).append(" ").append(latency).append(".0\n");
 
-                CircuitBreaker.State state = cbStatuses.getOrDefault(serverName,
-                        cbStatuses.getOrDefault(lowerName, CircuitBreaker.State.CLOSED));
+                CircuitBreaker.State state = circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState(serverName);
                 int cbValue = switch (state) {
                     case CLOSED -> 0;
                     case HALF_OPEN -> 1;
@@ -168,9 +174,14 @@ public final class PrometheusExporter {
                 };
                 sb.append("velocitynavigator_server_circuit_breaker").append(label).append(" ").append(cbValue).append(".0\n");
 
-                boolean isDrained = plugin.drainService().isDrained(lowerName);
+                boolean isDrained = plugin.drainService().isDrained(id);
                 sb.append("velocitynavigator_server_drained").append(label).append(" ").append(isDrained ? "1.0" : "0.0").append("\n");
 
+                double rampFactor = plugin.slowStartTracker() == null || config == null
+                        ? 1.0
+                        : plugin.slowStartTracker().factor(id, config.slowStart());
+                sb.append("velocitynavigator_server_slow_start_factor").append(label).append(" ").append(rampFactor).append("\n");
+
                 long routed = distribution.getOrDefault(serverName, 0L);
                 sb.append("velocitynavigator_routed_connections_total").append(label).append(" ").append(routed).append(".0\n");
             }
@@ -219,6 +230,152 @@ public final class PrometheusExporter {
             sb.append("velocitynavigator_fallback_events_total{type=\"retry\"} ").append(retryFallbacks).append(".0\n");
             sb.append("velocitynavigator_fallback_events_total{type=\"contextual\"} ").append(contextualFallbacks).append(".0\n");
 
+            // Expose aperture window widths per group
+            sb.append("# HELP velocitynavigator_aperture_width Number of lobbies in this proxy's aperture window per group\n");
+            sb.append("# TYPE velocitynavigator_aperture_width gauge\n");
+            if (config != null && config.aperture().enabled()) {
+                for (Map.Entry<String, Integer> entry : plugin.apertureSelector().widths().entrySet()) {
+                    sb.append("velocitynavigator_aperture_width{group=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                      .append(entry.getValue()).append(".0\n");
+                }
+            }
+
+            // Expose adaptive concurrency limits
+            sb.append("# HELP velocitynavigator_server_concurrency_limit Adaptive limit on in-flight connection attempts per lobby\n");
+            sb.append("# TYPE velocitynavigator_server_concurrency_limit gauge\n");
+            sb.append("# HELP velocitynavigator_server_connections_in_flight Connection attempts currently in flight per lobby\n");
+            sb.append("# TYPE velocitynavigator_server_connections_in_flight gauge\n");
+            if (config != null && config.concurrency().enabled()) {
+                for (Map.Entry<String, Integer> entry : plugin.concurrencyLimiter().limits().entrySet()) {
+                    String label = "{server=\"" + escapeLabelValue(entry.getKey()) + "\"}";
+                    sb.append("velocitynavigator_server_concurrency_limit").append(label).append(" ").append(entry.getValue()).append(".0\n");
+                    sb.append("velocitynavigator_server_connections_in_flight").append(label).append(" ")
+                      .append(plugin.concurrencyLimiter().inFlight(entry.getKey())).append(".0\n");
+                }
+            }
+
+            // Expose retry budget usage
+            if (config != null && config.retryBudget().enabled()) {
+                sb.append("# HELP velocitynavigator_retry_budget_used Retries started within the retry budget window\n");
+                sb.append("# TYPE velocitynavigator_retry_budget_used gauge\n");
+                sb.append("velocitynavigator_retry_budget_used ").append(plugin.retryBudget().windowRetries(config.retryBudget())).append(".0\n");
+                sb.append("# HELP velocitynavigator_retry_budget_limit Retries the current retry budget window allows\n");
+                sb.append("# TYPE velocitynavigator_retry_budget_limit gauge\n");
+                sb.append("velocitynavigator_retry_budget_limit ").append(plugin.retryBudget().allowance(config.retryBudget())).append(".0\n");
+            }
+            sb.append("# HELP velocitynavigator_retry_budget_exhausted_total Retries refused because the retry budget was used up\n");
+            sb.append("# TYPE velocitynavigator_retry_budget_exhausted_total counter\n");
+            sb.append("velocitynavigator_retry_budget_exhausted_total ").append(plugin.retryBudget().exhaustedCount()).append(".0\n");
+            sb.append("# HELP velocitynavigator_retry_deadline_exceeded_total Requests that stopped retrying because their deadline passed\n");
+            sb.append("# TYPE velocitynavigator_retry_deadline_exceeded_total counter\n");
+            sb.append("velocitynavigator_retry_deadline_exceeded_total ").append(plugin.retryBudget().deadlinesExceeded()).append(".0\n");
+
+            // Expose crash evacuations
+            if (plugin.evacuationService() != null) {
+                sb.append("# HELP velocitynavigator_evacuations_total Players redirected after being kicked from a failing server\n");
+                sb.append("# TYPE velocitynavigator_evacuations_total counter\n");
+                sb.append("velocitynavigator_evacuations_total ").append(plugin.evacuationService().evacuatedCount()).append(".0\n");
+                sb.append("# HELP velocitynavigator_evacuation_waves_active Servers whose players are currently being evacuated\n");
+                sb.append("# TYPE velocitynavigator_evacuation_waves_active gauge\n");
+                sb.append("velocitynavigator_evacuation_waves_active ").append(plugin.evacuationService().activeWaves()).append(".0\n");
+            }
+
+            if (plugin.affinityService() != null) {
+                sb.append("# HELP velocitynavigator_affinity_spills_total Players not returned to their affinity lobby because it was too busy\n");
+                sb.append("# TYPE velocitynavigator_affinity_spills_total counter\n");
+                sb.append("velocitynavigator_affinity_spills_total ").append(plugin.affinityService().spillCount()).append(".0\n");
+                sb.append("# HELP velocitynavigator_affinity_entries Players with a remembered affinity lobby\n");
+                sb.append("# TYPE velocitynavigator_affinity_entries gauge\n");
+                sb.append("velocitynavigator_affinity_entries ").append(plugin.affinityService().size()).append(".0\n");
+                sb.append("# HELP velocitynavigator_affinity_evictions_total Affinities dropped to stay within max_entries\n");
+                sb.append("# TYPE velocitynavigator_affinity_evictions_total counter\n");
+                sb.append("velocitynavigator_affinity_evictions_total ").append(plugin.affinityService().evictionCount()).append(".0\n");
+            }
+
+            if (plugin.stateSnapshot() != null) {
+                sb.append("# HELP velocitynavigator_state_snapshot_bytes_written_total Bytes copied into state.bin by incremental flushes\n");
+                sb.append("# TYPE velocitynavigator_state_snapshot_bytes_written_total counter\n");
+                sb.append("velocitynavigator_state_snapshot_bytes_written_total ").append(plugin.stateSnapshot().bytesWritten()).append(".0\n");
+            }
+
+            sb.append("# HELP velocitynavigator_rebalance_moves_total Idle players moved off overloaded lobbies by the rebalancer\n");
+            sb.append("# TYPE velocitynavigator_rebalance_moves_total counter\n");
+            sb.append("velocitynavigator_rebalance_moves_total ").append(plugin.loadRebalancer().movedCount()).append(".0\n");
+
+            if (plugin.lobbyQueueService() != null) {
+                LobbyQueue queue = plugin.lobbyQueueService().queue();
+                sb.append("# HELP velocitynavigator_queue_size Players waiting for a full lobby group\n");
+                sb.append("# TYPE velocitynavigator_queue_size gauge\n");
+                for (String group : queue.waitingGroups()) {
+                    sb.append("velocitynavigator_queue_size{group=\"").append(escapeLabelValue(group)).append("\"} ")
+                      .append(queue.size(group)).append(".0\n");
+                }
+                sb.append("# HELP velocitynavigator_queue_admitted_total Players admitted from the lobby queue\n");
+                sb.append("# TYPE velocitynavigator_queue_admitted_total counter\n");
+                sb.append("velocitynavigator_queue_admitted_total ").append(queue.admittedCount()).append(".0\n");
+            }
+
+            sb.append("# HELP velocitynavigator_reserved_tier_players Online players per reserved capacity tier (0 = highest)\n");
+            sb.append("# TYPE velocitynavigator_reserved_tier_players gauge\n");
+            for (Map.Entry<Integer, Integer> entry : plugin.reservedCapacity().tierCounts().entrySet()) {
+                sb.append("velocitynavigator_reserved_tier_players{tier=\"").append(entry.getKey()).append("\"} ")
+                  .append(entry.getValue()).append(".0\n");
+            }
+
+            sb.append("# HELP velocitynavigator_ttl_entries Live per-player entries held by the expiry engine\n");
+            sb.append("# TYPE velocitynavigator_ttl_entries gauge\n");
+            for (Map.Entry<String, Integer> entry : plugin.expiryEngine().liveEntries().entrySet()) {
+                sb.append("velocitynavigator_ttl_entries{kind=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                  .append(entry.getValue()).append(".0\n");
+            }
+
+            sb.append("# HELP velocitynavigator_dynamic_group_members Registered servers matched into each dynamic lobby group\n");
+            sb.append("# TYPE velocitynavigator_dynamic_group_members gauge\n");
+            for (Map.Entry<String, Integer> entry : plugin.dynamicGroups().memberCounts().entrySet()) {
+                sb.append("velocitynavigator_dynamic_group_members{group=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                  .append(entry.getValue()).append(".0\n");
+            }
+
+            GeoRoutingService geo = plugin.geoRoutingService();
+            if (geo != null && geo.isAvailable()) {
+                sb.append("# HELP velocitynavigator_geo_lookups_total Player addresses looked up in the geo database\n");
+                sb.append("# TYPE velocitynavigator_geo_lookups_total counter\n");
+                sb.append("velocitynavigator_geo_lookups_total ").append(geo.lookupCount()).append(".0\n");
+                sb.append("# HELP velocitynavigator_geo_cache_hits_total Geo lookups answered from the per-prefix cache\n");
+                sb.append("# TYPE velocitynavigator_geo_cache_hits_total counter\n");
+                sb.append("velocitynavigator_geo_cache_hits_total ").append(geo.cacheHits()).append(".0\n");
+            }
+
+            ClusterSync cluster = plugin.clusterSync();
+            if (cluster != null) {
+                sb.append("# HELP velocitynavigator_cluster_peers Peer proxies that have answered gossip\n");
+                sb.append("# TYPE velocitynavigator_cluster_peers gauge\n");
+                sb.append("velocitynavigator_cluster_peers ").append(cluster.knownPeers()).append(".0\n");
+                sb.append("# HELP velocitynavigator_cluster_packets_total Gossip packets by direction\n");
+                sb.append("# TYPE velocitynavigator_cluster_packets_total counter\n");
+                sb.append("velocitynavigator_cluster_packets_total{direction=\"sent\"} ").append(cluster.packetsSent()).append(".0\n");
+                sb.append("velocitynavigator_cluster_packets_total{direction=\"received\"} ").append(cluster.packetsReceived()).append(".0\n");
+                sb.append("velocitynavigator_cluster_packets_total{direction=\"rejected\"} ").append(cluster.packetsRejected()).append(".0\n");
+                sb.append("# HELP velocitynavigator_cluster_routed_total Players routed to each lobby by all proxies in the cluster\n");
+                sb.append("# TYPE velocitynavigator_cluster_routed_total counter\n");
+                for (Map.Entry<String, Long> entry : cluster.routedTotals().entrySet()) {
+                    sb.append("velocitynavigator_cluster_routed_total{server=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                      .append(entry.getValue()).append(".0\n");
+                }
+            }
+
+            // Expose admission limiter skips
+            sb.append("# HELP velocitynavigator_admission_throttled_total Times a lobby or group was skipped because its admission bucket was empty\n");
+            sb.append("# TYPE velocitynavigator_admission_throttled_total counter\n");
+            for (Map.Entry<String, Long> entry : plugin.admissionLimiter().getLobbySkipCounts().entrySet()) {
+                sb.append("velocitynavigator_admission_throttled_total{scope=\"lobby\",name=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                  .append(entry.getValue()).append(".0\n");
+            }
+            for (Map.Entry<String, Long> entry : plugin.admissionLimiter().getGroupSkipCounts().entrySet()) {
+                sb.append("velocitynavigator_admission_throttled_total{scope=\"group\",name=\"").append(escapeLabelValue(entry.getKey())).append("\"} ")
+                  .append(entry.getValue()).append(".0\n");
+            }
+
             sb.append("# HELP velocitynavigator_routing_retries_total Total connection retries across all servers\n");
             sb.append("# TYPE velocitynavigator_routing_retries_total counter\n");
             sb.append("velocitynavigator_routing_retries_total ").append(retryFallbacks).append(".0\n");
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps players in lobbies of their own region.
+ * <p>
+ * Regions are the {@code region} attribute of lobbies. For each config the lobbies of
+ * every group are split by region once, so a plan swaps a group's lobby list for the
+ * player's regional list with one lookup. A player's region codes come from the geo
+ * database at login, most specific first; without one they are estimated by comparing
+ * the player's ping with the proxy's ping to the lobbies of each region: a player far
+ * from the proxy is about as far away as the lobbies that are.
+ */
+public final class RegionalRouting {
+
+    private record Located(List<String> codes, boolean estimated) {
+    }
+
+    private final ConcurrentMap<UUID, Located> players = new ConcurrentHashMap<>();
+    private volatile Index index;
+
+    /**
+     * Records the region codes of {@code playerId}, most specific first; {@code estimated}
+     * marks codes guessed from ping, which may be refined later.
+     */
+    public void resolve(UUID playerId, List<String> codes, boolean estimated) {
+        List<String> cleaned = new ArrayList<>();
+        for (String code : codes) {
+            if (code != null && !code.isBlank()) {
+                cleaned.add(code.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (cleaned.isEmpty()) {
+            forget(playerId);
+        } else {
+            players.put(playerId, new Located(List.copyOf(cleaned), estimated));
+        }
+    }
+
+    public void forget(UUID playerId) {
+        if (playerId != null) {
+            players.remove(playerId);
+        }
+    }
+
+    public void clear() {
+        players.clear();
+    }
+
+    public int trackedPlayers() {
+        return players.size();
+    }
+
+    /**
+     * Whether the region of {@code playerId} is unknown or only estimated from ping.
+     */
+    public boolean needsEstimate(UUID playerId) {
+        Located located = players.get(playerId);
+        return located == null || located.estimated();
+    }
+
+    /**
+     * First region code of {@code playerId} that some lobby in {@code config} has, or
+     * {@code null} when regional routing is off or none matches.
+     */
+    public String regionOf(UUID playerId, Config config) {
+        if (playerId == null || !config.regionalRouting().enabled()) {
+            return null;
+        }
+        Located located = players.get(playerId);
+        if (located == null) {
+            return null;
+        }
+        Index current = index(config);
+        for (String code : located.codes()) {
+            if (current.servers.containsKey(code)) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lobbies of {@code group} ({@code "default"} for the default lobbies) in {@code region},
+     * in configured order; empty when the group has none there.
+     */
+    public List<Config.LobbyEntry> candidates(Config config, String group, String region) {
+        Map<String, List<Config.LobbyEntry>> byRegion = index(config).byGroup.get(group);
+        if (byRegion == null) {
+            return List.of();
+        }
+        return byRegion.getOrDefault(region, List.of());
+    }
+
+    /**
+     * Region whose nearest lobby, as pinged from the proxy, is closest in latency to
+     * {@code pingMillis}; {@code null} when the ping or every regional latency is unknown.
+     */
+    public String estimate(Config config, long pingMillis, Map<String, Long> latencies) {
+        if (pingMillis <= 0) {
+            return null;
+        }
+        String best = null;
+        long bestError = Long.MAX_VALUE;
+        for (Map.Entry<String, Set<String>> region : index(config).servers.entrySet()) {
+            long nearest = Long.MAX_VALUE;
+            for (String server : region.getValue()) {
+                Long latency = latencies.get(server);
+                if (latency != null && latency >= 0) {
+                    nearest = Math.min(nearest, latency);
+                }
+            }
+            if (nearest == Long.MAX_VALUE) {
+                continue;
+            }
+            long error = Math.abs(pingMillis - nearest);
+            if (error < bestError) {
+                best = region.getKey();
+                bestError = error;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Share of the capacity of the online lobbies in {@code entries} that is in use, taking
+     * {@code lobbyCapacity} for lobbies without {@code max_players}; 1.0 when none is online.
+     */
+    static double utilization(List<Config.LobbyEntry> entries, OnlineCounts onlineServers, int lobbyCapacity) {
+        long players = 0;
+        long capacity = 0;
+        for (Config.LobbyEntry entry : entries) {
+            int count = onlineServers.count(entry.server());
+            if (count < 0) {
+                continue;
+            }
+            players += count;
+            capacity += entry.maxPlayers() == Config.LobbyEntry.UNCAPPED ? lobbyCapacity : entry.maxPlayers();
+        }
+        return capacity == 0 ? 1.0 : (double) players / capacity;
+    }
+
+    private Index index(Config config) {
+        Index current = index;
+        if (current == null || current.config != config) {
+            current = new Index(config);
+            index = current;
+        }
+        return current;
+    }
+
+    private static final class Index {
+        private final Config config;
+        private final Map<String, Set<String>> servers = new HashMap<>();
+        private final Map<String, Map<String, List<Config.LobbyEntry>>> byGroup = new HashMap<>();
+
+        private Index(Config config) {
+            this.config = config;
+            Map<String, String> regionOf = new HashMap<>();
+            for (Map.Entry<String, Map<String, String>> server : LobbyAttributeIndex.attributesOf(config).entrySet()) {
+                String region = server.getValue().get(Config.LobbyAttributeSettings.REGION);
+                if (region != null) {
+                    String name = server.getKey().toLowerCase(Locale.ROOT);
+                    regionOf.put(name, region);
+                    servers.computeIfAbsent(region, key -> new LinkedHashSet<>()).add(name);
+                }
+            }
+            split(ConfigDiff.DEFAULT_GROUP, config.routing().defaultLobbies(), regionOf);
+            for (Map.Entry<String, Config.GroupConfig> group : config.routing().contextual().groups().entrySet()) {
+                split(group.getKey(), group.getValue().servers(), regionOf);
+            }
+        }
+
+        private void split(String group, List<Config.LobbyEntry> entries, Map<String, String> regionOf) {
+            Map<String, List<Config.LobbyEntry>> byRegion = new HashMap<>();
+            for (Config.LobbyEntry entry : entries) {
+                String region = regionOf.get(entry.server().toLowerCase(Locale.ROOT));
+                if (region != null) {
+                    byRegion.computeIfAbsent(region, key -> new ArrayList<>()).add(entry);
+                }
+            }
+            if (!byRegion.isEmpty()) {
+                byRegion.replaceAll((region, list) -> List.copyOf(list));
+                byGroup.put(group, byRegion);
+            }
+        }
+    }
+}
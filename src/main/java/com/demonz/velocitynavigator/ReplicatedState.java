@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Key-value state shared between proxies, merged as last-writer-wins registers.
+ * <p>
+ * Every entry carries a version and the replica that wrote it; of two entries for one
+ * key, the higher version wins and ties go to the larger replica id, so merging is
+ * commutative and idempotent and replicas converge whatever order deltas arrive in.
+ * Local writes take a version above both the wall clock and the entry they replace.
+ * Counters are kept as one register per writing replica, which only that replica
+ * updates, so summing the registers gives a grow-only counter.
+ * <p>
+ * Each accepted entry gets a local sequence number; {@link #deltaSince} returns what
+ * changed after a sequence a peer has acknowledged, so peers only exchange deltas.
+ */
+final class ReplicatedState {
+
+    /**
+     * One register; {@code expiresAt} is epoch millis, or 0 for entries that never expire.
+     */
+    record Entry(String key, String value, long version, String origin, long expiresAt) {
+
+        boolean supersedes(Entry other) {
+            return other == null
+                    || version > other.version
+                    || version == other.version && origin.compareTo(other.origin) > 0;
+        }
+
+        boolean expired(long nowMillis) {
+            return expiresAt > 0 && expiresAt <= nowMillis;
+        }
+    }
+
+    /**
+     * Entries changed after some sequence, and the sequence they bring a peer up to.
+     */
+    record Delta(List<Entry> entries, long upTo) {
+    }
+
+    private record Slot(Entry entry, long seq) {
+    }
+
+    private final String replicaId;
+    private final Map<String, Slot> entries = new HashMap<>();
+    private final NavigableMap<Long, String> bySeq = new TreeMap<>();
+    private long seq;
+
+    ReplicatedState(String replicaId) {
+        this.replicaId = replicaId;
+    }
+
+    String replicaId() {
+        return replicaId;
+    }
+
+    /**
+     * Writes {@code value} under {@code key} as this replica. Returns the new entry, or
+     * {@code null} when the key already holds that value and expiry.
+     */
+    synchronized Entry write(String key, String value, long expiresAt, long nowMillis) {
+        Slot current = entries.get(key);
+        if (current != null && current.entry.value.equals(value) && current.entry.expiresAt == expiresAt) {
+            return null;
+        }
+        long version = current == null ? nowMillis : Math.max(nowMillis, current.entry.version + 1);
+        Entry entry = new Entry(key, value, version, replicaId, expiresAt);
+        store(entry, current);
+        return entry;
+    }
+
+    /**
+     * Merges an entry from a peer. Returns {@code true} when it replaced the local entry.
+     */
+    synchronized boolean merge(Entry entry, long nowMillis) {
+        if (entry.expired(nowMillis)) {
+            return false;
+        }
+        Slot current = entries.get(entry.key);
+        if (current != null && !entry.supersedes(current.entry)) {
+            return false;
+        }
+        store(entry, current);
+        return true;
+    }
+
+    synchronized Entry get(String key) {
+        Slot slot = entries.get(key);
+        return slot == null ? null : slot.entry;
+    }
+
+    synchronized long lastSeq() {
+        return seq;
+    }
+
+    /**
+     * Entries accepted after {@code afterSeq}, oldest first, that fit in {@code budget}
+     * encoded bytes. Entries written by {@code skipOrigin}, the peer being sent to, are
+     * left out since it already has them or something newer. At least one entry is
+     * returned when any is pending, so an oversized entry cannot stall a peer.
+     */
+    synchronized Delta deltaSince(long afterSeq, int budget, String skipOrigin) {
+        List<Entry> delta = new ArrayList<>();
+        long upTo = afterSeq;
+        int used = 0;
+        for (Map.Entry<Long, String> pending : bySeq.tailMap(afterSeq, false).entrySet()) {
+            Entry entry = entries.get(pending.getValue()).entry;
+            if (!entry.origin.equals(skipOrigin)) {
+                int size = encodedSize(entry);
+                if (!delta.isEmpty() && used + size > budget) {
+                    break;
+                }
+                delta.add(entry);
+                used += size;
+            }
+            upTo = pending.getKey();
+        }
+        return new Delta(delta, upTo);
+    }
+
+    /**
+     * Drops expired entries and returns how many were removed.
+     */
+    synchronized int purge(long nowMillis) {
+        int removed = 0;
+        Iterator<Slot> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Slot slot = iterator.next();
+            if (slot.entry.expired(nowMillis)) {
+                iterator.remove();
+                bySeq.remove(slot.seq);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Bytes {@code entry} takes in a gossip packet.
+     */
+    static int encodedSize(Entry entry) {
+        return 2 + utfLength(entry.key) + 2 + utfLength(entry.value) + 8 + 2 + utfLength(entry.origin) + 8;
+    }
+
+    /**
+     * Length of {@code text} in the modified UTF-8 of {@link java.io.DataOutput#writeUTF}.
+     */
+    static int utfLength(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return length;
+    }
+
+    private void store(Entry entry, Slot current) {
+        if (current != null) {
+            bySeq.remove(current.seq);
+        }
+        long next = ++seq;
+        entries.put(entry.key, new Slot(entry, next));
+        bySeq.put(next, entry.key);
+    }
+}
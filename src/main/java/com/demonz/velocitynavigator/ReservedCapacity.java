@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-session cache of each player's reserved capacity tier.
+ * <p>
+ * Tiers are resolved from permissions once, when the player logs in or the
+ * configuration is reloaded, so the {@link RoutePlanner} reads a map entry instead
+ * of calling {@code hasPermission} for every candidate lobby. Players without an
+ * entry are treated as public.
+ */
+public final class ReservedCapacity {
+
+    private final ConcurrentMap<UUID, Integer> tiers = new ConcurrentHashMap<>();
+    // Second UUIDs players are routed by, such as a Bedrock player's linked Java account
+    private final ConcurrentMap<UUID, UUID> aliases = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves and caches the tier of {@code playerId}. Players in the public tier are
+     * not cached, since a missing entry already means public.
+     */
+    public int resolve(UUID playerId, Predicate<String> hasPermission, Config.ReservedCapacitySettings settings) {
+        int tier = settings.tierFor(hasPermission);
+        if (tier < settings.publicTier()) {
+            tiers.put(playerId, tier);
+        } else {
+            tiers.remove(playerId);
+        }
+        return tier;
+    }
+
+    /**
+     * Makes {@code alias} look up the tier resolved for {@code playerId}, without counting
+     * the player twice.
+     */
+    public void alias(UUID alias, UUID playerId) {
+        if (alias != null && !alias.equals(playerId)) {
+            aliases.put(alias, playerId);
+        }
+    }
+
+    /**
+     * Cached tier of {@code playerId}, or {@code publicTier} if none was resolved.
+     */
+    public int tierOf(UUID playerId, int publicTier) {
+        if (playerId == null) {
+            return publicTier;
+        }
+        Integer tier = tiers.get(playerId);
+        if (tier == null) {
+            UUID owner = aliases.get(playerId);
+            tier = owner == null ? null : tiers.get(owner);
+        }
+        return tier == null ? publicTier : Math.min(tier, publicTier);
+    }
+
+    public void forget(UUID playerId) {
+        tiers.remove(playerId);
+        aliases.remove(playerId);
+    }
+
+    /**
+     * Number of cached players per tier.
+     */
+    public Map<Integer, Integer> tierCounts() {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (Integer tier : tiers.values()) {
+            counts.merge(tier, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public void clear() {
+        tiers.clear();
+        aliases.clear();
+    }
+}
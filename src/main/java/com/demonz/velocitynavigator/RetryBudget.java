@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Proxy-wide budget for connection retries.
+ * <p>
+ * Successful connects and retries are counted in one-second slots of a ring of
+ * atomic counters. A retry is allowed while retries in the last
+ * {@code windowSeconds} stay below {@code budgetPercent} of successes in the same
+ * window, plus a small per-second allowance so a quiet proxy can still retry.
+ * When a whole group degrades, retries stop multiplying load on the survivors.
+ */
+public final class RetryBudget {
+
+    static final int MAX_WINDOW_SECONDS = 60;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TimeSource time;
+    private final AtomicLongArray slotSecond = new AtomicLongArray(MAX_WINDOW_SECONDS);
+    private final AtomicLongArray successes = new AtomicLongArray(MAX_WINDOW_SECONDS);
+    private final AtomicLongArray retries = new AtomicLongArray(MAX_WINDOW_SECONDS);
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong deadlinesExceeded = new AtomicLong();
+
+    public RetryBudget() {
+        this(TimeSource.system());
+    }
+
+    RetryBudget(TimeSource time) {
+        this.time = time;
+        for (int i = 0; i < MAX_WINDOW_SECONDS; i++) {
+            slotSecond.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void recordSuccess() {
+        successes.incrementAndGet(slot(currentSecond()));
+    }
+
+    /**
+     * Withdraws one retry from the budget. Returns {@code false}, and counts the
+     * refusal, once recent retries have used up the budget.
+     */
+    public boolean tryAcquireRetry(Config.RetryBudgetSettings settings) {
+        if (settings == null || !settings.enabled()) {
+            return true;
+        }
+        long now = currentSecond();
+        if (windowRetries(settings, now) >= allowance(settings, now)) {
+            exhausted.incrementAndGet();
+            return false;
+        }
+        retries.incrementAndGet(slot(now));
+        return true;
+    }
+
+    public void recordDeadlineExceeded() {
+        deadlinesExceeded.incrementAndGet();
+    }
+
+    /**
+     * Retries spent in the current window.
+     */
+    public long windowRetries(Config.RetryBudgetSettings settings) {
+        return windowRetries(settings, currentSecond());
+    }
+
+    /**
+     * Retries the current window allows in total.
+     */
+    public long allowance(Config.RetryBudgetSettings settings) {
+        return allowance(settings, currentSecond());
+    }
+
+    public long exhaustedCount() {
+        return exhausted.get();
+    }
+
+    public long deadlinesExceeded() {
+        return deadlinesExceeded.get();
+    }
+
+    private long windowRetries(Config.RetryBudgetSettings settings, long now) {
+        return sum(retries, settings.windowSeconds(), now);
+    }
+
+    private long allowance(Config.RetryBudgetSettings settings, long now) {
+        long window = settings.windowSeconds();
+        double fromSuccesses = sum(successes, settings.windowSeconds(), now) * settings.budgetPercent() / 100.0;
+        return (long) Math.floor(fromSuccesses) + (long) settings.minRetriesPerSecond() * window;
+    }
+
+    private long sum(AtomicLongArray counters, int windowSeconds, long now) {
+        long total = 0;
+        for (int i = 0; i < MAX_WINDOW_SECONDS; i++) {
+            long second = slotSecond.get(i);
+            if (second > now - windowSeconds && second <= now) {
+                total += counters.get(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Index of the slot for {@code second}, clearing it first if it still holds an older second.
+     */
+    private int slot(long second) {
+        int index = (int) Math.floorMod(second, (long) MAX_WINDOW_SECONDS);
+        long previous = slotSecond.get(index);
+        if (previous != second && slotSecond.compareAndSet(index, previous, second)) {
+            // Only the thread that claimed the slot resets it; others count into the fresh slot
+            successes.set(index, 0L);
+            retries.set(index, 0L);
+        }
+        return index;
+    }
+
+    private long currentSecond() {
+        return Math.floorDiv(time.nanoTime(), NANOS_PER_SECOND);
+    }
+}
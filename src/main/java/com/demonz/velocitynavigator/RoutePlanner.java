@@ -16,7 +16,7 @@
 package com.demonz.velocitynavigator;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -29,6 +29,7 @@ import java.util.UUID;
 public final class RoutePlanner {
 
     private final RouteSelectionStrategy selectionStrategy;
+    private final ServerRegistry registry;
     private volatile DrainService drainService;
     private volatile CircuitBreaker circuitBreaker;
     private volatile ServerLoadTracker loadTracker;
@@ -36,9 +37,22 @@ public final class RoutePlanner {
     private volatile PlayerAffinityService affinityService;
     private volatile ConnectionRateTracker rateTracker;
     private volatile ServerHealthService healthService;
+    private volatile ApertureSelector apertureSelector;
+    private volatile SlowStartTracker slowStartTracker;
+    private volatile AdmissionLimiter admissionLimiter;
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+    private volatile ReservedCapacity reservedCapacity;
+    private volatile LobbyAttributeIndex lobbyAttributes;
+    private volatile GroupHierarchy groupHierarchy = new GroupHierarchy();
+    private volatile RegionalRouting regionalRouting;
 
     public RoutePlanner(RouteSelectionStrategy selectionStrategy) {
+        this(selectionStrategy, ServerRegistry.shared());
+    }
+
+    RoutePlanner(RouteSelectionStrategy selectionStrategy, ServerRegistry registry) {
         this.selectionStrategy = Objects.requireNonNull(selectionStrategy, "selectionStrategy");
+        this.registry = registry;
     }
 
     public void setHealthService(ServerHealthService healthService) {
@@ -69,6 +83,38 @@ public final class RoutePlanner {
         this.rateTracker = rateTracker;
     }
 
+    public void setApertureSelector(ApertureSelector apertureSelector) {
+        this.apertureSelector = apertureSelector;
+    }
+
+    public void setSlowStartTracker(SlowStartTracker slowStartTracker) {
+        this.slowStartTracker = slowStartTracker;
+    }
+
+    public void setAdmissionLimiter(AdmissionLimiter admissionLimiter) {
+        this.admissionLimiter = admissionLimiter;
+    }
+
+    public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public void setReservedCapacity(ReservedCapacity reservedCapacity) {
+        this.reservedCapacity = reservedCapacity;
+    }
+
+    public void setLobbyAttributes(LobbyAttributeIndex lobbyAttributes) {
+        this.lobbyAttributes = lobbyAttributes;
+    }
+
+    public void setGroupHierarchy(GroupHierarchy groupHierarchy) {
+        this.groupHierarchy = groupHierarchy;
+    }
+
+    public void setRegionalRouting(RegionalRouting regionalRouting) {
+        this.regionalRouting = regionalRouting;
+    }
+
     /**
      * Plan a route without a player identity.
      * <p>
@@ -107,9 +153,56 @@ public final class RoutePlanner {
      * @return the routing decision
      */
     public RouteDecision plan(String sourceServer, Config config, Map<String, Integer> onlineServers, UUID playerId) {
+        return plan(sourceServer, null, config, onlineServers, playerId, false);
+    }
+
+    /**
+     * Like {@link #plan(String, Config, Map, UUID)}, for a player who is about to be connected
+     * to the result. Admission tokens are taken as lobbies and groups are selected, and only
+     * these plans count throttled skips; the other plans only look at the buckets.
+     */
+    public RouteDecision planConnection(String sourceServer, Config config, Map<String, Integer> onlineServers, UUID playerId) {
+        return plan(sourceServer, null, config, onlineServers, playerId, true);
+    }
+
+    /**
+     * Plan a route into a specific lobby group rather than the group mapped from the source.
+     * <p>
+     * Used when moving players between lobbies of the same group, where the source is itself
+     * a lobby and usually has no contextual mapping. {@code "default"} plans into the default
+     * lobbies; an unknown group behaves like a mapped group with no lobbies.
+     *
+     * @param group         the contextual group to route into
+     * @param sourceServer  the server the player is currently on (excluded when cycling)
+     * @param config        the active routing configuration
+     * @param onlineServers map of server name → current player count for online servers
+     * @param playerId      the player's unique ID, or null if no player context is available
+     * @return the routing decision
+     */
+    public RouteDecision planForGroup(String group, String sourceServer, Config config,
+                                      Map<String, Integer> onlineServers, UUID playerId) {
+        return plan(sourceServer, group == null ? "default" : group.toLowerCase(Locale.ROOT), config, onlineServers, playerId, false);
+    }
+
+    /**
+     * Like {@link #planForGroup}, for a player who is about to be connected to the result;
+     * see {@link #planConnection}.
+     */
+    public RouteDecision planConnectionForGroup(String group, String sourceServer, Config config,
+                                                Map<String, Integer> onlineServers, UUID playerId) {
+        return plan(sourceServer, group == null ? "default" : group.toLowerCase(Locale.ROOT), config, onlineServers, playerId, true);
+    }
+
+    private RouteDecision plan(String sourceServer, String groupOverride, Config config,
+                               Map<String, Integer> onlineServers, UUID playerId, boolean connecting) {
         String normalizedSource = sourceServer == null ? "" : sourceServer.toLowerCase(Locale.ROOT);
-        Map<String, Integer> online = onlineServers == null ? Map.of() : toLowerCaseKeys(onlineServers);
+        OnlineCounts online = OnlineCounts.of(onlineServers, registry);
         Config.Contextual contextual = config.routing().contextual();
+        double capacityShare = capacityShare(config, playerId);
+        LobbyAttributeIndex.Constraint constraint = constraint(config, playerId);
+        GroupHierarchy.Tree tree = groupHierarchy.tree(config);
+        RegionalRouting regional = regionalRouting;
+        String region = regional == null ? null : regional.regionOf(playerId, config);
 
         String requestedGroup = "default";
         List<Config.LobbyEntry> requestedEntries = config.routing().defaultLobbies();
@@ -117,8 +210,10 @@ public final class RoutePlanner {
         boolean contextualMatch = false;
         String reason = "";
 
-        if (contextual.enabled() && !normalizedSource.isBlank()) {
-            String mappedGroup = contextual.sources().get(normalizedSource);
+        boolean mappedBySource = groupOverride == null && !normalizedSource.isBlank();
+        boolean explicitGroup = groupOverride != null && !"default".equals(groupOverride);
+        if (contextual.enabled() && (mappedBySource || explicitGroup)) {
+            String mappedGroup = explicitGroup ? groupOverride : contextual.sources().get(normalizedSource);
             if (mappedGroup != null) {
                 Config.GroupConfig groupConfig = contextual.groups().get(mappedGroup);
                 requestedGroup = mappedGroup;
@@ -129,7 +224,7 @@ public final class RoutePlanner {
                     requestedEntries = List.of();
                 }
                 contextualMatch = true;
-                if (requestedEntries.isEmpty()) {
+                if (requestedEntries.isEmpty() && !tree.isParent(mappedGroup)) {
                     reason = "Contextual group '" + mappedGroup + "' has no configured lobbies.";
                 }
             } else {
@@ -137,26 +232,55 @@ public final class RoutePlanner {
             }
         }
 
-        String usedGroup = requestedGroup;
+        // A parent group plans in its least loaded child that has room for the player
+        String planGroup = requestedGroup;
+        if (contextualMatch && tree.isParent(requestedGroup)) {
+            planGroup = descend(requestedGroup, tree, contextual, online, capacityShare, constraint);
+            Config.GroupConfig leaf = contextual.groups().get(planGroup);
+            requestedEntries = leaf == null ? List.of() : leaf.servers();
+            if (leaf != null && leaf.mode() != null) {
+                groupMode = leaf.mode();
+            }
+        }
+
+        requestedEntries = regionalEntries(planGroup, requestedEntries, region, config, online, capacityShare);
+        String usedGroup = planGroup;
         List<Config.LobbyEntry> configuredEntries = List.copyOf(requestedEntries);
         Config.SelectionMode effectiveMode = groupMode != null ? groupMode : config.routing().selectionMode();
-        List<String> onlineCandidates = filterOnlineCandidates(requestedEntries, online);
+        List<Config.LobbyEntry> candidateEntries = apertureWindow(planGroup, requestedEntries, config);
+        List<String> onlineCandidates = filterApertureCandidates(planGroup, requestedEntries, candidateEntries, online, capacityShare, constraint, config);
         boolean fallbackToDefault = false;
 
+        // A group over its admission rate spills over to its fallbacks like an empty group,
+        // but is kept when none of them can take the player.
+        List<String> throttledGroupCandidates = List.of();
+        if (contextualMatch && !onlineCandidates.isEmpty() && contextual.fallbackToDefault()
+                && !admitGroup(planGroup, config, connecting)) {
+            throttledGroupCandidates = onlineCandidates;
+            onlineCandidates = List.of();
+            reason = "Contextual group '" + planGroup + "' is at its admission limit.";
+        }
+
         if (contextualMatch && onlineCandidates.isEmpty() && contextual.fallbackToDefault()) {
-            // Try fallback chain first
-            List<String> chain = contextual.fallbackChain().getOrDefault(requestedGroup, List.of());
-            for (String fallbackGroup : chain) {
+            // Try the fallback chain first, then siblings and the parent's fallbacks
+            for (String fallback : tree.fallbacks(planGroup)) {
+                String fallbackGroup = descend(fallback, tree, contextual, online, capacityShare, constraint);
                 Config.GroupConfig fallbackConfig = contextual.groups().get(fallbackGroup);
                 if (fallbackConfig != null) {
-                    List<String> fallbackOnline = filterOnlineCandidates(fallbackConfig.servers(), online);
-                    if (!fallbackOnline.isEmpty()) {
-                        configuredEntries = List.copyOf(fallbackConfig.servers());
+                    List<Config.LobbyEntry> fallbackEntries = regionalEntries(fallbackGroup, fallbackConfig.servers(), region, config, online, capacityShare);
+                    List<Config.LobbyEntry> fallbackWindow = apertureWindow(fallbackGroup, fallbackEntries, config);
+                    List<String> fallbackOnline = filterApertureCandidates(fallbackGroup, fallbackEntries, fallbackWindow, online, capacityShare, constraint, config);
+                    if (!fallbackOnline.isEmpty() && admitGroup(fallbackGroup, config, connecting)) {
+                        configuredEntries = List.copyOf(fallbackEntries);
+                        candidateEntries = fallbackWindow;
                         onlineCandidates = fallbackOnline;
                         usedGroup = fallbackGroup;
                         effectiveMode = fallbackConfig.mode() != null ? fallbackConfig.mode() : config.routing().selectionMode();
                         fallbackToDefault = true;
-                        reason = "No online servers in contextual group '" + requestedGroup + "'; fell back to '" + fallbackGroup + "'.";
+                        reason = (throttledGroupCandidates.isEmpty()
+                                ? "No online servers in contextual group '" + planGroup + "'"
+                                : "Contextual group '" + planGroup + "' is at its admission limit")
+                                + "; fell back to '" + fallbackGroup + "'.";
                         break;
                     }
                 }
@@ -164,15 +288,27 @@ public final class RoutePlanner {
 
             // If fallback chain didn't help, use default lobbies
             if (onlineCandidates.isEmpty()) {
-                configuredEntries = List.copyOf(config.routing().defaultLobbies());
-                onlineCandidates = filterOnlineCandidates(configuredEntries, online);
+                configuredEntries = List.copyOf(regionalEntries("default", config.routing().defaultLobbies(), region, config, online, capacityShare));
+                candidateEntries = apertureWindow("default", configuredEntries, config);
+                onlineCandidates = filterApertureCandidates("default", configuredEntries, candidateEntries, online, capacityShare, constraint, config);
                 usedGroup = "default";
                 effectiveMode = config.routing().selectionMode();
                 fallbackToDefault = true;
                 if (reason.isBlank()) {
-                    reason = "No online servers were available in contextual group '" + requestedGroup + "'.";
+                    reason = "No online servers were available in contextual group '" + planGroup + "'.";
                 }
             }
+
+            if (onlineCandidates.isEmpty() && !throttledGroupCandidates.isEmpty()) {
+                forceAdmitGroup(planGroup, config, connecting);
+                configuredEntries = List.copyOf(requestedEntries);
+                candidateEntries = apertureWindow(planGroup, requestedEntries, config);
+                onlineCandidates = throttledGroupCandidates;
+                usedGroup = planGroup;
+                effectiveMode = groupMode != null ? groupMode : config.routing().selectionMode();
+                fallbackToDefault = false;
+                reason = "";
+            }
         }
 
         List<String> selectableCandidates = new ArrayList<>(onlineCandidates);
@@ -242,10 +378,19 @@ public final class RoutePlanner {
             );
         }
 
+        // Lobbies at their concurrency limit, or found out of admission tokens during this
+        // plan, are dropped here as long as something else remains
+        List<String> admissionCandidates = new ArrayList<>(preferUnsaturated(selectableCandidates, config));
+
         // Player affinity check
         if (playerId != null && affinityService != null && effectiveMode != Config.SelectionMode.CONSISTENT_HASH) {
-            Optional<String> stickServer = affinityService.shouldStick(playerId, selectableCandidates);
-            if (stickServer.isPresent()) {
+            Config.AffinitySettings affinity = config.routing().affinity();
+            Optional<String> stickServer = affinityService.shouldStick(playerId, selectableCandidates,
+                            utilization(selectableCandidates, candidateEntries, online), affinity.loadMargin(), affinity.keepAsPreference())
+                    .filter(admissionCandidates::contains);
+            if (stickServer.isPresent() && !admitLobby(stickServer.get(), config, connecting)) {
+                admissionCandidates.remove(stickServer.get());
+            } else if (stickServer.isPresent()) {
                 return new RouteDecision(
                         normalizedSource,
                         requestedGroup,
@@ -265,7 +410,13 @@ public final class RoutePlanner {
         if (effectiveMode == Config.SelectionMode.CONSISTENT_HASH && playerId != null && hashRing != null) {
             hashRing.updateRing(usedGroup, selectableCandidates);
             Optional<String> selected = selectionStrategy.selectConsistentHash(hashRing, usedGroup, playerId.toString());
-            if (selected.isPresent() && selectableCandidates.contains(selected.get())) {
+            boolean admitted = selected.isPresent() && admissionCandidates.contains(selected.get())
+                    && selectionStrategy.admitsRamping(rampFactor(selected.get(), config));
+            if (admitted && !admitLobby(selected.get(), config, connecting)) {
+                admissionCandidates.remove(selected.get());
+                admitted = false;
+            }
+            if (admitted) {
                 return new RouteDecision(
                         normalizedSource,
                         requestedGroup,
@@ -281,14 +432,14 @@ public final class RoutePlanner {
             }
         }
 
-        List<Config.LobbyEntry> finalEntries = configuredEntries;
-        List<ServerCandidate> candidates = selectableCandidates.stream()
-                .map(name -> buildCandidate(name, online.getOrDefault(name, 0), finalEntries))
+        List<Config.LobbyEntry> finalEntries = candidateEntries;
+        List<ServerCandidate> candidates = (admissionCandidates.isEmpty() ? preferUnsaturated(selectableCandidates, config) : admissionCandidates).stream()
+                .map(name -> buildCandidate(name, online, finalEntries, config))
                 .toList();
         Config.SelectionMode selectMode = effectiveMode == Config.SelectionMode.CONSISTENT_HASH
                 ? Config.SelectionMode.LEAST_PLAYERS
                 : effectiveMode;
-        Optional<ServerCandidate> selected = selectionStrategy.select(candidates, selectMode, usedGroup);
+        Optional<ServerCandidate> selected = selectAdmitted(candidates, selectMode, usedGroup, config, connecting);
         String finalReason = fallbackToDefault ? reason : selectMode.configValue();
         if (effectiveMode == Config.SelectionMode.CONSISTENT_HASH) {
             finalReason = "Consistent hash selection was unavailable or failed; fell back to LEAST_PLAYERS.";
@@ -309,7 +460,7 @@ public final class RoutePlanner {
 
     public Set<String> inspectionTargets(String sourceServer, Config config) {
         Set<String> targets = new LinkedHashSet<>();
-        for (Config.LobbyEntry entry : config.routing().defaultLobbies()) {
+        for (Config.LobbyEntry entry : apertureWindow("default", config.routing().defaultLobbies(), config)) {
             targets.add(entry.server());
         }
         if (config.lobbyFallback() != null
@@ -324,7 +475,7 @@ public final class RoutePlanner {
             if (group != null) {
                 Config.GroupConfig groupConfig = contextual.groups().get(group);
                 if (groupConfig != null) {
-                    for (Config.LobbyEntry entry : groupConfig.servers()) {
+                    for (Config.LobbyEntry entry : apertureWindow(group, groupConfig.servers(), config)) {
                         targets.add(entry.server());
                     }
                 }
@@ -333,24 +484,190 @@ public final class RoutePlanner {
         return targets;
     }
 
-    private List<String> filterOnlineCandidates(List<Config.LobbyEntry> configuredEntries, Map<String, Integer> onlineServers) {
+    /**
+     * Lobbies of {@code entries} that could take a public player right now: online, not
+     * drained, not circuit-open and below their player cap less any reserved capacity.
+     * Unlike {@link #plan}, this has no side effects on selection state.
+     */
+    public List<String> routableLobbies(List<Config.LobbyEntry> entries, Config config, Map<String, Integer> onlineServers) {
+        return filterOnlineCandidates(entries, OnlineCounts.of(onlineServers, registry), capacityShare(config, null));
+    }
+
+    /**
+     * True when {@code group} has lobbies that are online and otherwise routable, but every
+     * one of them is at its {@code max_players} cap, less any reserved capacity. Offline, drained or circuit-open
+     * lobbies do not count, so an empty or unreachable group is not "at capacity".
+     */
+    public boolean isAtCapacity(String group, Config config, Map<String, Integer> onlineServers) {
+        return freeSlots(group, config, onlineServers) == 0;
+    }
+
+    /**
+     * Players the routable lobbies of {@code group} can still take before hitting their caps:
+     * {@link Integer#MAX_VALUE} if any of them is uncapped, {@code -1} if none is routable.
+     * Reserved capacity is not counted as free, since the queue admits the public.
+     */
+    public int freeSlots(String group, Config config, Map<String, Integer> onlineServers) {
+        OnlineCounts online = OnlineCounts.of(onlineServers, registry);
+        List<Config.LobbyEntry> entries = config.routing().defaultLobbies();
+        Config.GroupConfig groupConfig = config.routing().contextual().groups().get(group == null ? "" : group.toLowerCase(Locale.ROOT));
+        if (groupConfig != null && !"default".equalsIgnoreCase(group)) {
+            entries = groupConfig.servers();
+        }
+        double share = capacityShare(config, null);
+        long free = -1;
+        for (Config.LobbyEntry entry : entries) {
+            int id = registry.idOf(entry.server());
+            int count = online.count(id, entry.server());
+            if (count < 0
+                    || (drainService != null && drainService.isDrained(id))
+                    || (circuitBreaker != null && !circuitBreaker.isAvailable(id))) {
+                continue;
+            }
+            if (entry.maxPlayers() == Config.LobbyEntry.UNCAPPED) {
+                return Integer.MAX_VALUE;
+            }
+            int limit = (int) Math.floor(entry.maxPlayers() * share + 1e-9);
+            free = Math.max(free, 0L) + Math.max(0, limit - count);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, free);
+    }
+
+    private List<Config.LobbyEntry> apertureWindow(String group, List<Config.LobbyEntry> entries, Config config) {
+        ApertureSelector selector = apertureSelector;
+        if (selector == null) {
+            return entries;
+        }
+        return selector.window(group, entries, config.aperture());
+    }
+
+    /**
+     * Filters the aperture window and feeds the outcome back to the selector so the
+     * window can widen (or fully open when nothing in it is usable) before the next plan.
+     */
+    private List<String> filterApertureCandidates(String group, List<Config.LobbyEntry> groupEntries,
+                                                  List<Config.LobbyEntry> window, OnlineCounts onlineServers,
+                                                  double capacityShare, LobbyAttributeIndex.Constraint constraint,
+                                                  Config config) {
+        List<String> candidates = filterOnlineCandidates(window, onlineServers, capacityShare);
+        ApertureSelector selector = apertureSelector;
+        if (selector != null) {
+            selector.observe(group, window, groupEntries.size(), onlineServers, candidates, config.aperture());
+        }
+        if (constraint == LobbyAttributeIndex.Constraint.NONE) {
+            return candidates;
+        }
+        // The window is sized for all players, so look past it when none of it suits this one
+        List<String> matching = applyConstraint(candidates, constraint);
+        if (matching.isEmpty() && window.size() < groupEntries.size()) {
+            matching = applyConstraint(filterOnlineCandidates(groupEntries, onlineServers, capacityShare), constraint);
+        }
+        return matching;
+    }
+
+    /**
+     * The lobbies of {@code group} in the player's region, unless none of them can take the
+     * player or they are busier than {@code spill_utilization}; otherwise all of {@code entries}.
+     */
+    private List<Config.LobbyEntry> regionalEntries(String group, List<Config.LobbyEntry> entries, String region, Config config,
+                                                    OnlineCounts online, double capacityShare) {
+        if (region == null) {
+            return entries;
+        }
+        List<Config.LobbyEntry> local = regionalRouting.candidates(config, group, region);
+        if (local.isEmpty() || local.size() == entries.size()
+                || filterOnlineCandidates(local, online, capacityShare).isEmpty()) {
+            return entries;
+        }
+        Config.RegionalRoutingSettings settings = config.regionalRouting();
+        if (RegionalRouting.utilization(local, online, settings.lobbyCapacity()) > settings.spillUtilization()) {
+            return entries;
+        }
+        return local;
+    }
+
+    /**
+     * Leaf group to plan {@code group} in: the least loaded child with a lobby that can take
+     * the player, descending through nested parents, else the least loaded leaf.
+     */
+    private String descend(String group, GroupHierarchy.Tree tree, Config.Contextual contextual, OnlineCounts online,
+                           double capacityShare, LobbyAttributeIndex.Constraint constraint) {
+        if (!tree.isParent(group)) {
+            return group;
+        }
+        String first = null;
+        for (String child : tree.childrenByLoad(group)) {
+            String leaf = descend(child, tree, contextual, online, capacityShare, constraint);
+            if (first == null) {
+                first = leaf;
+            }
+            Config.GroupConfig leafConfig = contextual.groups().get(leaf);
+            if (leafConfig != null
+                    && !applyConstraint(filterOnlineCandidates(leafConfig.servers(), online, capacityShare), constraint).isEmpty()) {
+                return leaf;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Attribute constraint for the player's cached traits, resolved once per plan.
+     */
+    private LobbyAttributeIndex.Constraint constraint(Config config, UUID playerId) {
+        LobbyAttributeIndex attributes = lobbyAttributes;
+        return attributes == null ? LobbyAttributeIndex.Constraint.NONE : attributes.constraintFor(playerId, config);
+    }
+
+    /**
+     * Drops lobbies the player's attributes exclude, then keeps only those in their region if any are.
+     */
+    private List<String> applyConstraint(List<String> candidates, LobbyAttributeIndex.Constraint constraint) {
+        List<String> allowed = new ArrayList<>(candidates.size());
+        List<String> preferred = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (constraint.allows(candidate)) {
+                allowed.add(candidate);
+                if (constraint.hasPreference() && constraint.prefers(candidate)) {
+                    preferred.add(candidate);
+                }
+            }
+        }
+        return List.copyOf(preferred.isEmpty() ? allowed : preferred);
+    }
+
+    /**
+     * Share of {@code max_players} the player may fill, from their cached reserved capacity
+     * tier; resolved once per plan so the per-candidate cap check stays a multiplication.
+     */
+    private double capacityShare(Config config, UUID playerId) {
+        Config.ReservedCapacitySettings settings = config.reservedCapacity();
+        if (!settings.enabled()) {
+            return 1.0;
+        }
+        ReservedCapacity capacity = reservedCapacity;
+        int tier = capacity == null ? settings.publicTier() : capacity.tierOf(playerId, settings.publicTier());
+        return settings.shareFor(tier);
+    }
+
+    private List<String> filterOnlineCandidates(List<Config.LobbyEntry> configuredEntries, OnlineCounts onlineServers,
+                                                double capacityShare) {
         List<String> online = new ArrayList<>();
         for (Config.LobbyEntry entry : configuredEntries) {
-            String name = entry.server().toLowerCase(Locale.ROOT);
-            Integer count = onlineServers.get(name);
-            if (count == null) {
+            int id = registry.idOf(entry.server());
+            int count = onlineServers.count(id, entry.server());
+            if (count < 0) {
                 continue;
             }
             // Check if server is drained
-            if (drainService != null && drainService.isDrained(name)) {
+            if (drainService != null && drainService.isDrained(id)) {
                 continue;
             }
             // Check circuit breaker
-            if (circuitBreaker != null && !circuitBreaker.isAvailable(name)) {
+            if (circuitBreaker != null && !circuitBreaker.isAvailable(id)) {
                 continue;
             }
-            // Check max-player cap
-            if (entry.isFull(count)) {
+            // Check max-player cap, less capacity reserved for higher tiers
+            if (entry.isFull(count, capacityShare)) {
                 continue;
             }
             online.add(entry.server());
@@ -358,7 +675,23 @@ public final class RoutePlanner {
         return List.copyOf(online);
     }
 
-    private ServerCandidate buildCandidate(String name, int playerCount, List<Config.LobbyEntry> entries) {
+    /**
+     * Fill of each capped candidate for the affinity load check, as players over
+     * {@code max_players}. Uncapped lobbies have no fill, so affinity to them is not load-checked.
+     */
+    private Map<String, Double> utilization(List<String> candidates, List<Config.LobbyEntry> entries, OnlineCounts online) {
+        Map<String, Double> utilization = new HashMap<>();
+        for (Config.LobbyEntry entry : entries) {
+            if (entry.maxPlayers() > 0 && candidates.contains(entry.server())) {
+                utilization.put(entry.server(), (double) Math.max(0, online.count(entry.server())) / entry.maxPlayers());
+            }
+        }
+        return utilization;
+    }
+
+    private ServerCandidate buildCandidate(String name, OnlineCounts online, List<Config.LobbyEntry> entries, Config config) {
+        int id = registry.idOf(name);
+        int playerCount = Math.max(0, online.count(id, name));
         int weight = Config.LobbyEntry.DEFAULT_WEIGHT;
         for (Config.LobbyEntry entry : entries) {
             if (entry.server().equalsIgnoreCase(name)) {
@@ -368,39 +701,115 @@ public final class RoutePlanner {
         }
         double emaLoad = playerCount;
         if (loadTracker != null) {
-            emaLoad = loadTracker.getEma(name);
+            emaLoad = loadTracker.getEma(id);
         }
         double rateCost = 0.0;
         if (rateTracker != null) {
-            rateCost = rateTracker.getRatePerSecond(name);
+            rateCost = rateTracker.getRatePerSecond(id);
         }
         // Incorporate rate into emaLoad for LEAST_CONNECTIONS
         double combinedLoad = emaLoad + rateCost;
-        long latency = -1L;
-        if (healthService != null) {
-            Long tracked = healthService.getLatencies().get(name.toLowerCase(Locale.ROOT));
-            if (tracked != null) {
-                latency = tracked;
+        long latency = healthService == null ? -1L : healthService.latency(id);
+        SlowStartTracker tracker = slowStartTracker;
+        double rampFactor = tracker == null ? 1.0 : tracker.factor(id, config.slowStart());
+        return new ServerCandidate(name, playerCount, weight, combinedLoad, latency, rampFactor);
+    }
+
+    /**
+     * Selects among {@code candidates}, moving on to the next choice while the picked
+     * lobby's admission bucket is empty. When every lobby is at its limit the first
+     * choice is returned anyway so that no player is refused outright.
+     */
+    private Optional<ServerCandidate> selectAdmitted(List<ServerCandidate> candidates, Config.SelectionMode mode,
+                                                     String group, Config config, boolean connecting) {
+        List<ServerCandidate> remaining = new ArrayList<>(candidates);
+        Optional<ServerCandidate> firstChoice = Optional.empty();
+        while (!remaining.isEmpty()) {
+            Optional<ServerCandidate> selected = selectionStrategy.select(remaining, mode, group);
+            if (selected.isEmpty()) {
+                break;
+            }
+            if (admitLobby(selected.get().name(), config, connecting)) {
+                return selected;
+            }
+            if (firstChoice.isEmpty()) {
+                firstChoice = selected;
+            }
+            remaining.remove(selected.get());
+        }
+        // The one admission that goes ahead without a token; the bucket records the overdraft
+        firstChoice.ifPresent(choice -> forceAdmitLobby(choice.name(), config, connecting));
+        return firstChoice;
+    }
+
+    private List<String> preferUnsaturated(List<String> candidates, Config config) {
+        ConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null || candidates.size() < 2) {
+            return candidates;
+        }
+        List<String> unsaturated = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (!limiter.isSaturated(candidate, config.concurrency())) {
+                unsaturated.add(candidate);
             }
         }
-        return new ServerCandidate(name, playerCount, weight, combinedLoad, latency);
+        return unsaturated.isEmpty() ? candidates : unsaturated;
     }
 
-    private Optional<String> selectableFallbackServer(Config config, Map<String, Integer> onlineServers) {
+    private boolean admitLobby(String name, Config config, boolean connecting) {
+        AdmissionLimiter limiter = admissionLimiter;
+        if (limiter == null) {
+            return true;
+        }
+        return connecting
+                ? limiter.tryAcquireLobby(name, config.admission())
+                : limiter.hasLobbyToken(name, config.admission());
+    }
+
+    private boolean admitGroup(String group, Config config, boolean connecting) {
+        AdmissionLimiter limiter = admissionLimiter;
+        if (limiter == null) {
+            return true;
+        }
+        return connecting
+                ? limiter.tryAcquireGroup(group, config.admission())
+                : limiter.hasGroupToken(group, config.admission());
+    }
+
+    private void forceAdmitLobby(String name, Config config, boolean connecting) {
+        AdmissionLimiter limiter = admissionLimiter;
+        if (limiter != null && connecting) {
+            limiter.forceAcquireLobby(name, config.admission());
+        }
+    }
+
+    private void forceAdmitGroup(String group, Config config, boolean connecting) {
+        AdmissionLimiter limiter = admissionLimiter;
+        if (limiter != null && connecting) {
+            limiter.forceAcquireGroup(group, config.admission());
+        }
+    }
+
+    private double rampFactor(String name, Config config) {
+        SlowStartTracker tracker = slowStartTracker;
+        return tracker == null ? 1.0 : tracker.factor(name, config.slowStart());
+    }
+
+    private Optional<String> selectableFallbackServer(Config config, OnlineCounts onlineServers) {
         if (config.lobbyFallback() == null
                 || !"fallback_server".equalsIgnoreCase(config.lobbyFallback().noServerStrategy())
                 || config.lobbyFallback().fallbackServer().isBlank()) {
             return Optional.empty();
         }
         String fallbackServer = config.lobbyFallback().fallbackServer();
-        String normalized = fallbackServer.toLowerCase(Locale.ROOT);
-        if (!onlineServers.containsKey(normalized)) {
+        int id = registry.idOf(fallbackServer);
+        if (onlineServers.count(id, fallbackServer) < 0) {
             return Optional.empty();
         }
-        if (drainService != null && drainService.isDrained(normalized)) {
+        if (drainService != null && drainService.isDrained(id)) {
             return Optional.empty();
         }
-        if (circuitBreaker != null && !circuitBreaker.isAvailable(normalized)) {
+        if (circuitBreaker != null && !circuitBreaker.isAvailable(id)) {
             return Optional.empty();
         }
         return Optional.of(fallbackServer);
@@ -413,12 +822,4 @@ public final class RoutePlanner {
         }
         return List.copyOf(names);
     }
-
-    private Map<String, Integer> toLowerCaseKeys(Map<String, Integer> original) {
-        Map<String, Integer> normalized = new LinkedHashMap<>();
-        for (Map.Entry<String, Integer> entry : original.entrySet()) {
-            normalized.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
-        }
-        return normalized;
-    }
 }
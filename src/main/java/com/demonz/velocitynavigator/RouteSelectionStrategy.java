@@ -15,6 +15,7 @@
  */
 package com.demonz.velocitynavigator;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,11 @@ import java.util.Set;
 
 public final class RouteSelectionStrategy {
 
+    /** Weights are scaled up by this much so a ramp factor can shrink them without rounding to zero. */
+    private static final int WEIGHT_SCALE = 100;
+    /** Smallest ramp factor used in scores, so a lobby at factor 0 still ranks after everything else. */
+    private static final double MIN_RAMP_FACTOR = 0.01;
+
     private final ConcurrentMap<String, AtomicInteger> roundRobinState = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, WeightedRoundRobinState> wrrState = new ConcurrentHashMap<>();
 
@@ -40,11 +46,13 @@ public final class RouteSelectionStrategy {
 
         return switch (mode) {
             case LEAST_PLAYERS -> candidates.stream()
-                    .min(Comparator.comparingInt(ServerCandidate::playerCount).thenComparing(ServerCandidate::name));
-            case RANDOM -> Optional.of(candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())));
-            case ROUND_ROBIN -> Optional.of(selectRoundRobin(candidates, groupKey));
+                    .min(Comparator.comparingDouble(RouteSelectionStrategy::rampedPlayers).thenComparing(ServerCandidate::name));
+            case RANDOM -> Optional.of(selectRandom(candidates));
+            case ROUND_ROBIN -> Optional.of(anyRamping(candidates)
+                    ? selectWeightedRoundRobin(candidates, roundRobinKey(groupKey), false)
+                    : selectRoundRobin(candidates, groupKey));
             case POWER_OF_TWO -> selectPowerOfTwo(candidates);
-            case WEIGHTED_ROUND_ROBIN -> Optional.of(selectWeightedRoundRobin(candidates, groupKey));
+            case WEIGHTED_ROUND_ROBIN -> Optional.of(selectWeightedRoundRobin(candidates, groupKey, true));
             case LEAST_CONNECTIONS -> selectLeastConnections(candidates);
             case CONSISTENT_HASH -> Optional.empty(); // Handled separately by RoutePlanner with player context
             case LATENCY -> selectLatency(candidates);
@@ -60,11 +68,84 @@ public final class RouteSelectionStrategy {
         return Optional.ofNullable(server);
     }
 
+    /**
+     * Returns true when a lobby that is still ramping up should take this request.
+     * Used by routing paths that pick a server outside {@link #select}.
+     */
+    public boolean admitsRamping(double rampFactor) {
+        return rampFactor >= 1.0 || ThreadLocalRandom.current().nextDouble() < rampFactor;
+    }
+
     public void reset() {
         roundRobinState.clear();
         wrrState.clear();
     }
 
+    /**
+     * Forgets the round-robin position of {@code groupKeys} only.
+     */
+    public void reset(Collection<String> groupKeys) {
+        roundRobinState.keySet().removeAll(groupKeys);
+        for (String groupKey : groupKeys) {
+            wrrState.remove(groupKey);
+            wrrState.remove(roundRobinKey(groupKey));
+        }
+    }
+
+    /**
+     * Slow start: a lobby that is still warming up is scored as if it had 1 / ramp factor
+     * times its players, or weighted by its ramp factor, so it fills to that fraction of
+     * its peers' level and receives roughly that share of its normal traffic whatever
+     * the mode. Every candidate stays selectable.
+     */
+    private static double rampFactor(ServerCandidate candidate) {
+        return Math.max(MIN_RAMP_FACTOR, candidate.rampFactor());
+    }
+
+    private static double rampedPlayers(ServerCandidate candidate) {
+        return (candidate.playerCount() + 1) / rampFactor(candidate);
+    }
+
+    private static double rampedLoad(ServerCandidate candidate) {
+        return (candidate.emaLoad() + 1) / rampFactor(candidate);
+    }
+
+    private static int rampedWeight(ServerCandidate candidate, int baseWeight) {
+        return (int) Math.max(1L, Math.round(baseWeight * (double) WEIGHT_SCALE * rampFactor(candidate)));
+    }
+
+    private static boolean anyRamping(List<ServerCandidate> candidates) {
+        for (ServerCandidate candidate : candidates) {
+            if (candidate.rampFactor() < 1.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String roundRobinKey(String groupKey) {
+        return (groupKey == null ? "default" : groupKey) + "#round_robin";
+    }
+
+    private ServerCandidate selectRandom(List<ServerCandidate> candidates) {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        if (!anyRamping(candidates)) {
+            return candidates.get(rng.nextInt(candidates.size()));
+        }
+        double total = 0.0;
+        for (ServerCandidate candidate : candidates) {
+            total += rampFactor(candidate);
+        }
+        double pick = rng.nextDouble() * total;
+        for (ServerCandidate candidate : candidates) {
+            pick -= rampFactor(candidate);
+            if (pick < 0) {
+                return candidate;
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
     private ServerCandidate selectRoundRobin(List<ServerCandidate> candidates, String groupKey) {
         List<ServerCandidate> sorted = candidates.stream()
                 .sorted(Comparator.comparing(ServerCandidate::name))
@@ -77,17 +158,21 @@ public final class RouteSelectionStrategy {
     private Optional<ServerCandidate> selectPowerOfTwo(List<ServerCandidate> candidates) {
         if (candidates.size() <= 2) {
             return candidates.stream()
-                    .min(Comparator.comparingInt(ServerCandidate::playerCount).thenComparing(ServerCandidate::name));
+                    .min(Comparator.comparingDouble(RouteSelectionStrategy::rampedPlayers).thenComparing(ServerCandidate::name));
         }
         ThreadLocalRandom rng = ThreadLocalRandom.current();
         int i = rng.nextInt(candidates.size());
         int j = (i + 1 + rng.nextInt(candidates.size() - 1)) % candidates.size();
         ServerCandidate a = candidates.get(i);
         ServerCandidate b = candidates.get(j);
-        return Optional.of(a.playerCount() <= b.playerCount() ? a : b);
+        return Optional.of(rampedPlayers(a) <= rampedPlayers(b) ? a : b);
     }
 
-    private ServerCandidate selectWeightedRoundRobin(List<ServerCandidate> candidates, String groupKey) {
+    /**
+     * Smooth weighted round-robin. {@code configuredWeights} uses each lobby's weight;
+     * otherwise every lobby starts equal, which is plain round-robin with ramp factors applied.
+     */
+    private ServerCandidate selectWeightedRoundRobin(List<ServerCandidate> candidates, String groupKey, boolean configuredWeights) {
         String key = groupKey == null ? "default" : groupKey;
         WeightedRoundRobinState state = wrrState.computeIfAbsent(key, k -> new WeightedRoundRobinState());
 
@@ -95,8 +180,11 @@ public final class RouteSelectionStrategy {
             state.pruneStaleEntries(candidates);
             // Interleaved WRR algorithm
             int totalWeight = 0;
-            for (ServerCandidate c : candidates) {
-                totalWeight += c.effectiveWeight();
+            int[] weights = new int[candidates.size()];
+            for (int i = 0; i < weights.length; i++) {
+                ServerCandidate c = candidates.get(i);
+                weights[i] = configuredWeights && c.effectiveWeight() <= 0 ? 0 : rampedWeight(c, configuredWeights ? c.effectiveWeight() : 1);
+                totalWeight += weights[i];
             }
             if (totalWeight <= 0) {
                 return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
@@ -105,9 +193,9 @@ public final class RouteSelectionStrategy {
             ServerCandidate best = null;
             int bestCurrentWeight = Integer.MIN_VALUE;
 
-            for (ServerCandidate c : candidates) {
-                int weight = c.effectiveWeight();
-                int currentWeight = state.addWeight(c.name(), weight);
+            for (int i = 0; i < weights.length; i++) {
+                ServerCandidate c = candidates.get(i);
+                int currentWeight = state.addWeight(c.name(), weights[i]);
                 if (currentWeight > bestCurrentWeight || (currentWeight == bestCurrentWeight && best != null && c.name().compareTo(best.name()) < 0)) {
                     bestCurrentWeight = currentWeight;
                     best = c;
@@ -125,13 +213,13 @@ public final class RouteSelectionStrategy {
     private Optional<ServerCandidate> selectLatency(List<ServerCandidate> candidates) {
         return candidates.stream()
                 .min((a, b) -> {
-                    long la = a.latency() < 0 ? Long.MAX_VALUE : a.latency();
-                    long lb = b.latency() < 0 ? Long.MAX_VALUE : b.latency();
-                    int cmp = Long.compare(la, lb);
+                    double la = a.latency() < 0 ? Double.MAX_VALUE : a.latency() / rampFactor(a);
+                    double lb = b.latency() < 0 ? Double.MAX_VALUE : b.latency() / rampFactor(b);
+                    int cmp = Double.compare(la, lb);
                     if (cmp != 0) {
                         return cmp;
                     }
-                    cmp = Integer.compare(a.playerCount(), b.playerCount());
+                    cmp = Double.compare(rampedPlayers(a), rampedPlayers(b));
                     if (cmp != 0) {
                         return cmp;
                     }
@@ -142,7 +230,7 @@ public final class RouteSelectionStrategy {
     private Optional<ServerCandidate> selectLeastConnections(List<ServerCandidate> candidates) {
         // Use EMA values if available via ServerLoadTracker; otherwise fall back to player counts
         return candidates.stream()
-                .min(Comparator.comparingDouble(ServerCandidate::emaLoad).thenComparing(ServerCandidate::name));
+                .min(Comparator.comparingDouble(RouteSelectionStrategy::rampedLoad).thenComparing(ServerCandidate::name));
     }
 
     /**
@@ -28,7 +28,17 @@ public final class RoutingStats {
     private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> redirectCounts = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, AtomicLong> cumulativeConnectionCounts = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> cumulativeRedirectCounts = new ConcurrentHashMap<>();
-    private volatile Instant lastReset = Instant.now();
+    private final TimeSource time;
+    private volatile Instant lastReset;
+
+    public RoutingStats() {
+        this(TimeSource.system());
+    }
+
+    RoutingStats(TimeSource time) {
+        this.time = time;
+        this.lastReset = Instant.ofEpochMilli(time.millis());
+    }
 
     public void recordConnection(String serverName) {
         if (serverName == null || serverName.isBlank()) {
@@ -114,9 +124,21 @@ public final class RoutingStats {
         return lastReset;
     }
 
+    /**
+     * Adds cumulative counters saved before a restart.
+     */
+    public void restoreCumulative(Map<String, Long> connections, Map<String, Map<String, Long>> redirects) {
+        connections.forEach((server, count) ->
+                cumulativeConnectionCounts.computeIfAbsent(server, k -> new AtomicLong(0)).addAndGet(count));
+        redirects.forEach((reason, servers) -> servers.forEach((server, count) ->
+                cumulativeRedirectCounts.computeIfAbsent(reason, r -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(server, s -> new AtomicLong(0))
+                        .addAndGet(count)));
+    }
+
     public void reset() {
         connectionCounts.clear();
         redirectCounts.clear();
-        lastReset = Instant.now();
+        lastReset = Instant.ofEpochMilli(time.millis());
     }
 }
@@ -15,7 +15,19 @@
  */
 package com.demonz.velocitynavigator;
 
-public record ServerCandidate(String name, int playerCount, int effectiveWeight, double emaLoad, long latency) {
+/**
+ * A routable lobby as seen by {@link RouteSelectionStrategy}. {@code rampFactor} is the
+ * slow-start share of traffic the lobby should currently receive (1.0 = fully warm).
+ */
+public record ServerCandidate(String name, int playerCount, int effectiveWeight, double emaLoad, long latency, double rampFactor) {
+
+    public ServerCandidate {
+        rampFactor = Double.isNaN(rampFactor) ? 1.0 : Math.max(0.0, Math.min(1.0, rampFactor));
+    }
+
+    public ServerCandidate(String name, int playerCount, int effectiveWeight, double emaLoad, long latency) {
+        this(name, playerCount, effectiveWeight, emaLoad, latency, 1.0);
+    }
 
     public ServerCandidate(String name, int playerCount) {
         this(name, playerCount, Config.LobbyEntry.DEFAULT_WEIGHT, playerCount, -1L);
@@ -19,7 +19,6 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import org.slf4j.Logger;
 
-import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
@@ -36,26 +35,71 @@ public final class ServerHealthService {
 
     private final ProxyServer server;
     private final Logger logger;
-    private final HealthCheckCache cache = new HealthCheckCache();
-    private final Clock clock;
+    private final HealthCheckCache cache;
+    private final TimeSource time;
     private CircuitBreaker circuitBreaker;
     private ServerLoadTracker loadTracker;
+    private GroupHierarchy groupHierarchy;
+    private SlowStartTracker slowStartTracker;
+    private volatile ClusterSync clusterSync;
 
     private final ConcurrentMap<String, CompletableFuture<ServerStatus>> activePings = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Long> latencies = new ConcurrentHashMap<>();
+    private final ServerRegistry registry;
+    private final ServerSlots<Long> latencies = new ServerSlots<>();
 
+    /**
+     * Last ping latency of every server that answered its most recent health check.
+     */
     public Map<String, Long> getLatencies() {
-        return java.util.Collections.unmodifiableMap(latencies);
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            Long latency = latencies.get(id);
+            if (latency != null) {
+                snapshot.put(registry.name(id), latency);
+            }
+        }
+        return Map.copyOf(snapshot);
+    }
+
+    /**
+     * Last ping latency of {@code serverName} in milliseconds, or {@code -1} if unknown.
+     */
+    public long latency(String serverName) {
+        return latency(registry.idOf(serverName));
+    }
+
+    /**
+     * {@link #latency(String)} of the server with registry ID {@code id}.
+     */
+    public long latency(int id) {
+        Long latency = latencies.get(id);
+        return latency == null ? -1L : latency;
+    }
+
+    /**
+     * Seeds the last ping latency of {@code serverName} unless it was already pinged.
+     */
+    public void restoreLatency(String serverName, long latencyMillis) {
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            latencies.compareAndSet(id, null, latencyMillis);
+        }
     }
 
     public ServerHealthService(ProxyServer server, Logger logger) {
-        this(server, logger, Clock.systemUTC());
+        this(server, logger, TimeSource.system());
     }
 
-    ServerHealthService(ProxyServer server, Logger logger, Clock clock) {
+    ServerHealthService(ProxyServer server, Logger logger, TimeSource time) {
+        this(server, logger, time, ServerRegistry.shared());
+    }
+
+    ServerHealthService(ProxyServer server, Logger logger, TimeSource time, ServerRegistry registry) {
         this.server = server;
         this.logger = logger;
-        this.clock = clock;
+        this.time = time;
+        this.registry = registry;
+        this.cache = new HealthCheckCache(time);
     }
 
     public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
@@ -66,6 +110,21 @@ public final class ServerHealthService {
         this.loadTracker = loadTracker;
     }
 
+    public void setGroupHierarchy(GroupHierarchy groupHierarchy) {
+        this.groupHierarchy = groupHierarchy;
+    }
+
+    public void setSlowStartTracker(SlowStartTracker slowStartTracker) {
+        this.slowStartTracker = slowStartTracker;
+    }
+
+    /**
+     * Adds the players other proxies report to every count, or only local ones when {@code null}.
+     */
+    public void setClusterSync(ClusterSync clusterSync) {
+        this.clusterSync = clusterSync;
+    }
+
     /**
      * Returns cached player counts from the cache without triggering async operations.
      * Iterates over entries in the cache, for each fresh entry, checks if the server
@@ -85,16 +144,28 @@ public final class ServerHealthService {
             if (registered.isEmpty()) {
                 continue;
             }
-            int playerCount = registered.get().getPlayersConnected().size();
+            int playerCount = playersOn(registered.get(), serverName);
             result.put(serverName, playerCount);
             // Keep EMA load estimates fresh when cached health data is reused.
             if (loadTracker != null) {
                 loadTracker.update(serverName, playerCount);
             }
+            if (groupHierarchy != null) {
+                groupHierarchy.update(serverName, playerCount);
+            }
         }
         return result;
     }
 
+    /**
+     * Whether the most recent health check found {@code serverName} offline.
+     * Servers that have not been checked yet are not reported as offline.
+     */
+    public boolean isKnownOffline(String serverName) {
+        HealthCheckCache.Entry cached = cache.getCached(serverName);
+        return cached != null && !cached.online();
+    }
+
     public Map<String, Integer> getRegisteredOnlineServers(Collection<String> serverNames) {
         Map<String, Integer> result = new LinkedHashMap<>();
         if (serverNames == null) {
@@ -108,12 +179,15 @@ public final class ServerHealthService {
             if (registered.isEmpty()) {
                 continue;
             }
-            int playerCount = registered.get().getPlayersConnected().size();
+            int playerCount = playersOn(registered.get(), serverName);
             String normalized = serverName.toLowerCase(Locale.ROOT);
             result.put(normalized, playerCount);
             if (loadTracker != null) {
                 loadTracker.update(normalized, playerCount);
             }
+            if (groupHierarchy != null) {
+                groupHierarchy.update(normalized, playerCount);
+            }
         }
         return result;
     }
@@ -143,18 +217,17 @@ public final class ServerHealthService {
         }
 
         RegisteredServer registeredServer = optionalServer.get();
-        int players = registeredServer.getPlayersConnected().size();
-        Instant now = clock.instant();
+        int players = playersOn(registeredServer, serverName);
         if (!settings.enabled()) {
-            return CompletableFuture.completedFuture(new ServerStatus(serverName, true, true, false, now, players));
+            return CompletableFuture.completedFuture(new ServerStatus(serverName, true, true, false, Instant.ofEpochMilli(time.millis()), players));
         }
 
-        HealthCheckCache.Entry cachedEntry = cache.getIfFresh(serverName, now, Duration.ofSeconds(settings.cacheSeconds()));
+        HealthCheckCache.Entry cachedEntry = cache.getIfFresh(serverName, Duration.ofSeconds(settings.cacheSeconds()));
         if (cachedEntry != null) {
-            return CompletableFuture.completedFuture(new ServerStatus(serverName, true, cachedEntry.online(), true, cachedEntry.checkedAt(), players));
+            return CompletableFuture.completedFuture(new ServerStatus(serverName, true, cachedEntry.online(), true, cache.checkedAt(cachedEntry), players));
         }
 
-        long startTime = System.currentTimeMillis();
+        long startedAt = time.nanoTime();
 
         // Coalesce concurrent pings: if a ping is already in-flight for this server,
         // reuse that Future instead of firing another network request.
@@ -162,11 +235,13 @@ public final class ServerHealthService {
             CompletableFuture<ServerStatus> pingFuture = registeredServer.ping()
                     .orTimeout(settings.timeoutMs(), TimeUnit.MILLISECONDS)
                     .thenApply(ignored -> {
-                        long latency = System.currentTimeMillis() - startTime;
-                        latencies.put(name.toLowerCase(java.util.Locale.ROOT), latency);
-                        Instant checkedAt = clock.instant();
-                        cache.put(name, true, checkedAt);
-                        int currentPlayers = registeredServer.getPlayersConnected().size();
+                        long latency = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - startedAt);
+                        int id = registry.idOf(name);
+                        if (id != ServerRegistry.UNKNOWN) {
+                            latencies.set(id, latency);
+                        }
+                        Instant checkedAt = cache.checkedAt(cache.put(name, true));
+                        int currentPlayers = playersOn(registeredServer, name);
                         // Record success on circuit breaker
                         if (circuitBreaker != null) {
                             circuitBreaker.recordSuccess(name);
@@ -175,12 +250,20 @@ public final class ServerHealthService {
                         if (loadTracker != null) {
                             loadTracker.update(name, currentPlayers);
                         }
+                        if (groupHierarchy != null) {
+                            groupHierarchy.update(name, currentPlayers);
+                        }
+                        if (slowStartTracker != null) {
+                            slowStartTracker.observe(name, true);
+                        }
                         return new ServerStatus(name, true, true, false, checkedAt, currentPlayers);
                     })
                     .exceptionally(throwable -> {
-                        latencies.remove(name.toLowerCase(java.util.Locale.ROOT));
-                        Instant checkedAt = clock.instant();
-                        cache.put(name, false, checkedAt);
+                        int id = registry.idOf(name);
+                        if (id != ServerRegistry.UNKNOWN) {
+                            latencies.set(id, null);
+                        }
+                        Instant checkedAt = cache.checkedAt(cache.put(name, false));
                         // Record failure on circuit breaker
                         if (circuitBreaker != null) {
                             circuitBreaker.recordFailure(name);
@@ -189,8 +272,14 @@ public final class ServerHealthService {
                         if (loadTracker != null) {
                             loadTracker.update(name, 0);
                         }
+                        if (groupHierarchy != null) {
+                            groupHierarchy.update(name, 0);
+                        }
+                        if (slowStartTracker != null) {
+                            slowStartTracker.observe(name, false);
+                        }
                         logger.debug("VelocityNavigator health check marked {} offline: {}", name, throwable.getMessage());
-                        return new ServerStatus(name, true, false, false, checkedAt, registeredServer.getPlayersConnected().size());
+                        return new ServerStatus(name, true, false, false, checkedAt, playersOn(registeredServer, name));
                     });
 
             // Remove from active pings map once the future completes, so the next
@@ -200,11 +289,27 @@ public final class ServerHealthService {
         });
     }
 
+    private int playersOn(RegisteredServer registered, String serverName) {
+        int players = registered.getPlayersConnected().size();
+        ClusterSync sync = clusterSync;
+        return sync == null ? players : players + sync.remotePlayers(serverName);
+    }
+
     public void clearCache() {
         cache.clear();
         activePings.clear();
     }
 
+    /**
+     * Drops cached health of {@code serverNames}, matched case-insensitively.
+     */
+    public void evict(Collection<String> serverNames) {
+        if (serverNames == null || serverNames.isEmpty()) {
+            return;
+        }
+        cache.entries().keySet().removeIf(name -> serverNames.contains(name.toLowerCase(Locale.ROOT)));
+    }
+
     /**
      * Delegating method to purge expired cache entries.
      */
@@ -15,33 +15,89 @@
  */
 package com.demonz.velocitynavigator;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ServerLoadTracker {
 
+    private static final long UNSET = Double.doubleToRawLongBits(Double.NaN);
+
     private final double smoothingFactor;
-    private final ConcurrentMap<String, Double> emaValues = new ConcurrentHashMap<>();
+    private final ServerRegistry registry;
+    // EMA per server ID, stored as double bits
+    private final ServerSlots<AtomicLong> emaValues = new ServerSlots<>();
 
     public ServerLoadTracker(double smoothingFactor) {
+        this(smoothingFactor, ServerRegistry.shared());
+    }
+
+    ServerLoadTracker(double smoothingFactor, ServerRegistry registry) {
         this.smoothingFactor = Math.max(0.01, Math.min(1.0, smoothingFactor));
+        this.registry = registry;
     }
 
     public void update(String serverName, int currentPlayers) {
-        emaValues.compute(serverName, (key, previous) -> {
-            if (previous == null) {
-                return (double) currentPlayers;
-            }
-            return smoothingFactor * currentPlayers + (1.0 - smoothingFactor) * previous;
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        AtomicLong ema = emaValues.computeIfAbsent(id, ignored -> new AtomicLong(UNSET));
+        ema.getAndUpdate(bits -> {
+            double previous = Double.longBitsToDouble(bits);
+            double next = Double.isNaN(previous)
+                    ? currentPlayers
+                    : smoothingFactor * currentPlayers + (1.0 - smoothingFactor) * previous;
+            return Double.doubleToRawLongBits(next);
         });
     }
 
     public double getEma(String serverName) {
-        return emaValues.getOrDefault(serverName, 0.0);
+        return getEma(registry.idOf(serverName));
+    }
+
+    /**
+     * EMA of the server with registry ID {@code id}.
+     */
+    public double getEma(int id) {
+        AtomicLong ema = emaValues.get(id);
+        if (ema == null) {
+            return 0.0;
+        }
+        double value = Double.longBitsToDouble(ema.get());
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    public Map<String, Double> snapshot() {
+        Map<String, Double> snapshot = new HashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            AtomicLong ema = emaValues.get(id);
+            if (ema != null) {
+                double value = Double.longBitsToDouble(ema.get());
+                if (!Double.isNaN(value)) {
+                    snapshot.put(registry.name(id), value);
+                }
+            }
+        }
+        return Map.copyOf(snapshot);
+    }
+
+    /**
+     * Seeds the EMA of {@code serverName} unless a live sample already arrived.
+     */
+    public void restore(String serverName, double ema) {
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            emaValues.computeIfAbsent(id, ignored -> new AtomicLong(UNSET))
+                    .compareAndSet(UNSET, Double.doubleToRawLongBits(ema));
+        }
     }
 
     public void remove(String serverName) {
-        emaValues.remove(serverName);
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            emaValues.set(id, null);
+        }
     }
 
     public void clear() {
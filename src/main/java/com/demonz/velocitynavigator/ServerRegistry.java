@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Gives every backend a dense integer ID, shared by all per-server state.
+ * <p>
+ * A server is interned once, when it is registered with the proxy or named in the
+ * config, under its lower-cased name; any spelling of a known server then resolves
+ * to the same ID through a cache of spellings, without lower-casing on every call.
+ * IDs are never reused, so state indexed by them in {@link ServerSlots} can never
+ * be mixed up between servers, whatever case a caller passes.
+ * <p>
+ * Everything else looks IDs up with {@link #idOf} and ignores servers that were never
+ * interned, so commands with typos or stale saved state cannot use IDs up.
+ */
+public final class ServerRegistry {
+
+    /** ID returned for servers that were never interned. */
+    public static final int UNKNOWN = -1;
+
+    static final int MAX_SERVERS = ServerSlots.CAPACITY;
+
+    private static final ServerRegistry SHARED = new ServerRegistry();
+
+    private final ConcurrentMap<String, Integer> byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> bySpelling = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private volatile int size;
+
+    ServerRegistry() {
+    }
+
+    /**
+     * The registry used by every service of the plugin.
+     */
+    public static ServerRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * ID of {@code serverName}, assigning the next free one if it is new. Returns
+     * {@link #UNKNOWN} once {@link #MAX_SERVERS} IDs are in use; such a server keeps
+     * no per-server state but can still be routed to.
+     */
+    public int intern(String serverName) {
+        if (serverName == null) {
+            serverName = "";
+        }
+        int id = idOf(serverName);
+        if (id != UNKNOWN) {
+            return id;
+        }
+        String name = normalize(serverName);
+        synchronized (this) {
+            Integer existing = byName.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (size >= MAX_SERVERS) {
+                return UNKNOWN;
+            }
+            id = size;
+            String[] current = names;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[id] = name;
+            names = current;
+            size = id + 1;
+            byName.put(name, id);
+        }
+        bySpelling.put(serverName, id);
+        return id;
+    }
+
+    public void internAll(Collection<String> serverNames) {
+        for (String serverName : serverNames) {
+            if (serverName != null && !serverName.isBlank()) {
+                intern(serverName);
+            }
+        }
+    }
+
+    /**
+     * ID of {@code serverName}, or {@link #UNKNOWN} if it was never interned.
+     */
+    public int idOf(String serverName) {
+        if (serverName == null) {
+            return UNKNOWN;
+        }
+        Integer id = bySpelling.get(serverName);
+        if (id != null) {
+            return id;
+        }
+        id = byName.get(normalize(serverName));
+        if (id == null) {
+            return UNKNOWN;
+        }
+        // Only spellings of known servers are cached, so typos cannot grow the cache
+        bySpelling.put(serverName, id);
+        return id;
+    }
+
+    /**
+     * Lower-cased name of {@code id}.
+     */
+    public String name(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown server id: " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * Number of IDs handed out; valid IDs are {@code 0} to {@code size() - 1}.
+     */
+    public int size() {
+        return size;
+    }
+
+    static String normalize(String serverName) {
+        return serverName == null ? "" : serverName.toLowerCase(Locale.ROOT);
+    }
+}
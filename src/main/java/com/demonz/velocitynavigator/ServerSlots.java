@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Per-server values indexed by {@link ServerRegistry} ID.
+ * <p>
+ * Values live in chunks of 256 slots that are allocated on first use and never
+ * moved, so reads and writes are plain array accesses without locks, hashing or
+ * copying when the registry grows.
+ */
+final class ServerSlots<T> {
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNKS = 256;
+
+    static final int CAPACITY = CHUNK_SIZE * CHUNKS;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks = new AtomicReferenceArray<>(CHUNKS);
+
+    T get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        AtomicReferenceArray<T> chunk = chunks.get(id >>> CHUNK_BITS);
+        return chunk == null ? null : chunk.get(id & (CHUNK_SIZE - 1));
+    }
+
+    void set(int id, T value) {
+        chunk(id).set(id & (CHUNK_SIZE - 1), value);
+    }
+
+    boolean compareAndSet(int id, T expected, T value) {
+        return chunk(id).compareAndSet(id & (CHUNK_SIZE - 1), expected, value);
+    }
+
+    T getAndSet(int id, T value) {
+        return chunk(id).getAndSet(id & (CHUNK_SIZE - 1), value);
+    }
+
+    T computeIfAbsent(int id, IntFunction<T> factory) {
+        T current = get(id);
+        if (current != null) {
+            return current;
+        }
+        T created = factory.apply(id);
+        return compareAndSet(id, null, created) ? created : get(id);
+    }
+
+    void clear() {
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks.set(i, null);
+        }
+    }
+
+    private AtomicReferenceArray<T> chunk(int id) {
+        int index = id >>> CHUNK_BITS;
+        AtomicReferenceArray<T> chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+}
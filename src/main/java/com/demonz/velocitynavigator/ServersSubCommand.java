@@ -160,11 +160,19 @@ public final class ServersSubCommand {
                             maxPlayersText = String.valueOf(maxConfig);
                         }
 
+                        String rampText = "";
+                        if (online && plugin.slowStartTracker() != null) {
+                            double ramp = plugin.slowStartTracker().factor(lobbyName, config.slowStart());
+                            if (ramp < 1.0) {
+                                rampText = " <gray>|</gray> <gray>Ramp:</gray> <white>" + Math.round(ramp * 100) + "%</white>";
+                            }
+                        }
+
                         source.sendMessage(MessageFormatter.render(
                                 "  <gray>•</gray> <white><bold>" + lobbyName + "</bold></white> <gray>|</gray> " +
                                 "<gray>Players:</gray> <white>" + currentPlayers + "/" + maxPlayersText + "</white> <gray>|</gray> " +
                                 "<gray>CB:</gray> <white>" + cbState + "</white> <gray>|</gray> " +
-                                "<gray>Status:</gray> " + colorTag + statusText
+                                "<gray>Status:</gray> " + colorTag + statusText + rampText
                         ));
                     }
                     source.sendMessage(MessageFormatter.render("<gray>--------------------------------------------------</gray>"));
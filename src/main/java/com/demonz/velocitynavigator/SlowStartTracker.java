@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks lobbies that recently came online so routing can ramp traffic to them
+ * gradually instead of flooding a cold server with every new player.
+ * <p>
+ * A ramp starts when a lobby is registered with the proxy, when a health check
+ * sees it go from offline back to online, or when its circuit breaker closes
+ * again. Lobbies that are merely seen for the first time, e.g. after a reload,
+ * are assumed to be warm.
+ */
+public final class SlowStartTracker {
+
+    private final TimeSource time;
+    private final ServerRegistry registry;
+    private final ServerSlots<Boolean> lastOnline = new ServerSlots<>();
+    private final ServerSlots<Long> rampStarted = new ServerSlots<>();
+
+    public SlowStartTracker() {
+        this(TimeSource.system(), ServerRegistry.shared());
+    }
+
+    SlowStartTracker(TimeSource time) {
+        this(time, ServerRegistry.shared());
+    }
+
+    SlowStartTracker(TimeSource time, ServerRegistry registry) {
+        this.time = time;
+        this.registry = registry;
+    }
+
+    /**
+     * Records a health observation and starts a ramp on an offline → online transition.
+     */
+    public void observe(String serverName, boolean online) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        Boolean previous = lastOnline.getAndSet(id, online);
+        if (online && Boolean.FALSE.equals(previous)) {
+            rampStarted.set(id, time.nanoTime());
+        }
+    }
+
+    /**
+     * Starts a ramp for a lobby that has just been registered or restarted.
+     */
+    public void markStarted(String serverName) {
+        int id = registry.idOf(serverName);
+        if (id == ServerRegistry.UNKNOWN) {
+            return;
+        }
+        lastOnline.set(id, Boolean.TRUE);
+        rampStarted.set(id, time.nanoTime());
+    }
+
+    /**
+     * Returns the share of normal traffic {@code serverName} should receive right now,
+     * between {@code settings.minFactor()} and {@code 1.0}.
+     */
+    public double factor(String serverName, Config.SlowStartSettings settings) {
+        return factor(registry.idOf(serverName), settings);
+    }
+
+    /**
+     * Ramp factor of the server with registry ID {@code id}.
+     */
+    public double factor(int id, Config.SlowStartSettings settings) {
+        if (settings == null || !settings.enabled()) {
+            return 1.0;
+        }
+        Long started = rampStarted.get(id);
+        if (started == null) {
+            return 1.0;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - started);
+        long windowMillis = settings.durationSeconds() * 1000L;
+        if (elapsedMillis >= windowMillis) {
+            rampStarted.compareAndSet(id, started, null);
+            return 1.0;
+        }
+        double progress = Math.max(0.0, (double) elapsedMillis / windowMillis);
+        double floor = settings.minFactor();
+        if (settings.curve() == Config.SlowStartCurve.EXPONENTIAL) {
+            // Geometric growth: multiplies by a constant ratio per second from the floor up to 1.0
+            return floor * Math.pow(1.0 / floor, progress);
+        }
+        return floor + (1.0 - floor) * progress;
+    }
+
+    /**
+     * Current ramp factors of every lobby that is still warming up.
+     */
+    public Map<String, Double> rampingFactors(Config.SlowStartSettings settings) {
+        Map<String, Double> factors = new HashMap<>();
+        for (int id = 0, size = registry.size(); id < size; id++) {
+            if (rampStarted.get(id) != null) {
+                double factor = factor(id, settings);
+                if (factor < 1.0) {
+                    factors.put(registry.name(id), factor);
+                }
+            }
+        }
+        return Map.copyOf(factors);
+    }
+
+    public void remove(String serverName) {
+        int id = registry.idOf(serverName);
+        if (id != ServerRegistry.UNKNOWN) {
+            lastOnline.set(id, null);
+            rampStarted.set(id, null);
+        }
+    }
+}
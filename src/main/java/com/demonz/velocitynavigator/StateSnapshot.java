@@ -0,0 +1,560 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Warm-restart snapshot of routing state, kept in a memory-mapped file.
+ * <p>
+ * The file holds a {@value #HEADER_BYTES}-byte header (magic, format version, write
+ * time, body length and CRC32 of the region directory), a directory of up to
+ * {@value #MAX_REGIONS} regions (type, offset, length and CRC32 of each), then the
+ * regions at fixed offsets with room to grow: circuit breakers, load EMAs, ping
+ * latencies, affinity lobby names, one region per {@link AffinityStore} segment, and
+ * the cumulative routing counters last. Unknown region types are skipped, so older
+ * builds can read newer files.
+ * <p>
+ * The small per-server regions are re-encoded each flush and copied only if their
+ * bytes changed. Affinity regions hold one {@value #AFFINITY_RECORD_BYTES}-byte record
+ * per table slot, and only the slots the store reports as changed are rewritten. The
+ * directory and header go last; a flush torn by a crash fails a checksum on the next
+ * start and is ignored.
+ */
+final class StateSnapshot {
+
+    static final int MAGIC = 0x564E5354;
+    static final short FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int AFFINITY_RECORD_BYTES = 22;
+    static final int MAX_REGIONS = 5 + AffinityStore.MAX_SEGMENTS;
+
+    private static final int DIRECTORY_ENTRY_BYTES = 13;
+    private static final int DIRECTORY_BYTES = 4 + MAX_REGIONS * DIRECTORY_ENTRY_BYTES;
+    private static final int MIN_REGION_ROOM = 256;
+    private static final int MAP_GROWTH = 64 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte SECTION_AFFINITY = 1;
+    private static final byte SECTION_BREAKERS = 2;
+    private static final byte SECTION_LOADS = 3;
+    private static final byte SECTION_LATENCIES = 4;
+    private static final byte SECTION_ROUTING = 5;
+    private static final byte SECTION_AFFINITY_NAMES = 6;
+    private static final int BREAKERS = 0;
+    private static final int LOADS = 1;
+    private static final int LATENCIES = 2;
+    private static final int AFFINITY_NAMES = 3;
+    private static final int FIRST_AFFINITY = 4;
+
+    /**
+     * An affinity read back from the file, with its absolute expiry.
+     */
+    record SavedAffinity(UUID playerId, String server, long expiresAtMillis) {
+    }
+
+    /**
+     * Everything read back from the file; {@code ageMillis} is the time since it was last flushed.
+     */
+    record Restored(
+            long ageMillis,
+            List<SavedAffinity> affinities,
+            List<CircuitBreaker.SavedState> breakers,
+            Map<String, Double> loads,
+            Map<String, Long> latencies,
+            Map<String, Long> connections,
+            Map<String, Map<String, Long>> redirects
+    ) {
+    }
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private final List<Region> regions = new ArrayList<>();
+    private final Map<String, Integer> affinityNameRefs = new HashMap<>();
+    private final List<String> affinityNames = new ArrayList<>();
+    private byte[] lastDirectory = EMPTY;
+    private long bytesWritten;
+
+    StateSnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Writes the current state. Returns the number of body bytes copied, 0 if nothing changed.
+     */
+    synchronized int flush(long nowMillis, PlayerAffinityService affinity, CircuitBreaker breaker,
+                           ServerLoadTracker loads, Map<String, Long> latencies, RoutingStats stats) throws IOException {
+        int segments = affinity == null ? 0 : affinity.segmentCount();
+        if (regions.size() != FIRST_AFFINITY + segments + 1) {
+            layout(segments);
+        }
+        regions.get(BREAKERS).replace(breaker == null ? EMPTY : encode(data -> writeBreakers(data, breaker)));
+        regions.get(LOADS).replace(loads == null ? EMPTY : encode(data -> writeLoads(data, loads)));
+        regions.get(LATENCIES).replace(latencies == null ? EMPTY : encode(data -> writeCounts(data, latencies)));
+        if (affinity != null) {
+            affinity.drainChanges(nowMillis, this::writeAffinity);
+            regions.get(AFFINITY_NAMES).replace(encode(this::writeAffinityNames));
+        }
+        regions.get(regions.size() - 1).replace(stats == null ? EMPTY : encode(data -> writeRouting(data, stats)));
+
+        int bodyLength = place();
+        MappedByteBuffer buffer = map(HEADER_BYTES + (long) bodyLength);
+        int written = 0;
+        for (Region region : regions) {
+            written += region.copyChanges(buffer);
+        }
+        byte[] directory = directory();
+        if (!Arrays.equals(directory, lastDirectory)) {
+            buffer.put(HEADER_BYTES, directory);
+            written += directory.length;
+            lastDirectory = directory;
+        }
+        buffer.force();
+
+        CRC32 crc = new CRC32();
+        crc.update(directory);
+        buffer.position(0);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(nowMillis);
+        buffer.putInt(bodyLength);
+        buffer.putInt((int) crc.getValue());
+        buffer.force();
+
+        bytesWritten += written;
+        return written;
+    }
+
+    /**
+     * Reads the file, or returns empty if it is missing, from another format version, or damaged.
+     */
+    Optional<Restored> read(long nowMillis) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+            return Optional.empty();
+        }
+        buffer.getShort();
+        long writtenAt = buffer.getLong();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length < DIRECTORY_BYTES || HEADER_BYTES + (long) length > buffer.capacity()) {
+            return Optional.empty();
+        }
+        ByteBuffer body = ByteBuffer.wrap(buffer.array(), HEADER_BYTES, length).slice();
+        if (checksum(body, 0, DIRECTORY_BYTES) != checksum) {
+            return Optional.empty();
+        }
+        try {
+            return decode(body, Math.max(0L, nowMillis - writtenAt));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
+    synchronized long bytesWritten() {
+        return bytesWritten;
+    }
+
+    synchronized void close() throws IOException {
+        if (mapping != null) {
+            mapping.force();
+            mapping = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Pulls each value toward the mean of all of them, keeping {@code 0.5^(ageMillis / halfLifeMillis)}
+     * of its distance, so differences between servers seen long ago fade instead of steering routing.
+     */
+    static Map<String, Double> decayTowardMean(Map<String, ? extends Number> values, long ageMillis, long halfLifeMillis) {
+        if (values.isEmpty()) {
+            return Map.of();
+        }
+        double mean = 0.0;
+        for (Number value : values.values()) {
+            mean += value.doubleValue();
+        }
+        mean /= values.size();
+        double keep = ageMillis <= 0L ? 1.0 : halfLifeMillis <= 0L ? 0.0 : Math.pow(0.5, (double) ageMillis / halfLifeMillis);
+        Map<String, Double> decayed = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+            decayed.put(entry.getKey(), mean + (entry.getValue().doubleValue() - mean) * keep);
+        }
+        return decayed;
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        if (channel == null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            mapping = null;
+        }
+        if (mapping == null || mapping.capacity() < size) {
+            long mapped = (size + MAP_GROWTH - 1) / MAP_GROWTH * MAP_GROWTH;
+            mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped);
+        }
+        return mapping;
+    }
+
+    /**
+     * Starts over with empty regions for {@code segments} affinity segments; the next
+     * flush writes every region.
+     */
+    private void layout(int segments) {
+        regions.clear();
+        regions.add(new Region(SECTION_BREAKERS));
+        regions.add(new Region(SECTION_LOADS));
+        regions.add(new Region(SECTION_LATENCIES));
+        regions.add(new Region(SECTION_AFFINITY_NAMES));
+        for (int i = 0; i < segments; i++) {
+            regions.add(new Region(SECTION_AFFINITY));
+        }
+        regions.add(new Region(SECTION_ROUTING));
+        affinityNameRefs.clear();
+        affinityNames.clear();
+        lastDirectory = EMPTY;
+    }
+
+    /**
+     * Gives regions that outgrew their room a new offset, moving every region after the
+     * first such one, and returns the body length. Counters grow most, so they sit last.
+     */
+    private int place() {
+        int offset = DIRECTORY_BYTES;
+        boolean moving = false;
+        for (Region region : regions) {
+            moving |= region.offset < DIRECTORY_BYTES || region.data.length > region.room;
+            if (moving) {
+                region.offset = offset;
+                region.room = Math.max(MIN_REGION_ROOM, region.data.length + region.data.length / 2);
+                region.markChanged(0, region.data.length);
+            }
+            offset = region.offset + region.room;
+        }
+        return offset;
+    }
+
+    private byte[] directory() {
+        ByteBuffer directory = ByteBuffer.allocate(DIRECTORY_BYTES);
+        directory.putInt(regions.size());
+        for (Region region : regions) {
+            directory.put(region.type);
+            directory.putInt(region.offset);
+            directory.putInt(region.data.length);
+            directory.putInt(region.crc);
+        }
+        return directory.array();
+    }
+
+    /**
+     * One affinity slot as a fixed-size record: UUID, lobby name reference (0 for an
+     * empty slot) and expiry in epoch seconds.
+     */
+    private void writeAffinity(int segment, int slots, int slot, long high, long low, String server, long expiresAtMillis) {
+        Region region = regions.get(FIRST_AFFINITY + segment);
+        int length = Integer.BYTES + slots * AFFINITY_RECORD_BYTES;
+        if (region.data.length != length) {
+            // Resized tables report every slot, so the fresh array is filled in full
+            region.data = new byte[length];
+            ByteBuffer.wrap(region.data).putInt(0, slots);
+            region.markChanged(0, length);
+        }
+        int ref = server == null ? 0 : nameRef(server);
+        int at = Integer.BYTES + slot * AFFINITY_RECORD_BYTES;
+        ByteBuffer record = ByteBuffer.wrap(region.data, at, AFFINITY_RECORD_BYTES);
+        record.putLong(ref == 0 ? 0L : high);
+        record.putLong(ref == 0 ? 0L : low);
+        record.putShort((short) ref);
+        record.putInt(ref == 0 ? 0 : (int) (expiresAtMillis / 1000L));
+        region.markChanged(at, at + AFFINITY_RECORD_BYTES);
+    }
+
+    private int nameRef(String server) {
+        Integer ref = affinityNameRefs.get(server);
+        if (ref == null) {
+            if (affinityNames.size() >= 0xFFFF) {
+                return 0;
+            }
+            affinityNames.add(server);
+            ref = affinityNames.size();
+            affinityNameRefs.put(server, ref);
+        }
+        return ref;
+    }
+
+    private void writeAffinityNames(DataOutputStream data) throws IOException {
+        data.writeShort(affinityNames.size());
+        for (String name : affinityNames) {
+            data.writeUTF(name);
+        }
+    }
+
+    private static void writeBreakers(DataOutputStream data, CircuitBreaker breaker) throws IOException {
+        List<CircuitBreaker.SavedState> states = new ArrayList<>(breaker.export());
+        states.sort(Comparator.comparing(CircuitBreaker.SavedState::server));
+        data.writeInt(states.size());
+        for (CircuitBreaker.SavedState state : states) {
+            data.writeUTF(state.server());
+            data.writeByte(state.state().ordinal());
+            data.writeInt(state.failureCount());
+            data.writeLong(state.openSinceMillis());
+            data.writeLong(state.trips());
+        }
+    }
+
+    private static void writeLoads(DataOutputStream data, ServerLoadTracker loads) throws IOException {
+        Map<String, Double> emas = new TreeMap<>(loads.snapshot());
+        data.writeInt(emas.size());
+        for (Map.Entry<String, Double> entry : emas.entrySet()) {
+            data.writeUTF(entry.getKey());
+            data.writeDouble(entry.getValue());
+        }
+    }
+
+    private static void writeRouting(DataOutputStream data, RoutingStats stats) throws IOException {
+        Map<String, Map<String, Long>> redirects = stats.getCumulativeRedirectCounts();
+        writeCounts(data, stats.getCumulativeDistribution());
+        data.writeInt(redirects.size());
+        for (Map.Entry<String, Map<String, Long>> reason : new TreeMap<>(redirects).entrySet()) {
+            data.writeUTF(reason.getKey());
+            writeCounts(data, reason.getValue());
+        }
+    }
+
+    private static void writeCounts(DataOutputStream data, Map<String, Long> counts) throws IOException {
+        data.writeInt(counts.size());
+        // Sorted so that unchanged counters encode to the same bytes
+        for (Map.Entry<String, Long> entry : new TreeMap<>(counts).entrySet()) {
+            data.writeUTF(entry.getKey());
+            data.writeLong(entry.getValue());
+        }
+    }
+
+    private interface SectionWriter {
+        void write(DataOutputStream data) throws IOException;
+    }
+
+    private static byte[] encode(SectionWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        writer.write(data);
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    private static int checksum(ByteBuffer body, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(body.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static Optional<Restored> decode(ByteBuffer body, long ageMillis) {
+        List<SavedAffinity> affinities = new ArrayList<>();
+        List<CircuitBreaker.SavedState> breakers = new ArrayList<>();
+        Map<String, Double> loads = new LinkedHashMap<>();
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        Map<String, Long> connections = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> redirects = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        List<ByteBuffer> affinityRegions = new ArrayList<>();
+        int count = body.getInt(0);
+        if (count < 0 || count > MAX_REGIONS) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = Integer.BYTES + i * DIRECTORY_ENTRY_BYTES;
+            byte type = body.get(entry);
+            int offset = body.getInt(entry + 1);
+            int length = body.getInt(entry + 5);
+            if (offset < DIRECTORY_BYTES || length < 0 || (long) offset + length > body.capacity()
+                    || checksum(body, offset, length) != body.getInt(entry + 9)) {
+                return Optional.empty();
+            }
+            ByteBuffer data = body.slice(offset, length);
+            if (length == 0) {
+                continue;
+            }
+            switch (type) {
+                case SECTION_AFFINITY -> affinityRegions.add(data);
+                case SECTION_AFFINITY_NAMES -> {
+                    int nameCount = Short.toUnsignedInt(data.getShort());
+                    for (int n = 0; n < nameCount; n++) {
+                        names.add(readUtf(data));
+                    }
+                }
+                case SECTION_BREAKERS -> {
+                    int breakerCount = data.getInt();
+                    CircuitBreaker.State[] states = CircuitBreaker.State.values();
+                    for (int n = 0; n < breakerCount; n++) {
+                        String server = readUtf(data);
+                        int state = data.get();
+                        breakers.add(new CircuitBreaker.SavedState(server,
+                                state >= 0 && state < states.length ? states[state] : CircuitBreaker.State.CLOSED,
+                                data.getInt(), data.getLong(), data.getLong()));
+                    }
+                }
+                case SECTION_LOADS -> {
+                    int loadCount = data.getInt();
+                    for (int n = 0; n < loadCount; n++) {
+                        loads.put(readUtf(data), data.getDouble());
+                    }
+                }
+                case SECTION_LATENCIES -> readCounts(data, latencies);
+                case SECTION_ROUTING -> {
+                    readCounts(data, connections);
+                    int reasons = data.getInt();
+                    for (int n = 0; n < reasons; n++) {
+                        String reason = readUtf(data);
+                        readCounts(data, redirects.computeIfAbsent(reason, r -> new LinkedHashMap<>()));
+                    }
+                }
+                default -> {
+                    // Written by a newer build
+                }
+            }
+        }
+        for (ByteBuffer data : affinityRegions) {
+            int slots = data.getInt();
+            for (int slot = 0; slot < slots; slot++) {
+                long high = data.getLong();
+                long low = data.getLong();
+                int ref = Short.toUnsignedInt(data.getShort());
+                long expiresAtMillis = Integer.toUnsignedLong(data.getInt()) * 1000L;
+                if (ref != 0 && ref <= names.size()) {
+                    affinities.add(new SavedAffinity(new UUID(high, low), names.get(ref - 1), expiresAtMillis));
+                }
+            }
+        }
+        return Optional.of(new Restored(ageMillis, affinities, breakers, loads, latencies, connections, redirects));
+    }
+
+    private static void readCounts(ByteBuffer data, Map<String, Long> into) {
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            into.put(readUtf(data), data.getLong());
+        }
+    }
+
+    /**
+     * Reads a string written by {@link DataOutputStream#writeUTF}; names are plain
+     * server and reason identifiers, so modified UTF-8 decodes as standard UTF-8.
+     */
+    private static String readUtf(ByteBuffer data) {
+        byte[] bytes = new byte[Short.toUnsignedInt(data.getShort())];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One region of the body: its current bytes, where it sits in the file, how much room
+     * it has there, and the byte ranges changed since the last flush.
+     */
+    private static final class Region {
+        private final byte type;
+        private byte[] data = EMPTY;
+        private int offset = -1;
+        private int room;
+        private int crc;
+        private boolean changed;
+        // Changed [from, to) pairs; one starting inside the last pair extends it
+        private int[] ranges = new int[8];
+        private int rangeCount;
+
+        private Region(byte type) {
+            this.type = type;
+        }
+
+        private void replace(byte[] bytes) {
+            if (!Arrays.equals(bytes, data)) {
+                data = bytes;
+                markChanged(0, bytes.length);
+            }
+        }
+
+        private void markChanged(int from, int to) {
+            changed = true;
+            if (from == 0 && to >= data.length) {
+                ranges[0] = 0;
+                ranges[1] = data.length;
+                rangeCount = 1;
+                return;
+            }
+            if (rangeCount > 0 && from <= ranges[rangeCount * 2 - 1] && from >= ranges[rangeCount * 2 - 2]) {
+                ranges[rangeCount * 2 - 1] = Math.max(ranges[rangeCount * 2 - 1], to);
+                return;
+            }
+            if (rangeCount * 2 == ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[rangeCount * 2] = from;
+            ranges[rangeCount * 2 + 1] = to;
+            rangeCount++;
+        }
+
+        /**
+         * Copies the changed ranges into the mapping and returns how many bytes that was.
+         */
+        private int copyChanges(MappedByteBuffer buffer) {
+            if (!changed) {
+                return 0;
+            }
+            int copied = 0;
+            for (int i = 0; i < rangeCount; i++) {
+                int from = ranges[i * 2];
+                int to = Math.min(ranges[i * 2 + 1], data.length);
+                if (to > from) {
+                    buffer.put(HEADER_BYTES + offset + from, data, from, to - from);
+                    copied += to - from;
+                }
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(data);
+            crc = (int) checksum.getValue();
+            changed = false;
+            rangeCount = 0;
+            return copied;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TimeSource} backed by {@link System#nanoTime()} and {@link System#currentTimeMillis()}.
+ * <p>
+ * The coarse reading is refreshed by one scheduler task calling {@link #tick()}.
+ * Until that task runs, and after {@link #stop()}, coarse reads fall back to the
+ * precise clock, so nothing reads a frozen time.
+ */
+final class SystemTimeSource implements TimeSource {
+
+    static final long TICK_MILLIS = 20L;
+
+    static final SystemTimeSource INSTANCE = new SystemTimeSource();
+
+    private volatile long cachedMillis;
+    private volatile boolean ticking;
+
+    private SystemTimeSource() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long coarseMillis() {
+        return ticking ? cachedMillis : monotonicMillis();
+    }
+
+    void tick() {
+        cachedMillis = monotonicMillis();
+        ticking = true;
+    }
+
+    private static long monotonicMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    void stop() {
+        ticking = false;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+/**
+ * Time as seen by routing state: monotonic nanoseconds for measuring durations,
+ * wall-clock milliseconds for anything shown to users or saved to disk, and a
+ * cached coarse monotonic reading for hot paths that only need to be accurate to a tick.
+ * <p>
+ * Services take one of these instead of calling {@code Instant.now()}, so checks
+ * are allocation-free, durations survive wall-clock jumps, and tests can drive
+ * time deterministically.
+ */
+public interface TimeSource {
+
+    /**
+     * Monotonic nanoseconds with an arbitrary origin; only differences are meaningful.
+     */
+    long nanoTime();
+
+    /**
+     * Wall-clock epoch milliseconds.
+     */
+    long millis();
+
+    /**
+     * Monotonic milliseconds as of the last tick, at most one tick behind {@link #nanoTime()};
+     * only differences are meaningful.
+     */
+    long coarseMillis();
+
+    /**
+     * The process-wide source backed by the system clocks.
+     */
+    static TimeSource system() {
+        return SystemTimeSource.INSTANCE;
+    }
+}
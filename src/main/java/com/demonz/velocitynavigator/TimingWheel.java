@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of keys made of two longs, such as UUIDs.
+ * <p>
+ * Each of the {@value #LEVELS} levels has {@value #SLOTS} slots; a level covers
+ * {@value #SLOTS} times the span of the one below. A key is filed in the lowest level
+ * whose slot boundary it shares with the current tick, and cascades down a level each
+ * time the wheel reaches its slot, so scheduling and expiring are O(1) amortised.
+ * Keys are never cancelled: the owner checks on expiry whether the key was rescheduled
+ * since, and ignores stale deadlines. Not thread-safe; owners synchronise around it.
+ */
+final class TimingWheel {
+
+    static final int LEVEL_BITS = 6;
+    static final int SLOTS = 1 << LEVEL_BITS;
+    static final int LEVELS = 4;
+
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * Receives each key whose deadline has been reached.
+     */
+    interface Expiry {
+        void expire(long high, long low, long deadline);
+    }
+
+    private final Bucket[][] buckets = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private long pending;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        for (Bucket[] level : buckets) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Files {@code high}/{@code low} to expire once the wheel reaches {@code deadline};
+     * deadlines already reached fire on the next tick.
+     */
+    void schedule(long high, long low, long deadline) {
+        long due = Math.max(deadline, currentTick + 1);
+        int level = 0;
+        while (level < LEVELS - 1 && (due >>> (LEVEL_BITS * (level + 1))) != (currentTick >>> (LEVEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((due >>> (LEVEL_BITS * level)) & MASK);
+        buckets[level][slot].add(high, low, deadline);
+        pending++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick}, handing every key that became due to {@code expiry}.
+     */
+    void advance(long tick, Expiry expiry) {
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (LEVEL_BITS * level)) - 1)) == 0) {
+                    cascade(buckets[level][(int) ((currentTick >>> (LEVEL_BITS * level)) & MASK)]);
+                }
+            }
+            Bucket due = buckets[0][(int) (currentTick & MASK)];
+            if (due.size == 0) {
+                continue;
+            }
+            int count = due.size;
+            long[] entries = due.take();
+            for (int i = 0; i < count; i++) {
+                long deadline = entries[i * 3 + 2];
+                pending--;
+                if (deadline <= currentTick) {
+                    expiry.expire(entries[i * 3], entries[i * 3 + 1], deadline);
+                } else {
+                    schedule(entries[i * 3], entries[i * 3 + 1], deadline);
+                }
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Scheduled keys, including stale ones not yet reached.
+     */
+    long pending() {
+        return pending;
+    }
+
+    void clear() {
+        for (Bucket[] level : buckets) {
+            for (Bucket bucket : level) {
+                bucket.take();
+            }
+        }
+        pending = 0;
+    }
+
+    private void cascade(Bucket bucket) {
+        if (bucket.size == 0) {
+            return;
+        }
+        int count = bucket.size;
+        long[] entries = bucket.take();
+        pending -= count;
+        for (int i = 0; i < count; i++) {
+            schedule(entries[i * 3], entries[i * 3 + 1], entries[i * 3 + 2]);
+        }
+    }
+
+    /**
+     * Growable array of (high, low, deadline) triples.
+     */
+    private static final class Bucket {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] entries = EMPTY;
+        private int size;
+
+        private void add(long high, long low, long deadline) {
+            if ((size + 1) * 3 > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(12, entries.length * 2));
+            }
+            entries[size * 3] = high;
+            entries[size * 3 + 1] = low;
+            entries[size * 3 + 2] = deadline;
+            size++;
+        }
+
+        /**
+         * Empties the bucket and returns its backing array; read {@code size} first.
+         */
+        private long[] take() {
+            long[] taken = entries;
+            entries = EMPTY;
+            size = 0;
+            return taken;
+        }
+    }
+}
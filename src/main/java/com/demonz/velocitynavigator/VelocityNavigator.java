@@ -18,12 +18,19 @@ package com.demonz.velocitynavigator;
 import com.google.inject.Inject;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.command.CommandMeta;
+import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.command.CommandExecuteEvent;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.KickedFromServerEvent;
+import com.velocitypowered.api.event.player.PlayerChatEvent;
 import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.event.proxy.server.ServerRegisteredEvent;
+import com.velocitypowered.api.event.proxy.server.ServerUnregisteredEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
@@ -39,16 +46,22 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Plugin(
@@ -65,20 +78,44 @@ public final class VelocityNavigator implements NavigatorAPI {
     private final Path dataDirectory;
     private final Metrics.Factory metricsFactory;
     private final String pluginVersion;
-    private final CooldownService cooldownService = new CooldownService();
+    private final ExpiryEngine expiryEngine = new ExpiryEngine();
+    private final CooldownService cooldownService = new CooldownService(expiryEngine);
+    private final TimeSource time = TimeSource.system();
     private final RouteSelectionStrategy selectionStrategy = new RouteSelectionStrategy();
     private final RoutingStats routingStats = new RoutingStats();
     private final DrainService drainService = new DrainService();
+    private final ApertureSelector apertureSelector = new ApertureSelector();
+    private final SlowStartTracker slowStartTracker = new SlowStartTracker();
+    private final AdmissionLimiter admissionLimiter = new AdmissionLimiter();
+    private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter();
+    private final RetryBudget retryBudget = new RetryBudget();
+    private final LoadRebalancer loadRebalancer = new LoadRebalancer();
+    private final ReservedCapacity reservedCapacity = new ReservedCapacity();
+    private final DynamicGroupIndex dynamicGroups = new DynamicGroupIndex();
+    private final LobbyAttributeIndex lobbyAttributes = new LobbyAttributeIndex();
+    private final RegionalRouting regionalRouting = new RegionalRouting();
+    private final GroupHierarchy groupHierarchy = new GroupHierarchy();
     private final java.util.concurrent.atomic.AtomicLong playerJoins = new java.util.concurrent.atomic.AtomicLong(0);
     private final java.util.concurrent.atomic.AtomicLong playerLeaves = new java.util.concurrent.atomic.AtomicLong(0);
 
     private final Set<String> registeredCommands = new LinkedHashSet<>();
-    private final ConcurrentMap<UUID, MenuSession> menuSessions = new ConcurrentHashMap<>();
+    // Config parsing, writing and applying run here, off proxy and command threads
+    private final ExecutorService configExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "VelocityNavigator-config");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExpiryEngine.TtlMap<MenuSession> menuSessions = expiryEngine.register("menu_session");
+    // Initial joins hold a concurrency slot from server choice until the backend accepts or kicks them
+    private final ConcurrentMap<UUID, PendingJoin> pendingJoins = new ConcurrentHashMap<>();
 
     private ConfigManager configManager;
     private ServerHealthService healthService;
     private LobbyRouter lobbyRouter;
     private RoutePlanner routePlanner;
+    private EvacuationService evacuationService;
+    private DrainMigrator drainMigrator;
+    private LobbyQueueService lobbyQueueService;
     private UpdateChecker updateChecker;
     private MetricsService metricsService;
     private CircuitBreaker circuitBreaker;
@@ -89,11 +126,20 @@ public final class VelocityNavigator implements NavigatorAPI {
     private GeoRoutingService geoRoutingService;
     private BedrockHandler bedrockHandler;
     private PrometheusExporter prometheusExporter;
+    private StateSnapshot stateSnapshot;
+    private volatile ConfigWatcher configWatcher;
+    private volatile ClusterSync clusterSync;
 
     private volatile Config config;
     private volatile Config previousConfig;
     private ScheduledTask cacheWarmTask;
     private ScheduledTask purgeTask;
+    private ScheduledTask expiryTask;
+    private ScheduledTask timeTask;
+    private ScheduledTask rebalanceTask;
+    private ScheduledTask snapshotTask;
+    private ScheduledTask watchTask;
+    private ScheduledTask gossipTask;
     private ScheduledTask startupUpdateTask;
 
     @Inject
@@ -108,11 +154,14 @@ public final class VelocityNavigator implements NavigatorAPI {
 
     @Subscribe
     public void onProxyInitialization(ProxyInitializeEvent event) {
-        long startedAt = System.currentTimeMillis();
+        long startedAt = time.nanoTime();
         try {
             this.configManager = new ConfigManager(dataDirectory, logger);
             this.healthService = new ServerHealthService(server, logger);
             this.routePlanner = new RoutePlanner(selectionStrategy);
+            this.evacuationService = new EvacuationService(routePlanner);
+            this.drainMigrator = new DrainMigrator(this, routePlanner);
+            this.lobbyQueueService = new LobbyQueueService(this, routePlanner);
             this.lobbyRouter = new LobbyRouter(healthService, routePlanner);
             this.updateChecker = new UpdateChecker(logger, pluginVersion);
             this.prometheusExporter = new PrometheusExporter(this);
@@ -120,6 +169,9 @@ public final class VelocityNavigator implements NavigatorAPI {
             ConfigLoadResult loadResult = configManager.load();
             applyLoadedConfiguration(loadResult);
 
+            this.stateSnapshot = new StateSnapshot(dataDirectory.resolve("state.bin"));
+            restoreState();
+
             this.bedrockHandler = new BedrockHandler(server);
             if (this.bedrockHandler.isBedrockSupported(config)) {
                 logger.info("[VelocityNavigator] Bedrock/Geyser support: enabled (auto-detected)");
@@ -140,9 +192,23 @@ public final class VelocityNavigator implements NavigatorAPI {
 
             scheduleCachePurge();
 
+            scheduleExpiry();
+
+            scheduleTimeTick();
+
+            scheduleRebalancing();
+
+            scheduleStateSnapshots();
+
+            scheduleConfigWatch();
+
+            scheduleCluster();
+
+            lobbyQueueService.reschedule(config);
+
             NavigatorAPIProvider.set(this);
 
-            long startupMillis = System.currentTimeMillis() - startedAt;
+            long startupMillis = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - startedAt);
             logger.info("VelocityNavigator v{} enabled in {}ms.", pluginVersion, startupMillis);
             logger.info("[VelocityNavigator] We would love to hear your feedback! Join our Discord: https://discord.com/invite/GYsTt96ypf");
         } catch (IOException exception) {
@@ -161,9 +227,41 @@ public final class VelocityNavigator implements NavigatorAPI {
         if (purgeTask != null) {
             purgeTask.cancel();
         }
+        if (expiryTask != null) {
+            expiryTask.cancel();
+        }
+        if (timeTask != null) {
+            timeTask.cancel();
+            SystemTimeSource.INSTANCE.stop();
+        }
+        if (rebalanceTask != null) {
+            rebalanceTask.cancel();
+        }
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+        }
+        stopConfigWatch();
+        stopCluster();
+        configExecutor.shutdownNow();
+        if (stateSnapshot != null) {
+            if (config != null && config.stateSnapshot().enabled()) {
+                flushState();
+            }
+            try {
+                stateSnapshot.close();
+            } catch (IOException exception) {
+                logger.warn("[VelocityNavigator] Could not close state.bin: {}", exception.getMessage());
+            }
+        }
         if (startupUpdateTask != null) {
             startupUpdateTask.cancel();
         }
+        if (drainMigrator != null) {
+            drainMigrator.cancelAll();
+        }
+        if (lobbyQueueService != null) {
+            lobbyQueueService.cancel();
+        }
         if (healthService != null) {
             healthService.clearCache();
         }
@@ -176,6 +274,126 @@ public final class VelocityNavigator implements NavigatorAPI {
     public void onPlayerDisconnect(DisconnectEvent event) {
         playerLeaves.incrementAndGet();
         menuSessions.remove(event.getPlayer().getUniqueId());
+        PendingJoin pending = pendingJoins.remove(event.getPlayer().getUniqueId());
+        if (pending != null) {
+            concurrencyLimiter.cancel(pending.server());
+        }
+        loadRebalancer.forget(event.getPlayer().getUniqueId());
+        reservedCapacity.forget(event.getPlayer().getUniqueId());
+        reservedCapacity.forget(FloodgateIntegration.getJavaUUID(event.getPlayer()));
+        lobbyAttributes.forget(event.getPlayer().getUniqueId());
+        lobbyAttributes.forget(FloodgateIntegration.getJavaUUID(event.getPlayer()));
+        regionalRouting.forget(event.getPlayer().getUniqueId());
+        regionalRouting.forget(FloodgateIntegration.getJavaUUID(event.getPlayer()));
+        if (lobbyQueueService != null) {
+            lobbyQueueService.forget(event.getPlayer().getUniqueId());
+            lobbyQueueService.onCapacityFreed();
+        }
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        loadRebalancer.recordActivity(event.getPlayer().getUniqueId());
+        PendingJoin pending = pendingJoins.remove(event.getPlayer().getUniqueId());
+        if (pending != null) {
+            finishPendingJoin(pending, event.getServer().getServerInfo().getName(), true);
+        }
+        if (lobbyQueueService != null && event.getPreviousServer().isPresent()) {
+            lobbyQueueService.onCapacityFreed();
+        }
+    }
+
+    @Subscribe
+    public void onPlayerChat(PlayerChatEvent event) {
+        loadRebalancer.recordActivity(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe
+    public void onCommandExecute(CommandExecuteEvent event) {
+        if (event.getCommandSource() instanceof Player player) {
+            loadRebalancer.recordActivity(player.getUniqueId());
+        }
+    }
+
+    @Subscribe
+    public void onServerRegistered(ServerRegisteredEvent event) {
+        ServerRegistry.shared().intern(event.registeredServer().getServerInfo().getName());
+        // Dynamically registered lobbies are usually freshly booted, so ramp them in.
+        slowStartTracker.markStarted(event.registeredServer().getServerInfo().getName());
+        updateDynamicGroups(event.registeredServer().getServerInfo().getName(), true);
+    }
+
+    @Subscribe
+    public void onServerUnregistered(ServerUnregisteredEvent event) {
+        updateDynamicGroups(event.unregisteredServer().getServerInfo().getName(), false);
+    }
+
+    @Subscribe
+    public EventTask onKickedFromServer(KickedFromServerEvent event) {
+        Config current = config;
+        Player player = event.getPlayer();
+        if (event.kickedDuringServerConnect()) {
+            PendingJoin pending = pendingJoins.remove(player.getUniqueId());
+            if (pending != null) {
+                finishPendingJoin(pending, event.getServer().getServerInfo().getName(), false);
+            }
+        }
+        if (current == null || evacuationService == null || !current.evacuation().enabled()
+                || event.kickedDuringServerConnect() || !player.isActive() || !isDefaultKickResult(event.getResult())) {
+            return null;
+        }
+
+        String source = event.getServer().getServerInfo().getName();
+        // Bans and admin kicks come with a reason; a crashed backend just drops the connection
+        if (event.getServerKickReason().isPresent() && !isBackendDown(source)) {
+            return null;
+        }
+        Map<String, Integer> routeableServers = routeableServers(current);
+        Optional<EvacuationService.Assignment> assignment =
+                evacuationService.assign(player.getUniqueId(), source, current, routeableServers);
+        if (assignment.isEmpty()) {
+            return null;
+        }
+        Optional<RegisteredServer> target = server.getServer(assignment.get().server());
+        if (target.isEmpty()) {
+            return null;
+        }
+
+        String targetName = target.get().getServerInfo().getName();
+        event.setResult(KickedFromServerEvent.RedirectPlayer.create(target.get(), MessageFormatter.render(
+                current.evacuation().message(),
+                Map.of("server", source, "target", targetName, "player", player.getUsername()),
+                player
+        )));
+        routingStats.recordRedirect("evacuation", targetName);
+        if (current.debug().verboseLogging()) {
+            logger.info("[VelocityNavigator] Evacuating {} from {} -> {} (delay {} ms)",
+                    player.getUsername(), source, targetName, assignment.get().delayMillis());
+        }
+
+        long delay = assignment.get().delayMillis();
+        if (delay <= 0) {
+            return null;
+        }
+        // Hold the kick until this lobby's next evacuation slot so a crash is not replayed onto it
+        return EventTask.withContinuation(continuation -> server.getScheduler()
+                .buildTask(this, continuation::resume)
+                .delay(delay, TimeUnit.MILLISECONDS)
+                .schedule());
+    }
+
+    /**
+     * Whether the kick result is still the proxy's own: a disconnect, or a plain redirect
+     * to the next try server. Anything else was set by another plugin and is left alone.
+     */
+    private static boolean isDefaultKickResult(KickedFromServerEvent.ServerKickResult result) {
+        return result instanceof KickedFromServerEvent.DisconnectPlayer
+                || (result instanceof KickedFromServerEvent.RedirectPlayer redirect && redirect.getMessageComponent() == null);
+    }
+
+    private boolean isBackendDown(String serverName) {
+        return (circuitBreaker != null && circuitBreaker.getState(serverName) != CircuitBreaker.State.CLOSED)
+                || (healthService != null && healthService.isKnownOffline(serverName));
     }
 
     @Subscribe
@@ -184,10 +402,7 @@ public final class VelocityNavigator implements NavigatorAPI {
             return;
         }
 
-        Map<String, Integer> routeableServers = healthService.getCachedOnlineServers();
-        if (routeableServers.isEmpty()) {
-            routeableServers = healthService.getRegisteredOnlineServers(configuredLobbyServerNames(config));
-        }
+        Map<String, Integer> routeableServers = routeableServers(config);
 
         UUID affinityUuid = event.getPlayer().getUniqueId();
         if (bedrockHandler != null && bedrockHandler.isBedrockSupported(config) && config.bedrock().affinityUseJavaUuid()) {
@@ -195,14 +410,17 @@ public final class VelocityNavigator implements NavigatorAPI {
                 affinityUuid = FloodgateIntegration.getJavaUUID(event.getPlayer());
             }
         }
-        RouteDecision decision = routePlanner.plan("", config, routeableServers, affinityUuid);
+        RouteDecision decision = routePlanner.planConnection("", config, routeableServers, affinityUuid);
         if (!decision.hasSelection()) {
-            disconnectInitialJoin(event, decision);
+            if (!holdInQueue(event, decision)) {
+                disconnectInitialJoin(event, decision);
+            }
             return;
         }
 
         server.getServer(decision.selectedServer()).ifPresentOrElse(target -> {
             event.setInitialServer(target);
+            beginPendingJoin(event.getPlayer().getUniqueId(), decision.selectedServer());
             routingStats.recordRedirect("initial_join", decision.selectedServer());
             if (rateTracker != null) {
                 rateTracker.recordConnection(decision.selectedServer());
@@ -214,9 +432,34 @@ public final class VelocityNavigator implements NavigatorAPI {
         }, () -> disconnectInitialJoin(event, decision));
     }
 
+    private void beginPendingJoin(UUID playerId, String serverName) {
+        concurrencyLimiter.acquire(serverName, config.concurrency());
+        PendingJoin previous = pendingJoins.put(playerId, new PendingJoin(serverName, time.nanoTime()));
+        if (previous != null) {
+            concurrencyLimiter.cancel(previous.server());
+        }
+    }
+
+    private void finishPendingJoin(PendingJoin pending, String serverName, boolean connected) {
+        Config current = config;
+        // Another plugin may have redirected the join; the slot we took was never used
+        if (current == null || !pending.server().equalsIgnoreCase(serverName)) {
+            concurrencyLimiter.cancel(pending.server());
+            return;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(time.nanoTime() - pending.startedAtNanos());
+        concurrencyLimiter.release(pending.server(), elapsedMillis, connected, current.concurrency());
+    }
+
     @Subscribe
     public void onPostLogin(PostLoginEvent event) {
         playerJoins.incrementAndGet();
+        if (config != null && config.reservedCapacity().enabled()) {
+            resolveReservedTier(event.getPlayer());
+        }
+        if (config != null) {
+            resolveLobbyTraits(event.getPlayer());
+        }
         if (config == null || updateChecker == null || !config.notifyAdminsOnJoin() || !config.updateChecker().notifyAdmins()) {
             return;
         }
@@ -257,8 +500,22 @@ public final class VelocityNavigator implements NavigatorAPI {
         }
     }
 
+    /**
+     * Reloads navigator.toml on the config thread. The future fails, and the running
+     * config is kept, when the file is missing or cannot be parsed.
+     */
+    public CompletableFuture<ConfigLoadResult> reloadConfigurationAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return reloadConfiguration();
+            } catch (IOException exception) {
+                throw new CompletionException(exception);
+            }
+        }, configExecutor);
+    }
+
     public synchronized ConfigLoadResult reloadConfiguration() throws IOException {
-        ConfigLoadResult loadResult = configManager.load();
+        ConfigLoadResult loadResult = configManager.reload();
         applyLoadedConfiguration(loadResult);
         if (metricsService != null) {
             metricsService.configure(this, config);
@@ -272,6 +529,13 @@ public final class VelocityNavigator implements NavigatorAPI {
         }
         scheduleCacheWarming();
         scheduleCachePurge();
+        scheduleRebalancing();
+        scheduleStateSnapshots();
+        scheduleConfigWatch();
+        scheduleCluster();
+        if (lobbyQueueService != null) {
+            lobbyQueueService.reschedule(config);
+        }
         return loadResult;
     }
 
@@ -307,6 +571,10 @@ public final class VelocityNavigator implements NavigatorAPI {
         return routingStats;
     }
 
+    StateSnapshot stateSnapshot() {
+        return stateSnapshot;
+    }
+
     public DrainService drainService() {
         return drainService;
     }
@@ -327,6 +595,54 @@ public final class VelocityNavigator implements NavigatorAPI {
         return rateTracker;
     }
 
+    public ApertureSelector apertureSelector() {
+        return apertureSelector;
+    }
+
+    public SlowStartTracker slowStartTracker() {
+        return slowStartTracker;
+    }
+
+    public AdmissionLimiter admissionLimiter() {
+        return admissionLimiter;
+    }
+
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public RetryBudget retryBudget() {
+        return retryBudget;
+    }
+
+    TimeSource timeSource() {
+        return time;
+    }
+
+    public EvacuationService evacuationService() {
+        return evacuationService;
+    }
+
+    DrainMigrator drainMigrator() {
+        return drainMigrator;
+    }
+
+    public LoadRebalancer loadRebalancer() {
+        return loadRebalancer;
+    }
+
+    public ReservedCapacity reservedCapacity() {
+        return reservedCapacity;
+    }
+
+    public ExpiryEngine expiryEngine() {
+        return expiryEngine;
+    }
+
+    LobbyQueueService lobbyQueueService() {
+        return lobbyQueueService;
+    }
+
     public GeoRoutingService geoRoutingService() {
         return geoRoutingService;
     }
@@ -345,7 +661,7 @@ public final class VelocityNavigator implements NavigatorAPI {
             }
         }
         String token = UUID.randomUUID().toString().replace("-", "");
-        menuSessions.put(player.getUniqueId(), new MenuSession(token, Set.copyOf(allowedServers), Instant.now().plusSeconds(60)));
+        menuSessions.put(player.getUniqueId(), new MenuSession(token, Set.copyOf(allowedServers)), Duration.ofSeconds(60));
         return token;
     }
 
@@ -355,28 +671,28 @@ public final class VelocityNavigator implements NavigatorAPI {
         }
         UUID playerId = player.getUniqueId();
         String normalizedTarget = targetServer.toLowerCase(Locale.ROOT);
-        java.util.concurrent.atomic.AtomicBoolean consumed = new java.util.concurrent.atomic.AtomicBoolean(false);
-        menuSessions.compute(playerId, (id, session) -> {
-            if (session == null) {
-                return null;
-            }
-            Instant now = Instant.now();
-            if (now.isAfter(session.expiresAt())) {
-                return null;
-            }
-            if (!session.token().equals(token) || !session.allowedServers().contains(normalizedTarget)) {
-                return session;
-            }
-            consumed.set(true);
-            return null;
-        });
-        return consumed.get();
+        return menuSessions.removeIf(playerId,
+                session -> session.token().equals(token) && session.allowedServers().contains(normalizedTarget));
     }
 
     public CompletableFuture<RouteDecision> previewRoute(Player player) {
+        // Ping is unknown at login, so an estimated region is refined on later routes
+        if (config.regionalRouting().enabled() && regionalRouting.needsEstimate(player.getUniqueId())) {
+            resolveLobbyTraits(player);
+        }
         return lobbyRouter.preview(player, config);
     }
 
+    /**
+     * Like {@link #previewRoute}, for a player who is connected to the result right away.
+     */
+    CompletableFuture<RouteDecision> routePlayer(Player player) {
+        if (config.regionalRouting().enabled() && regionalRouting.needsEstimate(player.getUniqueId())) {
+            resolveLobbyTraits(player);
+        }
+        return lobbyRouter.route(player, config);
+    }
+
     public CompletableFuture<ServerHealthService.ServerStatus> inspectServer(String name) {
         return healthService.inspectServer(name, config.healthChecks());
     }
@@ -409,7 +725,7 @@ public final class VelocityNavigator implements NavigatorAPI {
         if (circuitBreaker == null) {
             return Map.of();
         }
-        Map<String, CircuitBreaker.State> statuses = new java.util.LinkedHashMap<>();
+        Map<String, CircuitBreaker.State> statuses = new LinkedHashMap<>();
         for (String serverName : server.getAllServers().stream()
                 .map(rs -> rs.getServerInfo().getName()).toList()) {
             statuses.put(serverName, circuitBreaker.getState(serverName));
@@ -435,6 +751,7 @@ public final class VelocityNavigator implements NavigatorAPI {
                 <gray>/velocitynavigator debug player &lt;name&gt;</gray> <white>Preview routing for a player</white>
                 <gray>/velocitynavigator debug server &lt;name&gt;</gray> <white>Inspect a server health snapshot</white>
                 <gray>/velocitynavigator drain &lt;server&gt;</gray> <white>Drain a server (stop routing to it)</white>
+                <gray>/velocitynavigator drain &lt;server&gt; migrate</gray> <white>Drain and move its players to other lobbies</white>
                 <gray>/velocitynavigator undrain &lt;server&gt;</gray> <white>Undrain a server (resume routing)</white>
                 <gray>/velocitynavigator drain status</gray> <white>Show drained servers</white>
                 <gray>/velocitynavigator servers</gray> <white>Show all lobby server statuses</white>
@@ -548,7 +865,7 @@ public final class VelocityNavigator implements NavigatorAPI {
 
     public Component buildServerDebugComponent(ServerHealthService.ServerStatus status) {
         String checkedAt = status.checkedAt() == null ? "never" : status.checkedAt().toString();
-        long ageSeconds = status.checkedAt() == null ? -1 : Duration.between(status.checkedAt(), Instant.now()).toSeconds();
+        long ageSeconds = status.checkedAt() == null ? -1 : Duration.between(status.checkedAt(), Instant.ofEpochMilli(time.millis())).toSeconds();
         String ageText = ageSeconds < 0 ? "n/a" : ageSeconds + "s ago";
 
         // Circuit breaker state
@@ -585,26 +902,48 @@ public final class VelocityNavigator implements NavigatorAPI {
 
     private synchronized void applyLoadedConfiguration(ConfigLoadResult loadResult) {
         this.previousConfig = this.config;
-        this.config = loadResult.config();
+        this.config = dynamicGroups.configure(loadResult.config(), server.getAllServers().stream()
+                .map(registered -> registered.getServerInfo().getName())
+                .toList());
         configManager.logWarnings(loadResult);
+        ConfigDiff diff = ConfigDiff.between(previousConfig, config);
 
-        if (previousConfig != null && lobbyTopologyUnchanged(previousConfig, config)) {
-            // Lobby topology didn't change, keep round-robin state
-        } else {
+        // Give every known backend its ID before any per-server state is touched
+        for (RegisteredServer registered : server.getAllServers()) {
+            ServerRegistry.shared().intern(registered.getServerInfo().getName());
+        }
+        ServerRegistry.shared().internAll(configuredLobbyServerNames(config));
+
+        // Only groups whose lobby list changed lose their round-robin position
+        if (diff.initial()) {
             selectionStrategy.reset();
+        } else if (diff.topologyChanged()) {
+            selectionStrategy.reset(diff.changedGroups());
         }
 
-        healthService.clearCache();
+        // Cached health stays valid for lobbies that are still configured
+        if (diff.healthChecksChanged()) {
+            healthService.clearCache();
+        } else {
+            healthService.evict(diff.removedLobbies());
+        }
 
         // Initialize/update circuit breaker
         Config.CircuitBreakerSettings cbSettings = config.circuitBreaker();
         if (cbSettings.enabled()) {
-            if (previousConfig == null || !previousConfig.circuitBreaker().equals(cbSettings) || this.circuitBreaker == null) {
+            if (diff.circuitBreakerChanged() || this.circuitBreaker == null) {
+                CircuitBreaker oldBreaker = this.circuitBreaker;
                 this.circuitBreaker = new CircuitBreaker(
                         cbSettings.failureThreshold(),
                         cbSettings.cooldownSeconds(),
                         cbSettings.halfOpenMaxTests()
                 );
+                // New thresholds apply from now on; open breakers stay open
+                if (oldBreaker != null) {
+                    for (CircuitBreaker.SavedState saved : oldBreaker.export()) {
+                        this.circuitBreaker.restore(saved, true);
+                    }
+                }
             }
         } else {
             this.circuitBreaker = null;
@@ -622,13 +961,16 @@ public final class VelocityNavigator implements NavigatorAPI {
 
         // Initialize affinity service
         if (config.routing().affinity().enabled()) {
-            double stickiness = config.routing().affinity().stickiness();
+            Config.AffinitySettings affinity = config.routing().affinity();
             if (this.affinityService == null) {
-                this.affinityService = new PlayerAffinityService(stickiness);
-            } else {
+                this.affinityService = new PlayerAffinityService(affinity.stickiness(), affinity.maxEntries());
+            } else if (this.affinityService.maxEntries() != affinity.maxEntries()) {
+                // Only a new size bound needs a new table
                 PlayerAffinityService oldService = this.affinityService;
-                this.affinityService = new PlayerAffinityService(stickiness);
+                this.affinityService = new PlayerAffinityService(affinity.stickiness(), affinity.maxEntries());
                 oldService.getAll().forEach(this.affinityService::setAffinity);
+            } else {
+                this.affinityService.setStickiness(affinity.stickiness());
             }
         } else {
             this.affinityService = null;
@@ -638,15 +980,51 @@ public final class VelocityNavigator implements NavigatorAPI {
         if (this.rateTracker == null) {
             this.rateTracker = new ConnectionRateTracker(60);
         }
-        this.rateTracker.retainServers(configuredLobbyServerNames(config));
+        if (!diff.removedLobbies().isEmpty()) {
+            Set<String> lobbies = configuredLobbyServerNames(config);
+            this.rateTracker.retainServers(lobbies);
+            this.admissionLimiter.retainServers(lobbies);
+            this.concurrencyLimiter.retainServers(lobbies);
+        }
+
+        // Open the geo database again when its settings change or the file was replaced
+        if (diff.geoRoutingChanged() || this.geoRoutingService == null || this.geoRoutingService.isStale()) {
+            this.geoRoutingService = new GeoRoutingService(
+                    config.geoRouting().enabled(),
+                    config.geoRouting().databasePath(),
+                    dataDirectory
+            );
+            if (geoRoutingService.loadError() != null) {
+                logger.warn("[VelocityNavigator] Geo routing is disabled: {}", geoRoutingService.loadError());
+            } else if (geoRoutingService.isAvailable()) {
+                logger.info("[VelocityNavigator] Loaded geo database {}.", config.geoRouting().databasePath());
+                if (geoRoutingService.isOutdated(time.millis())) {
+                    logger.warn("[VelocityNavigator] Geo database {} is more than 30 days old; download a fresh copy for accurate lookups.",
+                            config.geoRouting().databasePath());
+                }
+            }
+        }
+
+        // Where each player is, and who owns the region preference, depends on both sections
+        if (!diff.initial() && (diff.geoRoutingChanged() || diff.regionalRoutingChanged())) {
+            for (Player player : server.getAllPlayers()) {
+                resolveLobbyTraits(player);
+            }
+        }
+
+        // Tiers are indexes into tier_permissions, so resolve them again for everyone online
+        if (diff.reservedCapacityChanged()) {
+            reservedCapacity.clear();
+            if (config.reservedCapacity().enabled()) {
+                for (Player player : server.getAllPlayers()) {
+                    resolveReservedTier(player);
+                }
+            }
+        }
 
-        // Initialize geo routing service (stub)
-        this.geoRoutingService = new GeoRoutingService(
-                config.geoRouting().enabled(),
-                config.geoRouting().databasePath()
-        );
-        if (config.geoRouting().enabled()) {
-            logger.warn("[VelocityNavigator] geo_routing.enabled is true, but geo routing is not implemented in this build. Location data will not affect routing.");
+        // Aperture widths are tuned for the previous window layout
+        if (!diff.initial() && diff.apertureChanged()) {
+            apertureSelector.clear();
         }
 
         // Wire services into route planner and health service
@@ -658,48 +1036,134 @@ public final class VelocityNavigator implements NavigatorAPI {
             routePlanner.setAffinityService(affinityService);
             routePlanner.setRateTracker(rateTracker);
             routePlanner.setHealthService(healthService);
+            routePlanner.setApertureSelector(apertureSelector);
+            routePlanner.setSlowStartTracker(slowStartTracker);
+            routePlanner.setAdmissionLimiter(admissionLimiter);
+            routePlanner.setConcurrencyLimiter(concurrencyLimiter);
+            routePlanner.setReservedCapacity(reservedCapacity);
+            routePlanner.setLobbyAttributes(lobbyAttributes);
+            routePlanner.setGroupHierarchy(groupHierarchy);
+            routePlanner.setRegionalRouting(regionalRouting);
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.setSlowStartTracker(slowStartTracker);
         }
         if (healthService != null) {
+            healthService.setSlowStartTracker(slowStartTracker);
             healthService.setCircuitBreaker(circuitBreaker);
             healthService.setLoadTracker(loadTracker);
+            healthService.setGroupHierarchy(groupHierarchy);
         }
 
-        registerCommands();
-        if (prometheusExporter != null) {
+        if (diff.commandsChanged()) {
+            registerCommands();
+        }
+        if (prometheusExporter != null && diff.prometheusChanged()) {
             prometheusExporter.start(config.metrics().prometheus());
         }
-        schedulePeriodicUpdateCheck();
+        if (diff.updateCheckerChanged()) {
+            schedulePeriodicUpdateCheck();
+        }
+        // Ping newly added lobbies now instead of on their first route
+        if (!diff.initial() && !diff.addedLobbies().isEmpty() && config.healthChecks().enabled()) {
+            healthService.inspectServers(diff.addedLobbies(), config.healthChecks());
+        }
     }
 
-    private boolean lobbyTopologyUnchanged(Config previous, Config current) {
-        // Compare default lobbies
-        List<String> prevDefaults = lobbyEntryNames(previous.routing().defaultLobbies());
-        List<String> currDefaults = lobbyEntryNames(current.routing().defaultLobbies());
-        if (!prevDefaults.equals(currDefaults)) {
-            return false;
+    /**
+     * Moves a server into or out of the groups matching its name. Runs under the same lock
+     * as config loading so a reload never loses a membership change or is overwritten by one.
+     */
+    private synchronized void updateDynamicGroups(String serverName, boolean registered) {
+        Config current = config;
+        if (current == null) {
+            return;
         }
+        Set<String> left = registered ? Set.of() : dynamicGroups.groupsOf(serverName);
+        Config updated = registered ? dynamicGroups.register(serverName) : dynamicGroups.unregister(serverName);
+        if (updated == null || updated == current) {
+            return;
+        }
+        this.config = updated;
+        logger.debug("[VelocityNavigator] {} {} dynamic groups {}", serverName,
+                registered ? "joined" : "left", registered ? dynamicGroups.groupsOf(serverName) : left);
+        if (registered && current.healthChecks().enabled()) {
+            healthService.inspectServers(List.of(serverName.toLowerCase(Locale.ROOT)), current.healthChecks());
+        }
+    }
 
-        // Compare contextual groups
-        Set<String> prevGroups = previous.routing().contextual().groups().keySet();
-        Set<String> currGroups = current.routing().contextual().groups().keySet();
-        if (!prevGroups.equals(currGroups)) {
-            return false;
+    /**
+     * Caches the player's reserved-capacity tier under each UUID they are routed by.
+     */
+    private void resolveReservedTier(Player player) {
+        Config current = config;
+        reservedCapacity.resolve(player.getUniqueId(), player::hasPermission, current.reservedCapacity());
+        if (bedrockHandler != null && bedrockHandler.isBedrockSupported(current) && current.bedrock().affinityUseJavaUuid()
+                && bedrockHandler.isBedrockPlayer(player, current)) {
+            reservedCapacity.alias(FloodgateIntegration.getJavaUUID(player), player.getUniqueId());
         }
+    }
 
-        for (String group : currGroups) {
-            Config.GroupConfig prevConfig = previous.routing().contextual().groups().get(group);
-            Config.GroupConfig currConfig = current.routing().contextual().groups().get(group);
-            if (prevConfig == null || currConfig == null) {
-                return false;
+    /**
+     * Caches what lobby attributes and regional routing are matched against, under each UUID
+     * the player is routed by.
+     */
+    private void resolveLobbyTraits(Player player) {
+        Config current = config;
+        boolean bedrock = bedrockHandler != null && bedrockHandler.isBedrockSupported(current)
+                && bedrockHandler.isBedrockPlayer(player, current);
+        Set<String> regions = new LinkedHashSet<>();
+        GeoRoutingService geo = geoRoutingService;
+        if (geo != null && geo.isAvailable() && player.getRemoteAddress() != null) {
+            GeoRoutingService.Location location = geo.lookup(player.getRemoteAddress().getAddress());
+            if (location.country() != null) {
+                regions.add(location.country());
             }
-            List<String> prevServers = lobbyEntryNames(prevConfig.servers());
-            List<String> currServers = lobbyEntryNames(currConfig.servers());
-            if (!prevServers.equals(currServers)) {
-                return false;
+            if (location.continent() != null) {
+                regions.add(location.continent());
             }
         }
+        // Regional routing owns the region preference so it can spill when the region is busy
+        List<String> codes = List.copyOf(regions);
+        boolean estimated = false;
+        if (current.regionalRouting().enabled()) {
+            regions = Set.of();
+            if (codes.isEmpty() && current.regionalRouting().estimateFromPing() && healthService != null) {
+                String estimate = regionalRouting.estimate(current, player.getPing(), healthService.getLatencies());
+                codes = estimate == null ? List.of() : List.of(estimate);
+                estimated = true;
+            }
+        } else {
+            codes = List.of();
+        }
+        LobbyAttributeIndex.Traits traits = new LobbyAttributeIndex.Traits(
+                player.getProtocolVersion().getProtocol(), bedrock, regions);
+        lobbyAttributes.resolve(player.getUniqueId(), traits);
+        regionalRouting.resolve(player.getUniqueId(), codes, estimated);
+        if (bedrock) {
+            lobbyAttributes.resolve(FloodgateIntegration.getJavaUUID(player), traits);
+            regionalRouting.resolve(FloodgateIntegration.getJavaUUID(player), codes, estimated);
+        }
+    }
 
-        return true;
+    public LobbyAttributeIndex lobbyAttributes() {
+        return lobbyAttributes;
+    }
+
+    public RegionalRouting regionalRouting() {
+        return regionalRouting;
+    }
+
+    public ClusterSync clusterSync() {
+        return clusterSync;
+    }
+
+    public GroupHierarchy groupHierarchy() {
+        return groupHierarchy;
+    }
+
+    public DynamicGroupIndex dynamicGroups() {
+        return dynamicGroups;
     }
 
     private List<String> lobbyEntryNames(List<Config.LobbyEntry> entries) {
@@ -710,37 +1174,36 @@ public final class VelocityNavigator implements NavigatorAPI {
         return names;
     }
 
-    private Set<String> configuredLobbyServerNames(Config currentConfig) {
-        Set<String> names = new LinkedHashSet<>();
-        if (currentConfig == null || currentConfig.routing() == null) {
-            return names;
-        }
-        addLobbyNames(names, currentConfig.routing().defaultLobbies());
-        if (currentConfig.lobbyFallback() != null
-                && "fallback_server".equalsIgnoreCase(currentConfig.lobbyFallback().noServerStrategy())
-                && !currentConfig.lobbyFallback().fallbackServer().isBlank()) {
-            names.add(currentConfig.lobbyFallback().fallbackServer());
-        }
-        Config.Contextual contextual = currentConfig.routing().contextual();
-        if (contextual != null && contextual.groups() != null) {
-            for (Config.GroupConfig groupConfig : contextual.groups().values()) {
-                if (groupConfig != null) {
-                    addLobbyNames(names, groupConfig.servers());
-                }
-            }
+    /**
+     * Online lobbies and their player counts from the health cache, or from the registered
+     * servers when the cache has not been warmed yet.
+     */
+    Map<String, Integer> routeableServers(Config currentConfig) {
+        Map<String, Integer> routeableServers = healthService.getCachedOnlineServers();
+        if (routeableServers.isEmpty()) {
+            routeableServers = healthService.getRegisteredOnlineServers(configuredLobbyServerNames(currentConfig));
         }
-        return names;
+        return routeableServers;
     }
 
-    private void addLobbyNames(Set<String> names, List<Config.LobbyEntry> entries) {
-        if (entries == null) {
-            return;
+    private Set<String> configuredLobbyServerNames(Config currentConfig) {
+        return ConfigDiff.lobbyServers(currentConfig);
+    }
+
+    /**
+     * Sends a joining player to the queue's holding server when every lobby is full.
+     */
+    private boolean holdInQueue(PlayerChooseInitialServerEvent event, RouteDecision decision) {
+        String holdingServer = config.queue().holdingServer();
+        if (lobbyQueueService == null || holdingServer.isBlank()) {
+            return false;
         }
-        for (Config.LobbyEntry entry : entries) {
-            if (entry != null && entry.server() != null && !entry.server().isBlank()) {
-                names.add(entry.server());
-            }
+        Optional<RegisteredServer> holding = server.getServer(holdingServer);
+        if (holding.isEmpty() || !lobbyQueueService.tryEnqueue(event.getPlayer(), decision, config)) {
+            return false;
         }
+        event.setInitialServer(holding.get());
+        return true;
     }
 
     private void disconnectInitialJoin(PlayerChooseInitialServerEvent event, RouteDecision decision) {
@@ -852,12 +1315,320 @@ public final class VelocityNavigator implements NavigatorAPI {
                         rateTracker.retainServers(configuredLobbyServerNames(config));
                         rateTracker.purge();
                     }
+                    admissionLimiter.retainServers(configuredLobbyServerNames(config));
+                    if (evacuationService != null) {
+                        evacuationService.purge();
+                    }
                 })
                 .delay(60, TimeUnit.SECONDS)
                 .repeat(60, TimeUnit.SECONDS)
                 .schedule();
     }
 
+    private void scheduleExpiry() {
+        if (expiryTask != null) {
+            expiryTask.cancel();
+        }
+        expiryTask = server.getScheduler()
+                .buildTask(this, expiryEngine::tick)
+                .delay(ExpiryEngine.TICK_MILLIS, TimeUnit.MILLISECONDS)
+                .repeat(ExpiryEngine.TICK_MILLIS, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    private void scheduleTimeTick() {
+        if (timeTask != null) {
+            timeTask.cancel();
+        }
+        SystemTimeSource.INSTANCE.tick();
+        timeTask = server.getScheduler()
+                .buildTask(this, SystemTimeSource.INSTANCE::tick)
+                .repeat(SystemTimeSource.TICK_MILLIS, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    private void scheduleStateSnapshots() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+        if (stateSnapshot == null || !config.stateSnapshot().enabled()) {
+            return;
+        }
+        int intervalSeconds = config.stateSnapshot().flushIntervalSeconds();
+        snapshotTask = server.getScheduler()
+                .buildTask(this, this::flushState)
+                .delay(intervalSeconds, TimeUnit.SECONDS)
+                .repeat(intervalSeconds, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    private synchronized void scheduleConfigWatch() {
+        if (!config.hotReload().enabled()) {
+            stopConfigWatch();
+            return;
+        }
+        if (configWatcher == null) {
+            try {
+                configWatcher = new ConfigWatcher(configManager.configPath(), configManager::writtenChecksum, time);
+            } catch (IOException exception) {
+                logger.warn("[VelocityNavigator] Could not watch navigator.toml for changes: {}", exception.getMessage());
+                return;
+            }
+        }
+        if (watchTask == null) {
+            watchTask = server.getScheduler()
+                    .buildTask(this, () -> configExecutor.execute(this::checkConfigFile))
+                    .repeat(250, TimeUnit.MILLISECONDS)
+                    .schedule();
+        }
+    }
+
+    private synchronized void stopConfigWatch() {
+        if (watchTask != null) {
+            watchTask.cancel();
+            watchTask = null;
+        }
+        if (configWatcher != null) {
+            try {
+                configWatcher.close();
+            } catch (IOException exception) {
+                logger.debug("[VelocityNavigator] Could not close the config watcher: {}", exception.getMessage());
+            }
+            configWatcher = null;
+        }
+    }
+
+    /**
+     * Starts gossip with the configured peers, or restarts it when {@code [cluster]} changed.
+     * A new start announces a new replica id, so peers send this proxy their whole state.
+     */
+    private synchronized void scheduleCluster() {
+        Config.ClusterSettings settings = config.cluster();
+        if (clusterSync != null && clusterSync.settings().equals(settings)) {
+            return;
+        }
+        stopCluster();
+        if (!settings.enabled()) {
+            return;
+        }
+        if (settings.secret().isBlank()) {
+            logger.warn("[VelocityNavigator] Cluster sync is disabled: cluster.secret must be set.");
+            return;
+        }
+        try {
+            clusterSync = new ClusterSync(settings);
+        } catch (IOException exception) {
+            logger.warn("[VelocityNavigator] Could not start cluster sync on {}:{}: {}",
+                    settings.bindAddress(), settings.port(), exception.getMessage());
+            return;
+        }
+        for (String peer : clusterSync.unresolvedPeers()) {
+            logger.warn("[VelocityNavigator] Ignoring cluster peer '{}': not a reachable host:port.", peer);
+        }
+        healthService.setClusterSync(clusterSync);
+        gossipTask = server.getScheduler()
+                .buildTask(this, this::gossip)
+                .repeat(settings.gossipIntervalMillis(), TimeUnit.MILLISECONDS)
+                .schedule();
+        logger.info("[VelocityNavigator] Cluster sync started as {} with {} peer(s).",
+                clusterSync.replicaId(), settings.peers().size() - clusterSync.unresolvedPeers().size());
+    }
+
+    private synchronized void stopCluster() {
+        if (gossipTask != null) {
+            gossipTask.cancel();
+            gossipTask = null;
+        }
+        if (healthService != null) {
+            healthService.setClusterSync(null);
+        }
+        if (clusterSync != null) {
+            try {
+                clusterSync.close();
+            } catch (IOException exception) {
+                logger.debug("[VelocityNavigator] Could not close the cluster socket: {}", exception.getMessage());
+            }
+            clusterSync = null;
+        }
+    }
+
+    private void gossip() {
+        ClusterSync sync = clusterSync;
+        if (sync == null) {
+            return;
+        }
+        Map<String, Integer> localPlayers = new HashMap<>();
+        for (String lobby : configuredLobbyServerNames(config)) {
+            server.getServer(lobby).ifPresent(registered -> localPlayers.put(lobby, registered.getPlayersConnected().size()));
+        }
+        try {
+            sync.tick(drainService, circuitBreaker, affinityService, localPlayers);
+        } catch (IOException | RuntimeException exception) {
+            logger.debug("[VelocityNavigator] Cluster gossip round failed: {}", exception.getMessage());
+        }
+    }
+
+    private void checkConfigFile() {
+        ConfigWatcher watcher = configWatcher;
+        if (watcher == null || !watcher.poll(config.hotReload().debounceMillis())) {
+            return;
+        }
+        try {
+            reloadConfiguration();
+            logger.info("[VelocityNavigator] Reloaded navigator.toml after it changed on disk.");
+        } catch (IOException | RuntimeException exception) {
+            logger.warn("[VelocityNavigator] navigator.toml changed but could not be loaded; keeping the current config: {}", exception.getMessage());
+        }
+    }
+
+    private void flushState() {
+        try {
+            int written = stateSnapshot.flush(time.millis(), affinityService, circuitBreaker, loadTracker,
+                    healthService.getLatencies(), routingStats);
+            if (config.debug().verboseLogging()) {
+                logger.info("[VelocityNavigator] State snapshot flushed ({} bytes changed)", written);
+            }
+        } catch (IOException exception) {
+            logger.warn("[VelocityNavigator] Could not write state.bin: {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Seeds routing state from the last snapshot. Affinities keep their saved expiry, open
+     * breakers their trip time, and closed breakers' failure counts are used while younger
+     * than the breaker cooldown. Load averages and latencies decay toward the average of
+     * all servers, losing half their difference from it every {@code max_age_seconds}.
+     */
+    private void restoreState() {
+        if (!config.stateSnapshot().enabled()) {
+            return;
+        }
+        Optional<StateSnapshot.Restored> read;
+        try {
+            read = stateSnapshot.read(time.millis());
+        } catch (IOException exception) {
+            logger.warn("[VelocityNavigator] Could not read state.bin: {}", exception.getMessage());
+            return;
+        }
+        if (read.isEmpty()) {
+            return;
+        }
+        StateSnapshot.Restored restored = read.get();
+        long now = time.millis();
+        int affinities = 0;
+        if (affinityService != null) {
+            for (StateSnapshot.SavedAffinity affinity : restored.affinities()) {
+                if (affinity.expiresAtMillis() > now) {
+                    affinityService.restoreAffinity(affinity.playerId(), affinity.server(), affinity.expiresAtMillis() - now);
+                    affinities++;
+                }
+            }
+        }
+        if (circuitBreaker != null) {
+            boolean keepFailures = restored.ageMillis() < config.circuitBreaker().cooldownSeconds() * 1000L;
+            restored.breakers().forEach(saved -> circuitBreaker.restore(saved, keepFailures));
+        }
+        long halfLifeMillis = config.stateSnapshot().maxAgeSeconds() * 1000L;
+        StateSnapshot.decayTowardMean(restored.loads(), restored.ageMillis(), halfLifeMillis)
+                .forEach(loadTracker::restore);
+        StateSnapshot.decayTowardMean(restored.latencies(), restored.ageMillis(), halfLifeMillis)
+                .forEach((name, latency) -> healthService.restoreLatency(name, Math.round(latency)));
+        routingStats.restoreCumulative(restored.connections(), restored.redirects());
+        logger.info("[VelocityNavigator] Restored routing state from {}s ago ({} affinities, {} breakers).",
+                restored.ageMillis() / 1000L, affinities, restored.breakers().size());
+    }
+
+    /**
+     * Runs a rebalancing pass every {@code interval_seconds} while rebalancing is enabled.
+     */
+    private void scheduleRebalancing() {
+        if (rebalanceTask != null) {
+            rebalanceTask.cancel();
+            rebalanceTask = null;
+        }
+        if (!config.rebalance().enabled()) {
+            return;
+        }
+        int intervalSeconds = config.rebalance().intervalSeconds();
+        rebalanceTask = server.getScheduler()
+                .buildTask(this, this::rebalanceLobbies)
+                .delay(intervalSeconds, TimeUnit.SECONDS)
+                .repeat(intervalSeconds, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    /**
+     * One rebalancing pass over the default lobbies and every contextual group.
+     */
+    private void rebalanceLobbies() {
+        Config current = config;
+        if (current == null || !current.rebalance().enabled()) {
+            return;
+        }
+        try {
+            Map<String, Integer> online = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : routeableServers(current).entrySet()) {
+                online.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+            }
+            rebalanceGroup(current.routing().defaultLobbies(), online, current);
+            if (current.routing().contextual().enabled()) {
+                for (Config.GroupConfig group : current.routing().contextual().groups().values()) {
+                    if (group != null) {
+                        rebalanceGroup(group.servers(), online, current);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("[VelocityNavigator] Rebalancing pass failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebalanceGroup(List<Config.LobbyEntry> entries, Map<String, Integer> online, Config current) {
+        Map<String, Integer> players = new LinkedHashMap<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (Config.LobbyEntry entry : entries) {
+            String name = entry.server().toLowerCase(Locale.ROOT);
+            Integer count = online.get(name);
+            // Drained lobbies are emptied by drain migration, not by the rebalancer
+            if (count != null && !drainService.isDrained(name)) {
+                players.put(name, count);
+                weights.put(name, entry.effectiveWeight());
+            }
+        }
+        List<LoadRebalancer.Move> moves = loadRebalancer.plan(players, weights, routePlanner.routableLobbies(entries, current, online), current.rebalance());
+        for (LoadRebalancer.Move move : moves) {
+            Optional<RegisteredServer> source = server.getServer(move.source());
+            Optional<RegisteredServer> target = server.getServer(move.target());
+            if (source.isEmpty() || target.isEmpty()) {
+                continue;
+            }
+            int remaining = move.count();
+            for (Player player : source.get().getPlayersConnected()) {
+                if (remaining <= 0) {
+                    break;
+                }
+                if (loadRebalancer.isIdle(player.getUniqueId(), current.rebalance())) {
+                    // Moves are optional, so a throttled or saturated target ends this move early
+                    if (concurrencyLimiter.isSaturated(move.target(), current.concurrency())
+                            || !admissionLimiter.tryAcquireLobby(move.target(), current.admission())) {
+                        break;
+                    }
+                    remaining--;
+                    movePlayer(player, target.get(), current);
+                }
+            }
+            online.merge(move.source(), remaining - move.count(), Integer::sum);
+            online.merge(move.target(), move.count() - remaining, Integer::sum);
+        }
+    }
+
+    private void movePlayer(Player player, RegisteredServer target, Config current) {
+        // Counted as moved up front so a slow connect is not picked again next pass
+        loadRebalancer.recordMoved(player.getUniqueId());
+        ConnectionWorkflow.connectQuietly(this, player, current, target, "rebalance");
+    }
+
     /**
      * Periodic update checker task that respects configured interval and enabled status.
      */
@@ -882,6 +1653,9 @@ public final class VelocityNavigator implements NavigatorAPI {
                 : taskBuilder.delay(intervalMinutes, TimeUnit.MINUTES).schedule();
     }
 
-    private record MenuSession(String token, Set<String> allowedServers, Instant expiresAt) {
+    private record PendingJoin(String server, long startedAtNanos) {
+    }
+
+    private record MenuSession(String token, Set<String> allowedServers) {
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionLimiterTest {
+
+    private static final TimeSource FIXED = new ManualTimeSource(1_000_000L);
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2", "bedwars-1", "bw-lobby-1", "overflow-1"));
+    }
+
+    private static Config.LobbyEntry lobby(String name) {
+        return new Config.LobbyEntry(name, Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT);
+    }
+
+    private static Config config(Config.Routing routing, Config.AdmissionSettings admission) {
+        return TestConfigs.defaults()
+                .routing(routing)
+                .admission(admission)
+                .build();
+    }
+
+    @Test
+    void bucketAllowsBurstThenThrottles() {
+        Config.AdmissionSettings settings = new Config.AdmissionSettings(true, 10.0, 3, 0.0, 1);
+        AdmissionLimiter limiter = new AdmissionLimiter(FIXED);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquireLobby(i == 1 ? "Lobby-1" : "lobby-1", settings));
+        }
+        assertFalse(limiter.hasLobbyToken("lobby-1", settings));
+        assertFalse(limiter.tryAcquireLobby("lobby-1", settings));
+        assertTrue(limiter.hasLobbyToken("lobby-2", settings), "Buckets are per lobby");
+        assertEquals(Map.of("lobby-1", 1L), limiter.getLobbySkipCounts());
+    }
+
+    @Test
+    void tokensReturnAfterOneInterval() {
+        Config.AdmissionSettings settings = new Config.AdmissionSettings(true, 10.0, 1, 0.0, 1);
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        AdmissionLimiter limiter = new AdmissionLimiter(time);
+
+        assertTrue(limiter.tryAcquireLobby("lobby-1", settings));
+        assertFalse(limiter.tryAcquireLobby("lobby-1", settings));
+        time.advance(Duration.ofMillis(100));
+        assertTrue(limiter.hasLobbyToken("lobby-1", settings));
+    }
+
+    @Test
+    void checkingTakesNothingAndForcedAdmissionsKeepTheirDebt() {
+        Config.AdmissionSettings settings = new Config.AdmissionSettings(true, 10.0, 2, 0.0, 1);
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        AdmissionLimiter limiter = new AdmissionLimiter(time);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.hasLobbyToken("lobby-1", settings));
+        }
+        assertTrue(limiter.getLobbySkipCounts().isEmpty(), "Checking counts no skips");
+        for (int i = 0; i < 6; i++) {
+            limiter.forceAcquireLobby("lobby-1", settings);
+        }
+        assertTrue(limiter.getLobbySkipCounts().isEmpty(), "Forced admissions are not skips");
+        time.advance(Duration.ofMillis(300));
+        assertFalse(limiter.hasLobbyToken("lobby-1", settings), "The overdraft is still owed");
+        time.advance(Duration.ofMillis(200));
+        assertTrue(limiter.tryAcquireLobby("lobby-1", settings));
+    }
+
+    @Test
+    void disabledOrUnlimitedNeverThrottles() {
+        AdmissionLimiter limiter = new AdmissionLimiter(FIXED);
+        Config.AdmissionSettings disabled = new Config.AdmissionSettings(false, 1.0, 1, 1.0, 1);
+        Config.AdmissionSettings unlimited = new Config.AdmissionSettings(true, 0.0, 1, 0.0, 1);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquireLobby("lobby-1", disabled));
+            assertTrue(limiter.tryAcquireLobby("lobby-1", unlimited));
+            assertTrue(limiter.tryAcquireGroup("default", unlimited));
+            limiter.forceAcquireLobby("lobby-1", disabled);
+            assertTrue(limiter.hasLobbyToken("lobby-1", unlimited));
+        }
+        assertTrue(limiter.getLobbySkipCounts().isEmpty());
+    }
+
+    @Test
+    void plannerSkipsThrottledLobbyAndNeverRefuses() {
+        Config config = config(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(lobby("lobby-1"), lobby("lobby-2")),
+                Config.defaults().routing().contextual(),
+                2,
+                null
+        ), new Config.AdmissionSettings(true, 1.0, 1, 0.0, 1));
+        AdmissionLimiter limiter = new AdmissionLimiter(FIXED);
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setAdmissionLimiter(limiter);
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 50);
+
+        assertEquals("lobby-1", planner.plan("", config, online).selectedServer());
+        assertEquals("lobby-1", planner.plan("", config, online).selectedServer(), "Previews take no token");
+        assertTrue(limiter.getLobbySkipCounts().isEmpty(), "Previews count no skips");
+        assertEquals("lobby-1", planner.planConnection("", config, online, null).selectedServer());
+        assertEquals("lobby-2", planner.plan("", config, online).selectedServer(), "Emptiest lobby is out of tokens");
+        assertEquals("lobby-2", planner.planConnection("", config, online, null).selectedServer());
+        assertEquals("lobby-1", planner.planConnection("", config, online, null).selectedServer(), "Saturated lobbies still route");
+        assertFalse(limiter.hasLobbyToken("lobby-1", config.admission()));
+        assertEquals(Map.of("lobby-1", 2L, "lobby-2", 1L), limiter.getLobbySkipCounts());
+    }
+
+    @Test
+    void concurrentConnectingPlansNeverShareTheLastToken() throws Exception {
+        Config config = config(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(lobby("lobby-1"), lobby("lobby-2")),
+                Config.defaults().routing().contextual(),
+                2,
+                null
+        ), new Config.AdmissionSettings(true, 1.0, 1, 0.0, 1));
+        AdmissionLimiter limiter = new AdmissionLimiter(FIXED);
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setAdmissionLimiter(limiter);
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 50);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return planner.planConnection("", config, online, null).selectedServer();
+                }));
+            }
+            start.countDown();
+            Map<String, Integer> routed = new HashMap<>();
+            for (Future<String> result : results) {
+                routed.merge(result.get(), 1, Integer::sum);
+            }
+            // One winner per token; everyone else lands on the forced fallback, the emptiest lobby
+            assertEquals(Map.of("lobby-1", threads - 1, "lobby-2", 1), routed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void throttledGroupSpillsToFallbackChain() {
+        Config config = config(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(lobby("lobby-1")),
+                new Config.Contextual(
+                        true,
+                        true,
+                        Map.of(
+                                "bedwars", new Config.GroupConfig(List.of(lobby("bw-lobby-1")), null),
+                                "overflow", new Config.GroupConfig(List.of(lobby("overflow-1")), null)
+                        ),
+                        Map.of("bedwars-1", "bedwars"),
+                        Map.of("bedwars", List.of("overflow"))
+                ),
+                2,
+                null
+        ), new Config.AdmissionSettings(true, 0.0, 1, 1.0, 1));
+        AdmissionLimiter limiter = new AdmissionLimiter(FIXED);
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setAdmissionLimiter(limiter);
+        Map<String, Integer> online = Map.of("lobby-1", 0, "bw-lobby-1", 0, "overflow-1", 0);
+
+        assertEquals("bedwars", planner.plan("bedwars-1", config, online).usedGroup());
+        assertEquals("bedwars", planner.plan("bedwars-1", config, online).usedGroup());
+        assertEquals("bedwars", planner.planConnection("bedwars-1", config, online, null).usedGroup());
+        assertEquals("overflow", planner.plan("bedwars-1", config, online).usedGroup());
+        assertTrue(limiter.getGroupSkipCounts().isEmpty());
+        RouteDecision spilled = planner.planConnection("bedwars-1", config, online, null);
+        assertEquals("overflow", spilled.usedGroup());
+        assertEquals("overflow-1", spilled.selectedServer());
+        assertEquals(Map.of("bedwars", 1L), limiter.getGroupSkipCounts());
+    }
+}
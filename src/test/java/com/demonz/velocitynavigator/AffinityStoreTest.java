@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AffinityStoreTest {
+
+    @Test
+    void matchesHashMapThroughGrowthAndRemovals() {
+        AffinityStore store = new AffinityStore(100_000, 0L);
+        Map<UUID, String> expected = new HashMap<>();
+        List<UUID> players = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            if (random.nextInt(3) == 0) {
+                store.remove(player);
+                expected.remove(player);
+            } else {
+                String server = "lobby-" + random.nextInt(8);
+                store.put(player, server, 0L, 100L);
+                expected.put(player, server);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        assertEquals(expected, store.snapshot());
+        for (UUID player : players) {
+            assertEquals(expected.get(player), store.get(player, 0L));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlySetAtCapacity() {
+        AffinityStore store = new AffinityStore(1_000, 0L);
+        UUID oldest = UUID.randomUUID();
+        store.put(oldest, "lobby-1", 0L, 10L);
+        for (int tick = 1; tick < 1_000; tick++) {
+            store.put(UUID.randomUUID(), "lobby-2", tick, tick + 1_000L);
+        }
+
+        for (int i = 0; i < AffinityStore.SAMPLE_SIZE * 200; i++) {
+            store.put(UUID.randomUUID(), "lobby-3", 2_000L, 3_000L);
+        }
+
+        assertEquals(1_000, store.size());
+        assertNull(store.get(oldest, 0L));
+        assertEquals(AffinityStore.SAMPLE_SIZE * 200, store.evictions());
+    }
+
+    @Test
+    void renewalsKeepOneWheelEntryAndStillExpireOnTime() {
+        AffinityStore store = new AffinityStore(1_000, 0L);
+        UUID player = UUID.randomUUID();
+        for (long tick = 0; tick < 10_000; tick++) {
+            store.put(player, "lobby-1", tick, tick + 100L);
+        }
+        assertEquals(1, store.pendingExpiries());
+
+        store.expire(10_098L);
+        assertEquals("lobby-1", store.get(player, 10_098L));
+        store.expire(10_100L);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void staleEntriesOfRemovedPlayersAreCompacted() {
+        AffinityStore store = new AffinityStore(1_000, 0L);
+        for (int i = 0; i < 10_000; i++) {
+            UUID player = UUID.randomUUID();
+            store.put(player, "lobby-1", 0L, 1_000L);
+            store.remove(player);
+        }
+
+        assertEquals(0, store.size());
+        assertTrue(store.pendingExpiries() <= 2L * 64 + 1, "Wheel holds " + store.pendingExpiries() + " entries");
+    }
+
+    @Test
+    void segmentsTakeConcurrentWritersWithoutLosingEntries() throws InterruptedException {
+        AffinityStore store = new AffinityStore(100_000, 0L);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            players.add(UUID.randomUUID());
+        }
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            List<UUID> share = players.subList(w * 5_000, (w + 1) * 5_000);
+            String server = "lobby-" + w;
+            writers.add(new Thread(() -> share.forEach(player -> store.put(player, server, 0L, 100L))));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(players.size(), store.size());
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals("lobby-" + i / 5_000, store.get(players.get(i), 0L));
+        }
+    }
+
+    @Test
+    void expiresOnlyEntriesNotSetAgain() {
+        AffinityStore store = new AffinityStore(1_000, 0L);
+        UUID idle = UUID.randomUUID();
+        UUID active = UUID.randomUUID();
+        store.put(idle, "lobby-1", 0L, 10L);
+        store.put(active, "lobby-1", 0L, 10L);
+        store.put(active, "lobby-2", 5L, 5_000L);
+
+        store.expire(11L);
+        assertEquals(1, store.size());
+        store.expire(4_999L);
+        assertEquals("lobby-2", store.get(active, 4_999L));
+        store.expire(5_001L);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void preferredLobbySurvivesOneReassignment() {
+        AffinityStore store = new AffinityStore(1_000, 0L);
+        UUID player = UUID.randomUUID();
+        store.put(player, "lobby-1", 0L, 10L);
+        store.markPreferred(player, "lobby-1");
+
+        store.put(player, "lobby-2", 1L, 11L);
+        assertEquals("lobby-1", store.get(player, 1L));
+        store.put(player, "lobby-2", 2L, 12L);
+        assertEquals("lobby-2", store.get(player, 2L));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApertureSelectorTest {
+
+    private static final TimeSource FIXED = new ManualTimeSource(0L);
+
+    private static List<Config.LobbyEntry> lobbies(int count) {
+        List<Config.LobbyEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(new Config.LobbyEntry("lobby-" + i, Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT));
+        }
+        return entries;
+    }
+
+    private static List<String> names(List<Config.LobbyEntry> entries) {
+        return entries.stream().map(Config.LobbyEntry::server).toList();
+    }
+
+    @Test
+    void disabledApertureReturnsWholeGroup() {
+        ApertureSelector selector = new ApertureSelector(FIXED);
+        List<Config.LobbyEntry> entries = lobbies(100);
+        Config.ApertureSettings settings = new Config.ApertureSettings(false, 8, 50, 0, 1, 300);
+
+        assertSame(entries, selector.window("default", entries, settings));
+    }
+
+    @Test
+    void smallGroupsAreNotSubset() {
+        ApertureSelector selector = new ApertureSelector(FIXED);
+        List<Config.LobbyEntry> entries = lobbies(5);
+        Config.ApertureSettings settings = new Config.ApertureSettings(true, 8, 50, 0, 1, 300);
+
+        assertEquals(5, selector.window("default", entries, settings).size());
+    }
+
+    @Test
+    void windowsAcrossProxiesCoverWholeGroupEvenly() {
+        List<Config.LobbyEntry> entries = lobbies(100);
+        int proxies = 4;
+        Map<String, Integer> coverage = new HashMap<>();
+        for (int ordinal = 0; ordinal < proxies; ordinal++) {
+            ApertureSelector selector = new ApertureSelector(FIXED);
+            Config.ApertureSettings settings = new Config.ApertureSettings(true, 8, 50, ordinal, proxies, 300);
+            List<Config.LobbyEntry> window = selector.window("default", entries, settings);
+            assertEquals(25, window.size(), "Window must be at least group / proxies wide");
+            for (String name : names(window)) {
+                coverage.merge(name, 1, Integer::sum);
+            }
+        }
+
+        assertEquals(100, coverage.size(), "Every lobby should belong to some proxy's window");
+        assertTrue(coverage.values().stream().allMatch(count -> count == 1), "Each lobby should be covered exactly once");
+    }
+
+    @Test
+    void windowIsDeterministicAndRotatesOverTime() {
+        List<Config.LobbyEntry> entries = lobbies(50);
+        Config.ApertureSettings settings = new Config.ApertureSettings(true, 8, 50, 0, 1, 60);
+
+        List<String> first = names(new ApertureSelector(FIXED).window("default", entries, settings));
+        List<String> again = names(new ApertureSelector(FIXED).window("default", entries, settings));
+        TimeSource later = new ManualTimeSource(60_000L);
+        List<String> rotated = names(new ApertureSelector(later).window("default", entries, settings));
+
+        assertEquals(first, again);
+        assertNotEquals(first, rotated);
+        assertEquals(first.subList(1, first.size()), rotated.subList(0, rotated.size() - 1));
+    }
+
+    @Test
+    void windowWidensUnderLoadAndShrinksWhenIdle() {
+        ApertureSelector selector = new ApertureSelector(FIXED);
+        List<Config.LobbyEntry> entries = lobbies(40);
+        Config.ApertureSettings settings = new Config.ApertureSettings(true, 8, 50, 0, 1, 0);
+
+        List<Config.LobbyEntry> window = selector.window("default", entries, settings);
+        assertEquals(8, window.size());
+        Map<String, Integer> busy = new HashMap<>();
+        for (Config.LobbyEntry entry : window) {
+            busy.put(entry.server(), 80);
+        }
+        selector.observe("default", window, entries.size(), OnlineCounts.of(busy), names(window), settings);
+        assertEquals(9, selector.window("default", entries, settings).size());
+
+        List<Config.LobbyEntry> wider = selector.window("default", entries, settings);
+        Map<String, Integer> idle = new HashMap<>();
+        for (Config.LobbyEntry entry : wider) {
+            idle.put(entry.server(), 2);
+        }
+        selector.observe("default", wider, entries.size(), OnlineCounts.of(idle), names(wider), settings);
+        assertEquals(8, selector.window("default", entries, settings).size());
+    }
+
+    @Test
+    void emptyWindowOpensApertureToWholeGroup() {
+        ApertureSelector selector = new ApertureSelector(FIXED);
+        List<Config.LobbyEntry> entries = lobbies(40);
+        Config.ApertureSettings settings = new Config.ApertureSettings(true, 8, 50, 0, 1, 0);
+
+        List<Config.LobbyEntry> window = selector.window("default", entries, settings);
+        selector.observe("default", window, entries.size(), OnlineCounts.of(Map.of()), List.of(), settings);
+
+        assertEquals(40, selector.window("default", entries, settings).size());
+    }
+
+    @Test
+    void plannerOnlyConsidersWindowAndInspectsIt() {
+        List<Config.LobbyEntry> entries = lobbies(30);
+        Config config = TestConfigs.defaults()
+                .routing(new Config.Routing(Config.SelectionMode.LEAST_PLAYERS, false, true, entries, null, 2, new Config.AffinitySettings(false, 0.0)))
+                .aperture(new Config.ApertureSettings(true, 5, 50, 1, 3, 0))
+                .build();
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setApertureSelector(new ApertureSelector(FIXED));
+
+        Set<String> targets = planner.inspectionTargets("", config);
+        assertEquals(Set.of("lobby-10", "lobby-11", "lobby-12", "lobby-13", "lobby-14",
+                "lobby-15", "lobby-16", "lobby-17", "lobby-18", "lobby-19"), targets);
+
+        Map<String, Integer> online = new HashMap<>();
+        for (Config.LobbyEntry entry : entries) {
+            online.put(entry.server(), 10);
+        }
+        online.put("lobby-0", 0);
+        online.put("lobby-15", 1);
+        RouteDecision decision = planner.plan("", config, online);
+
+        assertEquals("lobby-15", decision.selectedServer(), "Lobbies outside the window must not be considered");
+        assertEquals(new HashSet<>(targets), new HashSet<>(decision.onlineCandidates()));
+    }
+}
@@ -15,14 +15,23 @@
  */
 package com.demonz.velocitynavigator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CircuitBreakerTest {
 
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "server-1"));
+    }
+
     @Test
     void startsInClosedState() {
         CircuitBreaker breaker = new CircuitBreaker(3, 30, 1);
@@ -179,4 +188,22 @@ class CircuitBreakerTest {
         assertTrue(breaker.isAvailable("server-1"),
                 "HALF_OPEN state should report available for test requests");
     }
+
+    @Test
+    void cooldownFollowsTheInjectedTimeSource() {
+        ManualTimeSource time = new ManualTimeSource(1_800_000_000_000L);
+        ServerRegistry registry = new ServerRegistry();
+        registry.intern("server-1");
+        CircuitBreaker breaker = new CircuitBreaker(1, 30, 1, registry, time);
+
+        breaker.recordFailure("server-1");
+        time.advance(Duration.ofSeconds(10));
+        assertFalse(breaker.isAvailable("server-1"));
+        assertEquals(List.of(new CircuitBreaker.SavedState("server-1", CircuitBreaker.State.OPEN, 1, 1_800_000_000_000L, 1)),
+                breaker.export());
+
+        time.advance(Duration.ofSeconds(21));
+        assertTrue(breaker.isAvailable("server-1"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("server-1"));
+    }
 }
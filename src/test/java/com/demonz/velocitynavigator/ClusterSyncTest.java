@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterSyncTest {
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void closeNodes() throws IOException {
+        for (Node node : nodes) {
+            node.sync.close();
+        }
+    }
+
+    @Test
+    void drainsBreakersAndAffinitiesConvergeWithinASecond() throws Exception {
+        Node a = node("secret");
+        Node b = node("secret");
+        Node c = node("secret");
+        connect();
+        UUID player = UUID.randomUUID();
+
+        a.drain.drain("lobby-1");
+        b.breaker.recordFailure("lobby-2");
+        c.affinity.setAffinity(player, "lobby-3");
+        c.sync.recordAffinity(player, "lobby-3", c.affinity.ttlMillis());
+
+        assertTrue(converge(() -> nodes.stream().allMatch(node -> node.drain.isDrained("lobby-1")
+                && node.breaker.getState("lobby-2") == CircuitBreaker.State.OPEN
+                && node.affinity.getAffinity(player).equals(Optional.of("lobby-3")))));
+
+        b.drain.undrain("lobby-1");
+        assertTrue(converge(() -> nodes.stream().noneMatch(node -> node.drain.isDrained("lobby-1"))));
+        assertEquals(2, a.sync.knownPeers());
+    }
+
+    @Test
+    void playerCountsAndRoutedTotalsAreSummedAcrossProxies() throws Exception {
+        Node a = node("secret");
+        Node b = node("secret");
+        Node c = node("secret");
+        connect();
+
+        a.players.put("lobby-1", 5);
+        b.players.put("lobby-1", 3);
+        a.sync.recordRouted("lobby-1");
+        a.sync.recordRouted("lobby-1");
+        b.sync.recordRouted("Lobby-1");
+
+        assertTrue(converge(() -> c.sync.remotePlayers("lobby-1") == 8
+                && a.sync.remotePlayers("lobby-1") == 3
+                && nodes.stream().allMatch(node -> node.sync.routedTotals().getOrDefault("lobby-1", 0L) == 3L)));
+        assertEquals(0, c.sync.remotePlayers("lobby-2"));
+    }
+
+    @Test
+    void packetsSignedWithAnotherSecretAreDropped() throws Exception {
+        Node a = node("secret");
+        Node b = node("other");
+        connect();
+
+        a.drain.drain("lobby-1");
+        converge(() -> b.sync.packetsRejected() > 0);
+
+        assertFalse(b.drain.isDrained("lobby-1"));
+        assertTrue(b.sync.packetsRejected() > 0);
+        assertEquals(0, a.sync.knownPeers());
+    }
+
+    @Test
+    void mergesKeepTheNewestWriteAndDeltasFitThePacket() {
+        ReplicatedState state = new ReplicatedState("a");
+        ReplicatedState.Entry first = state.write("drain:lobby-1", "1", 0L, 1_000L);
+        assertNull(state.write("drain:lobby-1", "1", 0L, 2_000L));
+
+        assertFalse(state.merge(new ReplicatedState.Entry("drain:lobby-1", "0", first.version() - 1, "b", 0L), 2_000L));
+        assertTrue(state.merge(new ReplicatedState.Entry("drain:lobby-1", "0", first.version(), "b", 0L), 2_000L));
+        assertFalse(state.merge(new ReplicatedState.Entry("drain:lobby-1", "0", first.version(), "b", 0L), 2_000L));
+        assertEquals("0", state.get("drain:lobby-1").value());
+        // A local write always lands above the version it replaces, whatever the clock says
+        assertTrue(state.write("drain:lobby-1", "1", 0L, 0L).version() > first.version());
+
+        for (int i = 0; i < 50; i++) {
+            state.write("players:lobby-" + i + ":a", "1", 5_000L, 2_000L);
+        }
+        ReplicatedState.Delta delta = state.deltaSince(0L, 400, null);
+        int size = delta.entries().stream().mapToInt(ReplicatedState::encodedSize).sum();
+        assertTrue(size <= 400 && !delta.entries().isEmpty());
+        assertTrue(state.deltaSince(0L, 400, "a").entries().isEmpty());
+
+        assertEquals(50, state.purge(5_000L));
+        assertEquals(1, state.size());
+    }
+
+    private Node node(String secret) throws IOException {
+        Node node = new Node(new Config.ClusterSettings(true, "node", "127.0.0.1", 0, List.of(), secret, 20, 3, 1400));
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Gives every node every address as a peer, its own included.
+     */
+    private void connect() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (Node node : nodes) {
+            addresses.add(node.sync.localAddress());
+        }
+        for (Node node : nodes) {
+            node.sync.setPeers(addresses);
+        }
+    }
+
+    /**
+     * Runs gossip rounds on every node until {@code condition} holds, for at most a second.
+     */
+    private boolean converge(BooleanSupplier condition) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (System.nanoTime() < deadline) {
+            for (Node node : nodes) {
+                node.tick();
+            }
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private final ClusterSync sync;
+        private final ServerRegistry registry = new ServerRegistry();
+        private final DrainService drain = new DrainService(TimeSource.system(), registry);
+        private final CircuitBreaker breaker = new CircuitBreaker(1, 30, 1, registry, TimeSource.system());
+        private final PlayerAffinityService affinity = new PlayerAffinityService(1.0, Duration.ofMinutes(10));
+        private final Map<String, Integer> players = new HashMap<>();
+
+        private Node(Config.ClusterSettings settings) throws IOException {
+            registry.internAll(List.of("lobby-1", "lobby-2", "lobby-3"));
+            this.sync = new ClusterSync(settings);
+        }
+
+        private void tick() throws IOException {
+            sync.tick(drain, breaker, affinity, players);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    private static final Config.ConcurrencySettings SETTINGS = new Config.ConcurrencySettings(true, 4, 2, 50, 2.0, 0.5);
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2"));
+    }
+
+    @Test
+    void saturatesAtLimitAndRecoversOnRelease() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter();
+        for (int i = 0; i < 4; i++) {
+            assertFalse(limiter.isSaturated("lobby-1", SETTINGS));
+            limiter.acquire("Lobby-1", SETTINGS);
+        }
+        assertTrue(limiter.isSaturated("lobby-1", SETTINGS));
+        assertEquals(4, limiter.inFlight("lobby-1"));
+
+        limiter.release("lobby-1", 100, true, SETTINGS);
+        assertFalse(limiter.isSaturated("lobby-1", SETTINGS));
+    }
+
+    @Test
+    void fastSuccessesUnderLoadRaiseTheLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter();
+        for (int round = 0; round < 40; round++) {
+            for (int i = 0; i < 4; i++) {
+                limiter.acquire("lobby-1", SETTINGS);
+            }
+            for (int i = 0; i < 4; i++) {
+                limiter.release("lobby-1", 100, true, SETTINGS);
+            }
+        }
+        assertTrue(limiter.limit("lobby-1", SETTINGS) > 4, "Limit should grow while it is being used");
+    }
+
+    @Test
+    void failuresAndSlowConnectsCutTheLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter();
+        limiter.acquire("lobby-1", SETTINGS);
+        limiter.release("lobby-1", 100, true, SETTINGS);
+        limiter.acquire("lobby-1", SETTINGS);
+        limiter.release("lobby-1", 1_000, true, SETTINGS);
+        assertEquals(2, limiter.limit("lobby-1", SETTINGS));
+
+        Config.ConcurrencySettings wide = new Config.ConcurrencySettings(true, 40, 2, 50, 2.0, 0.5);
+        limiter.acquire("lobby-2", wide);
+        limiter.release("lobby-2", 100, false, wide);
+        assertEquals(20, limiter.limit("lobby-2", wide));
+    }
+
+    @Test
+    void plannerDeprioritisesSaturatedLobbies() {
+        Config d = Config.defaults();
+        Config config = TestConfigs.defaults()
+                .routing(new Config.Routing(Config.SelectionMode.LEAST_PLAYERS, false, true,
+                        List.of(new Config.LobbyEntry("lobby-1", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT),
+                                new Config.LobbyEntry("lobby-2", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT)),
+                        d.routing().contextual(), 2, null))
+                .concurrency(SETTINGS)
+                .build();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter();
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setConcurrencyLimiter(limiter);
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 30);
+
+        assertEquals("lobby-1", planner.plan("", config, online).selectedServer());
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire("lobby-1", SETTINGS);
+        }
+        assertEquals("lobby-2", planner.plan("", config, online).selectedServer());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire("lobby-2", SETTINGS);
+        }
+        assertEquals("lobby-1", planner.plan("", config, online).selectedServer(), "All saturated falls back to normal selection");
+    }
+}
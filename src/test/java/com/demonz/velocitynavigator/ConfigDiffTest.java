@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigDiffTest {
+
+    @Test
+    void identicalConfigsChangeNothing() {
+        Config config = config(List.of(lobby("Lobby-1")), Map.of(), Config.defaults().healthChecks());
+
+        ConfigDiff diff = ConfigDiff.between(config, config(List.of(lobby("Lobby-1")), Map.of(), Config.defaults().healthChecks()));
+
+        assertFalse(diff.initial());
+        assertFalse(diff.topologyChanged());
+        assertTrue(diff.addedLobbies().isEmpty());
+        assertTrue(diff.removedLobbies().isEmpty());
+        assertFalse(diff.healthChecksChanged());
+        assertFalse(diff.commandsChanged());
+        assertFalse(diff.prometheusChanged());
+    }
+
+    @Test
+    void reportsLobbyAndGroupChanges() {
+        Config.GroupConfig minigames = new Config.GroupConfig(List.of(lobby("mg-1")), null);
+        Config before = config(List.of(lobby("lobby-1"), lobby("lobby-2")),
+                Map.of("minigames", minigames, "survival", new Config.GroupConfig(List.of(lobby("sv-1")), null)),
+                Config.defaults().healthChecks());
+        Config after = config(List.of(lobby("lobby-1"), new Config.LobbyEntry("Lobby-2", 80, 2)),
+                Map.of("minigames", minigames, "survival", new Config.GroupConfig(List.of(lobby("sv-1"), lobby("SV-2")), null)),
+                new Config.HealthChecks(true, 500, 10));
+
+        ConfigDiff diff = ConfigDiff.between(before, after);
+
+        assertEquals(Set.of("sv-2"), diff.addedLobbies());
+        assertTrue(diff.removedLobbies().isEmpty());
+        // Cap and weight changes keep the default group's cursor
+        assertEquals(Set.of("survival"), diff.changedGroups());
+        assertTrue(diff.healthChecksChanged());
+        assertFalse(diff.circuitBreakerChanged());
+    }
+
+    @Test
+    void firstLoadChangesEverything() {
+        Config config = config(List.of(lobby("lobby-1")), Map.of(), Config.defaults().healthChecks());
+
+        ConfigDiff diff = ConfigDiff.between(null, config);
+
+        assertTrue(diff.initial());
+        assertTrue(diff.commandsChanged());
+        assertEquals(Set.of(ConfigDiff.DEFAULT_GROUP), diff.changedGroups());
+    }
+
+    private static Config.LobbyEntry lobby(String name) {
+        return new Config.LobbyEntry(name, Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT);
+    }
+
+    private static Config config(List<Config.LobbyEntry> lobbies, Map<String, Config.GroupConfig> groups,
+                                 Config.HealthChecks healthChecks) {
+        Config.Contextual contextual = new Config.Contextual(true, true, groups, Map.of(), Map.of());
+        Config.Routing routing = new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                lobbies,
+                contextual,
+                2,
+                null
+        );
+        return TestConfigs.defaults()
+                .routing(routing)
+                .healthChecks(healthChecks)
+                .build();
+    }
+}
@@ -78,6 +78,21 @@ class ConfigManagerRoundTripTest {
         assertEquals(defaults.bedrock().autoDetect(), config.bedrock().autoDetect());
         assertEquals(defaults.bedrock().stripAdvancedFormatting(), config.bedrock().stripAdvancedFormatting());
         assertEquals(defaults.bedrock().affinityUseJavaUuid(), config.bedrock().affinityUseJavaUuid());
+        assertEquals(defaults.aperture(), config.aperture());
+        assertEquals(defaults.slowStart(), config.slowStart());
+        assertEquals(defaults.admission(), config.admission());
+        assertEquals(defaults.concurrency(), config.concurrency());
+        assertEquals(defaults.retryBudget(), config.retryBudget());
+        assertEquals(defaults.evacuation(), config.evacuation());
+        assertEquals(defaults.drain(), config.drain());
+        assertEquals(defaults.rebalance(), config.rebalance());
+        assertEquals(defaults.queue(), config.queue());
+        assertEquals(defaults.reservedCapacity(), config.reservedCapacity());
+        assertEquals(defaults.stateSnapshot(), config.stateSnapshot());
+        assertEquals(defaults.hotReload(), config.hotReload());
+        assertEquals(defaults.lobbyAttributes(), config.lobbyAttributes());
+        assertEquals(defaults.regionalRouting(), config.regionalRouting());
+        assertEquals(defaults.cluster(), config.cluster());
 
         String written = Files.readString(tempDir.resolve("navigator.toml"));
         assertTrue(written.contains("notify_on_startup = true"));
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -110,6 +111,35 @@ class ConfigManagerTest {
         assertEquals(Config.defaults().routing().defaultLobbies(), result.config().routing().defaultLobbies());
     }
 
+    @Test
+    void readsAndWritesDynamicGroups() throws Exception {
+        Path configPath = tempDir.resolve("navigator.toml");
+        Files.writeString(configPath, """
+                config_version = 6
+
+                [routing.contextual.groups]
+                "lobby" = { servers = ["lobby-main"], match = ["Lobby-*", "!lobby-canary-*"], max_players = 100 }
+                "eu" = { tags = ["eu", "lobby"], weight = 2, mode = "round_robin" }
+                """);
+
+        ConfigManager manager = new ConfigManager(tempDir, LoggerFactory.getLogger("config-test"));
+        Config config = manager.load().config();
+        Config.GroupConfig lobby = config.routing().contextual().groups().get("lobby");
+        Config.GroupConfig eu = config.routing().contextual().groups().get("eu");
+
+        assertEquals(List.of("lobby-*", "!lobby-canary-*"), lobby.match());
+        assertEquals(100, lobby.maxPlayers());
+        assertEquals(1, lobby.servers().size());
+        assertTrue(eu.servers().isEmpty());
+        assertEquals(List.of("eu", "lobby"), eu.tags());
+        assertEquals(2, eu.weight());
+        assertEquals(Config.SelectionMode.ROUND_ROBIN, eu.mode());
+
+        // The migrated file is rewritten and must read back the same groups
+        assertTrue(Files.readString(configPath).contains("match = [\"lobby-*\", \"!lobby-canary-*\"]"));
+        assertEquals(config.routing().contextual().groups(), manager.load().config().routing().contextual().groups());
+    }
+
     @Test
     void prometheusPortOutsideTcpRangeFallsBackToDefault() {
         Config.PrometheusSettings tooHigh = new Config.PrometheusSettings(true, 70000, "127.0.0.1");
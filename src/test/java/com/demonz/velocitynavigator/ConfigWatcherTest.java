@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigWatcherTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void reportsAChangeOnceItHasSettled() throws Exception {
+        Path config = dataDirectory.resolve("navigator.toml");
+        Files.writeString(config, "config_version = 7\n");
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        try (ConfigWatcher watcher = new ConfigWatcher(config, () -> 0L, time)) {
+            Files.writeString(config, "config_version = 7\n[hot_reload]\nenabled = true\n");
+            awaitEvent(watcher);
+
+            assertFalse(watcher.poll(500L), "quiet period has not passed yet");
+            time.advance(Duration.ofMillis(500));
+            assertTrue(watcher.poll(500L));
+            assertFalse(watcher.poll(500L), "each change is reported once");
+        }
+    }
+
+    @Test
+    void ignoresUnchangedAndSelfWrittenContent() throws Exception {
+        Path config = dataDirectory.resolve("navigator.toml");
+        Files.writeString(config, "config_version = 7\n");
+        String normalized = "config_version = 7\n# normalized\n";
+        long written = ConfigWatcher.checksum(normalized.getBytes(StandardCharsets.UTF_8));
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        try (ConfigWatcher watcher = new ConfigWatcher(config, () -> written, time)) {
+            Files.writeString(config, "config_version = 7\n");
+            awaitEvent(watcher);
+            time.advance(Duration.ofSeconds(1));
+            assertFalse(watcher.poll(500L));
+
+            Files.writeString(config, normalized);
+            awaitEvent(watcher);
+            time.advance(Duration.ofSeconds(1));
+            assertFalse(watcher.poll(500L));
+        }
+    }
+
+    /**
+     * Waits, in real time, for the file system to deliver the pending event.
+     */
+    private static void awaitEvent(ConfigWatcher watcher) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!watcher.changePending() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -15,13 +15,21 @@
  */
 package com.demonz.velocitynavigator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ConnectionRateTrackerTest {
 
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("server-1", "server-2", "server-3"));
+    }
+
     @Test
     void tracksConnectionRate() {
         ConnectionRateTracker tracker = new ConnectionRateTracker(60);
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionWorkflowTest {
+
+    private static final Config CONFIG = TestConfigs.defaults()
+            .concurrency(new Config.ConcurrencySettings(true, 4, 2, 50, 2.0, 0.5))
+            .retryBudget(new Config.RetryBudgetSettings(true, 0, 20.0, 5, 10))
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2"));
+    }
+
+    @Test
+    void failedConnectFailsOverToTheNextCandidate() {
+        VelocityNavigator plugin = plugin();
+        List<String> attempts = new ArrayList<>();
+        Player player = player(attempts, Map.of(
+                "lobby-1", ConnectionRequestBuilder.Status.SERVER_DISCONNECTED,
+                "lobby-2", ConnectionRequestBuilder.Status.SUCCESS));
+
+        ConnectionWorkflow.connectWithRetry(plugin, player, CONFIG, server("lobby-1"), decision(), "lobby_command");
+
+        assertEquals(List.of("lobby-1", "lobby-2"), attempts);
+        assertEquals(1, plugin.retryBudget().windowRetries(CONFIG.retryBudget()));
+        assertEquals(0, plugin.concurrencyLimiter().inFlight("lobby-1"));
+        assertEquals(0, plugin.concurrencyLimiter().inFlight("lobby-2"));
+        assertEquals(1L, plugin.routingStats().getRedirectCounts().get("retry").get("lobby-2"));
+    }
+
+    @Test
+    void connectRefusedByTheProxyIsNotRetriedOrCounted() {
+        VelocityNavigator plugin = plugin();
+        List<String> attempts = new ArrayList<>();
+        Player player = player(attempts, Map.of(
+                "lobby-1", ConnectionRequestBuilder.Status.CONNECTION_IN_PROGRESS,
+                "lobby-2", ConnectionRequestBuilder.Status.SUCCESS));
+
+        ConnectionWorkflow.connectWithRetry(plugin, player, CONFIG, server("lobby-1"), decision(), "lobby_command");
+
+        assertEquals(List.of("lobby-1"), attempts);
+        assertEquals(0, plugin.retryBudget().windowRetries(CONFIG.retryBudget()));
+        assertEquals(0, plugin.concurrencyLimiter().inFlight("lobby-1"));
+        assertEquals(4, plugin.concurrencyLimiter().limit("lobby-1", CONFIG.concurrency()));
+    }
+
+    @Test
+    void quietMovesMakeOneAttemptWithTheSameBookkeeping() {
+        VelocityNavigator plugin = plugin();
+        List<String> attempts = new ArrayList<>();
+        Player player = player(attempts, Map.of(
+                "lobby-1", ConnectionRequestBuilder.Status.SERVER_DISCONNECTED,
+                "lobby-2", ConnectionRequestBuilder.Status.SUCCESS));
+
+        assertFalse(ConnectionWorkflow.connectQuietly(plugin, player, CONFIG, server("lobby-1"), "rebalance").join());
+        assertTrue(ConnectionWorkflow.connectQuietly(plugin, player, CONFIG, server("lobby-2"), "rebalance").join());
+
+        assertEquals(List.of("lobby-1", "lobby-2"), attempts);
+        assertEquals(0, plugin.retryBudget().windowRetries(CONFIG.retryBudget()));
+        assertEquals(0, plugin.concurrencyLimiter().inFlight("lobby-1"));
+        assertEquals(0, plugin.concurrencyLimiter().inFlight("lobby-2"));
+        assertEquals(Map.of("lobby-2", 1L), plugin.routingStats().getRedirectCounts().get("rebalance"));
+    }
+
+    private VelocityNavigator plugin() {
+        ProxyServer proxy = (ProxyServer) java.lang.reflect.Proxy.newProxyInstance(
+                ProxyServer.class.getClassLoader(),
+                new Class<?>[]{ProxyServer.class},
+                (p, method, args) -> method.getName().equals("getServer") ? Optional.of(server((String) args[0])) : null
+        );
+        return new VelocityNavigator(proxy, LoggerFactory.getLogger("connection-workflow-test"), tempDir, null);
+    }
+
+    private static RouteDecision decision() {
+        List<String> lobbies = List.of("lobby-1", "lobby-2");
+        return new RouteDecision(null, "default", "default", lobbies, lobbies, "lobby-1", false, "test",
+                Config.SelectionMode.LEAST_PLAYERS, lobbies);
+    }
+
+    private static RegisteredServer server(String name) {
+        return (RegisteredServer) java.lang.reflect.Proxy.newProxyInstance(
+                RegisteredServer.class.getClassLoader(),
+                new Class<?>[]{RegisteredServer.class},
+                (p, method, args) -> method.getName().equals("getServerInfo")
+                        ? new ServerInfo(name, new InetSocketAddress("localhost", 25565))
+                        : null
+        );
+    }
+
+    /**
+     * A player whose connects to each server complete immediately with the given status.
+     */
+    private static Player player(List<String> attempts, Map<String, ConnectionRequestBuilder.Status> outcomes) {
+        UUID uuid = UUID.randomUUID();
+        return (Player) java.lang.reflect.Proxy.newProxyInstance(
+                Player.class.getClassLoader(),
+                new Class<?>[]{Player.class},
+                (p, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> uuid;
+                    case "getUsername" -> "Steve";
+                    case "createConnectionRequest" -> connectionRequest((RegisteredServer) args[0], attempts, outcomes);
+                    default -> null;
+                }
+        );
+    }
+
+    private static ConnectionRequestBuilder connectionRequest(RegisteredServer target, List<String> attempts,
+                                                              Map<String, ConnectionRequestBuilder.Status> outcomes) {
+        String name = target.getServerInfo().getName();
+        ConnectionRequestBuilder.Status status = outcomes.get(name);
+        ConnectionRequestBuilder.Result result = (ConnectionRequestBuilder.Result) java.lang.reflect.Proxy.newProxyInstance(
+                ConnectionRequestBuilder.Result.class.getClassLoader(),
+                new Class<?>[]{ConnectionRequestBuilder.Result.class},
+                (p, method, args) -> switch (method.getName()) {
+                    case "isSuccessful" -> status == ConnectionRequestBuilder.Status.SUCCESS;
+                    case "getStatus" -> status;
+                    case "getReasonComponent" -> Optional.empty();
+                    case "getAttemptedConnection" -> target;
+                    default -> null;
+                }
+        );
+        return (ConnectionRequestBuilder) java.lang.reflect.Proxy.newProxyInstance(
+                ConnectionRequestBuilder.class.getClassLoader(),
+                new Class<?>[]{ConnectionRequestBuilder.class},
+                (p, method, args) -> {
+                    if (method.getName().equals("connect")) {
+                        attempts.add(name);
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    return method.getName().equals("getServer") ? target : null;
+                }
+        );
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.demonz.velocitynavigator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,6 +28,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DrainServiceTest {
 
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2", "bw-lobby-1", "bw-lobby-2"));
+    }
+
     @Test
     void drainExcludesServerFromRouting() {
         DrainService service = new DrainService();
@@ -76,4 +84,83 @@ class DrainServiceTest {
         assertFalse(service.isDrained("lobby-2"), "Drain state should be cleared after reset");
         assertTrue(service.drainState().isEmpty(), "Drain state map should be empty after reset");
     }
+
+    @Test
+    void migrationTracksProgressAndDrainsServer() {
+        DrainService service = new DrainService(new ManualTimeSource(1_000_000L));
+
+        service.startMigration("Lobby-1", 3, 60);
+        service.recordMigrated("lobby-1");
+        service.recordMigrated("lobby-1");
+        service.recordMigrationFailed("lobby-1");
+
+        assertTrue(service.isDrained("lobby-1"), "Migrating a server also drains it");
+        DrainService.MigrationProgress progress = service.migration("lobby-1").orElseThrow();
+        assertEquals(3, progress.initialPlayers());
+        assertEquals(2, progress.moved());
+        assertEquals(1, progress.failed());
+        assertEquals(60_000L, progress.remainingMillis(service.nowMillis()));
+    }
+
+    @Test
+    void migrationExpiresAfterTimeout() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        DrainService service = new DrainService(time);
+
+        service.startMigration("lobby-1", 10, 30);
+        assertFalse(service.isMigrationExpired("lobby-1"));
+        time.advance(Duration.ofSeconds(30));
+        assertTrue(service.isMigrationExpired("lobby-1"));
+
+        service.finishMigration("lobby-1");
+        assertFalse(service.isMigrating("lobby-1"));
+        assertTrue(service.isDrained("lobby-1"), "Finishing a migration leaves the server drained");
+    }
+
+    @Test
+    void undrainCancelsMigration() {
+        DrainService service = new DrainService(new ManualTimeSource(1_000_000L));
+
+        service.startMigration("lobby-1", 10, 30);
+        service.undrain("lobby-1");
+
+        assertFalse(service.isMigrating("lobby-1"));
+        assertTrue(service.migrations().isEmpty());
+    }
+
+    @Test
+    void migrationTargetsStayInTheDrainedLobbysGroup() {
+        Config.LobbyEntry bw1 = new Config.LobbyEntry("bw-lobby-1", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT);
+        Config.LobbyEntry bw2 = new Config.LobbyEntry("bw-lobby-2", 10, Config.LobbyEntry.DEFAULT_WEIGHT);
+        Config.Routing defaults = Config.defaults().routing();
+        Config.Routing routing = new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                defaults.defaultLobbies(),
+                new Config.Contextual(true, true, Map.of("bedwars", new Config.GroupConfig(List.of(bw1, bw2), null)), Map.of(), Map.of()),
+                2,
+                null
+        );
+        Config d = Config.defaults();
+        Config config = new Config(Config.CURRENT_VERSION, d.commands(), routing, d.healthChecks(), d.messages(),
+                d.updateChecker(), d.metrics(), d.debug(), d.circuitBreaker(), d.degradation(), d.geoRouting(),
+                d.notifyOnStartup(), d.notifyAdminsOnJoin());
+        DrainService drainService = new DrainService();
+        drainService.drain("bw-lobby-1");
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setDrainService(drainService);
+
+        assertEquals("bedwars", DrainMigrator.groupOf("BW-Lobby-1", config));
+        assertEquals("default", DrainMigrator.groupOf("lobby-1", config));
+
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 0, "bw-lobby-1", 40, "bw-lobby-2", 5);
+        RouteDecision decision = planner.planForGroup("bedwars", "bw-lobby-1", config, online, null);
+        assertEquals("bedwars", decision.usedGroup());
+        assertEquals("bw-lobby-2", decision.selectedServer());
+
+        RouteDecision full = planner.planForGroup("bedwars", "bw-lobby-1", config,
+                Map.of("lobby-1", 0, "bw-lobby-1", 40, "bw-lobby-2", 10), null);
+        assertEquals("lobby-1", full.selectedServer(), "A full group spills over like any other routing request");
+    }
 }
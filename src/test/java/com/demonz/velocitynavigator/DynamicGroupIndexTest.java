@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicGroupIndexTest {
+
+    @Test
+    void registeredServersJoinAndLeaveMatchingGroups() {
+        Config.GroupConfig lobby = new Config.GroupConfig(List.of(), null,
+                List.of("lobby-*", "!lobby-canary-*"), List.of(), 100, 1, Map.of(), List.of());
+        Config.GroupConfig eu = new Config.GroupConfig(List.of(), null, List.of(), List.of("EU", "lobby"),
+                Config.LobbyEntry.UNCAPPED, 2, Map.of(), List.of());
+        DynamicGroupIndex index = new DynamicGroupIndex();
+
+        Config config = index.configure(Config.defaults().withGroups(Map.of("lobby", lobby, "eu", eu)),
+                List.of("lobby-7f3a", "lobby-canary-1", "eu-lobby-1", "bedwars-1"));
+
+        assertEquals(List.of("lobby-7f3a"), names(config, "lobby"));
+        assertEquals(List.of("eu-lobby-1"), names(config, "eu"));
+        assertEquals(100, group(config, "lobby").servers().get(0).maxPlayers());
+        assertEquals(2, group(config, "eu").servers().get(0).weight());
+
+        config = index.register("Lobby-9C21");
+        assertEquals(List.of("lobby-7f3a", "lobby-9c21"), names(config, "lobby"));
+        assertEquals(Set.of("lobby"), index.groupsOf("lobby-9c21"));
+
+        config = index.unregister("lobby-7f3a");
+        assertEquals(List.of("lobby-9c21"), names(config, "lobby"));
+        assertEquals(Map.of("lobby", 1, "eu", 1), index.memberCounts());
+    }
+
+    @Test
+    void listedServersKeepTheirLimitsAndUnmatchedServersChangeNothing() {
+        Config.GroupConfig lobby = new Config.GroupConfig(List.of(new Config.LobbyEntry("lobby-main", 500, 5)), null,
+                List.of("lobby-*"), List.of(), 100, 1, Map.of(), List.of());
+        Config.GroupConfig bedwars = new Config.GroupConfig(List.of(new Config.LobbyEntry("bw-lobby", 50, 1)), null);
+        DynamicGroupIndex index = new DynamicGroupIndex();
+        Config config = index.configure(Config.defaults().withGroups(Map.of("lobby", lobby, "bedwars", bedwars)),
+                List.of("lobby-main", "lobby-2"));
+
+        assertEquals(List.of("lobby-main", "lobby-2"), names(config, "lobby"));
+        assertEquals(500, group(config, "lobby").servers().get(0).maxPlayers());
+        // Static groups are shared as-is
+        assertSame(bedwars, group(config, "bedwars"));
+
+        assertSame(config, index.register("skywars-1"));
+        assertSame(config, index.unregister("skywars-1"));
+        assertSame(config, index.register("lobby-2"));
+    }
+
+    @Test
+    void emptyDynamicGroupIsKeptUntilServersRegister() {
+        Config.GroupConfig lobby = new Config.GroupConfig(List.of(), null, List.of("lobby-?"), List.of(), -1, 1, Map.of(), List.of());
+        DynamicGroupIndex index = new DynamicGroupIndex();
+
+        Config config = index.configure(Config.defaults().withGroups(Map.of("lobby", lobby)), List.of("lobby-10"));
+
+        assertTrue(group(config, "lobby").servers().isEmpty());
+        assertEquals(List.of("lobby-1"), names(index.register("lobby-1"), "lobby"));
+    }
+
+    @Test
+    void tagsAreNameSegments() {
+        assertEquals(Set.of("eu", "lobby", "7f3a"), DynamicGroupIndex.tagsOf("EU-lobby_7f3a"));
+        assertTrue(DynamicGroupIndex.compileGlob("lobby.*").matcher("lobby.eu").matches());
+        assertFalse(DynamicGroupIndex.compileGlob("lobby.*").matcher("lobbyxeu").matches());
+    }
+
+    private static Config.GroupConfig group(Config config, String name) {
+        return config.routing().contextual().groups().get(name);
+    }
+
+    private static List<String> names(Config config, String group) {
+        return group(config, group).servers().stream().map(Config.LobbyEntry::server).toList();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvacuationServiceTest {
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2", "lobby-3", "survival", "bedwars-1", "bw-lobby-1", "bw-lobby-2"));
+    }
+
+    private static Config.LobbyEntry lobby(String name) {
+        return lobby(name, Config.LobbyEntry.UNCAPPED);
+    }
+
+    private static Config.LobbyEntry lobby(String name, int maxPlayers) {
+        return new Config.LobbyEntry(name, maxPlayers, Config.LobbyEntry.DEFAULT_WEIGHT);
+    }
+
+    private static Config config(List<Config.LobbyEntry> lobbies, Config.Contextual contextual,
+                                 Config.EvacuationSettings evacuation) {
+        Config.Routing routing = new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                lobbies,
+                contextual,
+                2,
+                null
+        );
+        return TestConfigs.defaults()
+                .routing(routing)
+                .evacuation(evacuation)
+                .build();
+    }
+
+    private static Config.EvacuationSettings unpaced() {
+        return new Config.EvacuationSettings(true, 1000.0, 10, 15, null);
+    }
+
+    private static EvacuationService service(TimeSource time) {
+        return new EvacuationService(new RoutePlanner(new RouteSelectionStrategy()), time);
+    }
+
+    private static String evacuate(EvacuationService service, String source, Config config, Map<String, Integer> online) {
+        return service.assign(UUID.randomUUID(), source, config, online).orElseThrow().server();
+    }
+
+    @Test
+    void spreadsCrashedServerEvenlyAcrossGroup() {
+        Config config = config(List.of(lobby("lobby-1"), lobby("lobby-2"), lobby("lobby-3")),
+                Config.defaults().routing().contextual(), unpaced());
+        EvacuationService service = service(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 0, "lobby-3", 0, "survival", 30);
+
+        for (int i = 0; i < 30; i++) {
+            evacuate(service, "survival", config, online);
+        }
+
+        assertEquals(10, service.reservedOn("lobby-1"));
+        assertEquals(10, service.reservedOn("lobby-2"));
+        assertEquals(10, service.reservedOn("lobby-3"));
+        assertEquals(30, service.evacuatedCount());
+        assertEquals(1, service.activeWaves());
+    }
+
+    @Test
+    void fillsLobbyOnlyUpToMaxPlayers() {
+        Config config = config(List.of(lobby("lobby-1", 5), lobby("lobby-2")),
+                Config.defaults().routing().contextual(), unpaced());
+        EvacuationService service = service(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> online = Map.of("lobby-1", 3, "lobby-2", 20);
+
+        for (int i = 0; i < 10; i++) {
+            evacuate(service, "survival", config, online);
+        }
+
+        assertEquals(2, service.reservedOn("lobby-1"));
+        assertEquals(8, service.reservedOn("lobby-2"));
+    }
+
+    @Test
+    void pacesEvacueesPerLobbyAndSpillsPastMaxDelay() {
+        Config config = config(List.of(lobby("lobby-1"), lobby("lobby-2")),
+                Config.defaults().routing().contextual(), new Config.EvacuationSettings(true, 1.0, 1, 15, null));
+        EvacuationService service = service(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 100);
+        UUID[] players = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        assertEquals(new EvacuationService.Assignment("lobby-1", 0L), service.assign(players[0], "survival", config, online).orElseThrow());
+        assertEquals(new EvacuationService.Assignment("lobby-1", 1000L), service.assign(players[1], "survival", config, online).orElseThrow());
+        assertEquals(new EvacuationService.Assignment("lobby-2", 0L), service.assign(players[2], "survival", config, online).orElseThrow(),
+                "A third evacuee would wait past max_delay_seconds on lobby-1");
+    }
+
+    @Test
+    void usesContextualGroupAndNeverReturnsToSource() {
+        Config.Contextual contextual = new Config.Contextual(
+                true,
+                true,
+                Map.of("bedwars", new Config.GroupConfig(List.of(lobby("bw-lobby-1"), lobby("bw-lobby-2")), null)),
+                Map.of("bedwars-1", "bedwars"),
+                Map.of()
+        );
+        Config config = config(List.of(lobby("lobby-1"), lobby("lobby-2")), contextual, unpaced());
+        EvacuationService service = service(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> online = Map.of("lobby-1", 0, "lobby-2", 0, "bw-lobby-1", 0, "bw-lobby-2", 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(evacuate(service, "bedwars-1", config, online).startsWith("bw-lobby-"));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals("lobby-2", evacuate(service, "lobby-1", config, online), "A crashed lobby is not its own target");
+        }
+    }
+
+    @Test
+    void reservationsExpire() {
+        Config config = config(List.of(lobby("lobby-1")), Config.defaults().routing().contextual(), unpaced());
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        EvacuationService service = service(time);
+
+        evacuate(service, "survival", config, Map.of("lobby-1", 0));
+        assertEquals(1, service.reservedOn("lobby-1"));
+
+        time.advance(Duration.ofSeconds(15));
+        service.purge();
+        assertEquals(0, service.reservedOn("lobby-1"));
+        assertEquals(0, service.activeWaves());
+    }
+
+    @Test
+    void disabledEvacuationAssignsNothing() {
+        Config config = config(List.of(lobby("lobby-1")), Config.defaults().routing().contextual(),
+                new Config.EvacuationSettings(false, 20.0, 10, 15, null));
+
+        assertTrue(service(new ManualTimeSource(1_000_000L)).assign(UUID.randomUUID(), "survival", config, Map.of("lobby-1", 0)).isEmpty());
+    }
+}
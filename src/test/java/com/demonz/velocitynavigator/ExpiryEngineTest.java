@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiryEngineTest {
+
+    @Test
+    void tickDropsExpiredEntriesOfEveryKind() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        ExpiryEngine engine = new ExpiryEngine(time);
+        ExpiryEngine.TtlMap<String> cooldowns = engine.register("cooldown");
+        ExpiryEngine.TtlMap<String> menus = engine.register("menu_session");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        cooldowns.put(first, "a", Duration.ofSeconds(3));
+        menus.put(first, "b", Duration.ofSeconds(60));
+        menus.put(second, "c", Duration.ofSeconds(2));
+
+        time.advance(Duration.ofSeconds(5));
+        engine.tick();
+
+        assertEquals(Map.of("cooldown", 0, "menu_session", 1), engine.liveEntries());
+        assertEquals("b", menus.get(first));
+        assertNull(menus.get(second));
+    }
+
+    @Test
+    void readsIgnoreExpiredEntriesBeforeTheTick() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        ExpiryEngine engine = new ExpiryEngine(time);
+        ExpiryEngine.TtlMap<String> map = engine.register("cooldown");
+        UUID player = UUID.randomUUID();
+
+        map.put(player, "a", Duration.ofMillis(1500));
+        assertEquals(1500L, map.remainingMillis(player).getAsLong());
+
+        time.advance(Duration.ofMillis(1500));
+        assertTrue(map.remainingMillis(player).isEmpty());
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void refreshedEntrySurvivesItsEarlierDeadline() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        ExpiryEngine engine = new ExpiryEngine(time);
+        ExpiryEngine.TtlMap<String> map = engine.register("cooldown");
+        UUID player = UUID.randomUUID();
+
+        map.put(player, "old", Duration.ofSeconds(2));
+        map.put(player, "new", Duration.ofSeconds(30));
+        time.advance(Duration.ofSeconds(3));
+        engine.tick();
+
+        assertEquals("new", map.get(player));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void removeIfOnlyConsumesMatchingLiveEntries() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        ExpiryEngine engine = new ExpiryEngine(time);
+        ExpiryEngine.TtlMap<String> map = engine.register("menu_session");
+        UUID player = UUID.randomUUID();
+
+        map.put(player, "token", Duration.ofSeconds(60));
+        assertFalse(map.removeIf(player, "other"::equals));
+        assertTrue(map.removeIf(player, "token"::equals));
+        assertFalse(map.removeIf(player, "token"::equals));
+
+        map.put(player, "token", Duration.ofSeconds(60));
+        time.advance(Duration.ofSeconds(60));
+        assertFalse(map.removeIf(player, "token"::equals));
+        assertEquals(0, map.size());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.register("menu_session"));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoRoutingServiceTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void readsCountryAndContinentOfIpv4AndIpv6Networks() throws Exception {
+        GeoRoutingService geo = new GeoRoutingService(true, "test.mmdb", writeFixture());
+
+        assertTrue(geo.isAvailable());
+        assertEquals(Optional.of("DE"), geo.lookupCountry(InetAddress.getByName("81.2.69.160")));
+        assertEquals(Optional.of("EU"), geo.lookupContinent(InetAddress.getByName("81.2.69.160")));
+        assertEquals(new GeoRoutingService.Location("US", "NA"), geo.lookup(InetAddress.getByName("2001:db8::1")));
+        // Only registered_country is stored; its continent is reached through a pointer
+        assertEquals(new GeoRoutingService.Location("FR", "EU"), geo.lookup(InetAddress.getByName("1.1.1.1")));
+        assertEquals(Optional.empty(), geo.lookupCountry(InetAddress.getByName("192.0.2.1")));
+
+        long built = 1_700_000_000_000L;
+        assertFalse(geo.isOutdated(built + 86_400_000L));
+        assertTrue(geo.isOutdated(built + 31 * 86_400_000L));
+    }
+
+    @Test
+    void cachesPerPrefixButNotAcrossSmallerNetworks() throws Exception {
+        GeoRoutingService geo = new GeoRoutingService(true, "test.mmdb", writeFixture());
+
+        geo.lookup(InetAddress.getByName("81.2.69.160"));
+        geo.lookup(InetAddress.getByName("81.2.69.7"));
+        assertEquals(2, geo.lookupCount());
+        assertEquals(1, geo.cacheHits());
+
+        // 10.0.0.0/25 and 10.0.0.128/25 share a /24 but not a country
+        assertEquals(Optional.of("NL"), geo.lookupCountry(InetAddress.getByName("10.0.0.1")));
+        assertEquals(Optional.of("BE"), geo.lookupCountry(InetAddress.getByName("10.0.0.200")));
+        assertEquals(Optional.of("NL"), geo.lookupCountry(InetAddress.getByName("10.0.0.2")));
+    }
+
+    @Test
+    void reportsMissingOrInvalidDatabase() throws Exception {
+        GeoRoutingService missing = new GeoRoutingService(true, "missing.mmdb", dataDirectory);
+        assertFalse(missing.isAvailable());
+        assertNotNull(missing.loadError());
+        assertEquals(Optional.empty(), missing.lookupCountry(InetAddress.getByName("81.2.69.160")));
+
+        Files.write(dataDirectory.resolve("broken.mmdb"), new byte[]{1, 2, 3});
+        assertNotNull(new GeoRoutingService(true, "broken.mmdb", dataDirectory).loadError());
+
+        GeoRoutingService disabled = new GeoRoutingService(false, "missing.mmdb", dataDirectory);
+        assertNull(disabled.loadError());
+        assertFalse(disabled.isAvailable());
+    }
+
+    /**
+     * Writes a small IPv6 database with 24-bit records, holding IPv4 networks under ::/96.
+     */
+    private Path writeFixture() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int germany = data.size();
+        data.write(map(2));
+        data.write(string("country"));
+        data.write(map(1));
+        data.write(string("iso_code"));
+        data.write(string("DE"));
+        data.write(string("continent"));
+        int europe = data.size();
+        data.write(map(2));
+        data.write(string("code"));
+        data.write(string("EU"));
+        data.write(string("geoname_id"));
+        data.write(new byte[]{(byte) 0xC4, 0, 0x60, (byte) 0xB0, (byte) 0x85});
+
+        int unitedStates = data.size();
+        data.write(map(2));
+        data.write(string("continent"));
+        data.write(map(1));
+        data.write(string("code"));
+        data.write(string("NA"));
+        data.write(string("country"));
+        data.write(map(2));
+        data.write(string("names"));
+        data.write(map(1));
+        data.write(string("en"));
+        data.write(string("United States"));
+        data.write(string("iso_code"));
+        data.write(string("US"));
+
+        int france = data.size();
+        data.write(map(2));
+        data.write(string("registered_country"));
+        data.write(map(1));
+        data.write(string("iso_code"));
+        data.write(string("FR"));
+        data.write(string("continent"));
+        data.write(new byte[]{(byte) (0x20 | (europe >> 8)), (byte) europe});
+
+        int netherlands = data.size();
+        data.write(map(1));
+        data.write(string("country"));
+        data.write(map(1));
+        data.write(string("iso_code"));
+        data.write(string("NL"));
+
+        int belgium = data.size();
+        data.write(map(1));
+        data.write(string("country"));
+        data.write(map(1));
+        data.write(string("iso_code"));
+        data.write(string("BE"));
+
+        Tree tree = new Tree();
+        tree.insert(ipv4(81, 2, 69, 0), 96 + 24, germany);
+        tree.insert(InetAddress.getByName("2001:db8::").getAddress(), 32, unitedStates);
+        tree.insert(ipv4(1, 1, 1, 0), 96 + 24, france);
+        tree.insert(ipv4(10, 0, 0, 0), 96 + 25, netherlands);
+        tree.insert(ipv4(10, 0, 0, 128), 96 + 25, belgium);
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(tree.encode());
+        file.write(new byte[16]);
+        file.write(data.toByteArray());
+        file.write(new byte[]{(byte) 0xAB, (byte) 0xCD, (byte) 0xEF});
+        file.write("MaxMind.com".getBytes(StandardCharsets.US_ASCII));
+        file.write(map(5));
+        file.write(string("build_epoch"));
+        // uint64 is an extended type: control byte of type 0, then 9 - 7
+        file.write(new byte[]{0x04, 0x02, 0x65, 0x53, (byte) 0xF1, 0x00});
+        file.write(string("binary_format_major_version"));
+        file.write(new byte[]{(byte) 0xA1, 2});
+        file.write(string("node_count"));
+        int nodes = tree.nodes.size();
+        file.write(new byte[]{(byte) 0xC4, (byte) (nodes >> 24), (byte) (nodes >> 16), (byte) (nodes >> 8), (byte) nodes});
+        file.write(string("record_size"));
+        file.write(new byte[]{(byte) 0xA1, 24});
+        file.write(string("ip_version"));
+        file.write(new byte[]{(byte) 0xA1, 6});
+        Files.write(dataDirectory.resolve("test.mmdb"), file.toByteArray());
+        return dataDirectory;
+    }
+
+    private static byte[] ipv4(int a, int b, int c, int d) {
+        byte[] address = new byte[16];
+        address[12] = (byte) a;
+        address[13] = (byte) b;
+        address[14] = (byte) c;
+        address[15] = (byte) d;
+        return address;
+    }
+
+    private static byte[] map(int entries) {
+        return new byte[]{(byte) (0xE0 | entries)};
+    }
+
+    private static byte[] string(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[bytes.length + 1];
+        encoded[0] = (byte) (0x40 | bytes.length);
+        System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+        return encoded;
+    }
+
+    private static final class Tree {
+        private static final int EMPTY = -1;
+
+        private final List<int[]> nodes = new ArrayList<>(List.of(new int[]{EMPTY, EMPTY}));
+
+        /**
+         * Points the network at {@code data}; records below 0 other than EMPTY are data offsets.
+         */
+        void insert(byte[] address, int prefixLength, int data) {
+            int node = 0;
+            for (int depth = 0; depth < prefixLength; depth++) {
+                int bit = (address[depth >> 3] >>> (7 - (depth & 7))) & 1;
+                if (depth == prefixLength - 1) {
+                    nodes.get(node)[bit] = -2 - data;
+                    return;
+                }
+                if (nodes.get(node)[bit] < 0) {
+                    nodes.add(new int[]{EMPTY, EMPTY});
+                    nodes.get(node)[bit] = nodes.size() - 1;
+                }
+                node = nodes.get(node)[bit];
+            }
+        }
+
+        byte[] encode() {
+            int count = nodes.size();
+            byte[] encoded = new byte[count * 6];
+            for (int i = 0; i < count; i++) {
+                for (int bit = 0; bit < 2; bit++) {
+                    int value = nodes.get(i)[bit];
+                    int record = value == EMPTY ? count : value < 0 ? count + 16 + (-2 - value) : value;
+                    int offset = i * 6 + bit * 3;
+                    encoded[offset] = (byte) (record >> 16);
+                    encoded[offset + 1] = (byte) (record >> 8);
+                    encoded[offset + 2] = (byte) record;
+                }
+            }
+            return encoded;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupHierarchyTest {
+
+    private static Config.GroupConfig leaf(String... servers) {
+        List<Config.LobbyEntry> entries = new ArrayList<>();
+        for (String server : servers) {
+            entries.add(new Config.LobbyEntry(server, Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT));
+        }
+        return new Config.GroupConfig(entries, null);
+    }
+
+    private static Config.GroupConfig parent(String... children) {
+        return new Config.GroupConfig(List.of(), null, List.of(), List.of(), Config.LobbyEntry.UNCAPPED,
+                Config.LobbyEntry.DEFAULT_WEIGHT, Map.of(), List.of(children));
+    }
+
+    private static Config minigames() {
+        Config d = Config.defaults();
+        Config.Routing routing = new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                true,
+                true,
+                List.of(new Config.LobbyEntry("lobby-1", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT)),
+                new Config.Contextual(
+                        true,
+                        true,
+                        Map.of(
+                                "minigames", parent("bedwars", "skywars"),
+                                "bedwars", leaf("bw-1", "bw-2"),
+                                "skywars", leaf("sw-1")
+                        ),
+                        Map.of("minigames-hub", "minigames"),
+                        Map.of()
+                ),
+                2,
+                null
+        );
+        return new Config(
+                Config.CURRENT_VERSION,
+                d.commands(),
+                routing,
+                d.healthChecks(),
+                d.messages(),
+                d.updateChecker(),
+                d.metrics(),
+                d.debug(),
+                d.circuitBreaker(),
+                d.degradation(),
+                d.geoRouting(),
+                d.notifyOnStartup(),
+                d.notifyAdminsOnJoin()
+        );
+    }
+
+    @Test
+    void ordersChildrenByPlayersPerLobbyWeight() {
+        GroupHierarchy hierarchy = new GroupHierarchy(new ServerRegistry());
+        Config config = minigames();
+        GroupHierarchy.Tree tree = hierarchy.tree(config);
+
+        hierarchy.update("bw-1", 30);
+        hierarchy.update("bw-2", 10);
+        hierarchy.update("sw-1", 5);
+        assertEquals(40, tree.players("bedwars"));
+        assertEquals(List.of("skywars", "bedwars"), tree.childrenByLoad("minigames"));
+
+        hierarchy.update("sw-1", 50);
+        hierarchy.update("bw-1", 20);
+        assertEquals(30, tree.players("bedwars"));
+        assertEquals(List.of("bedwars", "skywars"), tree.childrenByLoad("minigames"));
+    }
+
+    @Test
+    void keepsCountsWhenTheConfigIsRebuilt() {
+        GroupHierarchy hierarchy = new GroupHierarchy(new ServerRegistry());
+        hierarchy.tree(minigames());
+        hierarchy.update("bw-1", 12);
+
+        GroupHierarchy.Tree rebuilt = hierarchy.tree(minigames());
+        assertEquals(12, rebuilt.players("bedwars"));
+        assertEquals(0, rebuilt.players("skywars"));
+    }
+
+    @Test
+    void fallsBackToSiblingsBeforeTheParentsFallbacks() {
+        GroupHierarchy hierarchy = new GroupHierarchy(new ServerRegistry());
+        GroupHierarchy.Tree tree = hierarchy.tree(minigames());
+
+        assertTrue(tree.isParent("minigames"));
+        assertEquals(List.of("skywars"), tree.fallbacks("bedwars"));
+        assertEquals(List.of(), tree.fallbacks("minigames"));
+    }
+
+    @Test
+    void routesParentGroupToLeastLoadedChildWithOnlineLobbies() {
+        GroupHierarchy hierarchy = new GroupHierarchy(new ServerRegistry());
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setGroupHierarchy(hierarchy);
+        Config config = minigames();
+        hierarchy.tree(config);
+        hierarchy.update("bw-1", 40);
+        hierarchy.update("bw-2", 40);
+        hierarchy.update("sw-1", 10);
+
+        RouteDecision decision = planner.plan("minigames-hub", config, Map.of("bw-1", 40, "bw-2", 40, "sw-1", 10));
+        assertEquals("minigames", decision.requestedGroup());
+        assertEquals("skywars", decision.usedGroup());
+        assertEquals("sw-1", decision.selectedServer());
+
+        decision = planner.plan("minigames-hub", config, Map.of("bw-1", 40, "bw-2", 40));
+        assertEquals("bedwars", decision.usedGroup());
+        assertEquals("bw-1", decision.selectedServer());
+    }
+
+    @Test
+    void reportsParentsWithServersUnknownChildrenAndCycles() {
+        Config config = Config.defaults().withGroups(Map.of(
+                "a", new Config.GroupConfig(List.of(new Config.LobbyEntry("a-1", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT)),
+                        null, List.of(), List.of(), Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT, Map.of(), List.of("b", "missing")),
+                "b", parent("a")
+        ));
+
+        List<String> warnings = GroupHierarchy.validate(config);
+        assertTrue(warnings.stream().anyMatch(w -> w.contains("groups.a has children")));
+        assertTrue(warnings.stream().anyMatch(w -> w.contains("unknown child group 'missing'")));
+        assertTrue(warnings.stream().anyMatch(w -> w.contains("would form a cycle")));
+    }
+}
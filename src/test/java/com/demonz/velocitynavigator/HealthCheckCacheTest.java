@@ -23,40 +23,70 @@ import java.time.Instant;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HealthCheckCacheTest {
 
+    private static final long START = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
     @Test
     void returnsFreshEntriesBeforeExpiry() {
-        HealthCheckCache cache = new HealthCheckCache();
-        Instant checkedAt = Instant.parse("2026-01-01T00:00:00Z");
-        cache.put("lobby-1", true, checkedAt);
+        ManualTimeSource time = new ManualTimeSource(START);
+        HealthCheckCache cache = new HealthCheckCache(time);
+        cache.put("lobby-1", true);
 
-        HealthCheckCache.Entry entry = cache.getIfFresh("lobby-1", checkedAt.plusSeconds(5), Duration.ofSeconds(10));
+        time.advance(Duration.ofSeconds(5));
+        HealthCheckCache.Entry entry = cache.getIfFresh("lobby-1", Duration.ofSeconds(10));
 
         assertNotNull(entry);
     }
 
     @Test
     void expiresEntriesAfterTheTtl() {
-        HealthCheckCache cache = new HealthCheckCache();
-        Instant checkedAt = Instant.parse("2026-01-01T00:00:00Z");
-        cache.put("lobby-1", true, checkedAt);
+        ManualTimeSource time = new ManualTimeSource(START);
+        HealthCheckCache cache = new HealthCheckCache(time);
+        cache.put("lobby-1", true);
 
-        HealthCheckCache.Entry entry = cache.getIfFresh("lobby-1", checkedAt.plusSeconds(30), Duration.ofSeconds(10));
+        time.advance(Duration.ofSeconds(30));
+        HealthCheckCache.Entry entry = cache.getIfFresh("lobby-1", Duration.ofSeconds(10));
 
         assertNull(entry);
     }
 
+    @Test
+    void wallClockJumpsDoNotChangeFreshness() {
+        ManualTimeSource time = new ManualTimeSource(START);
+        HealthCheckCache cache = new HealthCheckCache(time);
+        cache.put("lobby-1", true);
+
+        time.jumpWallClock(Duration.ofHours(-1));
+        assertNotNull(cache.getIfFresh("lobby-1", Duration.ofSeconds(10)), "A clock set back does not extend the entry");
+        time.jumpWallClock(Duration.ofHours(2));
+        assertNotNull(cache.getIfFresh("lobby-1", Duration.ofSeconds(10)), "A clock set forward does not expire the entry");
+        time.advance(Duration.ofSeconds(11));
+        assertNull(cache.getIfFresh("lobby-1", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void reportsCheckTimeOnTheWallClock() {
+        ManualTimeSource time = new ManualTimeSource(START);
+        HealthCheckCache cache = new HealthCheckCache(time);
+        HealthCheckCache.Entry entry = cache.put("lobby-1", true);
+
+        time.advance(Duration.ofSeconds(4));
+
+        assertEquals(Instant.ofEpochMilli(START), cache.checkedAt(entry));
+    }
+
     @Test
     void purgeExpiredRemovesStaleEntries() {
-        HealthCheckCache cache = new HealthCheckCache();
-        Instant now = Instant.now();
+        ManualTimeSource time = new ManualTimeSource(START);
+        HealthCheckCache cache = new HealthCheckCache(time);
         // Old entry — checked 2 hours ago
-        cache.put("old-server", true, now.minusSeconds(7200));
-        // Fresh entry — checked just now
-        cache.put("fresh-server", true, now.minusSeconds(10));
+        cache.put("old-server", true);
+        time.advance(Duration.ofSeconds(7190));
+        // Fresh entry — checked 10 seconds ago
+        cache.put("fresh-server", true);
+        time.advance(Duration.ofSeconds(10));
 
         cache.purgeExpired(Duration.ofMinutes(60)); // TTL = 1 hour
 
@@ -71,7 +101,7 @@ class HealthCheckCacheTest {
     @Test
     void purgeExpiredWithZeroTtlDoesNothing() {
         HealthCheckCache cache = new HealthCheckCache();
-        cache.put("server-1", true, Instant.now());
+        cache.put("server-1", true);
 
         // Zero TTL — should not remove anything (early return)
         cache.purgeExpired(Duration.ZERO);
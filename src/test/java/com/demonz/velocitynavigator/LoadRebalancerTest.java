@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadRebalancerTest {
+
+    private static final Config.RebalanceSettings SETTINGS = new Config.RebalanceSettings(true, 10, 0.25, 60, 5, 600);
+
+    @Test
+    void movesFromHotLobbyToColdestUpToTheMean() {
+        LoadRebalancer rebalancer = new LoadRebalancer(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> players = Map.of("lobby-1", 40, "lobby-2", 20, "lobby-3", 18);
+
+        List<LoadRebalancer.Move> moves = rebalancer.plan(players, Map.of(), players.keySet(),
+                new Config.RebalanceSettings(true, 10, 0.25, 60, 50, 600));
+
+        assertEquals(List.of(new LoadRebalancer.Move("lobby-1", "lobby-3", 8), new LoadRebalancer.Move("lobby-1", "lobby-2", 6)), moves);
+        assertTrue(rebalancer.isHot("lobby-1"));
+    }
+
+    @Test
+    void movesAreCappedPerCycle() {
+        LoadRebalancer rebalancer = new LoadRebalancer(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> players = Map.of("lobby-1", 100, "lobby-2", 0);
+
+        List<LoadRebalancer.Move> moves = rebalancer.plan(players, Map.of(), players.keySet(), SETTINGS);
+
+        assertEquals(List.of(new LoadRebalancer.Move("lobby-1", "lobby-2", 5)), moves);
+    }
+
+    @Test
+    void hysteresisKeepsLobbyHotUntilItReachesTheMean() {
+        LoadRebalancer rebalancer = new LoadRebalancer(new ManualTimeSource(1_000_000L));
+
+        assertFalse(rebalancer.plan(Map.of("lobby-1", 70, "lobby-2", 30), Map.of(), Set.of("lobby-1", "lobby-2"), SETTINGS).isEmpty());
+        // 55 vs 45 is inside the threshold, but the lobby has not reached the mean yet
+        assertEquals(List.of(new LoadRebalancer.Move("lobby-1", "lobby-2", 5)),
+                rebalancer.plan(Map.of("lobby-1", 55, "lobby-2", 45), Map.of(), Set.of("lobby-1", "lobby-2"), SETTINGS));
+        assertTrue(rebalancer.plan(Map.of("lobby-1", 50, "lobby-2", 50), Map.of(), Set.of("lobby-1", "lobby-2"), SETTINGS).isEmpty());
+        assertFalse(rebalancer.isHot("lobby-1"));
+        assertTrue(rebalancer.plan(Map.of("lobby-1", 55, "lobby-2", 45), Map.of(), Set.of("lobby-1", "lobby-2"), SETTINGS).isEmpty(),
+                "A cooled lobby needs to cross the threshold again");
+    }
+
+    @Test
+    void weightsAndUnroutableTargetsAreRespected() {
+        LoadRebalancer rebalancer = new LoadRebalancer(new ManualTimeSource(1_000_000L));
+        Map<String, Integer> players = Map.of("big", 40, "small", 20, "full", 0);
+
+        assertTrue(rebalancer.plan(Map.of("big", 40, "small", 20), Map.of("big", 2), Set.of("big", "small"), SETTINGS).isEmpty(),
+                "A lobby with twice the weight may hold twice the players");
+        List<LoadRebalancer.Move> moves = rebalancer.plan(players, Map.of(), Set.of("big", "small"), SETTINGS);
+        assertEquals(List.of(), moves, "Only routable lobbies below the mean receive players");
+    }
+
+    @Test
+    void onlyIdlePlayersOutsideTheirCooldownAreMovable() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        LoadRebalancer rebalancer = new LoadRebalancer(time);
+        UUID player = UUID.randomUUID();
+
+        assertFalse(rebalancer.isIdle(player, SETTINGS), "Unknown players are never moved");
+        rebalancer.recordActivity(player);
+        time.advance(Duration.ofSeconds(59));
+        assertFalse(rebalancer.isIdle(player, SETTINGS));
+        time.advance(Duration.ofSeconds(1));
+        assertTrue(rebalancer.isIdle(player, SETTINGS));
+
+        rebalancer.recordMoved(player);
+        time.advance(Duration.ofSeconds(120));
+        assertFalse(rebalancer.isIdle(player, SETTINGS), "Recently moved players are not moved again");
+        time.advance(Duration.ofSeconds(480));
+        assertTrue(rebalancer.isIdle(player, SETTINGS));
+        assertEquals(1, rebalancer.movedCount());
+    }
+}
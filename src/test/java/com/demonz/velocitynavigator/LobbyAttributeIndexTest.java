@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyAttributeIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void protocolBoundsAndBedrockExcludeLobbies() throws Exception {
+        Config config = load("""
+                [lobby_attributes]
+                enabled = true
+
+                [lobby_attributes.servers]
+                "legacy" = { max_protocol = 47 }
+                "modern" = { min_protocol = 763, bedrock = false }
+                """, "legacy", "modern", "any");
+        LobbyAttributeIndex index = new LobbyAttributeIndex(new ServerRegistry());
+        UUID oldClient = UUID.randomUUID();
+        UUID newClient = UUID.randomUUID();
+        UUID bedrock = UUID.randomUUID();
+        index.resolve(oldClient, new LobbyAttributeIndex.Traits(47, false, Set.of()));
+        index.resolve(newClient, new LobbyAttributeIndex.Traits(765, false, Set.of()));
+        index.resolve(bedrock, new LobbyAttributeIndex.Traits(765, true, Set.of()));
+
+        assertEquals(List.of("legacy", "any"), allowed(index.constraintFor(oldClient, config)));
+        assertEquals(List.of("modern", "any"), allowed(index.constraintFor(newClient, config)));
+        assertEquals(List.of("any"), allowed(index.constraintFor(bedrock, config)));
+        // Unknown protocol and unknown players are not filtered
+        index.resolve(oldClient, new LobbyAttributeIndex.Traits(-1, false, Set.of()));
+        assertEquals(List.of("legacy", "modern", "any"), allowed(index.constraintFor(oldClient, config)));
+        assertSame(LobbyAttributeIndex.Constraint.NONE, index.constraintFor(UUID.randomUUID(), config));
+    }
+
+    @Test
+    void groupAttributesApplyToMembersAndServerEntriesOverrideThem() throws Exception {
+        Config config = load("""
+                [routing.contextual.groups]
+                "eu" = { servers = ["eu-1", "eu-2"], attributes = { region = "EU", mode = "duels" } }
+
+                [lobby_attributes]
+                enabled = true
+
+                [lobby_attributes.servers]
+                "eu-2" = { region = "de" }
+                """, "eu-1", "eu-2");
+        LobbyAttributeIndex index = new LobbyAttributeIndex(new ServerRegistry());
+        UUID player = UUID.randomUUID();
+        index.resolve(player, new LobbyAttributeIndex.Traits(765, false, Set.of("DE")));
+
+        LobbyAttributeIndex.Constraint constraint = index.constraintFor(player, config);
+
+        assertTrue(constraint.hasPreference());
+        assertFalse(constraint.prefers("eu-1"));
+        assertTrue(constraint.prefers("eu-2"));
+        assertEquals(Set.of("eu-1", "eu-2"), index.lobbiesWith("mode", "duels", config));
+        assertEquals(Map.of("region", "eu", "mode", "duels"), LobbyAttributeIndex.attributesOf(config).get("eu-1"));
+    }
+
+    @Test
+    void disabledAttributesDoNotConstrain() throws Exception {
+        Config config = load("""
+                [lobby_attributes]
+                enabled = false
+
+                [lobby_attributes.servers]
+                "legacy" = { max_protocol = 47 }
+                """, "legacy");
+        LobbyAttributeIndex index = new LobbyAttributeIndex(new ServerRegistry());
+        UUID player = UUID.randomUUID();
+        index.resolve(player, new LobbyAttributeIndex.Traits(765, true, Set.of()));
+
+        assertSame(LobbyAttributeIndex.Constraint.NONE, index.constraintFor(player, config));
+    }
+
+    private Config load(String toml, String... lobbies) throws Exception {
+        Files.writeString(tempDir.resolve("navigator.toml"), "config_version = " + Config.CURRENT_VERSION + "\n"
+                + "[routing]\ndefault_lobbies = " + lobbyList(lobbies) + "\n" + toml);
+        return new ConfigManager(tempDir, LoggerFactory.getLogger("attribute-test")).load().config();
+    }
+
+    private static String lobbyList(String... lobbies) {
+        return "[" + String.join(", ", List.of(lobbies).stream().map(name -> "\"" + name + "\"").toList()) + "]";
+    }
+
+    private static List<String> allowed(LobbyAttributeIndex.Constraint constraint) {
+        return List.of("legacy", "modern", "any").stream().filter(constraint::allows).toList();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyQueueTest {
+
+    @Test
+    void admitsInArrivalOrder() {
+        LobbyQueue queue = new LobbyQueue();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        assertEquals(1, queue.enqueue(first, "default", 0).position());
+        assertEquals(2, queue.enqueue(second, "default", 0).position());
+        assertEquals(3, queue.enqueue(third, "Default", 0).position());
+
+        assertEquals(List.of(first, second), queue.poll("default", 2));
+        assertEquals(1, queue.size("default"));
+        assertFalse(queue.isQueued(first));
+        assertEquals(2, queue.admittedCount());
+    }
+
+    @Test
+    void priorityLanesGoFirstButStayFifoWithinLane() {
+        LobbyQueue queue = new LobbyQueue();
+        UUID regular = UUID.randomUUID();
+        UUID vip = UUID.randomUUID();
+        UUID vip2 = UUID.randomUUID();
+
+        queue.enqueue(regular, "default", 1);
+        assertEquals(1, queue.enqueue(vip, "default", 0).position());
+        assertEquals(2, queue.enqueue(vip2, "default", 0).position());
+
+        assertEquals(List.of(vip, vip2, regular), queue.poll("default", 10));
+    }
+
+    @Test
+    void requeueKeepsPlaceAndLeavingUpdatesPositionsOnRefresh() {
+        LobbyQueue queue = new LobbyQueue();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        queue.enqueue(first, "default", 0);
+        queue.enqueue(second, "default", 0);
+        assertEquals(1, queue.enqueue(first, "default", 0).position(), "Running /lobby again keeps the player's place");
+
+        queue.remove(first);
+        assertEquals(2, queue.position(second).orElseThrow().position(), "Positions are only recomputed by a refresh");
+        Map<UUID, LobbyQueue.Position> refreshed = queue.refreshPositions();
+        assertEquals(new LobbyQueue.Position("default", 1, 1), refreshed.get(second));
+        assertEquals(1, queue.position(second).orElseThrow().position());
+        assertTrue(queue.position(first).isEmpty());
+    }
+
+    @Test
+    void playersPutBackAfterAFailedAdmissionGoToTheFrontOfTheirLane() {
+        LobbyQueue queue = new LobbyQueue();
+        UUID vip = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        queue.enqueue(first, "default", 1);
+        queue.enqueue(second, "default", 1);
+        queue.enqueue(third, "default", 1);
+        assertEquals(List.of(first, second), queue.poll("default", 2));
+
+        queue.enqueue(vip, "default", 0);
+        queue.requeue(second, "default", 1);
+        assertEquals(2, queue.requeue(first, "default", 1).position(), "Only higher lanes stay ahead of a requeued player");
+        assertEquals(0, queue.admittedCount());
+        assertEquals(List.of(vip, first, second, third), queue.poll("default", 10));
+
+        queue.enqueue(first, "default", 1);
+        queue.requeue(first, "default", 1);
+        assertEquals(1, queue.size("default"), "A player who queued again is not added twice");
+    }
+
+    @Test
+    void groupsAreQueuedSeparately() {
+        LobbyQueue queue = new LobbyQueue();
+        UUID player = UUID.randomUUID();
+
+        queue.enqueue(player, "default", 0);
+        queue.enqueue(UUID.randomUUID(), "bedwars", 0);
+        assertEquals(2, queue.enqueue(player, "bedwars", 0).position(), "Switching group moves the player to the back of the new queue");
+
+        assertEquals(0, queue.size("default"));
+        assertEquals(Set.of("bedwars"), queue.waitingGroups());
+    }
+}
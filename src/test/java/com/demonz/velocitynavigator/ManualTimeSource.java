@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic {@link TimeSource} for tests; time only moves when advanced.
+ */
+final class ManualTimeSource implements TimeSource {
+
+    private long epochMillis;
+    private long nanos;
+
+    ManualTimeSource(long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    void advance(Duration duration) {
+        nanos += duration.toNanos();
+        epochMillis += duration.toMillis();
+    }
+
+    /**
+     * Moves only the wall clock, as an NTP correction or a manual clock change would.
+     */
+    void jumpWallClock(Duration duration) {
+        epochMillis += duration.toMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public long millis() {
+        return epochMillis;
+    }
+
+    @Override
+    public long coarseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
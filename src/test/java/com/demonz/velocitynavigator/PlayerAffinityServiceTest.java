@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -64,4 +65,38 @@ class PlayerAffinityServiceTest {
         assertFalse(service.getAffinity(playerId).isPresent());
         assertTrue(service.getAll().isEmpty());
     }
+
+    @Test
+    void spillsWhenAffinityLobbyIsFarBusierThanBest() {
+        PlayerAffinityService service = new PlayerAffinityService(1.0);
+        UUID playerId = UUID.randomUUID();
+        service.setAffinity(playerId, "lobby-1");
+        List<String> candidates = List.of("lobby-1", "lobby-2");
+
+        assertEquals(Optional.of("lobby-1"),
+                service.shouldStick(playerId, candidates, Map.of("lobby-1", 0.5, "lobby-2", 0.3), 0.25, false));
+        assertTrue(service.shouldStick(playerId, candidates, Map.of("lobby-1", 0.98, "lobby-2", 0.2), 0.25, false).isEmpty());
+        assertEquals(1, service.spillCount());
+        assertEquals(Optional.of("lobby-1"), service.shouldStick(playerId, candidates), "Without load data the player sticks");
+    }
+
+    @Test
+    void spilledPlayerKeepsAffinityAsPreference() {
+        PlayerAffinityService service = new PlayerAffinityService(1.0);
+        UUID kept = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        service.setAffinity(kept, "lobby-1");
+        service.setAffinity(moved, "lobby-1");
+        Map<String, Double> utilization = Map.of("lobby-1", 0.9, "lobby-2", 0.1);
+
+        service.shouldStick(kept, List.of("lobby-1", "lobby-2"), utilization, 0.25, true);
+        service.shouldStick(moved, List.of("lobby-1", "lobby-2"), utilization, 0.25, false);
+        service.setAffinity(kept, "lobby-2");
+        service.setAffinity(moved, "lobby-2");
+
+        assertEquals(Optional.of("lobby-1"), service.getAffinity(kept));
+        assertEquals(Optional.of("lobby-2"), service.getAffinity(moved));
+        service.setAffinity(kept, "lobby-2");
+        assertEquals(Optional.of("lobby-2"), service.getAffinity(kept), "The preference only survives one spill");
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionalRoutingTest {
+
+    private static final String REGIONS = """
+            [regional_routing]
+            enabled = true
+            spill_utilization = 0.5
+            lobby_capacity = 10
+
+            [lobby_attributes.servers]
+            "eu-1" = { region = "eu" }
+            "eu-2" = { region = "EU" }
+            "na-1" = { region = "na" }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void keepsPlayersInTheirRegionUntilItPassesSpillUtilization() throws Exception {
+        Config config = load(REGIONS, "eu-1", "eu-2", "na-1");
+        RegionalRouting regional = new RegionalRouting();
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setRegionalRouting(regional);
+        UUID player = UUID.randomUUID();
+        regional.resolve(player, List.of("DE", "EU"), false);
+
+        assertEquals("eu", regional.regionOf(player, config));
+        assertEquals("eu-1", planner.plan("", config, Map.of("eu-1", 3, "eu-2", 4, "na-1", 0), player).selectedServer());
+        // 11 of 20 slots in use is past 0.5, so the player may spill to the empty NA lobby
+        assertEquals("na-1", planner.plan("", config, Map.of("eu-1", 6, "eu-2", 5, "na-1", 0), player).selectedServer());
+        // Without a known region every lobby competes
+        assertEquals("na-1", planner.plan("", config, Map.of("eu-1", 3, "eu-2", 4, "na-1", 0), UUID.randomUUID()).selectedServer());
+    }
+
+    @Test
+    void spillsWhenNoLobbyInTheRegionIsOnline() throws Exception {
+        Config config = load(REGIONS, "eu-1", "eu-2", "na-1");
+        RegionalRouting regional = new RegionalRouting();
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setRegionalRouting(regional);
+        UUID player = UUID.randomUUID();
+        regional.resolve(player, List.of("na"), false);
+
+        assertEquals("eu-1", planner.plan("", config, Map.of("eu-1", 8, "eu-2", 9), player).selectedServer());
+    }
+
+    @Test
+    void estimatesRegionFromPlayerPingAndLobbyLatency() throws Exception {
+        Config config = load(REGIONS, "eu-1", "eu-2", "na-1");
+        RegionalRouting regional = new RegionalRouting();
+        Map<String, Long> latencies = Map.of("eu-1", 4L, "eu-2", 9L, "na-1", 92L);
+
+        assertEquals("eu", regional.estimate(config, 35, latencies));
+        assertEquals("na", regional.estimate(config, 110, latencies));
+        assertNull(regional.estimate(config, -1, latencies));
+        assertNull(regional.estimate(config, 50, Map.of()));
+
+        UUID player = UUID.randomUUID();
+        assertTrue(regional.needsEstimate(player));
+        regional.resolve(player, List.of("na"), true);
+        assertTrue(regional.needsEstimate(player));
+        regional.resolve(player, List.of("us", "na"), false);
+        assertFalse(regional.needsEstimate(player));
+    }
+
+    @Test
+    void splitsEveryGroupByRegionOncePerConfig() throws Exception {
+        Config config = load("""
+                [routing.contextual.groups]
+                "bedwars" = { servers = ["bw-eu", "bw-na"] }
+                """ + REGIONS.replace("\"na-1\" = { region = \"na\" }", "\"na-1\" = { region = \"na\" }\n\"bw-eu\" = { region = \"eu\" }"),
+                "eu-1", "eu-2", "na-1");
+        RegionalRouting regional = new RegionalRouting();
+
+        assertEquals(List.of("eu-1", "eu-2"), names(regional.candidates(config, "default", "eu")));
+        assertEquals(List.of("bw-eu"), names(regional.candidates(config, "bedwars", "eu")));
+        assertEquals(List.of(), regional.candidates(config, "bedwars", "na"));
+        assertEquals(0.5, RegionalRouting.utilization(regional.candidates(config, "default", "eu"),
+                OnlineCounts.of(Map.of("eu-1", 6, "eu-2", 4)), 10));
+
+        UUID player = UUID.randomUUID();
+        regional.resolve(player, List.of("eu"), false);
+        Config disabled = load("", "eu-1");
+        assertNull(regional.regionOf(player, disabled));
+    }
+
+    private static List<String> names(List<Config.LobbyEntry> entries) {
+        return entries.stream().map(Config.LobbyEntry::server).toList();
+    }
+
+    private Config load(String toml, String... lobbies) throws Exception {
+        StringBuilder list = new StringBuilder("[");
+        for (int i = 0; i < lobbies.length; i++) {
+            list.append(i == 0 ? "" : ", ").append('"').append(lobbies[i]).append('"');
+        }
+        Files.writeString(tempDir.resolve("navigator.toml"), "config_version = " + Config.CURRENT_VERSION + "\n"
+                + "[routing]\ndefault_lobbies = " + list.append(']') + "\n" + toml);
+        return new ConfigManager(tempDir, LoggerFactory.getLogger("regional-test")).load().config();
+    }
+}
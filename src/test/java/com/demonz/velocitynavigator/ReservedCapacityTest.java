@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservedCapacityTest {
+
+    private static final String STAFF = "velocitynavigator.reserved.staff";
+    private static final String RANKED = "velocitynavigator.reserved.ranked";
+
+    private static Config config(Config.ReservedCapacitySettings reservedCapacity) {
+        Config d = Config.defaults();
+        Config.Routing routing = new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(new Config.LobbyEntry("lobby-1", 20, Config.LobbyEntry.DEFAULT_WEIGHT)),
+                d.routing().contextual(),
+                2,
+                null
+        );
+        return TestConfigs.defaults()
+                .routing(routing)
+                .reservedCapacity(reservedCapacity)
+                .build();
+    }
+
+    private static Config.ReservedCapacitySettings tiers() {
+        return new Config.ReservedCapacitySettings(true, 10.0, List.of(STAFF, RANKED));
+    }
+
+    @Test
+    void publicPlayersStopShortOfReservedSlice() {
+        Config config = config(tiers());
+        ReservedCapacity capacity = new ReservedCapacity();
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setReservedCapacity(capacity);
+        UUID guest = UUID.randomUUID();
+        UUID ranked = UUID.randomUUID();
+        UUID staff = UUID.randomUUID();
+        capacity.resolve(guest, permission -> false, config.reservedCapacity());
+        capacity.resolve(ranked, Set.of(RANKED)::contains, config.reservedCapacity());
+        capacity.resolve(staff, Set.of(STAFF, RANKED)::contains, config.reservedCapacity());
+
+        // 20 slots: the public fills 18, ranked 19 and staff all 20
+        assertTrue(planner.plan("", config, Map.of("lobby-1", 17), guest).hasSelection());
+        assertFalse(planner.plan("", config, Map.of("lobby-1", 18), guest).hasSelection());
+        assertTrue(planner.plan("", config, Map.of("lobby-1", 18), ranked).hasSelection());
+        assertFalse(planner.plan("", config, Map.of("lobby-1", 19), ranked).hasSelection());
+        assertTrue(planner.plan("", config, Map.of("lobby-1", 19), staff).hasSelection());
+        assertFalse(planner.plan("", config, Map.of("lobby-1", 20), staff).hasSelection());
+        assertFalse(planner.plan("", config, Map.of("lobby-1", 18)).hasSelection(), "No player context means public");
+    }
+
+    @Test
+    void disabledSettingsKeepTheFullCap() {
+        Config config = config(new Config.ReservedCapacitySettings(false, 10.0, List.of(STAFF)));
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        planner.setReservedCapacity(new ReservedCapacity());
+
+        assertTrue(planner.plan("", config, Map.of("lobby-1", 19), UUID.randomUUID()).hasSelection());
+        assertEquals(1, planner.freeSlots("default", config, Map.of("lobby-1", 19)));
+    }
+
+    @Test
+    void reservedSlotsAreNotFreeForTheQueue() {
+        Config config = config(tiers());
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+
+        assertEquals(2, planner.freeSlots("default", config, Map.of("lobby-1", 16)));
+        assertTrue(planner.isAtCapacity("default", config, Map.of("lobby-1", 18)));
+    }
+
+    @Test
+    void tiersAreResolvedOncePerSession() {
+        Config.ReservedCapacitySettings settings = tiers();
+        ReservedCapacity capacity = new ReservedCapacity();
+        UUID player = UUID.randomUUID();
+        AtomicInteger checks = new AtomicInteger();
+
+        assertEquals(1, capacity.resolve(player, permission -> {
+            checks.incrementAndGet();
+            return RANKED.equals(permission);
+        }, settings));
+        assertEquals(2, checks.get());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, capacity.tierOf(player, settings.publicTier()));
+        }
+        assertEquals(Map.of(1, 1), capacity.tierCounts());
+
+        capacity.forget(player);
+        assertEquals(settings.publicTier(), capacity.tierOf(player, settings.publicTier()));
+    }
+
+    @Test
+    void aliasSharesTheTierWithoutCountingTwice() {
+        Config.ReservedCapacitySettings settings = tiers();
+        ReservedCapacity capacity = new ReservedCapacity();
+        UUID bedrockId = UUID.randomUUID();
+        UUID javaId = UUID.randomUUID();
+
+        capacity.resolve(bedrockId, RANKED::equals, settings);
+        capacity.alias(javaId, bedrockId);
+
+        assertEquals(1, capacity.tierOf(javaId, settings.publicTier()));
+        assertEquals(Map.of(1, 1), capacity.tierCounts());
+
+        capacity.forget(javaId);
+        assertEquals(settings.publicTier(), capacity.tierOf(javaId, settings.publicTier()));
+        assertEquals(1, capacity.tierOf(bedrockId, settings.publicTier()));
+    }
+}
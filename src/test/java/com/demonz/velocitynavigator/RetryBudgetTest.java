@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    private static final Config.RetryBudgetSettings SETTINGS = new Config.RetryBudgetSettings(true, 10_000, 20.0, 0, 10);
+
+    @Test
+    void retriesAreCappedAtShareOfSuccesses() {
+        RetryBudget budget = new RetryBudget(new ManualTimeSource(10_000_000L));
+        for (int i = 0; i < 50; i++) {
+            budget.recordSuccess();
+        }
+
+        assertEquals(10, budget.allowance(SETTINGS));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry(SETTINGS));
+        }
+        assertFalse(budget.tryAcquireRetry(SETTINGS));
+        assertEquals(10, budget.windowRetries(SETTINGS));
+        assertEquals(1, budget.exhaustedCount());
+    }
+
+    @Test
+    void minimumAllowanceLetsQuietProxyRetry() {
+        RetryBudget budget = new RetryBudget(new ManualTimeSource(10_000_000L));
+        Config.RetryBudgetSettings settings = new Config.RetryBudgetSettings(true, 0, 20.0, 1, 3);
+
+        assertEquals(3, budget.allowance(settings));
+        assertTrue(budget.tryAcquireRetry(settings));
+        assertTrue(budget.tryAcquireRetry(settings));
+        assertTrue(budget.tryAcquireRetry(settings));
+        assertFalse(budget.tryAcquireRetry(settings));
+    }
+
+    @Test
+    void oldSlotsLeaveTheWindow() {
+        ManualTimeSource time = new ManualTimeSource(10_000_000L);
+        RetryBudget budget = new RetryBudget(time);
+        for (int i = 0; i < 10; i++) {
+            budget.recordSuccess();
+        }
+        assertTrue(budget.tryAcquireRetry(SETTINGS));
+        assertTrue(budget.tryAcquireRetry(SETTINGS));
+        assertFalse(budget.tryAcquireRetry(SETTINGS));
+
+        time.advance(Duration.ofSeconds(SETTINGS.windowSeconds()));
+        assertEquals(0, budget.windowRetries(SETTINGS));
+        assertEquals(0, budget.allowance(SETTINGS));
+
+        // Back on the original slot after a full lap of the ring; its old counts must be gone
+        time.advance(Duration.ofSeconds(RetryBudget.MAX_WINDOW_SECONDS - SETTINGS.windowSeconds()));
+        for (int i = 0; i < 5; i++) {
+            budget.recordSuccess();
+        }
+        assertEquals(1, budget.allowance(SETTINGS));
+        assertEquals(0, budget.windowRetries(SETTINGS));
+    }
+
+    @Test
+    void disabledBudgetNeverRefuses() {
+        RetryBudget budget = new RetryBudget(new ManualTimeSource(10_000_000L));
+        Config.RetryBudgetSettings disabled = new Config.RetryBudgetSettings(false, 0, 0.0, 0, 10);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(budget.tryAcquireRetry(disabled));
+        }
+        assertEquals(0, budget.exhaustedCount());
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.demonz.velocitynavigator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -28,6 +29,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RoutePlannerTest {
 
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2", "backup-lobby", "bedwars-1", "bedwars-lobby-1", "bw-1", "bw-2", "bw-lobby-1", "bw-lobby-2", "sw-1"));
+    }
+
     private static Config.Routing defaultRouting() {
         return Config.defaults().routing();
     }
@@ -125,6 +131,30 @@ class RoutePlannerTest {
         assertEquals("lobby-2", decision.selectedServer());
     }
 
+    @Test
+    void countsOnlineServersUnderAnySpellingAndOutsideTheRegistry() {
+        Config config = baseConfig(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(
+                        new Config.LobbyEntry("lobby-1", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT),
+                        new Config.LobbyEntry("Lobby-2", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT),
+                        new Config.LobbyEntry("unregistered-lobby", Config.LobbyEntry.UNCAPPED, Config.LobbyEntry.DEFAULT_WEIGHT)
+                ),
+                defaultRouting().contextual(),
+                2,
+                null
+        ));
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+
+        RouteDecision decision = planner.plan("", config, Map.of("LOBBY-1", 9, "lobby-2", 5, "Unregistered-Lobby", 1));
+
+        assertEquals(List.of("lobby-1", "lobby-2", "unregistered-lobby"), decision.onlineCandidates());
+        assertEquals("unregistered-lobby", decision.selectedServer());
+        assertEquals("lobby-2", planner.plan("", config, Map.of("LOBBY-1", 9, "lobby-2", 5)).selectedServer());
+    }
+
     @Test
     void contextualRoutingMatchesWithMixedCaseSourceServer() {
         Config config = baseConfig(new Config.Routing(
@@ -332,6 +362,31 @@ class RoutePlannerTest {
         assertEquals("lobby-2", decision.selectedServer());
     }
 
+    @Test
+    void playerAffinitySpillsFromNearlyFullLobby() {
+        Config config = baseConfig(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(
+                        new Config.LobbyEntry("lobby-1", 50, Config.LobbyEntry.DEFAULT_WEIGHT),
+                        new Config.LobbyEntry("lobby-2", 50, Config.LobbyEntry.DEFAULT_WEIGHT)
+                ),
+                defaultRouting().contextual(),
+                2,
+                null
+        ));
+
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+        PlayerAffinityService affinityService = new PlayerAffinityService(1.0);
+        UUID playerId = UUID.randomUUID();
+        affinityService.setAffinity(playerId, "lobby-2");
+        planner.setAffinityService(affinityService);
+
+        assertEquals("lobby-2", planner.plan("", config, Map.of("lobby-1", 10, "lobby-2", 20), playerId).selectedServer());
+        assertEquals("lobby-1", planner.plan("", config, Map.of("lobby-1", 10, "lobby-2", 49), playerId).selectedServer());
+    }
+
     @Test
     void lobbyEntryCapExcludesFullServers() {
         Config config = baseConfig(new Config.Routing(
@@ -436,4 +491,25 @@ class RoutePlannerTest {
 
         assertTrue(planner.inspectionTargets("", config).contains("backup-lobby"));
     }
+
+    @Test
+    void capacityCountsOnlyRoutableCappedLobbies() {
+        Config config = baseConfig(new Config.Routing(
+                Config.SelectionMode.LEAST_PLAYERS,
+                false,
+                true,
+                List.of(new Config.LobbyEntry("lobby-1", 10, Config.LobbyEntry.DEFAULT_WEIGHT),
+                        new Config.LobbyEntry("lobby-2", 10, Config.LobbyEntry.DEFAULT_WEIGHT)),
+                defaultRouting().contextual(),
+                2,
+                null
+        ));
+        RoutePlanner planner = new RoutePlanner(new RouteSelectionStrategy());
+
+        assertEquals(3, planner.freeSlots("default", config, Map.of("lobby-1", 8, "lobby-2", 9)));
+        assertTrue(planner.isAtCapacity("default", config, Map.of("lobby-1", 10, "lobby-2", 12)));
+        assertFalse(planner.plan("", config, Map.of("lobby-1", 10, "lobby-2", 12)).hasSelection());
+        assertFalse(planner.isAtCapacity("default", config, Map.of()), "An offline group is not full");
+        assertEquals(-1, planner.freeSlots("default", config, Map.of()));
+    }
 }
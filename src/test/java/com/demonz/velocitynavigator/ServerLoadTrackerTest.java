@@ -15,13 +15,21 @@
  */
 package com.demonz.velocitynavigator;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ServerLoadTrackerTest {
 
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("server-1", "rising", "steady"));
+    }
+
     @Test
     void emaCalculationIsCorrect() {
         // With alpha = 0.3: EMA = alpha * current + (1 - alpha) * previous
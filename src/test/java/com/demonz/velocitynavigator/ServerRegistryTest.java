@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerRegistryTest {
+
+    @Test
+    void internsEverySpellingToOneDenseId() {
+        ServerRegistry registry = new ServerRegistry();
+
+        int lobby = registry.intern("Lobby-1");
+        int other = registry.intern("lobby-2");
+
+        assertEquals(0, lobby);
+        assertEquals(1, other);
+        assertEquals(lobby, registry.intern("LOBBY-1"));
+        assertEquals(lobby, registry.idOf("lobby-1"));
+        assertEquals(ServerRegistry.UNKNOWN, registry.idOf("lobby-3"));
+        assertEquals("lobby-1", registry.name(lobby));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void slotsSpanChunksAndClear() {
+        ServerSlots<String> slots = new ServerSlots<>();
+
+        slots.set(3, "a");
+        slots.set(700, "b");
+        assertEquals("a", slots.get(3));
+        assertEquals("b", slots.computeIfAbsent(700, id -> "c"));
+        assertEquals("c", slots.computeIfAbsent(701, id -> "c"));
+        assertNull(slots.get(ServerRegistry.UNKNOWN));
+
+        slots.clear();
+        assertNull(slots.get(700));
+    }
+
+    @Test
+    void stateIsSharedAcrossNameCasing() {
+        ServerRegistry registry = new ServerRegistry();
+        ServerLoadTracker loads = new ServerLoadTracker(1.0, registry);
+        CircuitBreaker breaker = new CircuitBreaker(1, 30, 1, registry, TimeSource.system());
+        registry.intern("Lobby-1");
+
+        // Raw and normalized names used to land on separate keys
+        loads.update("Lobby-1", 40);
+        loads.update("lobby-1", 10);
+        breaker.recordFailure("LOBBY-1");
+
+        assertEquals(10.0, loads.getEma("LOBBY-1"), 0.001);
+        assertEquals(Map.of("lobby-1", 10.0), loads.snapshot());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("lobby-1"));
+        assertEquals(List.of("lobby-1"), breaker.export().stream().map(CircuitBreaker.SavedState::server).toList());
+        assertFalse(breaker.isAvailable("Lobby-1"));
+    }
+
+    @Test
+    void unknownNamesDoNotUseUpIds() {
+        ServerRegistry registry = new ServerRegistry();
+        registry.intern("lobby-1");
+        DrainService drains = new DrainService(TimeSource.system(), registry);
+        CircuitBreaker breaker = new CircuitBreaker(1, 30, 1, registry, TimeSource.system());
+
+        assertFalse(drains.drain("lobyb-1"), "A typo is refused, not registered");
+        breaker.recordFailure("gone-1");
+        breaker.restore(new CircuitBreaker.SavedState("gone-2", CircuitBreaker.State.OPEN, 1, 1L, 1), false);
+
+        assertTrue(drains.drain("Lobby-1"));
+        assertEquals(1, registry.size());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("gone-1"));
+    }
+
+    @Test
+    void fullRegistryReturnsUnknownInsteadOfThrowing() {
+        ServerRegistry registry = new ServerRegistry();
+        for (int i = 0; i < ServerRegistry.MAX_SERVERS; i++) {
+            registry.intern("server-" + i);
+        }
+
+        assertEquals(ServerRegistry.UNKNOWN, registry.intern("one-too-many"));
+        assertEquals(ServerRegistry.MAX_SERVERS - 1, registry.intern("server-" + (ServerRegistry.MAX_SERVERS - 1)));
+        assertEquals(ServerRegistry.MAX_SERVERS, registry.size());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowStartTrackerTest {
+
+    private static final Config.SlowStartSettings LINEAR = new Config.SlowStartSettings(true, 100, 0.1, Config.SlowStartCurve.LINEAR);
+    private static final Config.SlowStartSettings EXPONENTIAL = new Config.SlowStartSettings(true, 100, 0.1, Config.SlowStartCurve.EXPONENTIAL);
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1"));
+    }
+
+    @Test
+    void firstObservationIsTreatedAsWarm() {
+        SlowStartTracker tracker = new SlowStartTracker();
+        tracker.observe("lobby-1", true);
+
+        assertEquals(1.0, tracker.factor("lobby-1", LINEAR), 0.0001);
+    }
+
+    @Test
+    void circuitBreakerClosingStartsRamp() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        ServerRegistry registry = new ServerRegistry();
+        registry.intern("lobby-1");
+        SlowStartTracker tracker = new SlowStartTracker(time, registry);
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, 1, registry, time);
+        breaker.setSlowStartTracker(tracker);
+
+        breaker.recordFailure("lobby-1");
+        assertEquals(1.0, tracker.factor("lobby-1", LINEAR), 0.0001, "Opening a breaker does not ramp");
+
+        time.advance(Duration.ofSeconds(2));
+        assertTrue(breaker.isAvailable("lobby-1"));
+        breaker.recordSuccess("lobby-1");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("lobby-1"));
+        assertEquals(0.1, tracker.factor("lobby-1", LINEAR), 0.0001);
+
+        tracker.remove("lobby-1");
+        breaker.recordFailure("lobby-1");
+        breaker.close("lobby-1");
+        assertEquals(0.1, tracker.factor("lobby-1", LINEAR), 0.0001, "A breaker closed by another proxy ramps too");
+    }
+
+    @Test
+    void recoveryRampsLinearlyToFull() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        SlowStartTracker tracker = new SlowStartTracker(time);
+        tracker.observe("lobby-1", true);
+        tracker.observe("lobby-1", false);
+        tracker.observe("Lobby-1", true);
+
+        assertEquals(0.1, tracker.factor("lobby-1", LINEAR), 0.0001);
+        time.advance(Duration.ofSeconds(50));
+        assertEquals(0.55, tracker.factor("lobby-1", LINEAR), 0.0001);
+        time.advance(Duration.ofSeconds(50));
+        assertEquals(1.0, tracker.factor("lobby-1", LINEAR), 0.0001);
+        assertTrue(tracker.rampingFactors(LINEAR).isEmpty());
+    }
+
+    @Test
+    void exponentialRampStartsSlowerThanLinear() {
+        ManualTimeSource time = new ManualTimeSource(1_000_000L);
+        SlowStartTracker tracker = new SlowStartTracker(time);
+        tracker.markStarted("lobby-1");
+
+        time.advance(Duration.ofSeconds(50));
+        double exponential = tracker.factor("lobby-1", EXPONENTIAL);
+        assertEquals(Math.sqrt(0.1), exponential, 0.0001);
+        assertTrue(exponential < tracker.factor("lobby-1", LINEAR));
+    }
+
+    @Test
+    void disabledSlowStartNeverRamps() {
+        SlowStartTracker tracker = new SlowStartTracker(new ManualTimeSource(1_000_000L));
+        tracker.markStarted("lobby-1");
+
+        Config.SlowStartSettings disabled = new Config.SlowStartSettings(false, 100, 0.1, Config.SlowStartCurve.LINEAR);
+        assertEquals(1.0, tracker.factor("lobby-1", disabled), 0.0001);
+    }
+
+    @Test
+    void rampingLobbyReceivesReducedShareUnderLeastPlayers() {
+        RouteSelectionStrategy strategy = new RouteSelectionStrategy();
+        List<ServerCandidate> candidates = new ArrayList<>();
+        candidates.add(new ServerCandidate("fresh", 0, 1, 0, -1L, 0.2));
+        candidates.add(new ServerCandidate("warm", 40, 1, 40, -1L, 1.0));
+
+        // Players stay on the lobby they were sent to, as they would on a real network
+        Map<String, Integer> counts = simulate(strategy, candidates, Config.SelectionMode.LEAST_PLAYERS, 1_000);
+
+        assertEquals(0.2, counts.get("fresh") / (counts.get("warm") + 40.0), 0.02, "Fresh lobby fills to its ramp factor of its peer's level");
+    }
+
+    @Test
+    void rampingLobbyGetsRampFactorOfItsNormalShareAmongManyLobbies() {
+        List<ServerCandidate> candidates = new ArrayList<>();
+        candidates.add(new ServerCandidate("fresh", 0, 1, 0, -1L, 0.5));
+        for (int i = 1; i <= 9; i++) {
+            candidates.add(new ServerCandidate("warm-" + i, 0, 1, 0, -1L, 1.0));
+        }
+        // A tenth of traffic when warm; half that while at factor 0.5
+        double expected = 0.5 / 9.5;
+
+        for (Config.SelectionMode mode : List.of(Config.SelectionMode.LEAST_PLAYERS, Config.SelectionMode.ROUND_ROBIN,
+                Config.SelectionMode.WEIGHTED_ROUND_ROBIN, Config.SelectionMode.RANDOM, Config.SelectionMode.POWER_OF_TWO)) {
+            int rounds = 20_000;
+            Map<String, Integer> counts = simulate(new RouteSelectionStrategy(), candidates, mode, rounds);
+            double freshShare = counts.get("fresh") / (double) rounds;
+            assertEquals(expected, freshShare, 0.015, mode + " gave the fresh lobby a share of " + freshShare);
+        }
+    }
+
+    /**
+     * Routes {@code rounds} players, adding each to the lobby it was sent to, and returns
+     * how many each lobby received.
+     */
+    private static Map<String, Integer> simulate(RouteSelectionStrategy strategy, List<ServerCandidate> initial,
+                                                 Config.SelectionMode mode, int rounds) {
+        Map<String, Integer> players = new HashMap<>();
+        Map<String, Integer> received = new HashMap<>();
+        for (ServerCandidate candidate : initial) {
+            players.put(candidate.name(), candidate.playerCount());
+            received.put(candidate.name(), 0);
+        }
+        for (int i = 0; i < rounds; i++) {
+            List<ServerCandidate> candidates = new ArrayList<>();
+            for (ServerCandidate candidate : initial) {
+                int count = players.get(candidate.name());
+                candidates.add(new ServerCandidate(candidate.name(), count, candidate.effectiveWeight(), count, -1L, candidate.rampFactor()));
+            }
+            String chosen = strategy.select(candidates, mode, "default").orElseThrow().name();
+            players.merge(chosen, 1, Integer::sum);
+            received.merge(chosen, 1, Integer::sum);
+        }
+        return received;
+    }
+
+    @Test
+    void rampNeverRemovesTheOnlyCandidate() {
+        RouteSelectionStrategy strategy = new RouteSelectionStrategy();
+        List<ServerCandidate> candidates = List.of(new ServerCandidate("fresh", 0, 1, 0, -1L, 0.01));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("fresh", strategy.select(candidates, Config.SelectionMode.ROUND_ROBIN, "default").orElseThrow().name());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateSnapshotTest {
+
+    @BeforeEach
+    void registerServers() {
+        ServerRegistry.shared().internAll(List.of("lobby-1", "lobby-2", "lobby-3"));
+    }
+
+    private static final long NOW = 1_800_000_000_000L;
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void roundTripsRoutingState() throws IOException {
+        PlayerAffinityService affinity = new PlayerAffinityService(1.0, Duration.ofMinutes(10), 1_000,
+                new ManualTimeSource(NOW));
+        UUID player = UUID.randomUUID();
+        affinity.setAffinity(player, "lobby-2");
+        CircuitBreaker breaker = new CircuitBreaker(1, 30, 1);
+        breaker.recordFailure("lobby-3");
+        ServerLoadTracker loads = new ServerLoadTracker(0.3);
+        loads.update("lobby-1", 40);
+        RoutingStats stats = new RoutingStats();
+        stats.recordRedirect("affinity", "lobby-2");
+
+        StateSnapshot snapshot = new StateSnapshot(dataDirectory.resolve("state.bin"));
+        snapshot.flush(NOW, affinity, breaker, loads, Map.of("lobby-1", 12L), stats);
+        snapshot.close();
+
+        StateSnapshot.Restored restored = new StateSnapshot(dataDirectory.resolve("state.bin")).read(NOW + 5_000L).orElseThrow();
+        assertEquals(5_000L, restored.ageMillis());
+        assertEquals(1, restored.affinities().size());
+        assertEquals(player, restored.affinities().get(0).playerId());
+        assertEquals("lobby-2", restored.affinities().get(0).server());
+        assertTrue(restored.affinities().get(0).expiresAtMillis() >= NOW + 599_000L);
+        assertEquals(CircuitBreaker.State.OPEN, restored.breakers().get(0).state());
+        assertEquals(1L, restored.breakers().get(0).trips());
+        assertEquals(Map.of("lobby-1", 40.0), restored.loads());
+        assertEquals(Map.of("lobby-1", 12L), restored.latencies());
+        assertEquals(Map.of("lobby-2", 1L), restored.connections());
+        assertEquals(Map.of("affinity", Map.of("lobby-2", 1L)), restored.redirects());
+    }
+
+    @Test
+    void flushesOnlyChangedRegions() throws IOException {
+        StateSnapshot snapshot = new StateSnapshot(dataDirectory.resolve("state.bin"));
+        RoutingStats stats = new RoutingStats();
+        ServerLoadTracker loads = new ServerLoadTracker(0.3);
+        loads.update("lobby-1", 10);
+        stats.recordRedirect("affinity", "lobby-2");
+
+        int first = snapshot.flush(NOW, null, null, loads, Map.of(), stats);
+        assertEquals(0, snapshot.flush(NOW + 1_000L, null, null, loads, Map.of(), stats));
+        loads.update("lobby-1", 20);
+        int changed = snapshot.flush(NOW + 2_000L, null, null, loads, Map.of(), stats);
+
+        assertTrue(changed > 0 && changed < first, "Only the load region and the directory are rewritten");
+        assertEquals(2_000L, new StateSnapshot(dataDirectory.resolve("state.bin")).read(NOW + 4_000L).orElseThrow().ageMillis());
+        snapshot.close();
+    }
+
+    @Test
+    void rewritesOnlyChangedAffinityRecords() throws IOException {
+        PlayerAffinityService affinity = new PlayerAffinityService(1.0, Duration.ofMinutes(10), 1_000,
+                new ManualTimeSource(NOW));
+        for (int i = 0; i < 40; i++) {
+            affinity.setAffinity(UUID.randomUUID(), i % 2 == 0 ? "lobby-1" : "lobby-2");
+        }
+        UUID moved = UUID.randomUUID();
+        affinity.setAffinity(moved, "lobby-1");
+        StateSnapshot snapshot = new StateSnapshot(dataDirectory.resolve("state.bin"));
+        snapshot.flush(NOW, affinity, null, null, null, null);
+
+        affinity.setAffinity(moved, "lobby-2");
+        int changed = snapshot.flush(NOW + 1_000L, affinity, null, null, null, null);
+        snapshot.close();
+
+        assertTrue(changed <= StateSnapshot.AFFINITY_RECORD_BYTES + 4 + StateSnapshot.MAX_REGIONS * 13,
+                "One record and the directory, but " + changed + " bytes were written");
+        List<StateSnapshot.SavedAffinity> restored = new StateSnapshot(dataDirectory.resolve("state.bin"))
+                .read(NOW + 1_000L).orElseThrow().affinities();
+        assertEquals(41, restored.size());
+        assertEquals("lobby-2", restored.stream().filter(saved -> saved.playerId().equals(moved))
+                .findFirst().orElseThrow().server());
+    }
+
+    @Test
+    void oldLoadsDecayTowardTheAverage() {
+        Map<String, Double> fresh = StateSnapshot.decayTowardMean(Map.of("lobby-1", 10.0, "lobby-2", 30.0), 0L, 300_000L);
+        Map<String, Double> halfLife = StateSnapshot.decayTowardMean(Map.of("lobby-1", 10.0, "lobby-2", 30.0), 300_000L, 300_000L);
+
+        assertEquals(Map.of("lobby-1", 10.0, "lobby-2", 30.0), fresh);
+        assertEquals(15.0, halfLife.get("lobby-1"), 1e-9);
+        assertEquals(25.0, halfLife.get("lobby-2"), 1e-9);
+    }
+
+    @Test
+    void ignoresDamagedFile() throws IOException {
+        Path file = dataDirectory.resolve("state.bin");
+        StateSnapshot snapshot = new StateSnapshot(file);
+        ServerLoadTracker loads = new ServerLoadTracker(0.3);
+        loads.update("lobby-1", 10);
+        snapshot.flush(NOW, null, null, loads, Map.of(), new RoutingStats());
+        snapshot.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[StateSnapshot.HEADER_BYTES + 3] ^= 0x7F;
+        Files.write(file, bytes);
+
+        assertTrue(new StateSnapshot(file).read(NOW).isEmpty());
+        Files.write(file, ByteBuffer.allocate(8).putInt(0x12345678).array());
+        assertTrue(new StateSnapshot(file).read(NOW).isEmpty());
+    }
+
+    @Test
+    void restoredBreakerStaysOpenUntilItsOriginalCooldownEnds() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 30, 1);
+        breaker.restore(new CircuitBreaker.SavedState("Lobby-1", CircuitBreaker.State.OPEN, 3,
+                System.currentTimeMillis() - 5_000L, 2L), false);
+        breaker.restore(new CircuitBreaker.SavedState("lobby-2", CircuitBreaker.State.OPEN, 3,
+                System.currentTimeMillis() - 60_000L, 1L), false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("lobby-1"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("lobby-2"));
+        assertEquals(Map.of("lobby-1", 2L, "lobby-2", 1L), breaker.getTripCounts());
+    }
+}
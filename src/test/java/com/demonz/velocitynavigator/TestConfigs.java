@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+/**
+ * Builds configs for tests from {@link Config#defaults()}, replacing only the sections a
+ * test cares about, so adding a config section touches this file instead of every test.
+ */
+final class TestConfigs {
+
+    private TestConfigs() {
+    }
+
+    static Builder defaults() {
+        return new Builder(Config.defaults());
+    }
+
+    static final class Builder {
+        private final Config base;
+        private Config.Routing routing;
+        private Config.HealthChecks healthChecks;
+        private Config.ApertureSettings aperture;
+        private Config.AdmissionSettings admission;
+        private Config.ConcurrencySettings concurrency;
+        private Config.RetryBudgetSettings retryBudget;
+        private Config.EvacuationSettings evacuation;
+        private Config.ReservedCapacitySettings reservedCapacity;
+
+        private Builder(Config base) {
+            this.base = base;
+            this.routing = base.routing();
+            this.healthChecks = base.healthChecks();
+            this.aperture = base.aperture();
+            this.admission = base.admission();
+            this.concurrency = base.concurrency();
+            this.retryBudget = base.retryBudget();
+            this.evacuation = base.evacuation();
+            this.reservedCapacity = base.reservedCapacity();
+        }
+
+        Builder routing(Config.Routing routing) {
+            this.routing = routing;
+            return this;
+        }
+
+        Builder healthChecks(Config.HealthChecks healthChecks) {
+            this.healthChecks = healthChecks;
+            return this;
+        }
+
+        Builder aperture(Config.ApertureSettings aperture) {
+            this.aperture = aperture;
+            return this;
+        }
+
+        Builder admission(Config.AdmissionSettings admission) {
+            this.admission = admission;
+            return this;
+        }
+
+        Builder concurrency(Config.ConcurrencySettings concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        Builder retryBudget(Config.RetryBudgetSettings retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        Builder evacuation(Config.EvacuationSettings evacuation) {
+            this.evacuation = evacuation;
+            return this;
+        }
+
+        Builder reservedCapacity(Config.ReservedCapacitySettings reservedCapacity) {
+            this.reservedCapacity = reservedCapacity;
+            return this;
+        }
+
+        Config build() {
+            Config d = base;
+            return new Config(
+                    Config.CURRENT_VERSION,
+                    d.commands(),
+                    routing,
+                    healthChecks,
+                    d.messages(),
+                    d.updateChecker(),
+                    d.metrics(),
+                    d.debug(),
+                    d.circuitBreaker(),
+                    d.degradation(),
+                    d.geoRouting(),
+                    d.notifyOnStartup(),
+                    d.notifyAdminsOnJoin(),
+                    d.startup(),
+                    d.lobbyFallback(),
+                    d.bedrock(),
+                    aperture,
+                    d.slowStart(),
+                    admission,
+                    concurrency,
+                    retryBudget,
+                    evacuation,
+                    d.drain(),
+                    d.rebalance(),
+                    d.queue(),
+                    reservedCapacity,
+                    d.stateSnapshot(),
+                    d.hotReload(),
+                    d.lobbyAttributes(),
+                    d.regionalRouting(),
+                    d.cluster()
+            );
+        }
+    }
+}
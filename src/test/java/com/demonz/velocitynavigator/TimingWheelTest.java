@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 DemonZ Development
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.demonz.velocitynavigator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEachKeyAtItsDeadlineAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(0L);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1 + random.nextInt(300_000);
+            deadlines.add(deadline);
+            wheel.schedule(i, 0L, deadline);
+        }
+
+        long[] firedAt = new long[deadlines.size()];
+        for (long tick = 1; tick <= 300_000; tick += 1 + random.nextInt(500)) {
+            long now = tick;
+            wheel.advance(now, (high, low, deadline) -> firedAt[(int) high] = now);
+        }
+        wheel.advance(300_000L, (high, low, deadline) -> firedAt[(int) high] = 300_000L);
+
+        for (int i = 0; i < deadlines.size(); i++) {
+            long deadline = deadlines.get(i);
+            // Fired by the first advance that reached the deadline, never before it
+            assertTrue(firedAt[i] >= deadline && firedAt[i] - deadline <= 500, "key " + i + " due " + deadline + " fired " + firedAt[i]);
+        }
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextTick() {
+        TimingWheel wheel = new TimingWheel(100L);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(1L, 2L, 50L);
+
+        wheel.advance(101L, (high, low, deadline) -> fired.add(deadline));
+
+        assertEquals(List.of(50L), fired);
+    }
+}